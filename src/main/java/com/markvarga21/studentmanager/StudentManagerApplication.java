@@ -4,6 +4,7 @@ import com.markvarga21.studentmanager.util.Generated;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * A class holding the entrypoint of the application.
@@ -11,6 +12,7 @@ import org.springframework.cache.annotation.EnableCaching;
 @SpringBootApplication
 @Generated
 @EnableCaching
+@EnableScheduling
 public class StudentManagerApplication {
 	/**
 	 * The entrypoint of the application.
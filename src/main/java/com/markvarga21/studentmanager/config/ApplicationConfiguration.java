@@ -19,21 +19,28 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Properties;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Configuration class for setting up the application's beans.
@@ -92,6 +99,31 @@ public class ApplicationConfiguration {
     @Value("${spring.mail.password}")
     private String mailPassword;
 
+    /**
+     * The core number of threads running the validation stages.
+     */
+    @Value("${validation.pipeline.core-threads:8}")
+    private Integer validationCoreThreads;
+
+    /**
+     * The maximum number of threads running the validation stages.
+     */
+    @Value("${validation.pipeline.max-threads:32}")
+    private Integer validationMaxThreads;
+
+    /**
+     * The number of threads hashing the passwords of the provisioned users.
+     */
+    @Value("${auth.provisioning.hashing-threads:2}")
+    private Integer provisioningHashingThreads;
+
+    /**
+     * Whether the pending migrations are applied on startup,
+     * instead of only validating the applied ones.
+     */
+    @Value("${database.migration.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
     /**
      * A custom {@code LocalDate} deserializer.
      */
@@ -109,6 +141,7 @@ public class ApplicationConfiguration {
      * @return The built {@code DocumentAnalysisClient} object.
      */
     @Bean
+    @Profile("!azure-emulator")
     public DocumentAnalysisClient getDocumentanalysisClient() {
         return new DocumentAnalysisClientBuilder()
                 .credential(new AzureKeyCredential(this.formRecognizerKey))
@@ -142,6 +175,42 @@ public class ApplicationConfiguration {
         return new RestTemplate();
     }
 
+    /**
+     * A bean created for running the independent stages of the
+     * validations concurrently. It has no queue and runs the stage
+     * on the caller thread when saturated, so stages started from
+     * other stages cannot starve each other.
+     *
+     * @return The created bean.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor validationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(this.validationCoreThreads);
+        executor.setMaxPoolSize(this.validationMaxThreads);
+        executor.setQueueCapacity(0);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("validation-");
+        return executor;
+    }
+
+    /**
+     * A bean created for hashing the passwords of the provisioned
+     * users. The hashing itself runs on the pool of the password
+     * encoder, so this executor only bounds how many of its threads
+     * a provisioning request takes from the logins.
+     *
+     * @return The created bean.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor provisioningExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(this.provisioningHashingThreads);
+        executor.setMaxPoolSize(this.provisioningHashingThreads);
+        executor.setThreadNamePrefix("provisioning-hashing-");
+        return executor;
+    }
+
     /**
      * A bean created for caching the data.
      *
@@ -164,6 +233,79 @@ public class ApplicationConfiguration {
                 .build();
     }
 
+    /**
+     * A bean created for receiving the messages published
+     * on Redis channels by the other nodes.
+     *
+     * @param redisConnectionFactory The connection factory for Redis.
+     * @return The created bean.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            final RedisConnectionFactory redisConnectionFactory
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+
+    /**
+     * A bean created for replaying the responses of the
+     * retried uploads and student creations.
+     *
+     * @param redisTemplate The template used for storing the responses.
+     * @param gson The JSON mapper of the stored responses.
+     * @return The created bean.
+     */
+    @Bean
+    public IdempotencyFilter idempotencyFilter(
+            final StringRedisTemplate redisTemplate,
+            final Gson gson
+    ) {
+        return new IdempotencyFilter(redisTemplate, gson);
+    }
+
+    /**
+     * A bean restricting the idempotency filter to the expensive
+     * mutations. It runs after the security filters, so the
+     * responses are stored per user.
+     *
+     * @param idempotencyFilter The idempotency filter.
+     * @return The created bean.
+     */
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilterRegistration(
+            final IdempotencyFilter idempotencyFilter
+    ) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(idempotencyFilter);
+        registration.addUrlPatterns(
+                "/api/v1/files/upload/*",
+                "/api/v1/files/changeImage/*",
+                "/api/v1/files/uploads/*",
+                "/api/v1/students"
+        );
+        return registration;
+    }
+
+    /**
+     * A bean deciding what happens to the schema on startup. The
+     * migrations are applied by the deployment, so by default the
+     * startup only validates the checksums of the applied migrations
+     * and fails if any of them is missing.
+     *
+     * @return The created bean.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            if (this.migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                flyway.validate();
+            }
+        };
+    }
+
     /**
      * A bean created for sending emails.
      *
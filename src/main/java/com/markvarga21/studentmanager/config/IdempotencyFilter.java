@@ -0,0 +1,591 @@
+package com.markvarga21.studentmanager.config;
+
+import com.google.gson.Gson;
+import com.markvarga21.studentmanager.dto.IdempotentResponse;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.exception.util.ApiError;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A filter which makes the expensive mutations idempotent. The first
+ * request sent with an {@code Idempotency-Key} header claims the key in
+ * Redis, and its response is stored for a while and replayed to the
+ * retries. Retries arriving while the first request is still running
+ * are answered at once with a conflict telling when to retry, and the
+ * running request keeps renewing its claim until it finishes. Requests
+ * reusing a key with a different payload are rejected. Only successful
+ * responses and the client errors a retry would get again are stored,
+ * any other response releases the key, so the request can be retried.
+ */
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class IdempotencyFilter extends OncePerRequestFilter {
+    /**
+     * The header holding the idempotency key.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * The header marking the replayed responses.
+     */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * The prefix of the Redis keys.
+     */
+    static final String KEY_PREFIX = "idempotency:";
+
+    /**
+     * The prefix of the values of the keys whose request is still
+     * running, followed by the hash of the request and its owner.
+     */
+    static final String IN_PROGRESS = "in-progress";
+
+    /**
+     * The separator of the parts of the in-progress values.
+     */
+    static final String SEPARATOR = ":";
+
+    /**
+     * The maximum length of an idempotency key.
+     */
+    static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The number of renewals within the lifetime of a claim.
+     */
+    private static final int RENEWALS_PER_LOCK = 3;
+
+    /**
+     * The client errors which only depend on the request itself,
+     * so a retry of the same request would get them again.
+     */
+    private static final Set<Integer> DETERMINISTIC_CLIENT_ERRORS = Set.of(
+            HttpStatus.BAD_REQUEST.value(),
+            HttpStatus.UNPROCESSABLE_ENTITY.value()
+    );
+
+    /**
+     * Extends the claim of a key only if it is still held by the owner.
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class
+    );
+
+    /**
+     * Deletes the claim of a key only if it is still held by the owner.
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    /**
+     * The template used for storing the responses.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * The JSON mapper of the stored responses.
+     */
+    private final Gson gson;
+
+    /**
+     * The time the responses are replayed for in hours.
+     */
+    @Value("${idempotency.response-ttl-hours:24}")
+    private long responseTtlHours;
+
+    /**
+     * The lifetime of a claim in seconds. The running request renews
+     * it, so it only expires if the node holding it has died.
+     */
+    @Value("${idempotency.lock-seconds:30}")
+    private long lockSeconds;
+
+    /**
+     * The time a retry is told to wait while the first
+     * request is still running, in seconds.
+     */
+    @Value("${idempotency.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    /**
+     * The scheduler renewing the claims of the running requests.
+     */
+    private ScheduledExecutorService lockRenewer;
+
+    /**
+     * Creates the scheduler renewing the claims.
+     */
+    @PostConstruct
+    public void init() {
+        this.lockRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-lock-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shuts down the scheduler renewing the claims.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.lockRenewer.shutdownNow();
+    }
+
+    /**
+     * Only the {@code POST} requests sent with an idempotency key
+     * are filtered.
+     *
+     * @param request The HTTP request.
+     * @return Whether the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    /**
+     * Runs the request once per idempotency key, replaying
+     * its response to the retries.
+     *
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet exception occurs.
+     * @throws IOException If an input or output exception occurs.
+     */
+    @Override
+    protected void doFilterInternal(
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain filterChain
+    ) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            this.writeError(
+                    response,
+                    HttpStatus.BAD_REQUEST,
+                    String.format("The %s header must have 1 to %d characters!", IDEMPOTENCY_KEY_HEADER, MAX_KEY_LENGTH)
+            );
+            return;
+        }
+        HttpServletRequest hashedRequest = request;
+        String requestHash;
+        if (isMultipart(request)) {
+            requestHash = hashParts(request);
+        } else {
+            byte[] body = request.getInputStream().readAllBytes();
+            requestHash = hash(request.getQueryString(), body);
+            hashedRequest = new CachedBodyRequest(request, body);
+        }
+        String key = this.toRedisKey(request, idempotencyKey);
+        String lockValue = String.join(SEPARATOR, IN_PROGRESS, requestHash, UUID.randomUUID().toString());
+        try {
+            Boolean claimed = this.redisTemplate.opsForValue()
+                    .setIfAbsent(key, lockValue, Duration.ofSeconds(this.lockSeconds));
+            if (Boolean.TRUE.equals(claimed)) {
+                this.execute(key, lockValue, hashedRequest, response, filterChain);
+                return;
+            }
+            String stored = this.redisTemplate.opsForValue().get(key);
+            if (stored == null) {
+                this.writeInProgress(response);
+                return;
+            }
+            if (stored.startsWith(IN_PROGRESS)) {
+                String[] lock = stored.split(SEPARATOR);
+                if (lock.length > 1 && !lock[1].equals(requestHash)) {
+                    this.writeMismatch(response);
+                    return;
+                }
+                this.writeInProgress(response);
+                return;
+            }
+            IdempotentResponse idempotentResponse = this.gson.fromJson(stored, IdempotentResponse.class);
+            if (idempotentResponse.getRequestHash() != null
+                    && !idempotentResponse.getRequestHash().equals(requestHash)) {
+                this.writeMismatch(response);
+                return;
+            }
+            this.replay(idempotentResponse, response);
+        } catch (DataAccessException exception) {
+            log.warn("Idempotency store is unavailable, running the request without it", exception);
+            if (!response.isCommitted()) {
+                filterChain.doFilter(hashedRequest, response);
+            }
+        }
+    }
+
+    /**
+     * Runs the request and stores its response, or releases
+     * the key if the request failed. The claim is renewed
+     * while the request is running.
+     *
+     * @param key The Redis key claimed by the request.
+     * @param lockValue The value claiming the key.
+     * @param request The HTTP request.
+     * @param response The HTTP response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If a servlet exception occurs.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private void execute(
+            final String key,
+            final String lockValue,
+            final HttpServletRequest request,
+            final HttpServletResponse response,
+            final FilterChain filterChain
+    ) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        long renewalMillis = TimeUnit.SECONDS.toMillis(this.lockSeconds) / RENEWALS_PER_LOCK;
+        ScheduledFuture<?> renewal = this.lockRenewer.scheduleAtFixedRate(
+                () -> this.renew(key, lockValue),
+                renewalMillis,
+                renewalMillis,
+                TimeUnit.MILLISECONDS
+        );
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            renewal.cancel(false);
+            if (isStorable(responseWrapper.getStatus())) {
+                IdempotentResponse idempotentResponse = new IdempotentResponse(
+                        responseWrapper.getStatus(),
+                        responseWrapper.getContentType(),
+                        Base64.getEncoder().encodeToString(responseWrapper.getContentAsByteArray()),
+                        lockValue.split(SEPARATOR)[1]
+                );
+                this.redisTemplate.opsForValue().set(
+                        key,
+                        this.gson.toJson(idempotentResponse),
+                        Duration.ofHours(this.responseTtlHours)
+                );
+                stored = true;
+            }
+        } catch (DataAccessException exception) {
+            log.warn("Cannot store the response for idempotency key '{}'", key, exception);
+        } finally {
+            renewal.cancel(false);
+            if (!stored) {
+                this.release(key, lockValue);
+            }
+        }
+        responseWrapper.copyBodyToResponse();
+    }
+
+    /**
+     * Extends the claim of a running request.
+     *
+     * @param key The Redis key.
+     * @param lockValue The value claiming the key.
+     */
+    private void renew(final String key, final String lockValue) {
+        try {
+            this.redisTemplate.execute(
+                    RENEW_SCRIPT,
+                    List.of(key),
+                    lockValue,
+                    String.valueOf(TimeUnit.SECONDS.toMillis(this.lockSeconds))
+            );
+        } catch (DataAccessException exception) {
+            log.warn("Cannot renew idempotency key '{}'", key, exception);
+        }
+    }
+
+    /**
+     * Writes a stored response.
+     *
+     * @param idempotentResponse The stored response.
+     * @param response The HTTP response.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private void replay(
+            final IdempotentResponse idempotentResponse,
+            final HttpServletResponse response
+    ) throws IOException {
+        response.setStatus(idempotentResponse.getStatus());
+        if (idempotentResponse.getContentType() != null) {
+            response.setContentType(idempotentResponse.getContentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream()
+                .write(Base64.getDecoder().decode(idempotentResponse.getBody()));
+    }
+
+    /**
+     * Releases the key of a failed request, so it can be retried.
+     *
+     * @param key The Redis key.
+     * @param lockValue The value claiming the key.
+     */
+    private void release(final String key, final String lockValue) {
+        try {
+            this.redisTemplate.execute(RELEASE_SCRIPT, List.of(key), lockValue);
+        } catch (DataAccessException exception) {
+            log.warn("Cannot release idempotency key '{}', it expires on its own", key, exception);
+        }
+    }
+
+    /**
+     * Tells a retry that the first request is still running.
+     *
+     * @param response The HTTP response.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private void writeInProgress(final HttpServletResponse response) throws IOException {
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(this.retryAfterSeconds));
+        this.writeError(
+                response,
+                HttpStatus.CONFLICT,
+                "A request with the same idempotency key is still in progress!"
+        );
+    }
+
+    /**
+     * Rejects a request reusing an idempotency key with another payload.
+     *
+     * @param response The HTTP response.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private void writeMismatch(final HttpServletResponse response) throws IOException {
+        this.writeError(
+                response,
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "The idempotency key has already been used for a different request!"
+        );
+    }
+
+    /**
+     * Writes an error response.
+     *
+     * @param response The HTTP response.
+     * @param status The status of the error.
+     * @param message The message of the error.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private void writeError(
+            final HttpServletResponse response,
+            final HttpStatus status,
+            final String message
+    ) throws IOException {
+        ApiError apiError = new ApiError(new Date(), status, message, OperationType.CREATE, null);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().println(this.gson.toJson(apiError));
+    }
+
+    /**
+     * Builds the Redis key of a request, scoped to the user and the
+     * endpoint, so the same key sent by others is not replayed to them.
+     *
+     * @param request The HTTP request.
+     * @param idempotencyKey The idempotency key of the request.
+     * @return The Redis key.
+     */
+    private String toRedisKey(
+            final HttpServletRequest request,
+            final String idempotencyKey
+    ) {
+        Authentication authentication = SecurityContextHolder
+                .getContext()
+                .getAuthentication();
+        String username = authentication == null ? "anonymous" : authentication.getName();
+        return KEY_PREFIX + username + ":" + request.getRequestURI() + ":" + idempotencyKey;
+    }
+
+    /**
+     * Hashes the query string and the body of a request.
+     *
+     * @param queryString The query string of the request, or {@code null}.
+     * @param body The body of the request.
+     * @return The hexadecimal hash of the request.
+     */
+    static String hash(final String queryString, final byte[] body) {
+        MessageDigest digest = ContentHasher.newDigest();
+        if (queryString != null) {
+            digest.update(queryString.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes the query string and the parts of a multipart request.
+     * The parts are hashed one by one instead of the raw body, whose
+     * boundary usually differs between the retries.
+     *
+     * @param request The multipart request.
+     * @return The hexadecimal hash of the request.
+     * @throws ServletException If the request cannot be parsed.
+     * @throws IOException If an input or output exception occurs.
+     */
+    private static String hashParts(final HttpServletRequest request) throws ServletException, IOException {
+        MessageDigest digest = ContentHasher.newDigest();
+        if (request.getQueryString() != null) {
+            digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+        }
+        List<Part> parts = request.getParts()
+                .stream()
+                .sorted(Comparator.comparing(Part::getName))
+                .toList();
+        for (Part part : parts) {
+            digest.update((byte) 0);
+            digest.update(part.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (part.getSubmittedFileName() != null) {
+                digest.update(part.getSubmittedFileName().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            try (InputStream content = part.getInputStream()) {
+                content.transferTo(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Checks whether a response is replayed to the retries. Authorization
+     * failures and conflicts depend on the state at the time of the
+     * request, so they are not stored.
+     *
+     * @param status The status of the response.
+     * @return Whether the response is stored.
+     */
+    private static boolean isStorable(final int status) {
+        return HttpStatusCode.valueOf(status).is2xxSuccessful()
+                || DETERMINISTIC_CLIENT_ERRORS.contains(status);
+    }
+
+    /**
+     * Checks whether a request has a multipart body, which is
+     * hashed part by part instead of as a whole.
+     *
+     * @param request The request.
+     * @return Whether the request is a multipart request.
+     */
+    private static boolean isMultipart(final HttpServletRequest request) {
+        return request.getContentType() != null
+                && request.getContentType().toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    /**
+     * A request whose body has already been read for hashing,
+     * serving the read body to the rest of the chain.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        /**
+         * The body of the request.
+         */
+        private final byte[] body;
+
+        /**
+         * Wraps a request whose body has been read.
+         *
+         * @param request The wrapped request.
+         * @param body The read body.
+         */
+        CachedBodyRequest(final HttpServletRequest request, final byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(this.body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(final ReadListener readListener) {
+                    throw new UnsupportedOperationException("The body has already been read");
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = this.getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8
+                    : Charset.forName(this.getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(this.getInputStream(), charset));
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.markvarga21.studentmanager.config.security;
 
+import com.markvarga21.studentmanager.service.auth.RefreshTokenService;
+import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -12,10 +14,22 @@ import java.io.IOException;
 
 /**
  * The logout success handler for the application.
+ * It revokes the token the user has logged out with,
+ * and the refresh token family if one is sent along.
  */
 @Component
 @RequiredArgsConstructor
 public class AppLogoutSuccessHandler implements LogoutSuccessHandler {
+    /**
+     * The service for managing JWT tokens.
+     */
+    private final JwtService jwtService;
+
+    /**
+     * The service for renewing sessions with refresh tokens.
+     */
+    private final RefreshTokenService refreshTokenService;
+
     /**
      * Handles a successful logout.
      *
@@ -31,6 +45,16 @@ public class AppLogoutSuccessHandler implements LogoutSuccessHandler {
             final HttpServletResponse response,
             final Authentication authentication
     ) throws IOException, ServletException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            this.jwtService.revokeToken(
+                    header.substring(JwtAuthFilter.TOKEN_START_INDEX)
+            );
+        }
+        String refreshToken = request.getHeader(SecurityConfiguration.REFRESH_TOKEN_HEADER);
+        if (refreshToken != null) {
+            this.refreshTokenService.revoke(refreshToken);
+        }
         response.setStatus(HttpServletResponse.SC_OK);
     }
 }
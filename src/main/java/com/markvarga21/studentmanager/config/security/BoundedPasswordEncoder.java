@@ -0,0 +1,202 @@
+package com.markvarga21.studentmanager.config.security;
+
+import com.markvarga21.studentmanager.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A password encoder running the hashing of the delegate on a
+ * dedicated, bounded pool, so a burst of logins waits in a queue
+ * of limited size instead of occupying every request thread.
+ * When the queue is full, the request is rejected right away, and
+ * a request waiting longer than the timeout gives up its thread.
+ * Since every queued request parks a request thread, the queue is
+ * meant to hold only a few times as many requests as there are
+ * hashing threads.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    /**
+     * The number of seconds after which a rejected client can retry.
+     */
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    /**
+     * The encoder doing the actual hashing.
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * The pool running the hashing.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * The maximum time a caller waits for the hashing in milliseconds.
+     */
+    private final long timeoutMillis;
+
+    /**
+     * The time the hashing requests spend in the queue.
+     */
+    private final Timer queueTimer;
+
+    /**
+     * The time the hashing itself takes.
+     */
+    private final Timer hashingTimer;
+
+    /**
+     * The number of requests rejected due to a full queue.
+     */
+    private final Counter rejections;
+
+    /**
+     * Creates an encoder.
+     *
+     * @param delegate The encoder doing the actual hashing.
+     * @param threads The number of hashing threads.
+     * @param queueCapacity The maximum number of waiting requests.
+     * @param timeoutMillis The maximum time a caller waits in milliseconds.
+     * @param meterRegistry The registry of the metrics.
+     */
+    public BoundedPasswordEncoder(
+            final PasswordEncoder delegate,
+            final int threads,
+            final int queueCapacity,
+            final long timeoutMillis,
+            final MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.queueTimer = Timer.builder("auth.password.queue")
+                .description("The time password hashing requests wait for a thread")
+                .register(meterRegistry);
+        this.hashingTimer = Timer.builder("auth.password.hashing")
+                .description("The time the hashing of a password takes")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.rejections")
+                .description("The number of password hashing requests rejected due to a full queue")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", this.executor, pool -> pool.getQueue().size())
+                .description("The number of password hashing requests waiting for a thread")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encodes the raw password on the hashing pool.
+     *
+     * @param rawPassword The raw password.
+     * @return The encoded password.
+     */
+    @Override
+    public String encode(final CharSequence rawPassword) {
+        return this.run(() -> this.delegate.encode(rawPassword));
+    }
+
+    /**
+     * Verifies the raw password on the hashing pool.
+     *
+     * @param rawPassword The raw password.
+     * @param encodedPassword The stored encoded password.
+     * @return {@code true} if the passwords match.
+     */
+    @Override
+    public boolean matches(
+            final CharSequence rawPassword,
+            final String encodedPassword
+    ) {
+        return this.run(() -> this.delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Checks if the encoded password should be encoded again.
+     *
+     * @param encodedPassword The stored encoded password.
+     * @return {@code true} if the password should be encoded again.
+     */
+    @Override
+    public boolean upgradeEncoding(final String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Stops the hashing threads.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     *
+     * @param task The hashing task.
+     * @param <T> The type of the result.
+     * @return The result of the task.
+     */
+    private <T> T run(final Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = this.executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                this.queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    this.hashingTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            this.rejections.increment();
+            throw new LoginCapacityExceededException(
+                    "Too many logins in progress, please try again later.",
+                    RETRY_AFTER_SECONDS
+            );
+        }
+        try {
+            return future.get(this.timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            future.cancel(true);
+            throw new LoginCapacityExceededException(
+                    "The login has timed out, please try again later.",
+                    RETRY_AFTER_SECONDS
+            );
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while hashing a password", exception);
+        } catch (ExecutionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(exception.getCause());
+        }
+    }
+}
@@ -1,27 +1,51 @@
 package com.markvarga21.studentmanager.config.security;
 
+import com.markvarga21.studentmanager.service.auth.AppUserChangedEvent;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
+import com.markvarga21.studentmanager.service.file.impl.SignedImageUrlServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * This class is responsible for filtering the requests and responses
- * while checking the user's permissions/roles.
+ * while checking the user's permissions/roles. In stateless mode the
+ * authorities are taken from the signed token, and they are only checked
+ * against a bounded cache of the users' current roles, so that deleted
+ * users and revoked roles are rejected without querying the database
+ * on every request.
  */
 @Configuration
 @RequiredArgsConstructor
+@Slf4j
+@Setter
 public class JwtAuthFilter extends OncePerRequestFilter {
     /**
      * The service for managing JWT tokens.
@@ -33,12 +57,80 @@ public class JwtAuthFilter extends OncePerRequestFilter {
      */
     private final UserDetailsService userDetailsService;
 
+    /**
+     * The registry the authentication latency is recorded in.
+     */
+    private final MeterRegistry meterRegistry;
+
     /**
      * The index where the token starts in the Authorization
      * header value.
      */
     static final int TOKEN_START_INDEX = 7;
 
+    /**
+     * The name of the authentication latency metric.
+     */
+    static final String AUTH_LATENCY_METRIC = "auth.request.latency";
+
+    /**
+     * Whether the authorities are taken from the signed token.
+     */
+    @Value("${jwt.auth.stateless:true}")
+    private boolean statelessAuthentication;
+
+    /**
+     * The maximum number of users whose status is cached.
+     */
+    @Value("${jwt.auth.user-status.max-entries:10000}")
+    private int userStatusMaxEntries;
+
+    /**
+     * The time after a cached user status expires in seconds.
+     */
+    @Value("${jwt.auth.user-status.ttl-seconds:60}")
+    private long userStatusTimeToLiveSeconds;
+
+    /**
+     * The cached current authorities of the users.
+     */
+    private UserStatusCache userStatusCache;
+
+    /**
+     * Creates the user status cache.
+     */
+    @PostConstruct
+    public void init() {
+        this.userStatusCache = new UserStatusCache(
+                this.userStatusMaxEntries,
+                this.userStatusTimeToLiveSeconds
+        );
+    }
+
+    /**
+     * Drops the cached status of a user once
+     * its change has been committed.
+     *
+     * @param event The event describing the change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppUserChanged(final AppUserChangedEvent event) {
+        this.userStatusCache.evict(event.getUsername());
+    }
+
+    /**
+     * The signed images are authorized by their URL alone,
+     * so their requests skip the token checks.
+     *
+     * @param request The request object.
+     * @return Whether the request is not filtered.
+     */
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return request.getServletPath()
+                .startsWith(SignedImageUrlServiceImpl.SIGNED_IMAGES_PATH);
+    }
+
     /**
      * Method for internal filtering.
      *
@@ -60,24 +152,116 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
         String token = header.substring(TOKEN_START_INDEX);
+        long start = System.nanoTime();
+        boolean authenticated = false;
+        try {
+            authenticated = this.authenticate(token, request);
+        } finally {
+            Timer.builder(AUTH_LATENCY_METRIC)
+                    .description("The time spent authenticating a bearer token")
+                    .tag("mode", this.statelessAuthentication ? "stateless" : "database")
+                    .tag("outcome", authenticated ? "authenticated" : "unauthenticated")
+                    .register(this.meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Authenticates the request with the given token.
+     *
+     * @param token The JWT token.
+     * @param request The request object.
+     * @return {@code true} if the request has been authenticated.
+     */
+    private boolean authenticate(
+            final String token,
+            final HttpServletRequest request
+    ) {
         String username = this.jwtService.getUsername(token);
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService
-                    .loadUserByUsername(username);
-            if (userDetails != null && jwtService.isValidToken(token)) {
-                UsernamePasswordAuthenticationToken authenticationToken =
-                        new UsernamePasswordAuthenticationToken(
-                                username,
-                                userDetails.getPassword(),
-                                userDetails.getAuthorities()
-                        );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource()
-                        .buildDetails(request));
-                SecurityContextHolder
-                        .getContext()
-                        .setAuthentication(authenticationToken);
-            }
-            filterChain.doFilter(request, response);
+        if (username == null
+                || SecurityContextHolder.getContext().getAuthentication() != null
+                || !this.jwtService.isValidToken(token)) {
+            return false;
+        }
+        UsernamePasswordAuthenticationToken authenticationToken = this.statelessAuthentication
+                ? this.authenticateFromClaims(username, token)
+                : this.authenticateFromDatabase(username);
+        if (authenticationToken == null) {
+            return false;
+        }
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource()
+                .buildDetails(request));
+        SecurityContextHolder
+                .getContext()
+                .setAuthentication(authenticationToken);
+        return true;
+    }
+
+    /**
+     * Builds the authentication from the signed roles claim, rejecting
+     * the token if the user has been deleted or its roles have changed
+     * since the token has been issued.
+     *
+     * @param username The username of the user.
+     * @param token The JWT token.
+     * @return The authentication, or {@code null} if the token is stale.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromClaims(
+            final String username,
+            final String token
+    ) {
+        Set<String> roles = this.jwtService.getRoles(token);
+        Optional<Set<String>> currentRoles = this.userStatusCache
+                .getStatus(username, this::loadCurrentRoles);
+        if (currentRoles.isEmpty() || !currentRoles.get().equals(roles)) {
+            log.warn("Rejecting stale token of user '{}'", username);
+            return null;
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new UsernamePasswordAuthenticationToken(
+                username,
+                null,
+                authorities
+        );
+    }
+
+    /**
+     * Builds the authentication from the user stored in the database.
+     *
+     * @param username The username of the user.
+     * @return The authentication.
+     */
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(
+            final String username
+    ) {
+        UserDetails userDetails = this.userDetailsService
+                .loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(
+                username,
+                userDetails.getPassword(),
+                userDetails.getAuthorities()
+        );
+    }
+
+    /**
+     * Loads the current authorities of the user.
+     *
+     * @param username The username of the user.
+     * @return The authorities, or an empty status if the user does not exist.
+     */
+    private Optional<Set<String>> loadCurrentRoles(final String username) {
+        try {
+            Collection<? extends GrantedAuthority> authorities = this.userDetailsService
+                    .loadUserByUsername(username)
+                    .getAuthorities();
+            return Optional.of(authorities.stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toUnmodifiableSet()));
+        } catch (UsernameNotFoundException exception) {
+            return Optional.empty();
         }
     }
 }
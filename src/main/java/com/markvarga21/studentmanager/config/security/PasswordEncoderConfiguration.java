@@ -0,0 +1,65 @@
+package com.markvarga21.studentmanager.config.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * The configuration of the password encoder. It is kept apart from
+ * the security configuration, so the services hashing passwords do
+ * not depend on the user details service the security is built on.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class PasswordEncoderConfiguration {
+    /**
+     * The log rounds of the BCrypt password hashing.
+     */
+    public static final int BCRYPT_STRENGTH = 10;
+
+    /**
+     * The registry of the application's metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of threads hashing the passwords.
+     */
+    @Value("${auth.password-hashing.threads:4}")
+    private Integer passwordHashingThreads;
+
+    /**
+     * The maximum number of password hashing requests waiting for a thread.
+     * Every waiting request holds a request thread, so it is kept to a
+     * small multiple of the hashing threads, far below the connector's.
+     */
+    @Value("${auth.password-hashing.queue-capacity:8}")
+    private Integer passwordHashingQueueCapacity;
+
+    /**
+     * The maximum time a request waits for its password to be hashed.
+     */
+    @Value("${auth.password-hashing.timeout-millis:2000}")
+    private Long passwordHashingTimeoutMillis;
+
+    /**
+     * The password encoder bean. The hashing runs on a bounded
+     * pool, so a burst of logins cannot take every request thread.
+     *
+     * @return a {@code BCryptPasswordEncoder} object running on a bounded pool.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(BCRYPT_STRENGTH),
+                this.passwordHashingThreads,
+                this.passwordHashingQueueCapacity,
+                this.passwordHashingTimeoutMillis,
+                this.meterRegistry
+        );
+    }
+}
@@ -23,7 +23,6 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -45,6 +44,11 @@ public class SecurityConfiguration {
      */
     static final String BASE_AUTH_URL = "/api/v1/auth";
 
+    /**
+     * The header carrying the refresh tokens.
+     */
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
+
     /**
      * The {@code AppUserDetailsService} object.
      */
@@ -81,7 +85,8 @@ public class SecurityConfiguration {
         CorsConfiguration corsConfiguration = new CorsConfiguration();
         corsConfiguration.setAllowedOrigins(List.of(this.frontendUrl));
         corsConfiguration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        corsConfiguration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Access-Control-Allow-Origin", "X-Requested-With"));
+        corsConfiguration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Access-Control-Allow-Origin", "X-Requested-With", REFRESH_TOKEN_HEADER));
+        corsConfiguration.setExposedHeaders(List.of(REFRESH_TOKEN_HEADER));
         corsConfiguration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source
@@ -104,6 +109,7 @@ public class SecurityConfiguration {
                 BASE_AUTH_URL + "/register",
                 BASE_AUTH_URL + "/login",
                 BASE_AUTH_URL + "/logout",
+                BASE_AUTH_URL + "/refresh",
                 "/**"
         };
         return httpSecurity
@@ -132,11 +138,12 @@ public class SecurityConfiguration {
     /**
      * This method is used to create an {@code AuthenticationManager} bean.
      *
+     * @param authenticationProvider The provider authenticating the users.
      * @return the created {@code AuthenticationManager} bean.
      */
     @Bean
-    public AuthenticationManager authenticationManager() {
-        return new ProviderManager(this.authenticationProvider());
+    public AuthenticationManager authenticationManager(final AuthenticationProvider authenticationProvider) {
+        return new ProviderManager(authenticationProvider);
     }
 
     /**
@@ -152,23 +159,14 @@ public class SecurityConfiguration {
     /**
      * This method is used to create an {@code AuthenticationProvider} bean.
      *
+     * @param passwordEncoder The encoder of the passwords.
      * @return The {@code AuthenticationProvider} object.
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(final PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(this.userDetailsService());
-        provider.setPasswordEncoder(this.passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
-
-    /**
-     * The password encoder bean.
-     *
-     * @return a {@code BCryptPasswordEncoder} object.
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
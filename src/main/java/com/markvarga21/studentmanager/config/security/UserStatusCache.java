@@ -0,0 +1,120 @@
+package com.markvarga21.studentmanager.config.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * A bounded, least recently used cache of the current authorities
+ * of the users. An empty status means the user does not exist anymore.
+ * Entries expire after a fixed time, so changes not announced by an
+ * event are picked up eventually.
+ */
+final class UserStatusCache {
+    /**
+     * The initial capacity of the backing map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the backing map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The time after an entry expires in nanoseconds.
+     */
+    private final long timeToLiveNanos;
+
+    /**
+     * The cached statuses by username in access order.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * The number of evictions so far, used to drop the statuses
+     * loaded concurrently with an eviction.
+     */
+    private long evictions;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries The maximum number of cached users.
+     * @param timeToLiveSeconds The time after an entry expires in seconds.
+     */
+    UserStatusCache(final int maxEntries, final long timeToLiveSeconds) {
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(timeToLiveSeconds);
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the status of the user, loading it
+     * if it is missing or expired.
+     *
+     * @param username The username of the user.
+     * @param loader Loads the authorities of the user, or an empty status if it does not exist.
+     * @return The authorities of the user, or an empty status if it does not exist.
+     */
+    Optional<Set<String>> getStatus(
+            final String username,
+            final Function<String, Optional<Set<String>>> loader
+    ) {
+        long now = System.nanoTime();
+        long evictionsBeforeLoad;
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(username);
+            if (entry != null && now - entry.loadedAt() < this.timeToLiveNanos) {
+                return entry.status();
+            }
+            evictionsBeforeLoad = this.evictions;
+        }
+        Optional<Set<String>> status = loader.apply(username);
+        synchronized (this.entries) {
+            if (this.evictions == evictionsBeforeLoad) {
+                this.entries.put(username, new Entry(status, now));
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Drops the cached status of the user.
+     *
+     * @param username The username of the user.
+     */
+    void evict(final String username) {
+        synchronized (this.entries) {
+            this.entries.remove(username);
+            this.evictions++;
+        }
+    }
+
+    /**
+     * Returns the number of cached users.
+     *
+     * @return The number of cached users.
+     */
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * A cached status.
+     *
+     * @param status The authorities of the user, or an empty status if it does not exist.
+     * @param loadedAt The time the status has been loaded at in nanoseconds.
+     */
+    private record Entry(Optional<Set<String>> status, long loadedAt) {
+    }
+}
@@ -1,11 +1,15 @@
 package com.markvarga21.studentmanager.controller;
 
+import com.markvarga21.studentmanager.config.security.SecurityConfiguration;
+import com.markvarga21.studentmanager.dto.ProvisioningResult;
+import com.markvarga21.studentmanager.dto.TokenPair;
 import com.markvarga21.studentmanager.dto.UserLogin;
 import com.markvarga21.studentmanager.entity.AppUser;
 import com.markvarga21.studentmanager.exception.InvalidUserCredentialsException;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.AuthError;
 import com.markvarga21.studentmanager.service.auth.AppUserService;
+import com.markvarga21.studentmanager.service.auth.RefreshTokenService;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +20,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,10 +30,12 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -36,11 +43,13 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * The controller for the user authentication.
@@ -50,11 +59,17 @@ import java.io.IOException;
 @RequestMapping("/api/v1/auth")
 @Slf4j
 @CrossOrigin
+@Validated
 @Tag(
     name = "User controller",
     description = "A controller used to manipulate users in the app."
 )
 public class AppUserController {
+    /**
+     * The maximum number of users created by a single request.
+     */
+    public static final int MAX_PROVISIONED_USERS = 1000;
+
     /**
      * The user service.
      */
@@ -85,6 +100,11 @@ public class AppUserController {
      */
     private final LogoutSuccessHandler logoutSuccessHandler;
 
+    /**
+     * The service for renewing sessions with refresh tokens.
+     */
+    private final RefreshTokenService refreshTokenService;
+
     /**
      * Endpoint for fetching all users.
      *
@@ -201,7 +221,41 @@ public class AppUserController {
     }
 
     /**
-     * Endpoint for logging in a user.
+     * Endpoint for creating several users at once, e.g. a whole cohort.
+     * Larger cohorts have to be split into several requests.
+     *
+     * @param users The users to be created with their raw passwords.
+     * @return The outcome of every row in the order of the request.
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @Operation(
+        summary = "Creates several users at once.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The outcome of every row.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ProvisioningResult.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "Too many users in a single request.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/users/bulk")
+    public ResponseEntity<List<ProvisioningResult>> provisionUsers(
+            @RequestBody @Size(max = MAX_PROVISIONED_USERS) final List<AppUser> users
+    ) {
+        return ResponseEntity.ok(this.appUserService.provisionUsers(users));
+    }
+
+    /**
+     * Endpoint for logging in a user. The user loaded while checking
+     * the password is reused for the token, and a refresh token is
+     * returned in the {@code X-Refresh-Token} header.
      *
      * @param user The user object.
      * @return The created JWT token.
@@ -215,6 +269,9 @@ public class AppUserController {
             @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
             }),
+            @ApiResponse(responseCode = "503", description = "Too many logins in progress.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
             @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
             })
@@ -233,10 +290,46 @@ public class AppUserController {
             log.error("Invalid user credentials.");
             throw new InvalidUserCredentialsException("Invalid user credentials.");
         }
-        String token = this.jwtService.generateJwtToken(
-                this.userDetailsService.loadUserByUsername(user.getUsername())
-        );
-        return ResponseEntity.ok(token);
+        UserDetails userDetails = auth.getPrincipal() instanceof UserDetails principal
+                ? principal
+                : this.userDetailsService.loadUserByUsername(user.getUsername());
+        String token = this.jwtService.generateJwtToken(userDetails);
+        String refreshToken = this.refreshTokenService.issue(userDetails.getUsername());
+        return ResponseEntity.ok()
+                .header(SecurityConfiguration.REFRESH_TOKEN_HEADER, refreshToken)
+                .body(token);
+    }
+
+    /**
+     * Endpoint for renewing a session without the user's password.
+     * The refresh token can be used only once, the new one is
+     * returned in the {@code X-Refresh-Token} header.
+     *
+     * @param refreshToken The refresh token.
+     * @return The created JWT token.
+     */
+    @Operation(
+        summary = "Renews the auth token of a user with a refresh token.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The generated auth token of the user.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "The refresh token is invalid, expired or reused.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refreshToken(
+            @RequestHeader(SecurityConfiguration.REFRESH_TOKEN_HEADER) final String refreshToken
+    ) {
+        TokenPair tokens = this.refreshTokenService.refresh(refreshToken);
+        return ResponseEntity.ok()
+                .header(SecurityConfiguration.REFRESH_TOKEN_HEADER, tokens.getRefreshToken())
+                .body(tokens.getAccessToken());
     }
 
     /**
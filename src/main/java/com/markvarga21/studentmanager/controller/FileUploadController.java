@@ -1,14 +1,22 @@
 package com.markvarga21.studentmanager.controller;
 
 import com.azure.core.annotation.QueryParam;
+import com.markvarga21.studentmanager.dto.LargeObjectCollectionReport;
+import com.markvarga21.studentmanager.dto.SignedImageUrl;
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.UploadSession;
 import com.markvarga21.studentmanager.entity.PassportValidationData;
 import com.markvarga21.studentmanager.entity.StudentImage;
+import com.markvarga21.studentmanager.exception.InvalidUploadException;
+import com.markvarga21.studentmanager.exception.handler.ApplicationExceptionHandler;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.AuthError;
 import com.markvarga21.studentmanager.service.StudentService;
 import com.markvarga21.studentmanager.service.faceapi.FaceApiService;
 import com.markvarga21.studentmanager.service.file.FileUploadService;
+import com.markvarga21.studentmanager.service.file.LargeObjectCollector;
+import com.markvarga21.studentmanager.service.file.SignedImageUrlService;
+import com.markvarga21.studentmanager.service.file.UploadSessionService;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
 import com.markvarga21.studentmanager.util.StudentImageType;
@@ -21,20 +29,34 @@ import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+
 /**
  * A controller class which is used to manipulate the
  * student's images in the database.
@@ -79,6 +101,23 @@ public class FileUploadController {
      */
     private final PassportValidationService passportValidationService;
 
+    /**
+     * The collector of the unreferenced image large objects.
+     */
+    private final LargeObjectCollector largeObjectCollector;
+
+    /**
+     * A service class used to receive
+     * large images in chunks.
+     */
+    private final UploadSessionService uploadSessionService;
+
+    /**
+     * A service class used to issue and
+     * verify signed image URLs.
+     */
+    private final SignedImageUrlService signedImageUrlService;
+
     /**
      * Fetches all the images from the database.
      *
@@ -109,6 +148,38 @@ public class FileUploadController {
         return this.fileUploadService.getAllImages(page, size);
     }
 
+    /**
+     * Collects the large objects of the images which are no longer
+     * referenced, or only reports them in a dry run.
+     *
+     * @param dryRun Whether the orphans should only be reported.
+     * @return The summary of the run.
+     */
+    @Operation(
+        summary = "Collects the unreferenced large objects of the images.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The summary of the run.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = LargeObjectCollectionReport.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/large-objects/collect")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<LargeObjectCollectionReport> collectLargeObjects(
+            @RequestParam(defaultValue = "true") final boolean dryRun
+    ) {
+        return new ResponseEntity<>(
+                this.largeObjectCollector.collect(dryRun),
+                HttpStatus.OK
+        );
+    }
+
     /**
      * Deletes the student's passport- and portrait image
      * from the database using their id's.
@@ -176,6 +247,126 @@ public class FileUploadController {
                 .body(image);
     }
 
+    /**
+     * Issues a short-lived signed URL for the image of a
+     * student, which can be fetched without authentication.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     * @return The signed URL of the image.
+     */
+    @Operation(
+        summary = "Issues a signed URL for the image of a specified type.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The signed URL of the image.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = SignedImageUrl.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @GetMapping("/signedUrl/{studentId}/{imageType}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<SignedImageUrl> getSignedImageUrl(
+            @PathVariable("studentId") final Long studentId,
+            @PathVariable("imageType") final StudentImageType imageType
+    ) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(this.signedImageUrlService.signUrl(studentId, imageType));
+    }
+
+    /**
+     * Serves the image of a signed URL. Only the signature and the
+     * current content of the image are checked, before answering a
+     * conditional request too, so a client cannot keep revalidating
+     * a replaced or deleted image. The response may only be cached
+     * by the client, no longer than the URL is valid for.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image.
+     * @param expires The expiry of the URL in epoch seconds.
+     * @param signature The signature of the URL.
+     * @param webRequest The request, used for answering conditional requests.
+     * @return The image, or an empty response if the client already has it.
+     */
+    @Operation(
+        summary = "Serves the image of a signed URL.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The signed image.", content = {
+                    @Content(mediaType = MediaType.IMAGE_JPEG_VALUE)
+            }),
+            @ApiResponse(responseCode = "403", description = "The URL is not valid or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @GetMapping("/signed/{studentId}/{imageType}/{contentHash}")
+    public ResponseEntity<byte[]> getSignedImage(
+            @PathVariable("studentId") final Long studentId,
+            @PathVariable("imageType") final StudentImageType imageType,
+            @PathVariable("contentHash") final String contentHash,
+            @RequestParam("expires") final long expires,
+            @RequestParam("signature") final String signature,
+            final WebRequest webRequest
+    ) {
+        this.signedImageUrlService.verifySignature(studentId, imageType, contentHash, expires, signature);
+        this.signedImageUrlService.verifyContent(studentId, imageType, contentHash);
+        if (webRequest.checkNotModified(contentHash)) {
+            return null;
+        }
+        byte[] image = this.signedImageUrlService
+                .getSignedImage(studentId, imageType, contentHash);
+        long remainingSeconds = Math.max(0, expires - Instant.now().getEpochSecond());
+        return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(remainingSeconds)).cachePrivate())
+                .eTag(contentHash)
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(image);
+    }
+
+    /**
+     * Checks whether a signed URL may be served, without loading the
+     * image. A reverse proxy caching the images calls it before every
+     * cache hit, so an expired URL, or one of a replaced or deleted
+     * image, is never served from its cache.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image.
+     * @param expires The expiry of the URL in epoch seconds.
+     * @param signature The signature of the URL.
+     * @return An empty response if the URL may be served.
+     */
+    @Operation(
+        summary = "Checks whether a signed URL may be served.",
+        responses = {
+            @ApiResponse(responseCode = "204", description = "The URL may be served."),
+            @ApiResponse(responseCode = "403", description = "The URL is not valid or has expired.")
+        }
+    )
+    @RequestMapping(value = "/signed/{studentId}/{imageType}/{contentHash}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> checkSignedImage(
+            @PathVariable("studentId") final Long studentId,
+            @PathVariable("imageType") final StudentImageType imageType,
+            @PathVariable("contentHash") final String contentHash,
+            @RequestParam("expires") final long expires,
+            @RequestParam("signature") final String signature
+    ) {
+        this.signedImageUrlService.verifySignature(studentId, imageType, contentHash, expires, signature);
+        this.signedImageUrlService.verifyContent(studentId, imageType, contentHash);
+        return ResponseEntity.noContent()
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
     /**
      * Uploads both images for the given student identified
      * by their id.
@@ -278,7 +469,8 @@ public class FileUploadController {
 
     /**
      * Fetches both the pictures of the student by
-     * their id.
+     * their id. The images are Base64 encoded in the
+     * JSON form, which is kept for compatibility.
      *
      * @param studentId The id of the student.
      * @return The images for the specified student id.
@@ -308,4 +500,333 @@ public class FileUploadController {
                 .status(HttpStatus.OK)
                 .body(studentImage);
     }
+
+    /**
+     * Fetches both the pictures of the student by their id
+     * as a {@code multipart/mixed} response. Unlike the JSON
+     * form, the raw bytes of the images are written to the
+     * response without Base64 encoding them.
+     *
+     * @param studentId The id of the student.
+     * @return The images for the specified student id, one part each.
+     */
+    @Operation(
+        summary = "Fetches both images for a student as raw multipart parts.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "Both images for a student.", content = {
+                    @Content(mediaType = MediaType.MULTIPART_MIXED_VALUE)
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @GetMapping(value = "/combined/{studentId}", produces = MediaType.MULTIPART_MIXED_VALUE)
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<MultiValueMap<String, HttpEntity<byte[]>>> getRawImagesForStudentId(
+            @PathVariable final Long studentId
+    ) {
+        StudentImage studentImage = this.fileUploadService
+                .getStudentImageById(studentId);
+        MultiValueMap<String, HttpEntity<byte[]>> parts = new LinkedMultiValueMap<>();
+        this.addImagePart(parts, StudentImageType.PASSPORT, studentImage.getPassportImage());
+        this.addImagePart(parts, StudentImageType.SELFIE, studentImage.getSelfieImage());
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.MULTIPART_MIXED)
+                .body(parts);
+    }
+
+    /**
+     * Adds an image to a multipart response, skipping
+     * the images which have not been uploaded.
+     *
+     * @param parts The parts of the response.
+     * @param imageType The type of the image.
+     * @param image The content of the image.
+     */
+    private void addImagePart(
+            final MultiValueMap<String, HttpEntity<byte[]>> parts,
+            final StudentImageType imageType,
+            final byte[] image
+    ) {
+        if (image == null) {
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        headers.setContentLength(image.length);
+        parts.add(imageType.name().toLowerCase(), new HttpEntity<>(image, headers));
+    }
+
+    /**
+     * Starts a resumable upload of a large image.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of image.
+     * @param size The size of the whole image in bytes.
+     * @return The created upload session.
+     */
+    @Operation(
+        summary = "Starts a resumable upload of an image.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The created upload session.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSession.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "The upload is corrupted or incomplete.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "429", description = "The user has too many open uploads.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "507", description = "There is no space left for the upload.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/uploads")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<UploadSession> createUploadSession(
+            @RequestParam("studentId") final Long studentId,
+            @RequestParam("imageType") final StudentImageType imageType,
+            @RequestParam("size") final Long size
+    ) {
+        UploadSession session = this.uploadSessionService
+                .createSession(this.getCurrentUsername(), studentId, imageType, size);
+        return new ResponseEntity<>(session, HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves the state of a resumable upload, including
+     * the offset it can be resumed from.
+     *
+     * @param sessionId The id of the upload session.
+     * @return The state of the upload.
+     */
+    @Operation(
+        summary = "Retrieves the state of a resumable upload.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The state of the upload.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSession.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "The upload does not exist or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @GetMapping("/uploads/{sessionId}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<UploadSession> getUploadSession(
+            @PathVariable("sessionId") final String sessionId
+    ) {
+        UploadSession session = this.uploadSessionService
+                .getSession(this.getCurrentUsername(), sessionId);
+        return new ResponseEntity<>(session, HttpStatus.OK);
+    }
+
+    /**
+     * Appends a chunk to a resumable upload. The chunk is sent as the
+     * raw body, starting at the given offset of the image.
+     *
+     * @param sessionId The id of the upload session.
+     * @param offset The offset the chunk starts at.
+     * @param checksum The hexadecimal SHA-256 checksum of the chunk.
+     * @param chunk The content of the chunk.
+     * @return The state of the upload after the chunk.
+     */
+    @Operation(
+        summary = "Appends a chunk to a resumable upload.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The state of the upload after the chunk.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = UploadSession.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "The upload is corrupted or incomplete.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "The upload does not exist or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "409", description = "The chunk does not start at the Upload-Offset of the upload.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PutMapping(value = "/uploads/{sessionId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<UploadSession> uploadChunk(
+            @PathVariable("sessionId") final String sessionId,
+            @RequestHeader(ApplicationExceptionHandler.UPLOAD_OFFSET_HEADER) final Long offset,
+            @RequestHeader("Upload-Checksum") final String checksum,
+            final InputStream chunk
+    ) {
+        UploadSession session = this.uploadSessionService
+                .appendChunk(this.getCurrentUsername(), sessionId, offset, checksum, chunk);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .header(ApplicationExceptionHandler.UPLOAD_OFFSET_HEADER, String.valueOf(session.getOffset()))
+                .body(session);
+    }
+
+    /**
+     * Stores the images of a student from two finished uploads,
+     * the same way as uploading them in a single request.
+     *
+     * @param passportSessionId The id of the passport's upload session.
+     * @param selfieSessionId The id of the selfie's upload session.
+     * @return A response entity.
+     */
+    @Operation(
+        summary = "Stores the images of a student from two finished uploads.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "A status message about the image upload.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "The upload is corrupted or incomplete.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "The upload does not exist or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/uploads/complete")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<String> completeUploads(
+            @RequestParam("passportSessionId") final String passportSessionId,
+            @RequestParam("selfieSessionId") final String selfieSessionId
+    ) {
+        String username = this.getCurrentUsername();
+        Long studentId = this.uploadSessionService
+                .getSession(username, passportSessionId)
+                .getStudentId();
+        if (!studentId.equals(this.uploadSessionService.getSession(username, selfieSessionId).getStudentId())) {
+            throw new InvalidUploadException("The passport and the selfie belong to different students!");
+        }
+        String message = this.fileUploadService.uploadFile(
+                studentId,
+                this.uploadSessionService.getCompletedFile(username, passportSessionId, StudentImageType.PASSPORT),
+                this.uploadSessionService.getCompletedFile(username, selfieSessionId, StudentImageType.SELFIE)
+        );
+        this.uploadSessionService.deleteSession(username, passportSessionId);
+        this.uploadSessionService.deleteSession(username, selfieSessionId);
+        return new ResponseEntity<>(message, HttpStatus.OK);
+    }
+
+    /**
+     * Replaces an image of a student with a finished upload,
+     * the same way as changing it in a single request.
+     *
+     * @param sessionId The id of the upload session.
+     * @return A response entity.
+     */
+    @Operation(
+        summary = "Replaces an image of a student with a finished upload.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "A status message.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+            }),
+            @ApiResponse(responseCode = "400", description = "The upload is corrupted or incomplete.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "The upload does not exist or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PostMapping("/uploads/{sessionId}/changeImage")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<String> completeImageChange(
+            @PathVariable("sessionId") final String sessionId
+    ) {
+        String username = this.getCurrentUsername();
+        UploadSession session = this.uploadSessionService
+                .getSession(username, sessionId);
+        ResponseEntity<String> response = this.changeImage(
+                session.getStudentId(),
+                session.getImageType(),
+                this.uploadSessionService.getCompletedFile(username, sessionId, session.getImageType())
+        );
+        this.uploadSessionService.deleteSession(username, sessionId);
+        return response;
+    }
+
+    /**
+     * Cancels a resumable upload, deleting its received bytes.
+     *
+     * @param sessionId The id of the upload session.
+     * @return A response entity.
+     */
+    @Operation(
+        summary = "Cancels a resumable upload.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "A status message.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = String.class))
+            }),
+            @ApiResponse(responseCode = "404", description = "The upload does not exist or has expired.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @DeleteMapping("/uploads/{sessionId}")
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public ResponseEntity<String> cancelUploadSession(
+            @PathVariable("sessionId") final String sessionId
+    ) {
+        this.uploadSessionService.deleteSession(this.getCurrentUsername(), sessionId);
+        return new ResponseEntity<>(
+                String.format("Upload '%s' cancelled", sessionId),
+                HttpStatus.OK
+        );
+    }
+
+    /**
+     * Returns the username of the current user.
+     *
+     * @return The username of the current user.
+     */
+    private String getCurrentUsername() {
+        return SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getName();
+    }
 }
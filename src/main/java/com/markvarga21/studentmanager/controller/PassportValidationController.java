@@ -7,6 +7,7 @@ import com.markvarga21.studentmanager.entity.PassportValidationData;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.AuthError;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
+import com.markvarga21.studentmanager.service.validation.event.ValidationEventService;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,8 +18,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -29,6 +32,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * A controller which is used to access
@@ -55,6 +59,12 @@ public class PassportValidationController {
      */
     private final FormRecognizerService formRecognizerService;
 
+    /**
+     * A service which is used to stream the changes
+     * of the validation status.
+     */
+    private final ValidationEventService validationEventService;
+
     /**
      * Retrieves all the passport validation data.
      *
@@ -279,4 +289,31 @@ public class PassportValidationController {
                 .getStudentFromPassportValidation(passportNumber);
         return new ResponseEntity<>(studentDto, HttpStatus.OK);
     }
+
+    /**
+     * Streams the changes of the validation status of the
+     * current user as Server-Sent Events.
+     *
+     * @return The emitter streaming the changes.
+     */
+    @Operation(
+        summary = "Streams the changes of the validation status of the current user.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "A stream of validation status changes.", content = {
+                    @Content(mediaType = "text/event-stream")
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            })
+        }
+    )
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ROLE_USER')")
+    public SseEmitter streamValidationEvents() {
+        String username = SecurityContextHolder
+                .getContext()
+                .getAuthentication()
+                .getName();
+        return this.validationEventService.subscribe(username);
+    }
 }
@@ -1,9 +1,11 @@
 package com.markvarga21.studentmanager.controller;
 
 
+import com.markvarga21.studentmanager.dto.ReconciliationReport;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.AuthError;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.service.StudentAccountReconciler;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,6 +18,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -36,6 +39,11 @@ public class StudentAppUserController {
      */
     private final StudentAppUserRepository repository;
 
+    /**
+     * The reconciler linking the students and the users.
+     */
+    private final StudentAccountReconciler reconciler;
+
     /**
      * This method is used to get the student ID by the username.
      *
@@ -68,4 +76,30 @@ public class StudentAppUserController {
                         .getStudentId()
         );
     }
+
+    /**
+     * This method is used to link the unlinked students and users
+     * having the same name, without waiting for the nightly run.
+     *
+     * @return The summary of the run.
+     */
+    @Operation(
+        summary = "Links the unlinked students and users having the same name.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The summary of the run.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ReconciliationReport.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/reconcile")
+    public ResponseEntity<ReconciliationReport> reconcile() {
+        return ResponseEntity.ok(this.reconciler.reconcile());
+    }
 }
@@ -1,11 +1,11 @@
 package com.markvarga21.studentmanager.controller;
 
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.StudentStatistics;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.AuthError;
 import com.markvarga21.studentmanager.service.StudentService;
-import com.markvarga21.studentmanager.service.file.FileUploadService;
-import com.markvarga21.studentmanager.service.form.FormRecognizerService;
+import com.markvarga21.studentmanager.service.StudentStatisticsService;
 import com.markvarga21.studentmanager.service.validation.face.FacialValidationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -29,6 +29,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * A controller which is used to make- create-, read-,
  * update- and delete students.
@@ -48,19 +50,14 @@ public class StudentController {
     private final StudentService studentService;
 
     /**
-     * Form recognizer service.
+     * Facial validation service.
      */
-    private final FormRecognizerService formRecognizerService;
+    private final FacialValidationService facialValidationService;
 
     /**
-     * File upload service.
+     * Student statistics service.
      */
-    private final FileUploadService fileUploadService;
-
-    /**
-     * Facial validation service.
-     */
-    private final FacialValidationService facialValidationService;
+    private final StudentStatisticsService studentStatisticsService;
 
     /**
      * Retrieves all the students from the application.
@@ -92,6 +89,34 @@ public class StudentController {
         return this.studentService.getAllStudents(page, size);
     }
 
+    /**
+     * Retrieves the aggregate counts of the students.
+     *
+     * @return The counts of the students.
+     */
+    @Operation(
+        summary = "Retrieves the counts of the students for the dashboard.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The counts of the students.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = StudentStatistics.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @GetMapping("/statistics")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<StudentStatistics> getStatistics() {
+        return new ResponseEntity<>(
+                this.studentStatisticsService.getStatistics(),
+                HttpStatus.OK
+        );
+    }
+
     /**
      * Saves and validates a student in the database and then returns it.
      *
@@ -191,6 +216,37 @@ public class StudentController {
         return new ResponseEntity<>(updatedStudent, HttpStatus.OK);
     }
 
+    /**
+     * Deletes several students and all their data at once.
+     *
+     * @param ids The IDs of the students to be deleted.
+     * @return The number of deleted students.
+     */
+    @Operation(
+        summary = "Delete several students by their IDs.",
+        responses = {
+            @ApiResponse(responseCode = "200", description = "The number of deleted students.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = Integer.class))
+            }),
+            @ApiResponse(responseCode = "401", description = "User is not authorized.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = AuthError.class))
+            }),
+            @ApiResponse(responseCode = "500", description = "Internal server error.", content = {
+                    @Content(mediaType = "application/json", schema = @Schema(implementation = ApiError.class))
+            })
+        }
+    )
+    @DeleteMapping("/bulk")
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    public ResponseEntity<Integer> deleteStudentsByIds(
+            @RequestParam final List<Long> ids
+    ) {
+        return new ResponseEntity<>(
+                this.studentService.deleteStudentsByIds(ids),
+                HttpStatus.OK
+        );
+    }
+
     /**
      * Deletes a student and then retrieves it.
      *
@@ -217,16 +273,6 @@ public class StudentController {
             @PathVariable final Long id
     ) {
         StudentDto deletedStudent = this.studentService.deleteStudentById(id);
-        String passportNumber = deletedStudent.getPassportNumber();
-
-        this.fileUploadService.deleteImage(id);
-        this.formRecognizerService.deletePassportValidationByPassportNumber(
-                passportNumber
-        );
-        this.facialValidationService.deleteFacialValidationDataByPassportNumber(
-                passportNumber
-        );
-
         return new ResponseEntity<>(deletedStudent, HttpStatus.OK);
     }
 }
@@ -0,0 +1,31 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A DTO class describing a name shared by several unlinked
+ * students or users, which therefore cannot be linked automatically.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AmbiguousMatch {
+    /**
+     * The normalized first and last name.
+     */
+    private String name;
+
+    /**
+     * The IDs of the unlinked students having the name.
+     */
+    private List<Long> studentIds;
+
+    /**
+     * The usernames of the unlinked users having the name.
+     */
+    private List<String> usernames;
+}
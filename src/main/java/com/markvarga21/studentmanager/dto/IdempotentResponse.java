@@ -0,0 +1,34 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A DTO class holding the stored response of a request
+ * sent with an idempotency key, replayed to its retries.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotentResponse {
+    /**
+     * The status code of the response.
+     */
+    private int status;
+
+    /**
+     * The content type of the response.
+     */
+    private String contentType;
+
+    /**
+     * The Base64 encoded body of the response.
+     */
+    private String body;
+
+    /**
+     * The hash of the request the response belongs to.
+     */
+    private String requestHash;
+}
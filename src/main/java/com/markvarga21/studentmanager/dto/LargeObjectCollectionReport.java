@@ -0,0 +1,56 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A DTO class summarizing a run of the large object garbage collector.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LargeObjectCollectionReport {
+    /**
+     * Whether the database stores the images as large objects.
+     */
+    private boolean supported;
+
+    /**
+     * Whether the orphans have only been reported, not unlinked.
+     */
+    private boolean dryRun;
+
+    /**
+     * The number of unreferenced large objects found.
+     */
+    private long orphanObjects;
+
+    /**
+     * The size of the unreferenced large objects found in bytes.
+     */
+    private long orphanBytes;
+
+    /**
+     * The number of large objects unlinked.
+     */
+    private long unlinkedObjects;
+
+    /**
+     * The size of the unlinked large objects in bytes.
+     */
+    private long reclaimedBytes;
+
+    /**
+     * Whether the run has reached the last large object,
+     * so the next run starts from the beginning.
+     */
+    private boolean completed;
+
+    /**
+     * The duration of the run in milliseconds.
+     */
+    private long durationMillis;
+}
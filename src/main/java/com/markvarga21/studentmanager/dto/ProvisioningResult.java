@@ -0,0 +1,34 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A DTO class describing the outcome of provisioning
+ * a single row of a bulk user provisioning request.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProvisioningResult {
+    /**
+     * The index of the row in the request.
+     */
+    private int index;
+
+    /**
+     * The username of the row.
+     */
+    private String username;
+
+    /**
+     * The outcome of the row.
+     */
+    private ProvisioningStatus status;
+
+    /**
+     * The reason of the outcome if the user has not been created.
+     */
+    private String message;
+}
@@ -0,0 +1,23 @@
+package com.markvarga21.studentmanager.dto;
+
+/**
+ * The outcomes of provisioning a single user.
+ */
+public enum ProvisioningStatus {
+    /**
+     * The user has been created.
+     */
+    CREATED,
+    /**
+     * The row has not passed the validation.
+     */
+    INVALID,
+    /**
+     * The username appears earlier in the same request.
+     */
+    DUPLICATE,
+    /**
+     * A user with the username already exists.
+     */
+    ALREADY_EXISTS
+}
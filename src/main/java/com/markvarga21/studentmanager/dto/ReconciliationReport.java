@@ -0,0 +1,40 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A DTO class summarizing a run of the student and user reconciliation.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReconciliationReport {
+    /**
+     * The number of unlinked students examined.
+     */
+    private int unlinkedStudents;
+
+    /**
+     * The number of unlinked users examined.
+     */
+    private int unlinkedUsers;
+
+    /**
+     * The number of links created.
+     */
+    private int linked;
+
+    /**
+     * The names which could not be linked unambiguously.
+     */
+    private List<AmbiguousMatch> ambiguousMatches;
+
+    /**
+     * The duration of the run in milliseconds.
+     */
+    private long durationMillis;
+}
@@ -0,0 +1,43 @@
+package com.markvarga21.studentmanager.dto;
+
+import com.markvarga21.studentmanager.util.StudentImageType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A DTO class holding a short-lived signed URL of a student's image.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SignedImageUrl {
+    /**
+     * The ID of the student the image belongs to.
+     */
+    private Long studentId;
+
+    /**
+     * The type of the image.
+     */
+    private StudentImageType imageType;
+
+    /**
+     * The lowercase hexadecimal SHA-256 hash of the image.
+     */
+    private String contentHash;
+
+    /**
+     * The signed URL of the image, relative to the server.
+     */
+    private String url;
+
+    /**
+     * The time after which the URL is no longer accepted.
+     */
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,51 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A DTO class holding the aggregate counts of the students
+ * shown on the admin dashboard.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StudentStatistics {
+    /**
+     * The number of students.
+     */
+    private long totalStudents;
+
+    /**
+     * The number of students with a validated passport.
+     */
+    private long validStudents;
+
+    /**
+     * The number of students without a validated passport.
+     */
+    private long invalidStudents;
+
+    /**
+     * The number of students by country of citizenship.
+     */
+    private Map<String, Long> studentsByCountry;
+
+    /**
+     * The number of students by gender.
+     */
+    private Map<String, Long> studentsByGender;
+
+    /**
+     * The number of passports expiring within the next days.
+     */
+    private long expiringPassports;
+
+    /**
+     * The number of days the expiring passports are counted for.
+     */
+    private int expiringWithinDays;
+}
@@ -0,0 +1,23 @@
+package com.markvarga21.studentmanager.dto;
+
+import com.markvarga21.studentmanager.util.Generated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A class holding a newly issued access and refresh token.
+ */
+@Data
+@AllArgsConstructor
+@Generated
+public class TokenPair {
+    /**
+     * The signed access token.
+     */
+    private String accessToken;
+
+    /**
+     * The refresh token, which can be used only once.
+     */
+    private String refreshToken;
+}
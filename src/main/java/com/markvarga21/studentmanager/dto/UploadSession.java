@@ -0,0 +1,49 @@
+package com.markvarga21.studentmanager.dto;
+
+import com.markvarga21.studentmanager.util.StudentImageType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A DTO class describing the state of a resumable image upload.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSession {
+    /**
+     * The ID of the upload session.
+     */
+    private String id;
+
+    /**
+     * The ID of the student the image belongs to.
+     */
+    private Long studentId;
+
+    /**
+     * The type of the uploaded image.
+     */
+    private StudentImageType imageType;
+
+    /**
+     * The size of the whole image in bytes.
+     */
+    private long size;
+
+    /**
+     * The number of bytes received so far, where
+     * the next chunk has to start.
+     */
+    private long offset;
+
+    /**
+     * The time after which the unfinished upload is discarded.
+     */
+    private LocalDateTime expiresAt;
+}
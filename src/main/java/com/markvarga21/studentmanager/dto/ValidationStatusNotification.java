@@ -0,0 +1,35 @@
+package com.markvarga21.studentmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A DTO class describing a validation status change
+ * pushed to the user owning the passport.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ValidationStatusNotification {
+    /**
+     * The username of the notified user.
+     */
+    private String username;
+
+    /**
+     * The kind of the change.
+     */
+    private ValidationStatusType type;
+
+    /**
+     * The passport number of the student.
+     */
+    private String passportNumber;
+
+    /**
+     * The validity after the change, or {@code null}
+     * if the change carries no validity.
+     */
+    private Boolean valid;
+}
@@ -0,0 +1,19 @@
+package com.markvarga21.studentmanager.dto;
+
+/**
+ * The kinds of validation status changes pushed to the users.
+ */
+public enum ValidationStatusType {
+    /**
+     * The validity of the student has been set.
+     */
+    STUDENT_VALIDITY,
+    /**
+     * The facial validation data has changed.
+     */
+    FACIAL_VALIDATION,
+    /**
+     * The passport validation data has changed.
+     */
+    PASSPORT_VALIDATION_DATA
+}
@@ -0,0 +1,61 @@
+package com.markvarga21.studentmanager.emulator;
+
+import com.azure.ai.formrecognizer.documentanalysis.DocumentAnalysisClient;
+import com.azure.ai.formrecognizer.documentanalysis.DocumentAnalysisClientBuilder;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpPipeline;
+import com.azure.core.http.HttpPipelineBuilder;
+import com.azure.core.http.policy.AddHeadersPolicy;
+import com.azure.core.http.policy.RetryPolicy;
+import com.markvarga21.studentmanager.config.ApplicationConfiguration;
+import com.markvarga21.studentmanager.util.Generated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration class pointing the Form Recognizer client
+ * to the local emulator.
+ */
+@Configuration
+@Profile(AzureEmulatorController.EMULATOR_PROFILE)
+@Generated
+public class AzureEmulatorConfiguration {
+    /**
+     * The key sent to the emulator.
+     */
+    @Value("${knopp.services.key}")
+    private String emulatorKey;
+
+    /**
+     * The URL of the emulator.
+     */
+    @Value("${knopp.services.endpoint}")
+    private String emulatorEndpoint;
+
+    /**
+     * A bean for creating a Form Recognizer client talking to the
+     * emulator. The default pipeline only sends keys over HTTPS,
+     * so the key header is added by a custom pipeline instead.
+     *
+     * @return The built {@code DocumentAnalysisClient} object.
+     */
+    @Bean
+    public DocumentAnalysisClient getEmulatedDocumentAnalysisClient() {
+        HttpPipeline pipeline = new HttpPipelineBuilder()
+                .policies(
+                        new AddHeadersPolicy(new HttpHeaders()
+                                .set(ApplicationConfiguration.AZURE_API_KEY_HEADER, this.emulatorKey)),
+                        new RetryPolicy()
+                )
+                .build();
+        String endpoint = this.emulatorEndpoint.endsWith("/")
+                ? this.emulatorEndpoint.substring(0, this.emulatorEndpoint.length() - 1)
+                : this.emulatorEndpoint;
+        return new DocumentAnalysisClientBuilder()
+                .endpoint(endpoint)
+                .pipeline(pipeline)
+                .buildClient();
+    }
+}
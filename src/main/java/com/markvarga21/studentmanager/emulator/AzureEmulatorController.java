@@ -0,0 +1,273 @@
+package com.markvarga21.studentmanager.emulator;
+
+import com.markvarga21.studentmanager.emulator.EmulatedServiceConditions.Operation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A local stand-in for the endpoints of Azure's Face API and
+ * Form Recognizer used by the application. It is only active
+ * in the {@code azure-emulator} profile, where the application
+ * is pointed to it instead of the real services. The responses
+ * are completed asynchronously once their emulated latency
+ * elapsed, leaving the servlet threads to the application.
+ */
+@RestController
+@RequestMapping("/emulator")
+@Profile(AzureEmulatorController.EMULATOR_PROFILE)
+@RequiredArgsConstructor
+@Slf4j
+public class AzureEmulatorController {
+    /**
+     * The profile activating the emulator.
+     */
+    public static final String EMULATOR_PROFILE = "azure-emulator";
+
+    /**
+     * The number of stored analyses after which the expired ones are removed.
+     */
+    private static final int MAX_STORED_ANALYSES = 10_000;
+
+    /**
+     * The time an analysis result is kept measured in minutes.
+     */
+    private static final long ANALYSIS_RETENTION_MINUTES = 10;
+
+    /**
+     * The median latency of the face detection in milliseconds.
+     */
+    @Value("${azure.emulator.detect.median-millis:150}")
+    private long detectMedianMillis;
+
+    /**
+     * The shape of the face detection's latency distribution.
+     */
+    @Value("${azure.emulator.detect.sigma:0.5}")
+    private double detectSigma;
+
+    /**
+     * The median latency of the face verification in milliseconds.
+     */
+    @Value("${azure.emulator.verify.median-millis:80}")
+    private long verifyMedianMillis;
+
+    /**
+     * The shape of the face verification's latency distribution.
+     */
+    @Value("${azure.emulator.verify.sigma:0.3}")
+    private double verifySigma;
+
+    /**
+     * The ratio of face pairs verified as identical.
+     */
+    @Value("${azure.emulator.verify.identical-ratio:0.9}")
+    private double identicalRatio;
+
+    /**
+     * The median processing time of a document analysis in milliseconds.
+     */
+    @Value("${azure.emulator.analyze.median-millis:2000}")
+    private long analyzeMedianMillis;
+
+    /**
+     * The shape of the document analysis' processing time distribution.
+     */
+    @Value("${azure.emulator.analyze.sigma:0.4}")
+    private double analyzeSigma;
+
+    /**
+     * The median latency of the requests starting or polling an analysis.
+     */
+    @Value("${azure.emulator.request.median-millis:40}")
+    private long requestMedianMillis;
+
+    /**
+     * The shape of the request latency distribution.
+     */
+    @Value("${azure.emulator.request.sigma:0.2}")
+    private double requestSigma;
+
+    /**
+     * The emulated service conditions.
+     */
+    private final EmulatedServiceConditions conditions;
+
+    /**
+     * The analyses started so far, identified by their result IDs.
+     */
+    private final Map<String, PendingAnalysis> analyses = new ConcurrentHashMap<>();
+
+    /**
+     * Emulates the face detection of the Face API.
+     *
+     * @param image The image containing the faces.
+     * @return The detected faces.
+     */
+    @PostMapping("/face/v1.0/detect")
+    public DeferredResult<ResponseEntity<Object>> detect(@RequestBody final byte[] image) {
+        return this.conditions.respond(
+                Operation.DETECT,
+                this.detectMedianMillis,
+                this.detectSigma,
+                () -> ResponseEntity.ok(EmulatedResponses.detectFaces(image))
+        );
+    }
+
+    /**
+     * Emulates the face verification of the Face API.
+     *
+     * @param request The IDs of the faces to be compared.
+     * @return The result of the verification.
+     */
+    @PostMapping("/face/v1.0/verify")
+    public DeferredResult<ResponseEntity<Object>> verify(@RequestBody final Map<String, String> request) {
+        return this.conditions.respond(
+                Operation.VERIFY,
+                this.verifyMedianMillis,
+                this.verifySigma,
+                () -> ResponseEntity.ok(EmulatedResponses.verifyFaces(
+                        request.getOrDefault("faceId1", ""),
+                        request.getOrDefault("faceId2", ""),
+                        this.identicalRatio
+                ))
+        );
+    }
+
+    /**
+     * Emulates starting a document analysis of the Form Recognizer.
+     *
+     * @param modelAction The model ID followed by the {@code :analyze} action.
+     * @param apiVersion The API version of the request.
+     * @param document The document to be analyzed.
+     * @return An accepted response pointing to the operation's result.
+     */
+    @PostMapping("/formrecognizer/documentModels/{modelAction}")
+    public DeferredResult<ResponseEntity<Object>> analyze(
+            @PathVariable final String modelAction,
+            @RequestParam(value = "api-version", defaultValue = "2022-08-31") final String apiVersion,
+            @RequestBody final byte[] document
+    ) {
+        String modelId = modelAction.split(":")[0];
+        String resultId = UUID.randomUUID().toString();
+        URI operationLocation = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/emulator/formrecognizer/documentModels/{modelId}/analyzeResults/{resultId}")
+                .queryParam("api-version", apiVersion)
+                .buildAndExpand(modelId, resultId)
+                .toUri();
+        return this.conditions.respond(
+                Operation.ANALYZE,
+                this.requestMedianMillis,
+                this.requestSigma,
+                () -> {
+                    this.startAnalysis(resultId, modelId, apiVersion, document);
+                    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .header("Operation-Location", operationLocation.toString())
+                            .build();
+                }
+        );
+    }
+
+    /**
+     * Emulates polling the result of a document analysis.
+     *
+     * @param modelId The ID of the model used for the analysis.
+     * @param resultId The ID of the analysis.
+     * @return The state of the analysis, containing the result if it succeeded.
+     */
+    @GetMapping("/formrecognizer/documentModels/{modelId}/analyzeResults/{resultId}")
+    public DeferredResult<ResponseEntity<Object>> getAnalyzeResult(
+            @PathVariable final String modelId,
+            @PathVariable final String resultId
+    ) {
+        return this.conditions.respond(
+                Operation.GET_ANALYZE_RESULT,
+                this.requestMedianMillis,
+                this.requestSigma,
+                () -> this.getAnalysisState(resultId)
+        );
+    }
+
+    private void startAnalysis(
+            final String resultId,
+            final String modelId,
+            final String apiVersion,
+            final byte[] document
+    ) {
+        long processingNanos = TimeUnit.MILLISECONDS.toNanos(
+                this.conditions.sampleLatencyMillis(this.analyzeMedianMillis, this.analyzeSigma)
+        );
+        this.removeExpiredAnalyses();
+        this.analyses.put(resultId, new PendingAnalysis(
+                Instant.now(),
+                System.nanoTime() + processingNanos,
+                EmulatedResponses.analyzePassport(modelId, apiVersion, document)
+        ));
+    }
+
+    private ResponseEntity<Object> getAnalysisState(final String resultId) {
+        PendingAnalysis analysis = this.analyses.get(resultId);
+        if (analysis == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", Map.of(
+                            "code", "NotFound",
+                            "message", String.format("Analysis '%s' not found!", resultId)
+                    )));
+        }
+
+        boolean succeeded = System.nanoTime() >= analysis.readyAtNanos();
+        Map<String, Object> operation = new LinkedHashMap<>();
+        operation.put("status", succeeded ? "succeeded" : "running");
+        operation.put("createdDateTime", analysis.createdAt().toString());
+        operation.put("lastUpdatedDateTime", Instant.now().toString());
+        if (succeeded) {
+            operation.put("analyzeResult", analysis.result());
+        }
+        return ResponseEntity.ok(operation);
+    }
+
+    private void removeExpiredAnalyses() {
+        if (this.analyses.size() < MAX_STORED_ANALYSES) {
+            return;
+        }
+        Instant threshold = Instant.now()
+                .minusSeconds(TimeUnit.MINUTES.toSeconds(ANALYSIS_RETENTION_MINUTES));
+        this.analyses.values()
+                .removeIf(analysis -> analysis.createdAt().isBefore(threshold));
+        log.info("Removed expired emulated analyses, {} left", this.analyses.size());
+    }
+
+    /**
+     * An analysis started by the emulator.
+     *
+     * @param createdAt The time the analysis has been started.
+     * @param readyAtNanos The time the analysis succeeds.
+     * @param result The result of the analysis.
+     */
+    private record PendingAnalysis(
+            Instant createdAt,
+            long readyAtNanos,
+            Map<String, Object> result
+    ) {
+    }
+}
@@ -0,0 +1,271 @@
+package com.markvarga21.studentmanager.emulator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A utility class generating the deterministic responses of
+ * the Azure emulator. The same input always results in the
+ * same response, so load tests are repeatable.
+ */
+public final class EmulatedResponses {
+    /**
+     * The first names used for the emulated passports.
+     */
+    private static final String[] FIRST_NAMES = {
+            "ANNA", "BENCE", "CSILLA", "DANIEL", "EMMA", "FERENC", "GABRIELLA", "HUNOR"
+    };
+
+    /**
+     * The last names used for the emulated passports.
+     */
+    private static final String[] LAST_NAMES = {
+            "KOVACS", "NAGY", "POPESCU", "SZABO", "TOTH", "IONESCU", "VARGA", "MOLNAR"
+    };
+
+    /**
+     * The birthplaces used for the emulated passports.
+     */
+    private static final String[] PLACES_OF_BIRTH = {
+            "BUDAPEST", "CLUJ-NAPOCA", "DEBRECEN", "TARGU MURES", "SZEGED", "BRASOV"
+    };
+
+    /**
+     * The country codes used for the emulated passports.
+     */
+    private static final String[] COUNTRY_CODES = {"HUN", "ROU"};
+
+    /**
+     * The earliest birth year of the emulated students.
+     */
+    private static final int FIRST_BIRTH_YEAR = 1990;
+
+    /**
+     * The number of possible birth years.
+     */
+    private static final int BIRTH_YEAR_SPAN = 15;
+
+    /**
+     * The number of possible days within a year.
+     */
+    private static final int DAYS_IN_YEAR = 365;
+
+    /**
+     * The number of days a passport has been issued before today at most.
+     */
+    private static final int MAX_PASSPORT_AGE_DAYS = 1_500;
+
+    /**
+     * The validity of an emulated passport in years.
+     */
+    private static final int PASSPORT_VALIDITY_YEARS = 10;
+
+    /**
+     * The number of digits in an emulated passport number.
+     */
+    private static final int PASSPORT_NUMBER_DIVISOR = 10_000_000;
+
+    /**
+     * The smallest size of an emulated face rectangle.
+     */
+    private static final int MIN_FACE_SIZE = 80;
+
+    /**
+     * The range of the emulated face rectangles' sizes and positions.
+     */
+    private static final int FACE_RANGE = 200;
+
+    /**
+     * The granularity of the emulated verification scores.
+     */
+    private static final int SCORE_BUCKETS = 1_000;
+
+    /**
+     * The lowest confidence of identical faces.
+     */
+    private static final double IDENTICAL_BASE_CONFIDENCE = 0.7;
+
+    /**
+     * The lowest confidence of different faces.
+     */
+    private static final double DIFFERENT_BASE_CONFIDENCE = 0.1;
+
+    /**
+     * The spread of the confidences.
+     */
+    private static final double CONFIDENCE_SPREAD = 0.29;
+
+    /**
+     * The confidence of the extracted passport fields.
+     */
+    private static final double FIELD_CONFIDENCE = 0.99;
+
+    private EmulatedResponses() {
+    }
+
+    /**
+     * Returns the SHA-256 digest of the given bytes.
+     *
+     * @param bytes The bytes to be digested.
+     * @return The digest of the bytes.
+     */
+    public static byte[] digest(final byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Creates the response of the face detection for an image.
+     *
+     * @param image The bytes of the image.
+     * @return The detected face.
+     */
+    public static List<Map<String, Object>> detectFaces(final byte[] image) {
+        ByteBuffer digest = ByteBuffer.wrap(digest(image));
+        int size = MIN_FACE_SIZE + Math.floorMod(digest.getInt(), FACE_RANGE);
+        Map<String, Object> rectangle = new LinkedHashMap<>();
+        rectangle.put("top", Math.floorMod(digest.getInt(), FACE_RANGE));
+        rectangle.put("left", Math.floorMod(digest.getInt(), FACE_RANGE));
+        rectangle.put("width", size);
+        rectangle.put("height", size);
+
+        Map<String, Object> face = new LinkedHashMap<>();
+        face.put("faceId", UUID.nameUUIDFromBytes(digest.array()).toString());
+        face.put("faceRectangle", rectangle);
+        return List.of(face);
+    }
+
+    /**
+     * Creates the response of the face verification of two faces.
+     *
+     * @param faceId1 The ID of the first face.
+     * @param faceId2 The ID of the second face.
+     * @param identicalRatio The ratio of face pairs considered identical.
+     * @return The verification result.
+     */
+    public static Map<String, Object> verifyFaces(
+            final String faceId1,
+            final String faceId2,
+            final double identicalRatio
+    ) {
+        String pair = faceId1.compareTo(faceId2) < 0
+                ? faceId1 + faceId2
+                : faceId2 + faceId1;
+        ByteBuffer digest = ByteBuffer.wrap(digest(pair.getBytes(StandardCharsets.UTF_8)));
+        double score = (double) Math.floorMod(digest.getInt(), SCORE_BUCKETS) / SCORE_BUCKETS;
+        boolean identical = faceId1.equals(faceId2) || score < identicalRatio;
+        double base = identical ? IDENTICAL_BASE_CONFIDENCE : DIFFERENT_BASE_CONFIDENCE;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("isIdentical", identical);
+        result.put("confidence", base + CONFIDENCE_SPREAD * score);
+        return result;
+    }
+
+    /**
+     * Creates the analysis result of a passport.
+     *
+     * @param modelId The ID of the model used for the analysis.
+     * @param apiVersion The API version of the request.
+     * @param document The bytes of the passport.
+     * @return The analysis result in the Form Recognizer's format.
+     */
+    public static Map<String, Object> analyzePassport(
+            final String modelId,
+            final String apiVersion,
+            final byte[] document
+    ) {
+        ByteBuffer digest = ByteBuffer.wrap(digest(document));
+        LocalDate birthDate = LocalDate.of(
+                FIRST_BIRTH_YEAR + Math.floorMod(digest.getInt(), BIRTH_YEAR_SPAN),
+                1,
+                1
+        ).plusDays(Math.floorMod(digest.getInt(), DAYS_IN_YEAR));
+        LocalDate dateOfIssue = LocalDate.now()
+                .minusDays(Math.floorMod(digest.getInt(), MAX_PASSPORT_AGE_DAYS));
+        String passportNumber = String.format(
+                "EM%07d",
+                Math.floorMod(digest.getInt(), PASSPORT_NUMBER_DIVISOR)
+        );
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("FirstName", stringField(pick(FIRST_NAMES, digest.get())));
+        fields.put("LastName", stringField(pick(LAST_NAMES, digest.get())));
+        fields.put("DateOfBirth", dateField(birthDate));
+        fields.put("PlaceOfBirth", stringField(pick(PLACES_OF_BIRTH, digest.get())));
+        fields.put("CountryRegion", countryField(pick(COUNTRY_CODES, digest.get())));
+        fields.put("Sex", stringField(digest.get() % 2 == 0 ? "M" : "F"));
+        fields.put("DocumentNumber", stringField(passportNumber));
+        fields.put("DateOfIssue", dateField(dateOfIssue));
+        fields.put("DateOfExpiration", dateField(dateOfIssue.plusYears(PASSPORT_VALIDITY_YEARS)));
+
+        Map<String, Object> analyzedDocument = new LinkedHashMap<>();
+        analyzedDocument.put("docType", "idDocument.passport");
+        analyzedDocument.put("boundingRegions", List.of());
+        analyzedDocument.put("fields", fields);
+        analyzedDocument.put("spans", List.of());
+        analyzedDocument.put("confidence", FIELD_CONFIDENCE);
+
+        Map<String, Object> analyzeResult = new LinkedHashMap<>();
+        analyzeResult.put("apiVersion", apiVersion);
+        analyzeResult.put("modelId", modelId);
+        analyzeResult.put("stringIndexType", "utf16CodeUnit");
+        analyzeResult.put("content", "");
+        analyzeResult.put("pages", List.of());
+        analyzeResult.put("paragraphs", List.of());
+        analyzeResult.put("tables", List.of());
+        analyzeResult.put("keyValuePairs", List.of());
+        analyzeResult.put("styles", List.of());
+        analyzeResult.put("languages", List.of());
+        analyzeResult.put("documents", List.of(analyzedDocument));
+        return analyzeResult;
+    }
+
+    private static String pick(
+            final String[] values,
+            final byte selector
+    ) {
+        return values[Math.floorMod(selector, values.length)];
+    }
+
+    private static Map<String, Object> stringField(final String value) {
+        Map<String, Object> field = field("string", value);
+        field.put("valueString", value);
+        return field;
+    }
+
+    private static Map<String, Object> dateField(final LocalDate value) {
+        Map<String, Object> field = field("date", value.toString());
+        field.put("valueDate", value.toString());
+        return field;
+    }
+
+    private static Map<String, Object> countryField(final String value) {
+        Map<String, Object> field = field("countryRegion", value);
+        field.put("valueCountryRegion", value);
+        return field;
+    }
+
+    private static Map<String, Object> field(
+            final String type,
+            final String content
+    ) {
+        Map<String, Object> field = new LinkedHashMap<>();
+        field.put("type", type);
+        field.put("content", content);
+        field.put("boundingRegions", List.of());
+        field.put("spans", List.of());
+        field.put("confidence", FIELD_CONFIDENCE);
+        return field;
+    }
+}
@@ -0,0 +1,255 @@
+package com.markvarga21.studentmanager.emulator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Emulates the service conditions of Azure: the latency of the
+ * operations following a log-normal distribution, random
+ * server errors and throttling above the quota of each operation.
+ * The latency is waited out on a scheduler of its own, so the
+ * emulated calls do not hold the servlet threads shared with
+ * the application under test.
+ */
+@Component
+@Profile(AzureEmulatorController.EMULATOR_PROFILE)
+@Slf4j
+public class EmulatedServiceConditions {
+    /**
+     * The ratio of the requests failing with a server error.
+     */
+    @Value("${azure.emulator.error-rate:0.0}")
+    private double errorRate;
+
+    /**
+     * The number of requests per second served by
+     * each operation before throttling.
+     */
+    @Value("${azure.emulator.permits-per-second:10}")
+    private double permitsPerSecond;
+
+    /**
+     * The number of requests which can be served
+     * by each operation in a burst.
+     */
+    @Value("${azure.emulator.burst-capacity:10}")
+    private double burstCapacity;
+
+    /**
+     * The throttle of each operation.
+     */
+    private final Map<Operation, TokenBucket> buckets = new EnumMap<>(Operation.class);
+
+    /**
+     * The scheduler completing the responses once their latency elapsed.
+     */
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates the throttles and the scheduler of the responses.
+     */
+    @PostConstruct
+    public void init() {
+        for (Operation operation : Operation.values()) {
+            this.buckets.put(operation, new TokenBucket(this.permitsPerSecond, this.burstCapacity));
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "azure-emulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Shuts down the scheduler of the responses.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * Responds to a request of the given operation. Rejected
+     * requests are answered at once, the others only after a
+     * latency sampled from a log-normal distribution, without
+     * blocking the calling thread.
+     *
+     * @param operation The emulated operation.
+     * @param medianMillis The median of the latency in milliseconds.
+     * @param sigma The shape of the distribution, higher values mean longer tails.
+     * @param response Creates the response once the latency elapsed.
+     * @return The response to be completed.
+     */
+    public DeferredResult<ResponseEntity<Object>> respond(
+            final Operation operation,
+            final long medianMillis,
+            final double sigma,
+            final Supplier<ResponseEntity<Object>> response
+    ) {
+        DeferredResult<ResponseEntity<Object>> result = new DeferredResult<>();
+        Optional<ResponseEntity<Object>> rejection = this.rejectRequest(operation);
+        if (rejection.isPresent()) {
+            result.setResult(rejection.get());
+            return result;
+        }
+        this.scheduler.schedule(() -> {
+            try {
+                result.setResult(response.get());
+            } catch (RuntimeException exception) {
+                result.setErrorResult(exception);
+            }
+        }, this.sampleLatencyMillis(medianMillis, sigma), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Decides whether the request of the given operation is
+     * throttled or fails, returning the matching error response if so.
+     *
+     * @param operation The emulated operation.
+     * @return The error response, or an empty {@code Optional} if the request can be served.
+     */
+    public Optional<ResponseEntity<Object>> rejectRequest(final Operation operation) {
+        if (!this.buckets.get(operation).tryTake()) {
+            log.warn("Emulated Azure {} request throttled", operation);
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return Optional.of(error(
+                    HttpStatus.TOO_MANY_REQUESTS,
+                    "429",
+                    "Rate limit is exceeded. Try again in 1 seconds.",
+                    headers
+            ));
+        }
+        if (ThreadLocalRandom.current().nextDouble() < this.errorRate) {
+            return Optional.of(error(
+                    HttpStatus.INTERNAL_SERVER_ERROR,
+                    "InternalServerError",
+                    "An unexpected error occurred.",
+                    new HttpHeaders()
+            ));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Samples a latency from a log-normal distribution.
+     *
+     * @param medianMillis The median of the latency in milliseconds.
+     * @param sigma The shape of the distribution, higher values mean longer tails.
+     * @return The sampled latency in milliseconds.
+     */
+    public long sampleLatencyMillis(
+            final long medianMillis,
+            final double sigma
+    ) {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.round(medianMillis * Math.exp(sigma * gaussian));
+    }
+
+    private static ResponseEntity<Object> error(
+            final HttpStatus status,
+            final String code,
+            final String message,
+            final HttpHeaders headers
+    ) {
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of("error", Map.of("code", code, "message", message)));
+    }
+
+    /**
+     * The operations of Azure, each throttled separately.
+     */
+    public enum Operation {
+        /**
+         * The face detection of the Face API.
+         */
+        DETECT,
+        /**
+         * The face verification of the Face API.
+         */
+        VERIFY,
+        /**
+         * Starting a document analysis of the Form Recognizer.
+         */
+        ANALYZE,
+        /**
+         * Polling the result of a document analysis.
+         */
+        GET_ANALYZE_RESULT
+    }
+
+    /**
+     * A token bucket throttling a single operation.
+     */
+    private static final class TokenBucket {
+        /**
+         * The number of tokens refilled per second.
+         */
+        private final double permitsPerSecond;
+
+        /**
+         * The maximum number of tokens.
+         */
+        private final double capacity;
+
+        /**
+         * The number of tokens currently available.
+         */
+        private double tokens;
+
+        /**
+         * The last time the tokens have been refilled.
+         */
+        private long lastRefillNanos = System.nanoTime();
+
+        /**
+         * Creates a full bucket.
+         *
+         * @param permitsPerSecond The number of tokens refilled per second.
+         * @param capacity The maximum number of tokens.
+         */
+        TokenBucket(final double permitsPerSecond, final double capacity) {
+            this.permitsPerSecond = permitsPerSecond;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Takes a token if one is available.
+         *
+         * @return {@code true} if a token has been taken.
+         */
+        synchronized boolean tryTake() {
+            long now = System.nanoTime();
+            double refilled = (now - this.lastRefillNanos) * this.permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+            this.tokens = Math.min(this.capacity, this.tokens + refilled);
+            this.lastRefillNanos = now;
+            if (this.tokens < 1) {
+                return false;
+            }
+            this.tokens -= 1;
+            return true;
+        }
+    }
+}
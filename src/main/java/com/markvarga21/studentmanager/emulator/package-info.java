@@ -0,0 +1,6 @@
+/**
+ * A package containing a local stand-in for Azure's Face API
+ * and Form Recognizer, used for load testing without
+ * consuming the quota of the real services.
+ */
+package com.markvarga21.studentmanager.emulator;
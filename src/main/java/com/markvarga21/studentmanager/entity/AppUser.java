@@ -15,6 +15,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.BatchSize;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -32,6 +33,12 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AppUser {
+    /**
+     * The number of users whose roles are loaded by a single
+     * query when they are not fetched by an entity graph.
+     */
+    private static final int ROLES_BATCH_SIZE = 100;
+
     /**
      * The id of the user.
      */
@@ -74,6 +81,7 @@ public class AppUser {
      * The roles of the user.
      */
     @ElementCollection(targetClass = Role.class, fetch = FetchType.EAGER)
+    @BatchSize(size = ROLES_BATCH_SIZE)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
     @Column(name = "role")
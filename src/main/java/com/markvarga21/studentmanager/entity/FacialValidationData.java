@@ -9,6 +9,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
+
+import java.time.LocalDateTime;
 
 /**
  * A class for storing the facial validation data.
@@ -19,6 +22,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Generated
+@Where(clause = "deleted_at is null")
 public class FacialValidationData {
     /**
      * The id of the facial validation data.
@@ -41,4 +45,10 @@ public class FacialValidationData {
      * The percentage of the faces matching.
      */
     private Double percentage;
+
+    /**
+     * The time the validation data has been deleted, or {@code null} if it has not.
+     * Deleted rows are hidden and purged in the background.
+     */
+    private LocalDateTime deletedAt;
 }
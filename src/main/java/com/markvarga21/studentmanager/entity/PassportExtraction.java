@@ -0,0 +1,135 @@
+package com.markvarga21.studentmanager.entity;
+
+import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.util.Generated;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An entity class which is used to store the data extracted
+ * from a passport image, identified by the content hash
+ * of the image, so the same image is never analyzed twice.
+ */
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Generated
+public class PassportExtraction {
+    /**
+     * The length of a hexadecimal SHA-256 hash.
+     */
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * The SHA-256 hash of the passport image.
+     */
+    @Id
+    @Column(length = HASH_LENGTH)
+    private String imageHash;
+
+    /**
+     * The time of the extraction.
+     */
+    private LocalDateTime timestamp;
+
+    /**
+     * The extracted first name.
+     */
+    private String firstName;
+
+    /**
+     * The extracted last name.
+     */
+    private String lastName;
+
+    /**
+     * The extracted birthdate.
+     */
+    private String birthDate;
+
+    /**
+     * The extracted birthplace.
+     */
+    private String placeOfBirth;
+
+    /**
+     * The extracted country of citizenship.
+     */
+    private String countryOfCitizenship;
+
+    /**
+     * The extracted gender.
+     */
+    private Gender gender;
+
+    /**
+     * The extracted passport number.
+     */
+    private String passportNumber;
+
+    /**
+     * The extracted date of expiry.
+     */
+    private String passportDateOfExpiry;
+
+    /**
+     * The extracted date of issue.
+     */
+    private String passportDateOfIssue;
+
+    /**
+     * Creates a new {@code StudentDto} object from
+     * the extracted data.
+     *
+     * @return A newly created {@code StudentDto} object.
+     */
+    public StudentDto toStudentDto() {
+        return StudentDto.builder()
+                .firstName(this.firstName)
+                .lastName(this.lastName)
+                .birthDate(this.birthDate)
+                .placeOfBirth(this.placeOfBirth)
+                .countryOfCitizenship(this.countryOfCitizenship)
+                .gender(this.gender)
+                .passportNumber(this.passportNumber)
+                .passportDateOfExpiry(this.passportDateOfExpiry)
+                .passportDateOfIssue(this.passportDateOfIssue)
+                .build();
+    }
+
+    /**
+     * Creates a new extraction from the data extracted
+     * from the passport image.
+     *
+     * @param imageHash The SHA-256 hash of the passport image.
+     * @param studentDto The extracted student DTO.
+     * @return A new {@code PassportExtraction} object.
+     */
+    public static PassportExtraction of(
+            final String imageHash,
+            final StudentDto studentDto
+    ) {
+        return PassportExtraction.builder()
+                .imageHash(imageHash)
+                .timestamp(LocalDateTime.now())
+                .firstName(studentDto.getFirstName())
+                .lastName(studentDto.getLastName())
+                .birthDate(studentDto.getBirthDate())
+                .placeOfBirth(studentDto.getPlaceOfBirth())
+                .countryOfCitizenship(studentDto.getCountryOfCitizenship())
+                .gender(studentDto.getGender())
+                .passportNumber(studentDto.getPassportNumber())
+                .passportDateOfExpiry(studentDto.getPassportDateOfExpiry())
+                .passportDateOfIssue(studentDto.getPassportDateOfIssue())
+                .build();
+    }
+}
@@ -12,6 +12,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.checkerframework.common.aliasing.qual.Unique;
+import org.hibernate.annotations.Where;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -26,6 +27,7 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Data
 @Generated
+@Where(clause = "deleted_at is null")
 public class PassportValidationData {
     /**
      * The ID of the passport validation data.
@@ -85,6 +87,12 @@ public class PassportValidationData {
      */
     private LocalDate passportDateOfIssue;
 
+    /**
+     * The time the validation data has been deleted, or {@code null} if it has not.
+     * Deleted rows are hidden and purged in the background.
+     */
+    private LocalDateTime deletedAt;
+
     /**
      * Creates a new {@code StudentDto} object from
      * the provided {@code PassportValidationData}.
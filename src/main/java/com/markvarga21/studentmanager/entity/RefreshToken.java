@@ -0,0 +1,68 @@
+package com.markvarga21.studentmanager.entity;
+
+import com.markvarga21.studentmanager.util.Generated;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An entity class which is used to store the issued refresh tokens.
+ * Only the hash of a token is stored. Every rotation issues a new token
+ * in the same family, so the reuse of a rotated token revokes the family.
+ */
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@Generated
+public class RefreshToken {
+    /**
+     * The length of a hexadecimal SHA-256 hash.
+     */
+    private static final int HASH_LENGTH = 64;
+
+    /**
+     * The id of the refresh token.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    /**
+     * The SHA-256 hash of the token.
+     */
+    @Column(length = HASH_LENGTH, unique = true, nullable = false)
+    private String tokenHash;
+
+    /**
+     * The username of the owner of the token.
+     */
+    @Column(nullable = false)
+    private String username;
+
+    /**
+     * The id shared by the tokens rotated from the same login.
+     */
+    @Column(nullable = false)
+    private String familyId;
+
+    /**
+     * The expiration of the token.
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    /**
+     * Whether the token has already been rotated.
+     */
+    private boolean used;
+}
@@ -10,8 +10,10 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 /**
  * Represents a student entity in the application.
@@ -22,6 +24,7 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Builder
 @Generated
+@Where(clause = "deleted_at is null")
 public class Student {
     /**
      * A unique identifier for the student.
@@ -82,4 +85,10 @@ public class Student {
      * or by an automatic checking procedure.
      */
     private boolean valid;
+
+    /**
+     * The time the student has been deleted, or {@code null} if it has not.
+     * Deleted rows are hidden and purged in the background.
+     */
+    private LocalDateTime deletedAt;
 }
@@ -8,6 +8,9 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Where;
+
+import java.time.LocalDateTime;
 
 /**
  * Represents the images of students.
@@ -18,6 +21,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Generated
+@Where(clause = "deleted_at is null")
 public class StudentImage {
     /**
      * The passport number of the student.
@@ -36,4 +40,34 @@ public class StudentImage {
      */
     @Lob
     private byte[] selfieImage;
+
+    /**
+     * The perceptual hash of the passport image, or {@code null}
+     * if it has not been computed.
+     */
+    private Long passportHash;
+
+    /**
+     * The perceptual hash of the selfie image, or {@code null}
+     * if it has not been computed.
+     */
+    private Long selfieHash;
+
+    /**
+     * The SHA-256 hash of the passport image, or {@code null}
+     * if it has not been computed.
+     */
+    private String passportContentHash;
+
+    /**
+     * The SHA-256 hash of the selfie image, or {@code null}
+     * if it has not been computed.
+     */
+    private String selfieContentHash;
+
+    /**
+     * The time the images have been deleted, or {@code null} if they have not.
+     * Deleted rows are hidden and purged in the background.
+     */
+    private LocalDateTime deletedAt;
 }
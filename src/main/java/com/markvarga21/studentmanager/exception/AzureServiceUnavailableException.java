@@ -0,0 +1,53 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A custom exception which is used when an Azure service
+ * cannot be called, because its quota has been exhausted
+ * or the service itself is degraded.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Generated
+public class AzureServiceUnavailableException extends RuntimeException {
+    /**
+     * The number of seconds after which the client can retry.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Custom constructor which contains a message and the
+     * number of seconds after which the call can be retried.
+     *
+     * @param message The custom message.
+     * @param retryAfterSeconds The seconds after the call can be retried.
+     */
+    public AzureServiceUnavailableException(
+            final String message,
+            final long retryAfterSeconds
+    ) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Custom constructor which contains a message, the
+     * number of seconds after which the call can be retried
+     * and the cause of the exception.
+     *
+     * @param message The custom message.
+     * @param retryAfterSeconds The seconds after the call can be retried.
+     * @param cause The cause of the exception.
+     */
+    public AzureServiceUnavailableException(
+            final String message,
+            final long retryAfterSeconds,
+            final Throwable cause
+    ) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,36 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A custom exception which is used when an uploaded image is a near
+ * duplicate of the other image of the student, or of another
+ * student's image.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Generated
+public class DuplicateImageException extends RuntimeException {
+    /**
+     * The type of the operation the user just did,
+     * which caused the exception to raise.
+     */
+    private final OperationType type;
+
+    /**
+     * Custom constructor which contains a message and the
+     * operation type of the exception.
+     *
+     * @param message A custom message describing the duplicate.
+     * @param type The type of the operation.
+     */
+    public DuplicateImageException(
+            final String message,
+            final OperationType type
+    ) {
+        super(message);
+        this.type = type;
+    }
+}
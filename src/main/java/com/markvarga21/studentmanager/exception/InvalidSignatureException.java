@@ -0,0 +1,20 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+
+/**
+ * A custom exception which is used when a signed image URL
+ * has been tampered with, has expired, or points to an
+ * image which has been replaced since.
+ */
+@Generated
+public class InvalidSignatureException extends RuntimeException {
+    /**
+     * The default constructor.
+     *
+     * @param message The message to be sent when the exception occurs.
+     */
+    public InvalidSignatureException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+
+/**
+ * A custom exception which is used when a chunk of a resumable
+ * upload is corrupted, or the upload cannot be completed.
+ */
+@Generated
+public class InvalidUploadException extends RuntimeException {
+    /**
+     * The default constructor.
+     *
+     * @param message The message to be sent when the exception occurs.
+     */
+    public InvalidUploadException(final String message) {
+        super(message);
+    }
+}
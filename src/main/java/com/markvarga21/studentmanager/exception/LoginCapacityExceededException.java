@@ -0,0 +1,35 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A custom exception which is used when a password cannot be
+ * hashed or verified, because every hashing thread is busy and
+ * the queue of the waiting requests is full.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Generated
+public class LoginCapacityExceededException extends RuntimeException {
+    /**
+     * The number of seconds after which the client can retry.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Custom constructor which contains a message and the
+     * number of seconds after which the call can be retried.
+     *
+     * @param message The custom message.
+     * @param retryAfterSeconds The seconds after the call can be retried.
+     */
+    public LoginCapacityExceededException(
+            final String message,
+            final long retryAfterSeconds
+    ) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,34 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A custom exception which is used when a chunk of a resumable
+ * upload does not start where the received bytes end.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@Generated
+public class UploadOffsetMismatchException extends RuntimeException {
+    /**
+     * The offset where the next chunk has to start.
+     */
+    private final long expectedOffset;
+
+    /**
+     * Custom constructor which contains a message and
+     * the offset where the next chunk has to start.
+     *
+     * @param message The custom message.
+     * @param expectedOffset The offset of the next chunk.
+     */
+    public UploadOffsetMismatchException(
+            final String message,
+            final long expectedOffset
+    ) {
+        super(message);
+        this.expectedOffset = expectedOffset;
+    }
+}
@@ -0,0 +1,19 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+
+/**
+ * A custom exception which is used when a user has
+ * too many unfinished upload sessions.
+ */
+@Generated
+public class UploadQuotaExceededException extends RuntimeException {
+    /**
+     * The default constructor.
+     *
+     * @param message The message to be sent when the exception occurs.
+     */
+    public UploadQuotaExceededException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+
+/**
+ * A custom exception which is used when an upload
+ * session does not exist or has expired.
+ */
+@Generated
+public class UploadSessionNotFoundException extends RuntimeException {
+    /**
+     * The default constructor.
+     *
+     * @param message The message to be sent when the exception occurs.
+     */
+    public UploadSessionNotFoundException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.markvarga21.studentmanager.exception;
+
+import com.markvarga21.studentmanager.util.Generated;
+
+/**
+ * A custom exception which is used when the unfinished uploads
+ * would take more disk space than they are allowed to.
+ */
+@Generated
+public class UploadStorageFullException extends RuntimeException {
+    /**
+     * The default constructor.
+     *
+     * @param message The message to be sent when the exception occurs.
+     */
+    public UploadStorageFullException(final String message) {
+        super(message);
+    }
+}
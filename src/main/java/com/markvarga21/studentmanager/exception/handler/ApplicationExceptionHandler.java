@@ -1,16 +1,25 @@
 package com.markvarga21.studentmanager.exception.handler;
 
+import com.markvarga21.studentmanager.exception.AzureServiceUnavailableException;
+import com.markvarga21.studentmanager.exception.DuplicateImageException;
 import com.markvarga21.studentmanager.exception.InvalidDateException;
 import com.markvarga21.studentmanager.exception.InvalidDateFormatException;
 import com.markvarga21.studentmanager.exception.InvalidFacesException;
 import com.markvarga21.studentmanager.exception.InvalidPassportException;
+import com.markvarga21.studentmanager.exception.InvalidSignatureException;
 import com.markvarga21.studentmanager.exception.InvalidStudentException;
+import com.markvarga21.studentmanager.exception.InvalidUploadException;
 import com.markvarga21.studentmanager.exception.InvalidUserCredentialsException;
+import com.markvarga21.studentmanager.exception.LoginCapacityExceededException;
 import com.markvarga21.studentmanager.exception.OperationType;
 import com.markvarga21.studentmanager.exception.PassportValidationDataNotFoundException;
 import com.markvarga21.studentmanager.exception.ReportNotFoundException;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
 import com.markvarga21.studentmanager.exception.TokenNotFoundException;
+import com.markvarga21.studentmanager.exception.UploadOffsetMismatchException;
+import com.markvarga21.studentmanager.exception.UploadQuotaExceededException;
+import com.markvarga21.studentmanager.exception.UploadSessionNotFoundException;
+import com.markvarga21.studentmanager.exception.UploadStorageFullException;
 import com.markvarga21.studentmanager.exception.UserNotFoundException;
 import com.markvarga21.studentmanager.exception.util.ApiError;
 import com.markvarga21.studentmanager.exception.util.InvalidFacesApiError;
@@ -50,6 +59,11 @@ public class ApplicationExceptionHandler {
      */
     public static final String POINT_UNICODE = "\u2022";
 
+    /**
+     * The header holding the offset a resumable upload continues from.
+     */
+    public static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
     /**
      * Handles if the user did not input the information correctly when using
      * the application's endpoints.
@@ -520,6 +534,263 @@ public class ApplicationExceptionHandler {
         );
     }
 
+    /**
+     * Handles the exception if an Azure service cannot be called
+     * due to its exhausted quota or degraded state.
+     *
+     * @param ex The exception is caused by the unavailable Azure service.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(AzureServiceUnavailableException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Object> handleAzureServiceUnavailableException(
+            final AzureServiceUnavailableException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                OperationType.READ,
+                getStackTraceAsString(ex)
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                HttpHeaders.RETRY_AFTER,
+                String.valueOf(ex.getRetryAfterSeconds())
+        );
+        return new ResponseEntity<>(
+                apiError,
+                headers,
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if a password cannot be hashed
+     * or verified, because the hashing threads are saturated.
+     *
+     * @param ex The exception is caused by the saturated hashing threads.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(LoginCapacityExceededException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Object> handleLoginCapacityExceededException(
+            final LoginCapacityExceededException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.SERVICE_UNAVAILABLE,
+                ex.getMessage(),
+                OperationType.READ,
+                getStackTraceAsString(ex)
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                HttpHeaders.RETRY_AFTER,
+                String.valueOf(ex.getRetryAfterSeconds())
+        );
+        return new ResponseEntity<>(
+                apiError,
+                headers,
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if an upload session does not exist.
+     *
+     * @param ex The exception is caused by the missing upload session.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Object> handleUploadSessionNotFoundException(
+            final UploadSessionNotFoundException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.NOT_FOUND,
+                ex.getMessage(),
+                OperationType.UPDATE,
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if a chunk does not start where
+     * the received bytes of the upload end.
+     *
+     * @param ex The exception is caused by the misplaced chunk.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(UploadOffsetMismatchException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleUploadOffsetMismatchException(
+            final UploadOffsetMismatchException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.CONFLICT,
+                ex.getMessage(),
+                OperationType.UPDATE,
+                getStackTraceAsString(ex)
+        );
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                UPLOAD_OFFSET_HEADER,
+                String.valueOf(ex.getExpectedOffset())
+        );
+        return new ResponseEntity<>(
+                apiError,
+                headers,
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if a chunk is corrupted,
+     * or the upload cannot be completed.
+     *
+     * @param ex The exception is caused by the invalid upload.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(InvalidUploadException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Object> handleInvalidUploadException(
+            final InvalidUploadException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.BAD_REQUEST,
+                ex.getMessage(),
+                OperationType.UPDATE,
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if a user has too many
+     * unfinished upload sessions.
+     *
+     * @param ex The exception is caused by the exceeded quota.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(UploadQuotaExceededException.class)
+    @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+    public ResponseEntity<Object> handleUploadQuotaExceededException(
+            final UploadQuotaExceededException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.TOO_MANY_REQUESTS,
+                ex.getMessage(),
+                OperationType.CREATE,
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if the unfinished uploads would
+     * take more disk space than they are allowed to.
+     *
+     * @param ex The exception is caused by the full upload storage.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(UploadStorageFullException.class)
+    @ResponseStatus(HttpStatus.INSUFFICIENT_STORAGE)
+    public ResponseEntity<Object> handleUploadStorageFullException(
+            final UploadStorageFullException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.INSUFFICIENT_STORAGE,
+                ex.getMessage(),
+                OperationType.CREATE,
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if a signed image URL
+     * is not valid or has expired.
+     *
+     * @param ex The exception is caused by the invalid signature.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(InvalidSignatureException.class)
+    @ResponseStatus(HttpStatus.FORBIDDEN)
+    public ResponseEntity<Object> handleInvalidSignatureException(
+            final InvalidSignatureException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.FORBIDDEN,
+                ex.getMessage(),
+                OperationType.READ,
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
+    /**
+     * Handles the exception if an uploaded image is
+     * a near duplicate of an already stored one.
+     *
+     * @param ex The exception is caused by the duplicate image.
+     * @return A readable {@code ResponseEntity} containing useful information.
+     */
+    @ExceptionHandler(DuplicateImageException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Object> handleDuplicateImageException(
+            final DuplicateImageException ex
+    ) {
+        log.error(ex.getMessage());
+        ApiError apiError = new ApiError(
+                new Date(),
+                HttpStatus.CONFLICT,
+                ex.getMessage(),
+                ex.getType(),
+                getStackTraceAsString(ex)
+        );
+        return new ResponseEntity<>(
+                apiError,
+                new HttpHeaders(),
+                apiError.getStatus()
+        );
+    }
+
     /**
      * Extracts the exception's stacktrace into a
      * more readable {@code String} format.
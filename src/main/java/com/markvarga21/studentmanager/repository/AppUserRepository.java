@@ -1,10 +1,22 @@
 package com.markvarga21.studentmanager.repository;
 
 import com.markvarga21.studentmanager.entity.AppUser;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * The app user repository holding the users credentials.
@@ -17,6 +29,7 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
      * @param username The username of the user.
      * @return The user object.
      */
+    @EntityGraph(attributePaths = "roles")
     Optional<AppUser> findByUsername(String username);
 
     /**
@@ -27,4 +40,58 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
      * @return The user object.
      */
     Optional<AppUser> findByFirstNameAndLastName(String firstName, String lastName);
+
+    /**
+     * This method is used to find which of the usernames are taken.
+     *
+     * @param usernames The usernames to be checked.
+     * @return The usernames which already belong to a user.
+     */
+    @Query("select u.username from AppUser u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * This method is used to find a page of user IDs.
+     *
+     * @param pageable The page to be found.
+     * @return The page of user IDs.
+     */
+    @Query(
+            value = "select u.id from AppUser u",
+            countQuery = "select count(u) from AppUser u"
+    )
+    Page<Long> findAllIds(Pageable pageable);
+
+    /**
+     * This method is used to find users together with their roles.
+     *
+     * @param ids The IDs of the users.
+     * @return The users with their roles loaded.
+     */
+    @EntityGraph(attributePaths = "roles")
+    @Query("select u from AppUser u where u.id in :ids")
+    List<AppUser> findAllWithRolesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * This method is used to find a page of users with their roles,
+     * without one roles query per user. The page is selected on the
+     * IDs first, because fetching a collection together with a limit
+     * would make Hibernate paginate in memory.
+     *
+     * @param pageable The page to be found.
+     * @return The page of users with their roles loaded.
+     */
+    default Page<AppUser> findAllWithRoles(final Pageable pageable) {
+        Page<Long> ids = this.findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        ids.getContent().forEach(id -> positions.put(id, positions.size()));
+        List<AppUser> users = this.findAllWithRolesByIdIn(positions.keySet())
+                .stream()
+                .sorted(Comparator.comparing(user -> positions.get(user.getId())))
+                .toList();
+        return new PageImpl<>(users, pageable, ids.getTotalElements());
+    }
 }
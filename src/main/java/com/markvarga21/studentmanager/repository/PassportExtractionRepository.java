@@ -0,0 +1,28 @@
+package com.markvarga21.studentmanager.repository;
+
+import com.markvarga21.studentmanager.entity.PassportExtraction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * A repository which is used to store the data extracted
+ * from passport images, identified by the images' content hash.
+ */
+@Repository
+public interface PassportExtractionRepository extends
+        JpaRepository<PassportExtraction, String> {
+    /**
+     * Stores an extraction in its own transaction, so a concurrent
+     * extraction of the same image failing on the unique hash does
+     * not roll back the transaction of the caller.
+     *
+     * @param extraction The extraction.
+     * @param <S> The type of the extraction.
+     * @return The stored extraction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    <S extends PassportExtraction> S saveAndFlush(S extraction);
+}
@@ -2,8 +2,14 @@ package com.markvarga21.studentmanager.repository;
 
 import com.markvarga21.studentmanager.entity.PassportValidationData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -29,4 +35,44 @@ public interface PassportValidationDataRepository extends
     Optional<PassportValidationData> getPassportValidationDataByPassportNumber(
             String passportNumber
     );
+
+    /**
+     * Marks the passport validation data of the passport
+     * numbers as deleted with a single statement.
+     *
+     * @param passportNumbers The passport numbers.
+     * @param deletedAt The time of the deletion.
+     * @return The number of marked rows.
+     */
+    @Modifying
+    @Query("update PassportValidationData p set p.deletedAt = :deletedAt where p.passportNumber in :passportNumbers")
+    int markDeletedByPassportNumberIn(
+            @Param("passportNumbers") Collection<String> passportNumbers,
+            @Param("deletedAt") LocalDateTime deletedAt
+    );
+
+    /**
+     * Finds the ids of the passport validation data waiting to be purged.
+     *
+     * @param limit The maximum number of ids.
+     * @return The ids of the validation data.
+     */
+    @Query(
+            value = "select id from passport_validation_data where deleted_at is not null limit :limit",
+            nativeQuery = true
+    )
+    List<Long> findDeletedIds(@Param("limit") int limit);
+
+    /**
+     * Purges the deleted passport validation data.
+     *
+     * @param ids The ids of the validation data.
+     * @return The number of purged rows.
+     */
+    @Modifying
+    @Query(
+            value = "delete from passport_validation_data where deleted_at is not null and id in :ids",
+            nativeQuery = true
+    )
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,56 @@
+package com.markvarga21.studentmanager.repository;
+
+import com.markvarga21.studentmanager.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * The repository for the refresh tokens.
+ */
+@Repository
+public interface RefreshTokenRepository
+        extends JpaRepository<RefreshToken, Long> {
+    /**
+     * This method is used to find a refresh token by its hash.
+     *
+     * @param tokenHash The SHA-256 hash of the token.
+     * @return The refresh token.
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Marks a token as used, unless it has already been used.
+     *
+     * @param id The id of the token.
+     * @return The number of updated tokens, {@code 0} if it has already been used.
+     */
+    @Modifying
+    @Query("update RefreshToken t set t.used = true where t.id = :id and t.used = false")
+    int markUsed(@Param("id") Long id);
+
+    /**
+     * Deletes every token of a family.
+     *
+     * @param familyId The id of the family.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    /**
+     * Deletes the tokens expired before the given time.
+     *
+     * @param time The time.
+     * @return The number of deleted tokens.
+     */
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt < :time")
+    int deleteExpiredBefore(@Param("time") LocalDateTime time);
+}
@@ -1,9 +1,15 @@
 package com.markvarga21.studentmanager.repository;
 
+import com.markvarga21.studentmanager.dto.Role;
 import com.markvarga21.studentmanager.entity.StudentAppUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -26,4 +32,99 @@ public interface StudentAppUserRepository
      * @return The student app user.
      */
     Optional<StudentAppUser> findByUsername(String username);
+
+    /**
+     * This method is used to find the names of the students
+     * which are not linked to any user.
+     *
+     * @return The unlinked students.
+     */
+    @Query("select s.id as id, s.firstName as firstName, s.lastName as lastName from Student s "
+            + "where not exists (select l.id from StudentAppUser l where l.studentId = s.id)")
+    List<UnlinkedStudent> findUnlinkedStudents();
+
+    /**
+     * This method is used to find the names of the users
+     * without the given role which are not linked to any student.
+     *
+     * @param excludedRole The role of the users to be skipped.
+     * @return The unlinked users.
+     */
+    @Query("select u.username as username, u.firstName as firstName, u.lastName as lastName from AppUser u "
+            + "where :excludedRole not member of u.roles "
+            + "and not exists (select l.id from StudentAppUser l where l.username = u.username)")
+    List<UnlinkedUser> findUnlinkedUsers(@Param("excludedRole") Role excludedRole);
+
+    /**
+     * This method is used to find the users linked to
+     * the student owning the passport.
+     *
+     * @param passportNumber The passport number of the student.
+     * @return The usernames of the linked users.
+     */
+    @Query("select l.username from StudentAppUser l, Student s "
+            + "where l.studentId = s.id and s.passportNumber = :passportNumber")
+    List<String> findUsernamesByPassportNumber(@Param("passportNumber") String passportNumber);
+
+    /**
+     * Deletes the links of the students with a single statement.
+     *
+     * @param studentIds The ids of the students.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Query("delete from StudentAppUser l where l.studentId in :studentIds")
+    int deleteAllByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * The name of a student not linked to any user.
+     */
+    interface UnlinkedStudent {
+        /**
+         * Returns the ID of the student.
+         *
+         * @return The ID of the student.
+         */
+        Long getId();
+
+        /**
+         * Returns the first name of the student.
+         *
+         * @return The first name of the student.
+         */
+        String getFirstName();
+
+        /**
+         * Returns the last name of the student.
+         *
+         * @return The last name of the student.
+         */
+        String getLastName();
+    }
+
+    /**
+     * The name of a user not linked to any student.
+     */
+    interface UnlinkedUser {
+        /**
+         * Returns the username of the user.
+         *
+         * @return The username of the user.
+         */
+        String getUsername();
+
+        /**
+         * Returns the first name of the user.
+         *
+         * @return The first name of the user.
+         */
+        String getFirstName();
+
+        /**
+         * Returns the last name of the user.
+         *
+         * @return The last name of the user.
+         */
+        String getLastName();
+    }
 }
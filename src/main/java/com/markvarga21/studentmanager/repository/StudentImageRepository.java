@@ -2,8 +2,16 @@ package com.markvarga21.studentmanager.repository;
 
 import com.markvarga21.studentmanager.entity.StudentImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * A repository which is used to store the students images.
  */
@@ -16,4 +24,124 @@ public interface StudentImageRepository
      * @param studentId The id of the student.
      */
     void deleteStudentImageByStudentId(Long studentId);
+
+    /**
+     * Marks the images of the students as deleted with a single
+     * statement, without loading the images first.
+     *
+     * @param studentIds The ids of the students.
+     * @param deletedAt The time of the deletion.
+     * @return The number of marked rows.
+     */
+    @Modifying
+    @Query("update StudentImage i set i.deletedAt = :deletedAt where i.studentId in :studentIds")
+    int markDeletedByStudentIdIn(
+            @Param("studentIds") Collection<Long> studentIds,
+            @Param("deletedAt") LocalDateTime deletedAt
+    );
+
+    /**
+     * Finds the ids of the students whose images are waiting to be purged.
+     *
+     * @param limit The maximum number of ids.
+     * @return The ids of the students.
+     */
+    @Query(
+            value = "select student_id from student_image where deleted_at is not null limit :limit",
+            nativeQuery = true
+    )
+    List<Long> findDeletedStudentIds(@Param("limit") int limit);
+
+    /**
+     * Purges the deleted images of the students.
+     *
+     * @param studentIds The ids of the students.
+     * @return The number of purged rows.
+     */
+    @Modifying
+    @Query(
+            value = "delete from student_image where deleted_at is not null and student_id in :studentIds",
+            nativeQuery = true
+    )
+    int purgeByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Finds the perceptual hashes of every stored image,
+     * without loading the images themselves.
+     *
+     * @return The hashes of the images by student.
+     */
+    @Query("select i.studentId as studentId, i.passportHash as passportHash, i.selfieHash as selfieHash from StudentImage i")
+    List<ImageHashes> findAllImageHashes();
+
+    /**
+     * Finds the perceptual hashes of the images of the given students,
+     * without loading the images themselves.
+     *
+     * @param studentIds The ids of the students.
+     * @return The hashes of the images by student.
+     */
+    @Query(
+            "select i.studentId as studentId, i.passportHash as passportHash, i.selfieHash as selfieHash "
+                    + "from StudentImage i where i.studentId in :studentIds"
+    )
+    List<ImageHashes> findImageHashesByStudentIdIn(@Param("studentIds") Collection<Long> studentIds);
+
+    /**
+     * Finds the content hashes of the images of a student,
+     * without loading the images themselves.
+     *
+     * @param studentId The id of the student.
+     * @return The content hashes, or an empty optional if the student has no images.
+     */
+    @Query(
+            "select i.passportContentHash as passportContentHash, i.selfieContentHash as selfieContentHash "
+                    + "from StudentImage i where i.studentId = :studentId"
+    )
+    Optional<ContentHashes> findContentHashesByStudentId(@Param("studentId") Long studentId);
+
+    /**
+     * The content hashes of the images of a student.
+     */
+    interface ContentHashes {
+        /**
+         * Returns the SHA-256 hash of the passport image.
+         *
+         * @return The hash, or {@code null} if it has not been computed.
+         */
+        String getPassportContentHash();
+
+        /**
+         * Returns the SHA-256 hash of the selfie image.
+         *
+         * @return The hash, or {@code null} if it has not been computed.
+         */
+        String getSelfieContentHash();
+    }
+
+    /**
+     * The perceptual hashes of the images of a student.
+     */
+    interface ImageHashes {
+        /**
+         * Returns the id of the student.
+         *
+         * @return The id of the student.
+         */
+        Long getStudentId();
+
+        /**
+         * Returns the hash of the passport image.
+         *
+         * @return The hash, or {@code null} if it has not been computed.
+         */
+        Long getPassportHash();
+
+        /**
+         * Returns the hash of the selfie image.
+         *
+         * @return The hash, or {@code null} if it has not been computed.
+         */
+        Long getSelfieHash();
+    }
 }
@@ -1,9 +1,17 @@
 package com.markvarga21.studentmanager.repository;
 
+import com.markvarga21.studentmanager.entity.Gender;
 import com.markvarga21.studentmanager.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,4 +35,121 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
      * @return The found student.
      */
     Optional<Student> findStudentByFirstNameAndLastName(String firstName, String lastName);
+
+    /**
+     * Finds the passport numbers of the students.
+     *
+     * @param ids The ids of the students.
+     * @return The passport numbers of the found students.
+     */
+    @Query("select s.passportNumber from Student s where s.id in :ids")
+    List<String> findPassportNumbersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marks the students as deleted with a single statement. The passport
+     * number is replaced, so it can be registered again before the purge.
+     *
+     * @param ids The ids of the students.
+     * @param deletedAt The time of the deletion.
+     * @return The number of marked rows.
+     */
+    @Modifying
+    @Query("update Student s set s.deletedAt = :deletedAt, "
+            + "s.passportNumber = concat('deleted-', cast(s.id as String)) "
+            + "where s.id in :ids and s.deletedAt is null")
+    int markDeletedByIdIn(
+            @Param("ids") Collection<Long> ids,
+            @Param("deletedAt") LocalDateTime deletedAt
+    );
+
+    /**
+     * Finds the ids of the deleted students whose
+     * images have already been purged.
+     *
+     * @param limit The maximum number of ids.
+     * @return The ids of the students.
+     */
+    @Query(
+            value = "select s.id from student s where s.deleted_at is not null "
+                    + "and not exists (select 1 from student_image i where i.student_id = s.id) limit :limit",
+            nativeQuery = true
+    )
+    List<Long> findPurgeableIds(@Param("limit") int limit);
+
+    /**
+     * Purges the deleted students.
+     *
+     * @param ids The ids of the students.
+     * @return The number of purged rows.
+     */
+    @Modifying
+    @Query(
+            value = "delete from student where deleted_at is not null and id in :ids",
+            nativeQuery = true
+    )
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Counts the students grouped by the attributes shown
+     * on the dashboard.
+     *
+     * @return The number of students in every group.
+     */
+    @Query("select s.valid as valid, s.countryOfCitizenship as country, s.gender as gender, "
+            + "s.passportDateOfExpiry as passportDateOfExpiry, count(s) as students from Student s "
+            + "group by s.valid, s.countryOfCitizenship, s.gender, s.passportDateOfExpiry")
+    List<StatisticsGroup> countStatisticsGroups();
+
+    /**
+     * Counts the given students grouped by the attributes
+     * shown on the dashboard.
+     *
+     * @param ids The ids of the students.
+     * @return The number of students in every group.
+     */
+    @Query("select s.valid as valid, s.countryOfCitizenship as country, s.gender as gender, "
+            + "s.passportDateOfExpiry as passportDateOfExpiry, count(s) as students from Student s "
+            + "where s.id in :ids "
+            + "group by s.valid, s.countryOfCitizenship, s.gender, s.passportDateOfExpiry")
+    List<StatisticsGroup> countStatisticsGroupsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The number of students sharing the attributes shown on the dashboard.
+     */
+    interface StatisticsGroup {
+        /**
+         * Returns the validity of the students.
+         *
+         * @return The validity of the students.
+         */
+        boolean getValid();
+
+        /**
+         * Returns the country of citizenship of the students.
+         *
+         * @return The country of citizenship of the students.
+         */
+        String getCountry();
+
+        /**
+         * Returns the gender of the students.
+         *
+         * @return The gender of the students.
+         */
+        Gender getGender();
+
+        /**
+         * Returns the expiry of the passports of the students.
+         *
+         * @return The expiry of the passports of the students.
+         */
+        LocalDate getPassportDateOfExpiry();
+
+        /**
+         * Returns the number of students.
+         *
+         * @return The number of students.
+         */
+        long getStudents();
+    }
 }
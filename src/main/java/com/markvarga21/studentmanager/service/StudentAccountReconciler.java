@@ -0,0 +1,17 @@
+package com.markvarga21.studentmanager.service;
+
+import com.markvarga21.studentmanager.dto.ReconciliationReport;
+
+/**
+ * The {@code StudentAccountReconciler} interface is used to link
+ * the students and the users which have been created independently.
+ */
+public interface StudentAccountReconciler {
+    /**
+     * Links every unlinked student to the unlinked user having
+     * the same name, if the name identifies both of them uniquely.
+     *
+     * @return The summary of the run.
+     */
+    ReconciliationReport reconcile();
+}
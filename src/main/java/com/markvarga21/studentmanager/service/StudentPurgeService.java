@@ -0,0 +1,15 @@
+package com.markvarga21.studentmanager.service;
+
+/**
+ * The {@code StudentPurgeService} interface is used to remove
+ * the rows of the deleted students from the database.
+ */
+public interface StudentPurgeService {
+    /**
+     * Purges the images, validation data and rows
+     * of the students which have been deleted.
+     *
+     * @return The number of purged rows.
+     */
+    int purgeDeletedStudents();
+}
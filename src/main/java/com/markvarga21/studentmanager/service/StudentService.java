@@ -3,6 +3,7 @@ package com.markvarga21.studentmanager.service;
 import com.markvarga21.studentmanager.dto.StudentDto;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -58,6 +59,14 @@ public interface StudentService {
      */
     StudentDto deleteStudentById(Long id);
 
+    /**
+     * Deletes several students by their IDs.
+     *
+     * @param ids The identifiers of the students to be deleted.
+     * @return The number of deleted students.
+     */
+    int deleteStudentsByIds(List<Long> ids);
+
     /**
      * Sets the validity of a student.
      *
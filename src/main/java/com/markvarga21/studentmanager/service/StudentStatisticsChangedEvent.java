@@ -0,0 +1,129 @@
+package com.markvarga21.studentmanager.service;
+
+import com.markvarga21.studentmanager.entity.Gender;
+import com.markvarga21.studentmanager.entity.Student;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An event published when students are created, modified, validated
+ * or deleted, holding the changes of the aggregate counters of the
+ * students. The counters of the passport expiry dates are kept apart,
+ * since they are summed up over a window of days.
+ */
+@Getter
+@ToString
+public class StudentStatisticsChangedEvent {
+    /**
+     * The counter of every student.
+     */
+    public static final String TOTAL_COUNTER = "total";
+
+    /**
+     * The counter of the valid students.
+     */
+    public static final String VALID_COUNTER = "valid";
+
+    /**
+     * The prefix of the counters of the countries.
+     */
+    public static final String COUNTRY_PREFIX = "country:";
+
+    /**
+     * The prefix of the counters of the genders.
+     */
+    public static final String GENDER_PREFIX = "gender:";
+
+    /**
+     * The key standing for the missing values.
+     */
+    public static final String UNKNOWN = "UNKNOWN";
+
+    /**
+     * The changes of the counters, by counter.
+     */
+    private final Map<String, Long> counterDeltas = new HashMap<>();
+
+    /**
+     * The changes of the expiry counters, by the ISO expiry date.
+     */
+    private final Map<String, Long> expiryDeltas = new HashMap<>();
+
+    /**
+     * Counts a student in or out of the counters.
+     *
+     * @param student The student.
+     * @param count The number of times the student is counted,
+     *              negative when it is counted out.
+     * @return This event.
+     */
+    public StudentStatisticsChangedEvent count(
+            final Student student,
+            final long count
+    ) {
+        return this.count(
+                student.isValid(),
+                student.getCountryOfCitizenship(),
+                student.getGender(),
+                student.getPassportDateOfExpiry(),
+                count
+        );
+    }
+
+    /**
+     * Counts students sharing the given attributes in or out of the counters.
+     *
+     * @param valid The validity of the students.
+     * @param country The country of citizenship of the students.
+     * @param gender The gender of the students.
+     * @param passportDateOfExpiry The expiry of the passports of the students.
+     * @param count The number of students, negative when they are counted out.
+     * @return This event.
+     */
+    public StudentStatisticsChangedEvent count(
+            final boolean valid,
+            final String country,
+            final Gender gender,
+            final LocalDate passportDateOfExpiry,
+            final long count
+    ) {
+        add(this.counterDeltas, TOTAL_COUNTER, count);
+        if (valid) {
+            add(this.counterDeltas, VALID_COUNTER, count);
+        }
+        add(this.counterDeltas, COUNTRY_PREFIX + (country == null || country.isBlank() ? UNKNOWN : country), count);
+        add(this.counterDeltas, GENDER_PREFIX + (gender == null ? UNKNOWN : gender.name()), count);
+        if (passportDateOfExpiry != null) {
+            add(this.expiryDeltas, passportDateOfExpiry.toString(), count);
+        }
+        return this;
+    }
+
+    /**
+     * Checks if the event changes no counter.
+     *
+     * @return {@code true} if no counter changes.
+     */
+    public boolean isEmpty() {
+        return this.counterDeltas.isEmpty() && this.expiryDeltas.isEmpty();
+    }
+
+    /**
+     * Adds a change to a counter, dropping the changes cancelling out.
+     *
+     * @param deltas The changes of the counters.
+     * @param counter The counter.
+     * @param count The change.
+     */
+    private static void add(
+            final Map<String, Long> deltas,
+            final String counter,
+            final long count
+    ) {
+        deltas.merge(counter, count, (previous, added) -> previous + added == 0 ? null : previous + added);
+    }
+}
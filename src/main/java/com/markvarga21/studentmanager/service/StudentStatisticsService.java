@@ -0,0 +1,24 @@
+package com.markvarga21.studentmanager.service;
+
+import com.markvarga21.studentmanager.dto.StudentStatistics;
+
+/**
+ * The {@code StudentStatisticsService} interface is used to serve
+ * the aggregate counts of the students without scanning them.
+ */
+public interface StudentStatisticsService {
+    /**
+     * Retrieves the current counts of the students.
+     *
+     * @return The counts of the students.
+     */
+    StudentStatistics getStatistics();
+
+    /**
+     * Recounts the students from the database, replacing
+     * the incrementally maintained counters.
+     *
+     * @return The recounted counts of the students.
+     */
+    StudentStatistics reconcile();
+}
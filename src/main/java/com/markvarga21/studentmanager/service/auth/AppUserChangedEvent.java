@@ -0,0 +1,20 @@
+package com.markvarga21.studentmanager.service.auth;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * An event published when the registration, the roles or the
+ * existence of a user changes, so the cached state of the
+ * user can be dropped.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AppUserChangedEvent {
+    /**
+     * The username of the changed user.
+     */
+    private final String username;
+}
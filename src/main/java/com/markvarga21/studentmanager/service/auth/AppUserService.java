@@ -1,9 +1,11 @@
 package com.markvarga21.studentmanager.service.auth;
 
+import com.markvarga21.studentmanager.dto.ProvisioningResult;
 import com.markvarga21.studentmanager.entity.AppUser;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -79,4 +81,14 @@ public interface AppUserService {
      * @return A status message.
      */
     String revokeRoles(String username, String roles);
+
+    /**
+     * Method for creating several users at once. The rows
+     * are processed independently, an invalid row does not
+     * prevent the others from being created.
+     *
+     * @param users The users to be created with their raw passwords.
+     * @return The outcome of every row in the order of the request.
+     */
+    List<ProvisioningResult> provisionUsers(List<AppUser> users);
 }
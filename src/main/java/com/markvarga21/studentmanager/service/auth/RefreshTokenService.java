@@ -0,0 +1,35 @@
+package com.markvarga21.studentmanager.service.auth;
+
+import com.markvarga21.studentmanager.dto.TokenPair;
+import org.springframework.stereotype.Service;
+
+/**
+ * The {@code RefreshTokenService} interface containing
+ * methods for renewing sessions without the user's password.
+ */
+@Service
+public interface RefreshTokenService {
+    /**
+     * Issues a refresh token starting a new family.
+     *
+     * @param username The username of the user.
+     * @return The refresh token.
+     */
+    String issue(String username);
+
+    /**
+     * Rotates a refresh token, issuing a new access and refresh
+     * token. Reusing an already rotated token revokes its family.
+     *
+     * @param refreshToken The refresh token.
+     * @return The new access and refresh token.
+     */
+    TokenPair refresh(String refreshToken);
+
+    /**
+     * Revokes the family of a refresh token.
+     *
+     * @param refreshToken The refresh token.
+     */
+    void revoke(String refreshToken);
+}
@@ -0,0 +1,28 @@
+package com.markvarga21.studentmanager.service.auth;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * The {@code TokenRevocationService} interface containing
+ * methods for revoking issued tokens before they expire.
+ */
+@Service
+public interface TokenRevocationService {
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param tokenId The id ({@code jti}) of the token.
+     * @param expiresAt The expiration of the token.
+     */
+    void revoke(String tokenId, Instant expiresAt);
+
+    /**
+     * Checks if a token has been revoked.
+     *
+     * @param tokenId The id ({@code jti}) of the token.
+     * @return {@code true} if the token has been revoked, {@code false} otherwise.
+     */
+    boolean isRevoked(String tokenId);
+}
@@ -1,5 +1,7 @@
 package com.markvarga21.studentmanager.service.auth.impl;
 
+import com.markvarga21.studentmanager.dto.ProvisioningResult;
+import com.markvarga21.studentmanager.dto.ProvisioningStatus;
 import com.markvarga21.studentmanager.dto.Role;
 import com.markvarga21.studentmanager.dto.StudentDto;
 import com.markvarga21.studentmanager.entity.AppUser;
@@ -9,17 +11,34 @@ import com.markvarga21.studentmanager.exception.UserNotFoundException;
 import com.markvarga21.studentmanager.repository.AppUserRepository;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
 import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.auth.AppUserChangedEvent;
 import com.markvarga21.studentmanager.service.auth.AppUserService;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 
 /**
  * The {@code AppUserServiceImpl} class is used to implement
@@ -30,6 +49,11 @@ import java.util.Set;
 @Slf4j
 @Service
 public class AppUserServiceImpl implements AppUserService {
+    /**
+     * The maximum number of usernames checked by a single query.
+     */
+    private static final int USERNAME_QUERY_CHUNK_SIZE = 1000;
+
     /**
      * The {@code AppUserRepository} object.
      */
@@ -45,6 +69,27 @@ public class AppUserServiceImpl implements AppUserService {
      */
     private final StudentService studentService;
 
+    /**
+     * The publisher of the user change events.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The validator of the provisioned users.
+     */
+    private final Validator validator;
+
+    /**
+     * The encoder hashing the passwords of the provisioned users.
+     */
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * The executor hashing the passwords of the provisioned users in parallel.
+     */
+    @Qualifier("provisioningExecutor")
+    private final Executor provisioningExecutor;
+
     /**
      * This method is used to get the user by the username.
      *
@@ -73,24 +118,14 @@ public class AppUserServiceImpl implements AppUserService {
             throw new InvalidUserCredentialsException(message);
         }
 
-        Optional<StudentAppUser> studentAppUser = this.studentAppUserRepository
-                .findByUsername(user.getUsername());
-        Optional<StudentDto> studentDto = this.studentService
-                .getStudentByFirstAndLastName(
-                        user.getFirstName(),
-                        user.getLastName()
-                );
-        if (studentAppUser.isEmpty() && studentDto.isPresent()) {
-            StudentAppUser newStudentAppUser = new StudentAppUser();
-            newStudentAppUser.setUsername(user.getUsername());
-            newStudentAppUser.setStudentId(studentDto.get().getId());
-            this.studentAppUserRepository.save(newStudentAppUser);
-        }
+        this.linkStudent(user);
 
         Set<Role> userRole = new HashSet<>();
         userRole.add(Role.USER);
         user.setRoles(userRole);
-        return this.appUserRepository.save(user);
+        AppUser savedUser = this.appUserRepository.save(user);
+        this.eventPublisher.publishEvent(new AppUserChangedEvent(user.getUsername()));
+        return savedUser;
     }
 
     /**
@@ -102,7 +137,7 @@ public class AppUserServiceImpl implements AppUserService {
      */
     @Override
     public Page<AppUser> getAllUsers(final Integer page, final Integer size) {
-        return this.appUserRepository.findAll(PageRequest.of(page, size));
+        return this.appUserRepository.findAllWithRoles(PageRequest.of(page, size));
     }
 
     /**
@@ -125,6 +160,9 @@ public class AppUserServiceImpl implements AppUserService {
             throw new InvalidUserCredentialsException(message);
         }
         this.appUserRepository.deleteById(id);
+        this.eventPublisher.publishEvent(
+                new AppUserChangedEvent(userOptional.get().getUsername())
+        );
         return String.format(
                 "User with username '%s' has been deleted.",
                 userOptional.get().getUsername()
@@ -151,6 +189,7 @@ public class AppUserServiceImpl implements AppUserService {
             throw new InvalidUserCredentialsException(message);
         }
         this.appUserRepository.deleteById(userOptional.get().getId());
+        this.eventPublisher.publishEvent(new AppUserChangedEvent(username));
         return String.format(
                 "User with username '%s' has been deleted.",
                 username
@@ -202,6 +241,7 @@ public class AppUserServiceImpl implements AppUserService {
         }
         userOptional.get().setRoles(userRoles);
         this.appUserRepository.save(userOptional.get());
+        this.eventPublisher.publishEvent(new AppUserChangedEvent(username));
         String message = String.format(
                 "Roles %s granted to user %s.",
                 roles,
@@ -243,6 +283,7 @@ public class AppUserServiceImpl implements AppUserService {
                     .remove(Role.valueOf(roles.split("_")[1]));
         }
         this.appUserRepository.save(userOptional.get());
+        this.eventPublisher.publishEvent(new AppUserChangedEvent(username));
         String message = String.format(
                 "Roles %s revoked from user %s.",
                 roles,
@@ -251,4 +292,177 @@ public class AppUserServiceImpl implements AppUserService {
         log.info(message);
         return message;
     }
+
+    /**
+     * Method for creating several users at once. The rows
+     * are processed independently, an invalid row or a row
+     * created concurrently does not prevent the others from
+     * being created. The passwords are hashed before any
+     * transaction is started, so no connection is held
+     * while hashing.
+     *
+     * @param users The users to be created with their raw passwords.
+     * @return The outcome of every row in the order of the request.
+     */
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<ProvisioningResult> provisionUsers(final List<AppUser> users) {
+        List<ProvisioningResult> results = new ArrayList<>(users.size());
+        Map<String, AppUser> candidates = new LinkedHashMap<>();
+        Map<String, ProvisioningResult> candidateResults = new HashMap<>();
+        for (int i = 0; i < users.size(); i++) {
+            AppUser user = users.get(i);
+            ProvisioningResult result = new ProvisioningResult(
+                    i, user.getUsername(), ProvisioningStatus.CREATED, null
+            );
+            results.add(result);
+            String violations = this.getViolations(user);
+            if (violations != null) {
+                result.setStatus(ProvisioningStatus.INVALID);
+                result.setMessage(violations);
+            } else if (candidates.containsKey(user.getUsername())) {
+                result.setStatus(ProvisioningStatus.DUPLICATE);
+                result.setMessage("Username appears earlier in the request.");
+            } else {
+                candidates.put(user.getUsername(), user);
+                candidateResults.put(user.getUsername(), result);
+            }
+        }
+
+        for (String username : this.findExistingUsernames(candidates.keySet())) {
+            candidates.remove(username);
+            ProvisioningResult result = candidateResults.get(username);
+            result.setStatus(ProvisioningStatus.ALREADY_EXISTS);
+            result.setMessage("User with username " + username + " already exists.");
+        }
+
+        List<AppUser> newUsers = new ArrayList<>(candidates.values());
+        this.hashPasswords(newUsers);
+        newUsers.forEach(user -> user.setRoles(new HashSet<>(Set.of(Role.USER))));
+        List<AppUser> createdUsers = this.saveProvisionedUsers(newUsers, candidateResults);
+        createdUsers.forEach(user -> {
+            this.linkStudent(user);
+            this.eventPublisher.publishEvent(new AppUserChangedEvent(user.getUsername()));
+        });
+        log.info("Provisioned {} of {} users", createdUsers.size(), users.size());
+        return results;
+    }
+
+    /**
+     * Links the user to the student having the same name,
+     * unless the user is already linked to a student.
+     *
+     * @param user The user to be linked.
+     */
+    private void linkStudent(final AppUser user) {
+        Optional<StudentAppUser> studentAppUser = this.studentAppUserRepository
+                .findByUsername(user.getUsername());
+        Optional<StudentDto> studentDto = this.studentService
+                .getStudentByFirstAndLastName(
+                        user.getFirstName(),
+                        user.getLastName()
+                );
+        if (studentAppUser.isEmpty() && studentDto.isPresent()) {
+            StudentAppUser newStudentAppUser = new StudentAppUser();
+            newStudentAppUser.setUsername(user.getUsername());
+            newStudentAppUser.setStudentId(studentDto.get().getId());
+            this.studentAppUserRepository.save(newStudentAppUser);
+        }
+    }
+
+    /**
+     * Validates a provisioned user.
+     *
+     * @param user The user to be validated.
+     * @return The violations joined, or {@code null} if the user is valid.
+     */
+    private String getViolations(final AppUser user) {
+        if (user.getRoles() != null) {
+            return "Roles cannot be set during registration.";
+        }
+        Set<ConstraintViolation<AppUser>> violations = this.validator.validate(user);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(" "));
+    }
+
+    /**
+     * Finds which of the usernames are taken, querying
+     * them in chunks of a bounded size.
+     *
+     * @param usernames The usernames to be checked.
+     * @return The usernames which already belong to a user.
+     */
+    private Set<String> findExistingUsernames(final Collection<String> usernames) {
+        Set<String> existingUsernames = new HashSet<>();
+        List<String> usernameList = new ArrayList<>(usernames);
+        for (int from = 0; from < usernameList.size(); from += USERNAME_QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + USERNAME_QUERY_CHUNK_SIZE, usernameList.size());
+            existingUsernames.addAll(this.appUserRepository
+                    .findExistingUsernames(usernameList.subList(from, to)));
+        }
+        return existingUsernames;
+    }
+
+    /**
+     * Saves the provisioned users in a single batch. If any of them
+     * has been created concurrently, the users are saved one by one
+     * instead, and the rows already taken are marked as existing.
+     *
+     * @param users The users to be saved.
+     * @param results The results of the rows by their usernames.
+     * @return The users which have been created.
+     */
+    private List<AppUser> saveProvisionedUsers(
+            final List<AppUser> users,
+            final Map<String, ProvisioningResult> results
+    ) {
+        try {
+            this.appUserRepository.saveAll(users);
+            return users;
+        } catch (DataIntegrityViolationException exception) {
+            log.warn("Some of the provisioned users have been created meanwhile, saving them one by one");
+        }
+        List<AppUser> createdUsers = new ArrayList<>(users.size());
+        for (AppUser user : users) {
+            user.setId(null);
+            try {
+                this.appUserRepository.save(user);
+                createdUsers.add(user);
+            } catch (DataIntegrityViolationException exception) {
+                ProvisioningResult result = results.get(user.getUsername());
+                result.setStatus(ProvisioningStatus.ALREADY_EXISTS);
+                result.setMessage("User with username " + user.getUsername() + " already exists.");
+            }
+        }
+        return createdUsers;
+    }
+
+    /**
+     * Hashes the raw passwords of the users in parallel. The encoder
+     * shares its bounded pool with the logins, so the provisioning
+     * executor keeps only a few hashes in flight at a time.
+     *
+     * @param users The users whose passwords are hashed in place.
+     */
+    private void hashPasswords(final List<AppUser> users) {
+        CompletableFuture<?>[] hashes = users.stream()
+                .map(user -> CompletableFuture.runAsync(
+                        () -> user.setPassword(this.passwordEncoder.encode(user.getPassword())),
+                        this.provisioningExecutor
+                ))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(hashes).join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Cannot hash the passwords", exception.getCause());
+        }
+    }
 }
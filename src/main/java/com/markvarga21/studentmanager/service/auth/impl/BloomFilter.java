@@ -0,0 +1,154 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter of strings. It never reports an added
+ * element as missing, and reports a missing element as present only
+ * with the configured false positive probability.
+ */
+final class BloomFilter {
+    /**
+     * The number of bits in a word of the bit array.
+     */
+    private static final int BITS_PER_WORD = 64;
+
+    /**
+     * The offset basis of the FNV-1a hash.
+     */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * The prime of the FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * The first multiplier of the finalizer mixing the hash bits.
+     */
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+    /**
+     * The second multiplier of the finalizer mixing the hash bits.
+     */
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    /**
+     * The shift of the finalizer mixing the hash bits.
+     */
+    private static final int MIX_SHIFT = 33;
+
+    /**
+     * The number of bits used by the upper half of a hash.
+     */
+    private static final int HALF_HASH_BITS = 32;
+
+    /**
+     * The bits of the filter.
+     */
+    private final AtomicLongArray words;
+
+    /**
+     * The number of bits of the filter.
+     */
+    private final long bitCount;
+
+    /**
+     * The number of bits set for every element.
+     */
+    private final int hashFunctionCount;
+
+    /**
+     * Creates a filter sized for the expected number of elements.
+     *
+     * @param expectedElements The expected number of elements.
+     * @param falsePositiveProbability The accepted false positive probability.
+     */
+    BloomFilter(final long expectedElements, final double falsePositiveProbability) {
+        long elements = Math.max(1, expectedElements);
+        long bits = (long) Math.ceil(
+                -elements * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))
+        );
+        int wordCount = (int) Math.max(1, (bits + BITS_PER_WORD - 1) / BITS_PER_WORD);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * BITS_PER_WORD;
+        this.hashFunctionCount = (int) Math.max(
+                1,
+                Math.round((double) this.bitCount / elements * Math.log(2))
+        );
+    }
+
+    /**
+     * Adds an element to the filter.
+     *
+     * @param element The element to be added.
+     */
+    void add(final String element) {
+        long hash = hash(element);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> HALF_HASH_BITS);
+        for (int i = 1; i <= this.hashFunctionCount; i++) {
+            long bit = this.bitIndex(firstHash + i * secondHash);
+            int wordIndex = (int) (bit / BITS_PER_WORD);
+            long mask = 1L << (bit % BITS_PER_WORD);
+            long word = this.words.get(wordIndex);
+            while ((word & mask) == 0
+                    && !this.words.compareAndSet(wordIndex, word, word | mask)) {
+                word = this.words.get(wordIndex);
+            }
+        }
+    }
+
+    /**
+     * Checks if an element might have been added to the filter.
+     *
+     * @param element The element to be checked.
+     * @return {@code false} if the element has surely not been added.
+     */
+    boolean mightContain(final String element) {
+        long hash = hash(element);
+        int firstHash = (int) hash;
+        int secondHash = (int) (hash >>> HALF_HASH_BITS);
+        for (int i = 1; i <= this.hashFunctionCount; i++) {
+            long bit = this.bitIndex(firstHash + i * secondHash);
+            long mask = 1L << (bit % BITS_PER_WORD);
+            if ((this.words.get((int) (bit / BITS_PER_WORD)) & mask) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Maps a combined hash to a bit of the filter.
+     *
+     * @param combinedHash The combined hash.
+     * @return The index of the bit.
+     */
+    private long bitIndex(final int combinedHash) {
+        int positiveHash = combinedHash < 0 ? ~combinedHash : combinedHash;
+        return positiveHash % this.bitCount;
+    }
+
+    /**
+     * Hashes an element with the 64 bit FNV-1a hash,
+     * mixed so that both halves are usable on their own.
+     *
+     * @param element The element to be hashed.
+     * @return The hash of the element.
+     */
+    private static long hash(final String element) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte value : element.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+}
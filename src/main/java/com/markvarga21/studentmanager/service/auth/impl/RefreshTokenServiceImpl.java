@@ -0,0 +1,188 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import com.markvarga21.studentmanager.dto.TokenPair;
+import com.markvarga21.studentmanager.entity.RefreshToken;
+import com.markvarga21.studentmanager.exception.InvalidUserCredentialsException;
+import com.markvarga21.studentmanager.repository.RefreshTokenRepository;
+import com.markvarga21.studentmanager.service.auth.RefreshTokenService;
+import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code RefreshTokenServiceImpl} class is used to implement
+ * the {@code RefreshTokenService} interface.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+    /**
+     * The number of random bytes in a refresh token.
+     */
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * The message of the rejected refresh tokens.
+     */
+    private static final String INVALID_TOKEN_MESSAGE = "Invalid refresh token.";
+
+    /**
+     * The source of the random refresh tokens.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * The repository of the refresh tokens.
+     */
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * The service for managing JWT tokens.
+     */
+    private final JwtService jwtService;
+
+    /**
+     * The service for loading the current state of the users.
+     */
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * The lifetime of the refresh tokens in days.
+     */
+    @Value("${jwt.refresh.expiration.days:14}")
+    private Long refreshTokenExpirationDays;
+
+    /**
+     * Issues a refresh token starting a new family.
+     *
+     * @param username The username of the user.
+     * @return The refresh token.
+     */
+    @Override
+    @Transactional
+    public String issue(final String username) {
+        return this.issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Rotates a refresh token, issuing a new access and refresh
+     * token. Reusing an already rotated token revokes its family.
+     *
+     * @param refreshToken The refresh token.
+     * @return The new access and refresh token.
+     */
+    @Override
+    @Transactional(dontRollbackOn = InvalidUserCredentialsException.class)
+    public TokenPair refresh(final String refreshToken) {
+        Optional<RefreshToken> storedToken = this.refreshTokenRepository
+                .findByTokenHash(hash(refreshToken));
+        if (storedToken.isEmpty()) {
+            log.error(INVALID_TOKEN_MESSAGE);
+            throw new InvalidUserCredentialsException(INVALID_TOKEN_MESSAGE);
+        }
+        RefreshToken token = storedToken.get();
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
+            this.refreshTokenRepository.delete(token);
+            String message = "Refresh token expired.";
+            log.error(message);
+            throw new InvalidUserCredentialsException(message);
+        }
+        if (token.isUsed() || this.refreshTokenRepository.markUsed(token.getId()) == 0) {
+            this.refreshTokenRepository.deleteFamily(token.getFamilyId());
+            String message = String.format(
+                    "Reuse of a rotated refresh token of user '%s', revoking its family.",
+                    token.getUsername()
+            );
+            log.error(message);
+            throw new InvalidUserCredentialsException(INVALID_TOKEN_MESSAGE);
+        }
+
+        UserDetails userDetails;
+        try {
+            userDetails = this.userDetailsService.loadUserByUsername(token.getUsername());
+        } catch (UsernameNotFoundException exception) {
+            this.refreshTokenRepository.deleteFamily(token.getFamilyId());
+            throw new InvalidUserCredentialsException(INVALID_TOKEN_MESSAGE);
+        }
+        return new TokenPair(
+                this.jwtService.generateJwtToken(userDetails),
+                this.issue(token.getUsername(), token.getFamilyId())
+        );
+    }
+
+    /**
+     * Revokes the family of a refresh token.
+     *
+     * @param refreshToken The refresh token.
+     */
+    @Override
+    @Transactional
+    public void revoke(final String refreshToken) {
+        this.refreshTokenRepository
+                .findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> this.refreshTokenRepository
+                        .deleteFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Deletes the expired refresh tokens every night.
+     */
+    @Scheduled(cron = "${jwt.refresh.cleanup.cron:0 30 3 * * *}")
+    @Transactional
+    public void deleteExpiredTokens() {
+        int deletedTokens = this.refreshTokenRepository
+                .deleteExpiredBefore(LocalDateTime.now());
+        log.info("Deleted {} expired refresh tokens", deletedTokens);
+    }
+
+    /**
+     * Issues a refresh token in the given family.
+     *
+     * @param username The username of the user.
+     * @param familyId The id of the family.
+     * @return The refresh token.
+     */
+    private String issue(final String username, final String familyId) {
+        byte[] randomBytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(randomBytes);
+        String refreshToken = Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(randomBytes);
+        this.refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(refreshToken))
+                .username(username)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plusDays(this.refreshTokenExpirationDays))
+                .used(false)
+                .build());
+        return refreshToken;
+    }
+
+    /**
+     * Hashes a refresh token for storing and looking it up.
+     *
+     * @param refreshToken The refresh token.
+     * @return The SHA-256 hash of the token.
+     */
+    private static String hash(final String refreshToken) {
+        return ContentHasher.sha256Hex(
+                refreshToken.getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+}
@@ -0,0 +1,277 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import com.markvarga21.studentmanager.service.auth.TokenRevocationService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The {@code TokenRevocationServiceImpl} class is used to implement
+ * the {@code TokenRevocationService} interface. Revoked token ids are
+ * stored in Redis until the tokens expire, and every node keeps a local
+ * Bloom filter of them, kept in sync through a Redis channel, so tokens
+ * which have never been revoked are accepted without a network hop.
+ * Until the filter has been loaded, and whenever the channel has been
+ * lost, every token is looked up in Redis instead, and the filter is
+ * rebuilt once the channel is subscribed again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationServiceImpl implements TokenRevocationService, MessageListener, SubscriptionListener {
+    /**
+     * The prefix of the keys of the revoked tokens.
+     */
+    static final String KEY_PREFIX = "revoked-token:";
+
+    /**
+     * The channel announcing the revoked tokens to the other nodes.
+     */
+    static final String CHANNEL = "revoked-tokens";
+
+    /**
+     * The value stored for a revoked token.
+     */
+    private static final String REVOKED_VALUE = "1";
+
+    /**
+     * The number of keys fetched by a single scan step.
+     */
+    private static final long SCAN_BATCH_SIZE = 1000;
+
+    /**
+     * The template used for accessing Redis.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * The container delivering the messages of the channel.
+     */
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * The expected number of tokens revoked within a token lifetime.
+     */
+    @Value("${jwt.revocation.expected-tokens:100000}")
+    private long expectedRevokedTokens;
+
+    /**
+     * The accepted false positive probability of the local filter.
+     */
+    @Value("${jwt.revocation.false-positive-probability:0.001}")
+    private double falsePositiveProbability;
+
+    /**
+     * The local filter of the revoked token ids.
+     */
+    private volatile BloomFilter revokedTokens;
+
+    /**
+     * The filter being rebuilt, which also has to
+     * receive the tokens revoked meanwhile.
+     */
+    private BloomFilter rebuiltRevokedTokens;
+
+    /**
+     * Whether the local filter holds every revoked token,
+     * so the tokens missing from it can be accepted.
+     */
+    private volatile boolean filterComplete;
+
+    /**
+     * The lock making the rebuilds of the filter run one at a time.
+     */
+    private final Object rebuildLock = new Object();
+
+    /**
+     * Creates the local filter and subscribes to the channel.
+     */
+    @PostConstruct
+    public void init() {
+        this.revokedTokens = this.newFilter();
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param tokenId The id ({@code jti}) of the token.
+     * @param expiresAt The expiration of the token.
+     */
+    @Override
+    public void revoke(final String tokenId, final Instant expiresAt) {
+        Duration remainingLifetime = Duration.between(Instant.now(), expiresAt);
+        if (remainingLifetime.isNegative() || remainingLifetime.isZero()) {
+            return;
+        }
+        this.addLocally(tokenId);
+        this.redisTemplate.opsForValue().set(
+                KEY_PREFIX + tokenId,
+                REVOKED_VALUE,
+                remainingLifetime
+        );
+        this.redisTemplate.convertAndSend(CHANNEL, tokenId);
+        log.info("Token '{}' revoked for {}", tokenId, remainingLifetime);
+    }
+
+    /**
+     * Checks if a token has been revoked. Once the local filter is
+     * complete, only the ids present in it are looked up in Redis.
+     * The looked up tokens are treated as revoked if Redis cannot
+     * be reached.
+     *
+     * @param tokenId The id ({@code jti}) of the token.
+     * @return {@code true} if the token has been revoked, {@code false} otherwise.
+     */
+    @Override
+    public boolean isRevoked(final String tokenId) {
+        if (this.filterComplete && !this.revokedTokens.mightContain(tokenId)) {
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(this.redisTemplate.hasKey(KEY_PREFIX + tokenId));
+        } catch (RuntimeException exception) {
+            log.error("Cannot check the revocation of token '{}', rejecting it", tokenId, exception);
+            return true;
+        }
+    }
+
+    /**
+     * Adds the token revoked on another node to the local filter.
+     *
+     * @param message The message holding the id of the token.
+     * @param pattern The pattern of the channel.
+     */
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        this.addLocally(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Rebuilds the filter once the channel has been subscribed again,
+     * as the tokens revoked while it was lost have not been received.
+     *
+     * @param channel The subscribed channel.
+     * @param count The number of subscriptions of the connection.
+     */
+    @Override
+    public void onChannelSubscribed(final byte[] channel, final long count) {
+        if (this.isRevocationChannel(channel)) {
+            CompletableFuture.runAsync(this::rebuildFilter);
+        }
+    }
+
+    /**
+     * Marks the filter incomplete while the channel is lost, so the
+     * tokens revoked on the other nodes meanwhile are not accepted.
+     *
+     * @param channel The unsubscribed channel.
+     * @param count The number of subscriptions left on the connection.
+     */
+    @Override
+    public void onChannelUnsubscribed(final byte[] channel, final long count) {
+        if (this.isRevocationChannel(channel)) {
+            log.warn("Channel of the revoked tokens lost, checking every token in Redis until it is back");
+            this.filterComplete = false;
+        }
+    }
+
+    /**
+     * Loads the tokens revoked before the node has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevokedTokens() {
+        this.rebuildFilter();
+    }
+
+    /**
+     * Rebuilds the local filter from the tokens which are still revoked,
+     * dropping the expired ones, which a Bloom filter cannot remove.
+     */
+    @Scheduled(
+            fixedDelayString = "${jwt.revocation.rebuild-interval-millis:600000}",
+            initialDelayString = "${jwt.revocation.rebuild-interval-millis:600000}"
+    )
+    public void rebuildFilter() {
+        synchronized (this.rebuildLock) {
+            BloomFilter filter = this.newFilter();
+            synchronized (this) {
+                this.rebuiltRevokedTokens = filter;
+            }
+            long tokenCount = 0;
+            ScanOptions options = ScanOptions.scanOptions()
+                    .match(KEY_PREFIX + "*")
+                    .count(SCAN_BATCH_SIZE)
+                    .build();
+            try (Cursor<String> keys = this.redisTemplate.scan(options)) {
+                while (keys.hasNext()) {
+                    filter.add(keys.next().substring(KEY_PREFIX.length()));
+                    tokenCount++;
+                }
+            } catch (RuntimeException exception) {
+                log.error("Cannot rebuild the filter of the revoked tokens", exception);
+                synchronized (this) {
+                    this.rebuiltRevokedTokens = null;
+                }
+                return;
+            }
+            synchronized (this) {
+                this.revokedTokens = filter;
+                this.rebuiltRevokedTokens = null;
+            }
+            this.filterComplete = true;
+            log.info("Filter of the revoked tokens rebuilt with {} tokens", tokenCount);
+        }
+    }
+
+    /**
+     * Adds a token to the local filter, and to the
+     * filter being rebuilt if there is any.
+     *
+     * @param tokenId The id of the token.
+     */
+    private synchronized void addLocally(final String tokenId) {
+        this.revokedTokens.add(tokenId);
+        if (this.rebuiltRevokedTokens != null) {
+            this.rebuiltRevokedTokens.add(tokenId);
+        }
+    }
+
+    /**
+     * Checks if the channel is the one announcing the revoked tokens.
+     *
+     * @param channel The name of the channel.
+     * @return {@code true} if it is the channel of the revoked tokens.
+     */
+    private boolean isRevocationChannel(final byte[] channel) {
+        return Arrays.equals(channel, CHANNEL.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Creates an empty filter.
+     *
+     * @return The created filter.
+     */
+    private BloomFilter newFilter() {
+        return new BloomFilter(this.expectedRevokedTokens, this.falsePositiveProbability);
+    }
+}
@@ -1,30 +1,58 @@
 package com.markvarga21.studentmanager.service.auth.webtoken;
 
+import com.markvarga21.studentmanager.service.auth.TokenRevocationService;
+import com.markvarga21.studentmanager.util.ContentHasher;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 /**
  * A service class for handling JWT tokens.
  */
 @Service
 @Setter
+@Slf4j
 public final class JwtService {
-    private JwtService() {
+    /**
+     * The service storing the revoked tokens.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    private JwtService(final TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
     }
 
+    /**
+     * The name of the claim holding the authorities of the user.
+     */
+    static final String ROLES_CLAIM = "roles";
+
+    /**
+     * The separator of the authorities in the roles claim.
+     */
+    private static final String ROLES_SEPARATOR = ",";
+
     /**
      * The secret key used for signing the JWT token.
      */
@@ -50,6 +78,40 @@ public final class JwtService {
     @Value("${jwt.token.audience}")
     private String jwtTokenAudience;
 
+    /**
+     * The maximum number of verified tokens kept in memory.
+     */
+    @Value("${jwt.verified-cache.max-entries:10000}")
+    private Integer verifiedTokenCacheSize;
+
+    /**
+     * The key used for signing and verifying the tokens.
+     */
+    private SecretKey signingKey;
+
+    /**
+     * The parser verifying the signature of the tokens.
+     */
+    private JwtParser jwtParser;
+
+    /**
+     * The claims of the already verified tokens.
+     */
+    private VerifiedTokenCache verifiedTokenCache;
+
+    /**
+     * Builds the signing key, the parser and the cache
+     * of verified tokens once the properties are set.
+     */
+    @PostConstruct
+    public void init() {
+        this.signingKey = this.generateSecretKey();
+        this.jwtParser = Jwts.parser()
+                .verifyWith(this.signingKey)
+                .build();
+        this.verifiedTokenCache = new VerifiedTokenCache(this.verifiedTokenCacheSize);
+    }
+
     /**
      * A method for generating a JWT token.
      *
@@ -68,14 +130,15 @@ public final class JwtService {
                 TimeUnit.MILLISECONDS
                         .toMillis(this.getExpirationTime().getTime()))
         );
-        claims.put("roles", userDetails.getAuthorities().toString());
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().toString());
 
         return Jwts.builder()
                 .claims(claims)
                 .subject(userDetails.getUsername())
+                .id(UUID.randomUUID().toString())
                 .issuedAt(Date.from(Instant.now()))
                 .expiration(this.getExpirationTime())
-                .signWith(this.generateSecretKey())
+                .signWith(this.signingKey)
                 .compact();
     }
 
@@ -112,12 +175,46 @@ public final class JwtService {
         return claims.getSubject();
     }
 
+    /**
+     * A method for retrieving the authorities the user had
+     * when the token has been issued.
+     *
+     * @param token The JWT token.
+     * @return The authorities stored in the signed roles claim.
+     */
+    public Set<String> getRoles(final String token) {
+        String roles = extractClaims(token).get(ROLES_CLAIM, String.class);
+        if (roles == null) {
+            return Set.of();
+        }
+        String authorities = roles.replace("[", "").replace("]", "");
+        return Arrays.stream(authorities.split(ROLES_SEPARATOR))
+                .map(String::trim)
+                .filter(authority -> !authority.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Extracts the claims of a token, verifying its signature only
+     * if the same token has not been verified before.
+     *
+     * @param token The JWT token.
+     * @return The verified claims of the token.
+     */
     private Claims extractClaims(final String token) {
-        return Jwts.parser()
-                .verifyWith(this.generateSecretKey())
-                .build()
+        String tokenDigest = ContentHasher.sha256Hex(
+                token.getBytes(StandardCharsets.US_ASCII)
+        );
+        Claims cachedClaims = this.verifiedTokenCache
+                .get(tokenDigest, System.currentTimeMillis());
+        if (cachedClaims != null) {
+            return cachedClaims;
+        }
+        Claims claims = this.jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
+        this.verifiedTokenCache.put(tokenDigest, claims);
+        return claims;
     }
 
     /**
@@ -128,6 +225,35 @@ public final class JwtService {
      */
     public boolean isValidToken(final String token) {
         Claims claims = extractClaims(token);
+        if (claims.getId() != null
+                && this.tokenRevocationService.isRevoked(claims.getId())) {
+            return false;
+        }
         return claims.getExpiration().after(Date.from(Instant.now()));
     }
+
+    /**
+     * A method for revoking a JWT token until it expires.
+     * Tokens issued without an id cannot be revoked, and
+     * expired tokens need not be.
+     *
+     * @param token The JWT token.
+     */
+    public void revokeToken(final String token) {
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (ExpiredJwtException exception) {
+            log.debug("Token of user '{}' has already expired", exception.getClaims().getSubject());
+            return;
+        }
+        if (claims.getId() == null) {
+            log.warn("Token of user '{}' has no id, it cannot be revoked", claims.getSubject());
+            return;
+        }
+        this.tokenRevocationService.revoke(
+                claims.getId(),
+                claims.getExpiration().toInstant()
+        );
+    }
 }
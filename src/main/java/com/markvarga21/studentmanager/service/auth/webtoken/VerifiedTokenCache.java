@@ -0,0 +1,105 @@
+package com.markvarga21.studentmanager.service.auth.webtoken;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least recently used cache of the claims of already
+ * verified tokens, keyed by the digest of the token. Entries are
+ * dropped once the token they belong to expires.
+ */
+final class VerifiedTokenCache {
+    /**
+     * The initial capacity of the backing map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the backing map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The maximum number of cached tokens.
+     */
+    private final int maxEntries;
+
+    /**
+     * The verified claims by token digest in access order.
+     */
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries The maximum number of cached tokens, {@code 0} disables caching.
+     */
+    VerifiedTokenCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the verified claims of a token which has not expired yet.
+     *
+     * @param tokenDigest The digest of the token.
+     * @param nowMillis The current time in milliseconds.
+     * @return The claims, or {@code null} if the token is not cached.
+     */
+    Claims get(final String tokenDigest, final long nowMillis) {
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(tokenDigest);
+            if (entry == null) {
+                return null;
+            }
+            if (nowMillis >= entry.expiresAtMillis()) {
+                this.entries.remove(tokenDigest);
+                return null;
+            }
+            return entry.claims();
+        }
+    }
+
+    /**
+     * Caches the verified claims of a token until it expires.
+     *
+     * @param tokenDigest The digest of the token.
+     * @param claims The verified claims of the token.
+     */
+    void put(final String tokenDigest, final Claims claims) {
+        if (this.maxEntries == 0 || claims.getExpiration() == null) {
+            return;
+        }
+        Entry entry = new Entry(claims, claims.getExpiration().getTime());
+        synchronized (this.entries) {
+            this.entries.put(tokenDigest, entry);
+        }
+    }
+
+    /**
+     * Returns the number of cached tokens.
+     *
+     * @return The number of cached tokens.
+     */
+    int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * A cached verification.
+     *
+     * @param claims The verified claims of the token.
+     * @param expiresAtMillis The expiration of the token in milliseconds.
+     */
+    private record Entry(Claims claims, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.markvarga21.studentmanager.service.azure;
+
+import java.util.function.Supplier;
+
+/**
+ * An interface for governing the calls made towards the
+ * Azure services, so they stay within the quota of the
+ * services and fail fast if the services are degraded.
+ */
+public interface AzureCallGovernor {
+    /**
+     * Executes a call towards an Azure service in the
+     * priority lane of the current thread.
+     *
+     * @param service The Azure service being called.
+     * @param call The call itself.
+     * @param <T> The type of the call's result.
+     * @return The result of the call.
+     */
+    <T> T execute(AzureService service, Supplier<T> call);
+
+    /**
+     * Executes a call towards an Azure service in the
+     * given priority lane.
+     *
+     * @param service The Azure service being called.
+     * @param priority The priority lane of the call.
+     * @param call The call itself.
+     * @param <T> The type of the call's result.
+     * @return The result of the call.
+     */
+    <T> T execute(AzureService service, AzureCallPriority priority, Supplier<T> call);
+}
@@ -0,0 +1,53 @@
+package com.markvarga21.studentmanager.service.azure;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * The priority lanes of the Azure calls. Lanes declared
+ * earlier are always served before the later ones.
+ */
+public enum AzureCallPriority {
+    /**
+     * Calls made while serving an interactive admin request.
+     */
+    ADMIN,
+    /**
+     * Calls made while serving an interactive user request.
+     */
+    USER,
+    /**
+     * Calls made outside of an HTTP request, e.g. by scheduled jobs.
+     */
+    BACKGROUND;
+
+    /**
+     * The authority of the administrators.
+     */
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    /**
+     * Resolves the priority lane of the calling thread
+     * from the current request and its authentication.
+     *
+     * @return The priority of the calls made by the current thread.
+     */
+    public static AzureCallPriority current() {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return BACKGROUND;
+        }
+        Authentication authentication = SecurityContextHolder
+                .getContext()
+                .getAuthentication();
+        if (authentication == null) {
+            return USER;
+        }
+        boolean isAdmin = authentication.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ADMIN_AUTHORITY::equals);
+        return isAdmin ? ADMIN : USER;
+    }
+}
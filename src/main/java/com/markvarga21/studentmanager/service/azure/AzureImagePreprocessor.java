@@ -0,0 +1,16 @@
+package com.markvarga21.studentmanager.service.azure;
+
+/**
+ * An interface for preparing the images before they are sent to
+ * Azure, so no more bytes are uploaded than the operation needs.
+ */
+public interface AzureImagePreprocessor {
+    /**
+     * Prepares the variant of an image for an Azure operation.
+     *
+     * @param image The encoded image.
+     * @param variant The variant needed by the operation.
+     * @return The prepared image, or the original one if it cannot be made smaller.
+     */
+    byte[] prepare(byte[] image, AzureImageVariant variant);
+}
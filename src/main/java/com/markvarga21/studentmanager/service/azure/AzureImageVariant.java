@@ -0,0 +1,17 @@
+package com.markvarga21.studentmanager.service.azure;
+
+/**
+ * The variants of the images prepared for the Azure
+ * operations, each keeping only what the operation needs.
+ */
+public enum AzureImageVariant {
+    /**
+     * A downscaled color image for detecting the faces.
+     */
+    FACE_DETECTION,
+    /**
+     * A grayscale image at the resolution needed for
+     * reading the text of the passport.
+     */
+    DOCUMENT_ANALYSIS
+}
@@ -0,0 +1,39 @@
+package com.markvarga21.studentmanager.service.azure;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An interface for hedging idempotent calls made towards Azure.
+ * If a call does not complete within the usual latency of the
+ * operation, a duplicate is issued and the first response wins.
+ */
+public interface AzureRequestHedger {
+    /**
+     * Executes an idempotent call, hedging it if it is slow.
+     *
+     * @param operation The name of the operation, used to track its latency.
+     * @param call The idempotent call itself.
+     * @param <T> The type of the call's result.
+     * @return The result of the first successful attempt.
+     */
+    default <T> T executeHedged(String operation, Supplier<T> call) {
+        return this.executeHedged(operation, started -> {
+            started.run();
+            return call.get();
+        });
+    }
+
+    /**
+     * Executes an idempotent call, hedging it if it is slow once it
+     * has been started. The call runs the given marker right before
+     * the request is sent, e.g. after a permit has been granted, so
+     * the time spent waiting for the permit is not taken for latency.
+     *
+     * @param operation The name of the operation, used to track its latency.
+     * @param call The idempotent call itself, receiving the marker of its start.
+     * @param <T> The type of the call's result.
+     * @return The result of the first successful attempt.
+     */
+    <T> T executeHedged(String operation, Function<Runnable, T> call);
+}
@@ -0,0 +1,16 @@
+package com.markvarga21.studentmanager.service.azure;
+
+/**
+ * The Azure cognitive services used by the application,
+ * each having its own transactions-per-second quota.
+ */
+public enum AzureService {
+    /**
+     * Azure's Face API.
+     */
+    FACE,
+    /**
+     * Azure's Form Recognizer service.
+     */
+    FORM_RECOGNIZER
+}
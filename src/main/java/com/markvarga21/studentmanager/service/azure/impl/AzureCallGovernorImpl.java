@@ -0,0 +1,292 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.azure.core.exception.HttpResponseException;
+import com.markvarga21.studentmanager.exception.AzureServiceUnavailableException;
+import com.markvarga21.studentmanager.service.azure.AzureCallGovernor;
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+import com.markvarga21.studentmanager.service.azure.AzureService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A governor which puts every Azure call behind a token bucket
+ * sized to the quota of the called service, serving the priority
+ * lanes in order, and behind a circuit breaker which fails fast
+ * when the service is degraded.
+ */
+@Component
+@RequiredArgsConstructor
+@Setter
+@Slf4j
+public class AzureCallGovernorImpl implements AzureCallGovernor {
+    /**
+     * The transactions-per-second quota of the Face API.
+     */
+    @Value("${azure.governor.face.permits-per-second:10}")
+    private double facePermitsPerSecond;
+
+    /**
+     * The number of Face API calls which can be made in a burst.
+     */
+    @Value("${azure.governor.face.burst-capacity:10}")
+    private int faceBurstCapacity;
+
+    /**
+     * The transactions-per-second quota of the Form Recognizer.
+     */
+    @Value("${azure.governor.form.permits-per-second:15}")
+    private double formPermitsPerSecond;
+
+    /**
+     * The number of Form Recognizer calls which can be made in a burst.
+     */
+    @Value("${azure.governor.form.burst-capacity:15}")
+    private int formBurstCapacity;
+
+    /**
+     * The maximum time a call waits in its lane
+     * measured in milliseconds.
+     */
+    @Value("${azure.governor.max-wait-millis:30000}")
+    private long maxWaitMillis;
+
+    /**
+     * The number of consecutive failures opening the circuit.
+     */
+    @Value("${azure.governor.circuit.failure-threshold:5}")
+    private int failureThreshold;
+
+    /**
+     * The time the circuit stays open measured in seconds.
+     */
+    @Value("${azure.governor.circuit.open-duration-seconds:30}")
+    private long openDurationSeconds;
+
+    /**
+     * The registry of the application's metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The rate limiter of each Azure service.
+     */
+    private final Map<AzureService, PriorityTokenBucket> buckets =
+            new EnumMap<>(AzureService.class);
+
+    /**
+     * The circuit breaker of each Azure service.
+     */
+    private final Map<AzureService, CircuitBreaker> breakers =
+            new EnumMap<>(AzureService.class);
+
+    /**
+     * Creates the rate limiters and circuit breakers
+     * of the services, and registers their metrics.
+     */
+    @PostConstruct
+    public void init() {
+        this.buckets.put(
+                AzureService.FACE,
+                new PriorityTokenBucket(this.facePermitsPerSecond, this.faceBurstCapacity)
+        );
+        this.buckets.put(
+                AzureService.FORM_RECOGNIZER,
+                new PriorityTokenBucket(this.formPermitsPerSecond, this.formBurstCapacity)
+        );
+        for (AzureService service : AzureService.values()) {
+            CircuitBreaker breaker = new CircuitBreaker(
+                    this.failureThreshold,
+                    TimeUnit.SECONDS.toNanos(this.openDurationSeconds)
+            );
+            this.breakers.put(service, breaker);
+            Gauge.builder("azure.governor.circuit.state", breaker, b -> b.getState().ordinal())
+                    .description("The state of the circuit: 0 closed, 1 open, 2 half-open")
+                    .tag("service", service.name())
+                    .register(this.meterRegistry);
+            PriorityTokenBucket bucket = this.buckets.get(service);
+            for (AzureCallPriority priority : AzureCallPriority.values()) {
+                Gauge.builder("azure.governor.queue.size", bucket, b -> b.getWaiting(priority))
+                        .description("The number of calls waiting for a token")
+                        .tag("service", service.name())
+                        .tag("priority", priority.name())
+                        .register(this.meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Executes a call towards an Azure service in the
+     * priority lane of the current thread.
+     *
+     * @param service The Azure service being called.
+     * @param call The call itself.
+     * @param <T> The type of the call's result.
+     * @return The result of the call.
+     */
+    @Override
+    public <T> T execute(
+            final AzureService service,
+            final Supplier<T> call
+    ) {
+        return this.execute(service, AzureCallPriority.current(), call);
+    }
+
+    /**
+     * Executes a call towards an Azure service in the
+     * given priority lane.
+     *
+     * @param service The Azure service being called.
+     * @param priority The priority lane of the call.
+     * @param call The call itself.
+     * @param <T> The type of the call's result.
+     * @return The result of the call.
+     */
+    @Override
+    public <T> T execute(
+            final AzureService service,
+            final AzureCallPriority priority,
+            final Supplier<T> call
+    ) {
+        CircuitBreaker breaker = this.breakers.get(service);
+        if (breaker.isRejecting()) {
+            throw this.reject(service, "circuit_open", breaker.getRemainingOpenSeconds());
+        }
+
+        this.awaitToken(service, priority);
+        CircuitBreaker.Permit permit = breaker.tryAcquirePermission()
+                .orElseThrow(() -> this.reject(service, "circuit_open", breaker.getRemainingOpenSeconds()));
+
+        try {
+            T result = call.get();
+            breaker.onSuccess(permit);
+            this.countCall(service, "success");
+            return result;
+        } catch (RuntimeException exception) {
+            if (!isServiceFailure(exception)) {
+                breaker.onSuccess(permit);
+                this.countCall(service, "client_error");
+                throw exception;
+            }
+            breaker.onFailure(permit);
+            this.countCall(service, "failure");
+            String message = String.format(
+                    "Azure %s service is unavailable: %s",
+                    service,
+                    exception.getMessage()
+            );
+            log.error(message);
+            throw new AzureServiceUnavailableException(
+                    message,
+                    Math.max(1, breaker.getRemainingOpenSeconds()),
+                    exception
+            );
+        } finally {
+            breaker.releasePermission(permit);
+        }
+    }
+
+    private void awaitToken(
+            final AzureService service,
+            final AzureCallPriority priority
+    ) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = this.buckets.get(service)
+                    .acquire(priority, TimeUnit.MILLISECONDS.toNanos(this.maxWaitMillis));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        Timer.builder("azure.governor.wait")
+                .description("The time calls spent waiting for a token")
+                .tag("service", service.name())
+                .tag("priority", priority.name())
+                .publishPercentileHistogram()
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            throw this.reject(
+                    service,
+                    "queue_timeout",
+                    TimeUnit.MILLISECONDS.toSeconds(this.maxWaitMillis)
+            );
+        }
+    }
+
+    private AzureServiceUnavailableException reject(
+            final AzureService service,
+            final String reason,
+            final long retryAfterSeconds
+    ) {
+        Counter.builder("azure.governor.rejections")
+                .description("The number of calls rejected by the governor")
+                .tag("service", service.name())
+                .tag("reason", reason)
+                .register(this.meterRegistry)
+                .increment();
+        String message = String.format(
+                "Azure %s service is temporarily unavailable (%s), please try again later!",
+                service,
+                reason
+        );
+        log.error(message);
+        return new AzureServiceUnavailableException(message, Math.max(1, retryAfterSeconds));
+    }
+
+    private void countCall(
+            final AzureService service,
+            final String outcome
+    ) {
+        Counter.builder("azure.governor.calls")
+                .description("The number of calls made towards Azure")
+                .tag("service", service.name())
+                .tag("outcome", outcome)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Decides whether the exception signals a throttled or degraded
+     * service, as opposed to a faulty request.
+     *
+     * @param exception The exception thrown by the call.
+     * @return {@code true} if the service itself failed, {@code false} otherwise.
+     */
+    static boolean isServiceFailure(final RuntimeException exception) {
+        if (exception instanceof HttpStatusCodeException statusCodeException) {
+            return isServiceFailureStatus(statusCodeException.getStatusCode());
+        }
+        if (exception instanceof HttpResponseException responseException) {
+            return responseException.getResponse() == null
+                    || isServiceFailureStatus(
+                            HttpStatusCode.valueOf(responseException.getResponse().getStatusCode())
+                    );
+        }
+        return exception instanceof ResourceAccessException
+                || exception instanceof UncheckedIOException;
+    }
+
+    private static boolean isServiceFailureStatus(final HttpStatusCode statusCode) {
+        return statusCode.is5xxServerError()
+                || statusCode.value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+}
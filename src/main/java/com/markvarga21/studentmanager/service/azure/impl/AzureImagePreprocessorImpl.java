@@ -0,0 +1,181 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.markvarga21.studentmanager.service.azure.AzureImagePreprocessor;
+import com.markvarga21.studentmanager.service.azure.AzureImageVariant;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A preprocessor which downscales the images before they are sent to
+ * Azure. The faces are detected on a color image whose longer side is
+ * limited, and the passports are read from a grayscale image scaled to
+ * about 300 DPI for a passport data page. The prepared variants are
+ * cached by the hash of the original image, and the latency and the
+ * saved bytes are recorded for every call.
+ */
+@Component
+@RequiredArgsConstructor
+@Setter
+@Slf4j
+public class AzureImagePreprocessorImpl implements AzureImagePreprocessor {
+    /**
+     * The name of the preprocessing latency metric.
+     */
+    static final String LATENCY_METRIC = "azure.preprocessing.latency";
+
+    /**
+     * The name of the saved bytes metric.
+     */
+    static final String SAVED_BYTES_METRIC = "azure.preprocessing.saved.bytes";
+
+    /**
+     * Whether the images are preprocessed.
+     */
+    @Value("${azure.preprocessing.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * The maximum length of the longer side of the
+     * face detection images in pixels.
+     */
+    @Value("${azure.preprocessing.face.max-dimension:1280}")
+    private int faceMaxDimension;
+
+    /**
+     * The maximum length of the longer side of the document
+     * analysis images in pixels. The default is about 300 DPI
+     * for the 125 mm wide data page of a passport.
+     */
+    @Value("${azure.preprocessing.document.max-dimension:1600}")
+    private int documentMaxDimension;
+
+    /**
+     * The quality of the encoded variants, between 0 and 1.
+     */
+    @Value("${azure.preprocessing.jpeg-quality:0.85}")
+    private double jpegQuality;
+
+    /**
+     * The maximum total size of the cached variants in bytes.
+     */
+    @Value("${azure.preprocessing.cache.max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    /**
+     * The registry of the application's metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The cache of the prepared variants.
+     */
+    private ImageVariantCache cache;
+
+    /**
+     * Creates the cache of the variants.
+     */
+    @PostConstruct
+    public void init() {
+        this.cache = new ImageVariantCache(this.cacheMaxBytes);
+        Gauge.builder("azure.preprocessing.cache.bytes", this.cache, ImageVariantCache::getCachedBytes)
+                .description("The total size of the cached image variants")
+                .baseUnit("bytes")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Prepares the variant of an image for an Azure operation.
+     *
+     * @param image The encoded image.
+     * @param variant The variant needed by the operation.
+     * @return The prepared image, or the original one if it cannot be made smaller.
+     */
+    @Override
+    public byte[] prepare(final byte[] image, final AzureImageVariant variant) {
+        if (!this.enabled) {
+            return image;
+        }
+        long start = System.nanoTime();
+        String key = variant + ":" + ContentHasher.sha256Hex(image);
+        byte[] prepared = this.cache.get(key);
+        boolean cached = prepared != null;
+        if (!cached) {
+            prepared = this.createVariant(image, variant);
+            this.cache.put(key, prepared);
+        }
+        Timer.builder(LATENCY_METRIC)
+                .description("The time spent preparing an image for Azure")
+                .tag("variant", variant.name())
+                .tag("cache", cached ? "hit" : "miss")
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder(SAVED_BYTES_METRIC)
+                .description("The bytes not sent to Azure thanks to the preprocessing")
+                .baseUnit("bytes")
+                .tag("variant", variant.name())
+                .register(this.meterRegistry)
+                .record(image.length - prepared.length);
+        return prepared;
+    }
+
+    /**
+     * Creates the variant of an image, falling back to the original
+     * image if it cannot be decoded or the variant is not smaller.
+     *
+     * @param image The encoded image.
+     * @param variant The variant to create.
+     * @return The variant.
+     */
+    private byte[] createVariant(final byte[] image, final AzureImageVariant variant) {
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+            if (decoded == null) {
+                log.warn("Cannot prepare an image of an unsupported format for Azure");
+                return image;
+            }
+            int maxDimension = variant == AzureImageVariant.DOCUMENT_ANALYSIS
+                    ? this.documentMaxDimension
+                    : this.faceMaxDimension;
+            double scale = Math.min(
+                    1.0,
+                    (double) maxDimension / Math.max(decoded.getWidth(), decoded.getHeight())
+            );
+            int imageType = variant == AzureImageVariant.DOCUMENT_ANALYSIS
+                    ? BufferedImage.TYPE_BYTE_GRAY
+                    : BufferedImage.TYPE_INT_RGB;
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            Thumbnails.of(decoded)
+                    .scale(scale)
+                    .imageType(imageType)
+                    .outputFormat("jpg")
+                    .outputQuality(this.jpegQuality)
+                    .toOutputStream(output);
+            byte[] prepared = output.toByteArray();
+            if (prepared.length >= image.length) {
+                return image;
+            }
+            log.info("Prepared the {} variant of an image: {}B -> {}B", variant, image.length, prepared.length);
+            return prepared;
+        } catch (IOException | RuntimeException exception) {
+            log.warn("Cannot prepare the {} variant of an image, sending the original", variant, exception);
+            return image;
+        }
+    }
+}
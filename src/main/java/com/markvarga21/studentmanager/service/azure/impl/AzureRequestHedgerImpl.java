@@ -0,0 +1,346 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.markvarga21.studentmanager.exception.AzureServiceUnavailableException;
+import com.markvarga21.studentmanager.service.azure.AzureRequestHedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A hedger which issues a duplicate of an idempotent call if
+ * no response arrives within a percentile of the operation's
+ * recent latencies. The latency is measured from the start
+ * marked by the call, so the time spent queueing for a permit
+ * of the governor does not trigger duplicates. The number of
+ * duplicates is capped by a token bucket which every hedged call
+ * refills by a fraction of a duplicate, so a quiet period cannot
+ * bank more than a burst of duplicates, and the losing attempts
+ * are cancelled.
+ */
+@Component
+@RequiredArgsConstructor
+@Setter
+@Slf4j
+public class AzureRequestHedgerImpl implements AzureRequestHedger {
+    /**
+     * The number of percents in a whole, which is also the number
+     * of budget tokens a single duplicate costs.
+     */
+    private static final long HUNDRED_PERCENT = 100;
+
+    /**
+     * Whether the hedging is enabled.
+     */
+    @Value("${azure.hedging.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * The latency percentile after which a duplicate is issued.
+     */
+    @Value("${azure.hedging.percentile:95}")
+    private double percentile;
+
+    /**
+     * The maximum percentage of calls which can be duplicated.
+     */
+    @Value("${azure.hedging.budget-percent:10}")
+    private long budgetPercent;
+
+    /**
+     * The maximum number of duplicates the budget can accumulate.
+     */
+    @Value("${azure.hedging.budget-burst:10}")
+    private long budgetBurst;
+
+    /**
+     * The minimum delay before issuing a duplicate
+     * measured in milliseconds.
+     */
+    @Value("${azure.hedging.min-delay-millis:50}")
+    private long minDelayMillis;
+
+    /**
+     * The number of recent latencies the percentile is computed from.
+     */
+    @Value("${azure.hedging.window-size:256}")
+    private int windowSize;
+
+    /**
+     * The number of latencies needed before hedging starts.
+     */
+    @Value("${azure.hedging.min-samples:20}")
+    private int minSamples;
+
+    /**
+     * The number of threads executing the attempts.
+     */
+    @Value("${azure.hedging.pool-size:16}")
+    private int poolSize;
+
+    /**
+     * The registry of the application's metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The latency window of each operation.
+     */
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * The budget of the duplicates in hundredths of a duplicate.
+     */
+    private final AtomicLong budgetTokens = new AtomicLong();
+
+    /**
+     * The executor running the attempts.
+     */
+    private ExecutorService executor;
+
+    /**
+     * Creates the executor of the attempts.
+     */
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                this.poolSize,
+                this.poolSize,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(this.poolSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "azure-hedging-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        Gauge.builder("azure.hedging.budget", this, AzureRequestHedgerImpl::getAvailableHedges)
+                .description("The number of duplicates the budget currently allows")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Shuts down the executor of the attempts.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+
+    /**
+     * Executes an idempotent call, hedging it if it is slow once it
+     * has been started.
+     *
+     * @param operation The name of the operation, used to track its latency.
+     * @param call The idempotent call itself, receiving the marker of its start.
+     * @param <T> The type of the call's result.
+     * @return The result of the first successful attempt.
+     */
+    @Override
+    public <T> T executeHedged(
+            final String operation,
+            final Function<Runnable, T> call
+    ) {
+        if (!this.enabled) {
+            return call.apply(() -> { });
+        }
+        LatencyWindow window = this.windows.computeIfAbsent(
+                operation,
+                this::createWindow
+        );
+        this.refillBudget();
+        this.count("azure.hedging.requests", operation);
+
+        Race<T> race = new Race<>();
+        if (!this.attempt(operation, call, window, race, false)) {
+            return call.apply(() -> { });
+        }
+
+        long thresholdNanos = this.getThresholdNanos(window);
+        try {
+            if (thresholdNanos < 0) {
+                return race.result.get();
+            }
+            CompletableFuture.anyOf(race.started, race.result).get();
+            if (race.result.isDone()) {
+                return race.result.get();
+            }
+            long remainingNanos = race.started.getNow(System.nanoTime()) + thresholdNanos - System.nanoTime();
+            try {
+                return race.result.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException exception) {
+                if (this.tryConsumeBudget(operation)) {
+                    if (this.attempt(operation, call, window, race, true)) {
+                        this.count("azure.hedging.hedges", operation);
+                        log.info("Hedging slow '{}' call after {} ms", operation, TimeUnit.NANOSECONDS.toMillis(thresholdNanos));
+                    } else {
+                        this.budgetTokens.addAndGet(HUNDRED_PERCENT);
+                    }
+                }
+                return race.result.get();
+            }
+        } catch (ExecutionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            String message = String.format("Interrupted while waiting for '%s'", operation);
+            log.error(message);
+            throw new AzureServiceUnavailableException(message, 1, exception);
+        } finally {
+            race.attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Returns the number of duplicates the budget currently allows.
+     *
+     * @return The number of available duplicates.
+     */
+    public double getAvailableHedges() {
+        return (double) this.budgetTokens.get() / HUNDRED_PERCENT;
+    }
+
+    private LatencyWindow createWindow(final String operation) {
+        LatencyWindow window = new LatencyWindow(this.windowSize);
+        Gauge.builder("azure.hedging.threshold", window, this::getThresholdMillis)
+                .description("The delay after which a duplicate is issued in milliseconds, or -1 while warming up")
+                .tag("operation", operation)
+                .register(this.meterRegistry);
+        return window;
+    }
+
+    private double getThresholdMillis(final LatencyWindow window) {
+        long thresholdNanos = this.getThresholdNanos(window);
+        return thresholdNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    private long getThresholdNanos(final LatencyWindow window) {
+        if (window.size() < this.minSamples) {
+            return -1;
+        }
+        return Math.max(
+                TimeUnit.MILLISECONDS.toNanos(this.minDelayMillis),
+                window.percentile(this.percentile)
+        );
+    }
+
+    private void refillBudget() {
+        long capacity = this.budgetBurst * HUNDRED_PERCENT;
+        this.budgetTokens.getAndUpdate(tokens -> Math.min(capacity, tokens + this.budgetPercent));
+    }
+
+    private boolean tryConsumeBudget(final String operation) {
+        long previous = this.budgetTokens.getAndUpdate(tokens -> tokens >= HUNDRED_PERCENT ? tokens - HUNDRED_PERCENT : tokens);
+        if (previous >= HUNDRED_PERCENT) {
+            return true;
+        }
+        this.count("azure.hedging.budget.exhausted", operation);
+        return false;
+    }
+
+    private <T> boolean attempt(
+            final String operation,
+            final Function<Runnable, T> call,
+            final LatencyWindow window,
+            final Race<T> race,
+            final boolean hedge
+    ) {
+        if (race.result.isDone()) {
+            return false;
+        }
+        race.inFlight.incrementAndGet();
+        try {
+            race.attempts.add(this.executor.submit(() -> {
+                AtomicLong start = new AtomicLong(System.nanoTime());
+                try {
+                    T value = call.apply(() -> {
+                        start.set(System.nanoTime());
+                        race.started.complete(start.get());
+                    });
+                    window.record(System.nanoTime() - start.get());
+                    if (race.result.complete(value) && hedge) {
+                        this.count("azure.hedging.wins", operation);
+                    }
+                } catch (Throwable throwable) {
+                    if (race.inFlight.decrementAndGet() == 0) {
+                        race.result.completeExceptionally(throwable);
+                    }
+                }
+            }));
+            return true;
+        } catch (RejectedExecutionException exception) {
+            race.inFlight.decrementAndGet();
+            log.warn("No free thread for hedging '{}'", operation);
+            return false;
+        }
+    }
+
+    private void count(
+            final String name,
+            final String operation
+    ) {
+        Counter.builder(name)
+                .tag("operation", operation)
+                .register(this.meterRegistry)
+                .increment();
+    }
+
+    /**
+     * The state shared by the attempts of a single call.
+     *
+     * @param <T> The type of the call's result.
+     */
+    private static final class Race<T> {
+        /**
+         * The result of the first successful attempt.
+         */
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /**
+         * The time the first attempt has been started.
+         */
+        private final CompletableFuture<Long> started = new CompletableFuture<>();
+
+        /**
+         * The attempts issued so far, cancelled once the race is over.
+         */
+        private final List<Future<?>> attempts = new CopyOnWriteArrayList<>();
+
+        /**
+         * The number of attempts which have not failed yet.
+         */
+        private final AtomicInteger inFlight = new AtomicInteger();
+    }
+}
@@ -0,0 +1,204 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A simple consecutive-failure based circuit breaker. After
+ * a number of consecutive failures it opens and rejects every
+ * call, then lets a single trial call through after the open
+ * period to decide whether to close again.
+ */
+final class CircuitBreaker {
+    /**
+     * The states of the circuit breaker.
+     */
+    enum State {
+        /**
+         * Calls are let through.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A single trial call is let through.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * The number of consecutive failures opening the breaker.
+     */
+    private final int failureThreshold;
+
+    /**
+     * The time the breaker stays open.
+     */
+    private final long openDurationNanos;
+
+    /**
+     * The current state of the breaker.
+     */
+    private State state = State.CLOSED;
+
+    /**
+     * The number of consecutive failures so far.
+     */
+    private int consecutiveFailures;
+
+    /**
+     * The time the breaker has been opened.
+     */
+    private long openedAtNanos;
+
+    /**
+     * Whether the trial call of the half-open state is in flight.
+     */
+    private boolean trialInFlight;
+
+    /**
+     * The number of state changes so far. The outcomes of the calls
+     * permitted before the last change are ignored, so a slow call
+     * started while closed can neither free the trial call of the
+     * half-open state nor close an open breaker.
+     */
+    private long generation;
+
+    /**
+     * Creates a closed circuit breaker.
+     *
+     * @param failureThreshold The number of consecutive failures opening the breaker.
+     * @param openDurationNanos The time the breaker stays open.
+     */
+    CircuitBreaker(
+            final int failureThreshold,
+            final long openDurationNanos
+    ) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+    }
+
+    /**
+     * Checks whether the breaker would reject a call right now,
+     * without claiming the trial call of the half-open state.
+     *
+     * @return {@code true} if calls are rejected, {@code false} otherwise.
+     */
+    synchronized boolean isRejecting() {
+        if (this.state == State.OPEN) {
+            return !this.openPeriodElapsed();
+        }
+        return this.state == State.HALF_OPEN && this.trialInFlight;
+    }
+
+    /**
+     * Asks permission for a call.
+     *
+     * @return The permit of the call, or an empty {@code Optional} if the call is rejected.
+     */
+    synchronized Optional<Permit> tryAcquirePermission() {
+        if (this.state == State.OPEN) {
+            if (!this.openPeriodElapsed()) {
+                return Optional.empty();
+            }
+            this.transitionTo(State.HALF_OPEN);
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.trialInFlight) {
+                return Optional.empty();
+            }
+            this.trialInFlight = true;
+            return Optional.of(new Permit(this.generation, true));
+        }
+        return Optional.of(new Permit(this.generation, false));
+    }
+
+    /**
+     * Records a successful call, closing the breaker
+     * if the call was the trial call.
+     *
+     * @param permit The permit of the call.
+     */
+    synchronized void onSuccess(final Permit permit) {
+        if (permit.generation() != this.generation) {
+            return;
+        }
+        this.consecutiveFailures = 0;
+        if (permit.trial()) {
+            this.transitionTo(State.CLOSED);
+        }
+    }
+
+    /**
+     * Records a failed call, opening the breaker if the call was the
+     * trial call, or if the failure threshold has been reached.
+     *
+     * @param permit The permit of the call.
+     */
+    synchronized void onFailure(final Permit permit) {
+        if (permit.generation() != this.generation) {
+            return;
+        }
+        this.consecutiveFailures++;
+        if (permit.trial() || this.consecutiveFailures >= this.failureThreshold) {
+            this.transitionTo(State.OPEN);
+            this.openedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends a permitted call. If the trial call ended without recording
+     * its outcome, e.g. with an {@code Error}, the trial is given up,
+     * so the next call can be the trial.
+     *
+     * @param permit The permit of the call.
+     */
+    synchronized void releasePermission(final Permit permit) {
+        if (permit.trial() && permit.generation() == this.generation) {
+            this.trialInFlight = false;
+        }
+    }
+
+    /**
+     * Returns the time remaining until the breaker lets a trial call through.
+     *
+     * @return The remaining open time in seconds, rounded up.
+     */
+    synchronized long getRemainingOpenSeconds() {
+        if (this.state != State.OPEN) {
+            return 0;
+        }
+        long remaining = this.openDurationNanos - (System.nanoTime() - this.openedAtNanos);
+        return Math.max(0, TimeUnit.NANOSECONDS.toSeconds(remaining) + 1);
+    }
+
+    /**
+     * Returns the current state of the breaker.
+     *
+     * @return The state of the breaker.
+     */
+    synchronized State getState() {
+        return this.state;
+    }
+
+    private boolean openPeriodElapsed() {
+        return System.nanoTime() - this.openedAtNanos >= this.openDurationNanos;
+    }
+
+    private void transitionTo(final State newState) {
+        this.state = newState;
+        this.trialInFlight = false;
+        this.generation++;
+    }
+
+    /**
+     * The permission of a single call.
+     *
+     * @param generation The state change the call has been permitted in.
+     * @param trial Whether the call is the trial call of the half-open state.
+     */
+    record Permit(long generation, boolean trial) {
+    }
+}
@@ -0,0 +1,87 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of the prepared image variants,
+ * bounded by the total size of the cached variants.
+ */
+final class ImageVariantCache {
+    /**
+     * The initial capacity of the backing map.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * The load factor of the backing map.
+     */
+    private static final float LOAD_FACTOR = 0.75f;
+
+    /**
+     * The maximum total size of the cached variants in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * The cached variants by key in access order.
+     */
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true);
+
+    /**
+     * The total size of the cached variants in bytes.
+     */
+    private long cachedBytes;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxBytes The maximum total size of the cached variants in bytes.
+     */
+    ImageVariantCache(final long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns a cached variant.
+     *
+     * @param key The key of the variant.
+     * @return The variant, or {@code null} if it is not cached.
+     */
+    synchronized byte[] get(final String key) {
+        return this.entries.get(key);
+    }
+
+    /**
+     * Caches a variant, evicting the least recently used ones
+     * until the cache fits its size limit again.
+     *
+     * @param key The key of the variant.
+     * @param variant The variant.
+     */
+    synchronized void put(final String key, final byte[] variant) {
+        if (variant.length > this.maxBytes) {
+            return;
+        }
+        byte[] previous = this.entries.put(key, variant);
+        if (previous != null) {
+            this.cachedBytes -= previous.length;
+        }
+        this.cachedBytes += variant.length;
+        Iterator<byte[]> eldest = this.entries.values().iterator();
+        while (this.cachedBytes > this.maxBytes && eldest.hasNext()) {
+            this.cachedBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Returns the total size of the cached variants.
+     *
+     * @return The total size of the cached variants in bytes.
+     */
+    synchronized long getCachedBytes() {
+        return this.cachedBytes;
+    }
+}
@@ -0,0 +1,74 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import java.util.Arrays;
+
+/**
+ * A sliding window of the most recent latencies of an operation,
+ * used for estimating its latency percentiles.
+ */
+final class LatencyWindow {
+    /**
+     * The number of percents in a whole.
+     */
+    private static final double HUNDRED_PERCENT = 100.0;
+
+    /**
+     * The recorded latencies in a ring buffer.
+     */
+    private final long[] samples;
+
+    /**
+     * The position of the next sample.
+     */
+    private int next;
+
+    /**
+     * The number of samples recorded so far, capped at the window size.
+     */
+    private int size;
+
+    /**
+     * Creates an empty window.
+     *
+     * @param windowSize The number of latencies kept.
+     */
+    LatencyWindow(final int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param latencyNanos The latency in nanoseconds.
+     */
+    synchronized void record(final long latencyNanos) {
+        this.samples[this.next] = latencyNanos;
+        this.next = (this.next + 1) % this.samples.length;
+        this.size = Math.min(this.size + 1, this.samples.length);
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     *
+     * @return The number of latencies in the window.
+     */
+    synchronized int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds, or {@code -1} if the window is empty.
+     */
+    synchronized long percentile(final double percentile) {
+        if (this.size == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(this.samples, this.size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / HUNDRED_PERCENT * this.size) - 1;
+        return sorted[Math.max(0, Math.min(index, this.size - 1))];
+    }
+}
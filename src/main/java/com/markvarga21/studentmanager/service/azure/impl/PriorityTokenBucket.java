@@ -0,0 +1,146 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A token bucket rate limiter with priority lanes. A caller
+ * only takes a token if no caller with a higher priority
+ * is waiting for one.
+ */
+final class PriorityTokenBucket {
+    /**
+     * The maximum number of tokens the bucket can hold.
+     */
+    private final double capacity;
+
+    /**
+     * The number of tokens added to the bucket per nanosecond.
+     */
+    private final double tokensPerNano;
+
+    /**
+     * The lock guarding the state of the bucket.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * The condition signalled when the waiting callers change.
+     */
+    private final Condition changed = this.lock.newCondition();
+
+    /**
+     * The number of waiting callers per priority lane.
+     */
+    private final int[] waiting = new int[AzureCallPriority.values().length];
+
+    /**
+     * The number of tokens currently in the bucket.
+     */
+    private double tokens;
+
+    /**
+     * The last time the bucket has been refilled.
+     */
+    private long lastRefillNanos;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param permitsPerSecond The number of tokens added per second.
+     * @param burstCapacity The maximum number of tokens in the bucket.
+     */
+    PriorityTokenBucket(
+            final double permitsPerSecond,
+            final int burstCapacity
+    ) {
+        this.capacity = burstCapacity;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = burstCapacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes a token from the bucket, waiting at most
+     * the given time for it.
+     *
+     * @param priority The priority lane of the caller.
+     * @param timeoutNanos The maximum time to wait for a token.
+     * @return {@code true} if a token has been taken, {@code false} otherwise.
+     * @throws InterruptedException If the waiting thread has been interrupted.
+     */
+    boolean acquire(
+            final AzureCallPriority priority,
+            final long timeoutNanos
+    ) throws InterruptedException {
+        long deadline = System.nanoTime() + timeoutNanos;
+        int lane = priority.ordinal();
+        this.lock.lock();
+        try {
+            this.waiting[lane]++;
+            try {
+                while (true) {
+                    this.refill();
+                    if (this.tokens >= 1 && !this.hasHigherPriorityWaiters(lane)) {
+                        this.tokens -= 1;
+                        return true;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return false;
+                    }
+                    if (this.hasHigherPriorityWaiters(lane)) {
+                        this.changed.awaitNanos(remaining);
+                    } else {
+                        this.changed.awaitNanos(
+                                Math.min(remaining, this.nanosUntilNextToken())
+                        );
+                    }
+                }
+            } finally {
+                this.waiting[lane]--;
+                this.changed.signalAll();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of callers waiting in the given lane.
+     *
+     * @param priority The priority lane.
+     * @return The number of waiting callers.
+     */
+    int getWaiting(final AzureCallPriority priority) {
+        this.lock.lock();
+        try {
+            return this.waiting[priority.ordinal()];
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private boolean hasHigherPriorityWaiters(final int lane) {
+        for (int i = 0; i < lane; i++) {
+            if (this.waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long nanosUntilNextToken() {
+        return Math.max(1, (long) Math.ceil((1 - this.tokens) / this.tokensPerNano));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double refilled = (now - this.lastRefillNanos) * this.tokensPerNano;
+        this.tokens = Math.min(this.capacity, this.tokens + refilled);
+        this.lastRefillNanos = now;
+    }
+}
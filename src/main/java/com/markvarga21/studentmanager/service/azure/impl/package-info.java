@@ -0,0 +1,5 @@
+/**
+ * A package containing the service implementations
+ * relating to the governing of Azure calls.
+ */
+package com.markvarga21.studentmanager.service.azure.impl;
@@ -38,6 +38,17 @@ public interface FaceApiService {
      */
     boolean validateFacesForPassportNumber(String passportNumber, Long studentId);
 
+    /**
+     * Validates the faces found on the given images and stores
+     * the result for the passport number.
+     *
+     * @param passportNumber The passport number.
+     * @param passportImage The passport image of the student.
+     * @param selfieImage The selfie image of the student.
+     * @return {@code true} if the faces are valid, {@code false} otherwise.
+     */
+    boolean validateFaces(String passportNumber, byte[] passportImage, byte[] selfieImage);
+
     /**
      * Deletes the face with the given passport number.
      *
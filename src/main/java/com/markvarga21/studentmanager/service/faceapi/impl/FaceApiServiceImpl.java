@@ -5,14 +5,26 @@ import com.google.gson.reflect.TypeToken;
 import com.markvarga21.studentmanager.config.ApplicationConfiguration;
 import com.markvarga21.studentmanager.dto.FaceDetectionResponse;
 import com.markvarga21.studentmanager.entity.FacialValidationData;
+import com.markvarga21.studentmanager.entity.StudentImage;
 import com.markvarga21.studentmanager.dto.FaceApiResponse;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.service.azure.AzureCallGovernor;
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+import com.markvarga21.studentmanager.service.azure.AzureImagePreprocessor;
+import com.markvarga21.studentmanager.service.azure.AzureImageVariant;
+import com.markvarga21.studentmanager.service.azure.AzureRequestHedger;
+import com.markvarga21.studentmanager.service.azure.AzureService;
 import com.markvarga21.studentmanager.service.faceapi.FaceApiService;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
 import com.markvarga21.studentmanager.service.file.FileUploadService;
 import com.markvarga21.studentmanager.service.validation.face.FacialValidationService;
 import com.markvarga21.studentmanager.util.Generated;
+import com.markvarga21.studentmanager.util.ImageUpload;
+import com.markvarga21.studentmanager.util.PerceptualHash;
 import com.markvarga21.studentmanager.util.StudentImageType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -22,10 +34,12 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * A service which uses Azure's Face API to compare two faces.
@@ -64,6 +78,37 @@ public class FaceApiServiceImpl implements FaceApiService {
      */
     private final FacialValidationService facialValidationService;
 
+    /**
+     * The governor of the calls made towards Azure.
+     */
+    private final AzureCallGovernor azureCallGovernor;
+
+    /**
+     * The hedger of the idempotent detection calls.
+     */
+    private final AzureRequestHedger azureRequestHedger;
+
+    /**
+     * The preprocessor downscaling the images sent for detection.
+     */
+    private final AzureImagePreprocessor azureImagePreprocessor;
+
+    /**
+     * The detector rejecting the reused images before they are sent to Azure.
+     */
+    private final DuplicateImageDetector duplicateImageDetector;
+
+    /**
+     * The executor running the independent detections concurrently.
+     */
+    @Qualifier("validationExecutor")
+    private final Executor validationExecutor;
+
+    /**
+     * The name of the detection operation used for hedging.
+     */
+    private static final String DETECT_OPERATION = "face.detect";
+
     /**
      * A simple multiplier for converting floating point percentage
      * to decimal percentage, out of readability reasons.
@@ -92,51 +137,9 @@ public class FaceApiServiceImpl implements FaceApiService {
      * @param file The file to be processed.
      * @return The face ID for the given file.
      */
-    @SuppressWarnings("checkstyle:LineLength")
     @Override
     public String getFaceIdForFile(final MultipartFile file) {
-        try {
-            String faceApiDetectionEndpoint = String.format(
-                    "%sface/v1.0/detect?returnFaceId=true&recognitionModel=recognition_04&faceIdTimeToLive=300",
-                    this.faceApiUrl
-            );
-
-            byte[] fileBytes = file.getBytes();
-            HttpHeaders headers = this.getHeaders();
-            HttpEntity<byte[]> requestEntity =
-                    new HttpEntity<>(fileBytes, headers);
-            ResponseEntity<String> response = this.restTemplate
-                    .postForEntity(
-                            faceApiDetectionEndpoint,
-                            requestEntity,
-                            String.class
-                    );
-            String detectionString = response.getBody();
-            Gson gson = new Gson();
-            Type listType = getListType();
-
-            ArrayList<FaceDetectionResponse> faceDetectionResponses = gson
-                    .fromJson(
-                        detectionString,
-                        listType
-            );
-            assert faceDetectionResponses != null;
-            faceDetectionResponses.sort((face1, face2) -> {
-                Integer area1 = face1.getFaceRectangle().getArea();
-                Integer area2 = face2.getFaceRectangle().getArea();
-
-                return area2.compareTo(area1);
-            });
-
-            return faceDetectionResponses.get(0).getFaceId();
-        } catch (IOException exception) {
-            String message = String.format(
-                    "Something went wrong when extracting face ID: %s",
-                    exception.getMessage()
-            );
-            log.error(message);
-        }
-        return "Face ID not present!";
+        return this.getFaceIdForFile(ImageUpload.ingest(file).getContent());
     }
 
     /**
@@ -155,22 +158,48 @@ public class FaceApiServiceImpl implements FaceApiService {
      * @param fileBytes The file to be processed.
      * @return The face ID for the given file.
      */
-    @SuppressWarnings("checkstyle:LineLength")
     public String getFaceIdForFile(final byte[] fileBytes) {
+        return this.getFaceIdForFile(fileBytes, AzureCallPriority.current());
+    }
+
+    /**
+     * Returns the face ID for the given byte array, calling
+     * Azure in the given priority lane.
+     *
+     * @param fileBytes The file to be processed.
+     * @param priority The priority lane of the call.
+     * @return The face ID for the given file.
+     */
+    @SuppressWarnings("checkstyle:LineLength")
+    private String getFaceIdForFile(
+            final byte[] fileBytes,
+            final AzureCallPriority priority
+    ) {
         String faceApiDetectionEndpoint = String.format(
                 "%sface/v1.0/detect?returnFaceId=true&recognitionModel=recognition_04&faceIdTimeToLive=300",
                 this.faceApiUrl
         );
 
         HttpHeaders headers = this.getHeaders();
-        HttpEntity<byte[]> requestEntity =
-                new HttpEntity<>(fileBytes, headers);
-        ResponseEntity<String> response = this.restTemplate
-                .postForEntity(
-                        faceApiDetectionEndpoint,
-                        requestEntity,
-                        String.class
-                );
+        HttpEntity<byte[]> requestEntity = new HttpEntity<>(
+                this.azureImagePreprocessor.prepare(fileBytes, AzureImageVariant.FACE_DETECTION),
+                headers
+        );
+        ResponseEntity<String> response = this.azureRequestHedger.executeHedged(
+                DETECT_OPERATION,
+                started -> this.azureCallGovernor.execute(
+                        AzureService.FACE,
+                        priority,
+                        () -> {
+                            started.run();
+                            return this.restTemplate.postForEntity(
+                                    faceApiDetectionEndpoint,
+                                    requestEntity,
+                                    String.class
+                            );
+                        }
+                )
+        );
         String detectionString = response.getBody();
         Gson gson = new Gson();
         Type listType = getListType();
@@ -193,68 +222,45 @@ public class FaceApiServiceImpl implements FaceApiService {
 
     /**
      * Compares the faces found on the passport and the
-     * selfie, and then sends it back to the client.
+     * selfie, and then sends it back to the client. It
+     * does this using byte arrays instead of {@code MultipartFile}.
      *
      * @param passport The student's passport image.
      * @param selfiePhoto The selfie image of the student.
      * @return The validity and the percentage of the matching.
      */
     private FaceApiResponse compareFaces(
-            final MultipartFile passport,
-            final MultipartFile selfiePhoto
+            final byte[] passport,
+            final byte[] selfiePhoto
     ) {
-        String passportFaceId = this.getFaceIdForFile(passport);
-        String selfieFaceId = this.getFaceIdForFile(selfiePhoto);
-
-        String faceApiVerificationEndpoint = String.format(
-                "%sface/v1.0/verify",
-                this.faceApiUrl
+        AzureCallPriority priority = AzureCallPriority.current();
+        CompletableFuture<String> passportFaceId = CompletableFuture.supplyAsync(
+                () -> this.getFaceIdForFile(passport, priority),
+                this.validationExecutor
         );
+        String selfieFaceId = this.getFaceIdForFile(selfiePhoto, priority);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set(
-                ApplicationConfiguration.AZURE_API_KEY_HEADER,
-                this.faceApiKey
-        );
-        headers.setAccessControlAllowOrigin("*");
-
-        String jsonString = String.format(
-                "{\"faceId1\":\"%s\",\"faceId2\":\"%s\"}",
-                passportFaceId,
-                selfieFaceId
-        );
-
-        HttpEntity<String> requestEntity = new HttpEntity<>(
-                jsonString,
-                headers
-        );
-
-        ResponseEntity<FaceApiResponse> response = this.restTemplate
-                .postForEntity(
-                        faceApiVerificationEndpoint,
-                        requestEntity,
-                        FaceApiResponse.class
-                );
-        return response.getBody();
+        try {
+            return this.verifyFaceIds(passportFaceId.join(), selfieFaceId);
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
     }
 
     /**
-     * Compares the faces found on the passport and the
-     * selfie, and then sends it back to the client. It
-     * does this using byte arrays instead of {@code MultipartFile}.
+     * Verifies whether two detected faces belong to the same person.
      *
-     * @param passport The student's passport image.
-     * @param selfiePhoto The selfie image of the student.
+     * @param passportFaceId The ID of the face found on the passport.
+     * @param selfieFaceId The ID of the face found on the selfie.
      * @return The validity and the percentage of the matching.
      */
-    private FaceApiResponse compareFaces(
-            final byte[] passport,
-            final byte[] selfiePhoto
+    private FaceApiResponse verifyFaceIds(
+            final String passportFaceId,
+            final String selfieFaceId
     ) {
-        String passportFaceId = this.getFaceIdForFile(passport);
-        String selfieFaceId = this.getFaceIdForFile(selfiePhoto);
-
         String faceApiVerificationEndpoint = String.format(
                 "%sface/v1.0/verify",
                 this.faceApiUrl
@@ -279,19 +285,22 @@ public class FaceApiServiceImpl implements FaceApiService {
                 headers
         );
 
-        ResponseEntity<FaceApiResponse> response = this.restTemplate
-                .postForEntity(
+        ResponseEntity<FaceApiResponse> response = this.azureCallGovernor.execute(
+                AzureService.FACE,
+                () -> this.restTemplate.postForEntity(
                         faceApiVerificationEndpoint,
                         requestEntity,
                         FaceApiResponse.class
-                );
+                )
+        );
         return response.getBody();
     }
 
     /**
      * Compares the faces found on the passport and the
      * selfie, and then sends it back to the client. It
-     * combines the predefined method(s).
+     * combines the predefined method(s). An obviously reused
+     * selfie is rejected before any call is made to Azure.
      *
      * @param passport The student's passport image.
      * @param selfiePhoto The selfie image of the student.
@@ -302,8 +311,16 @@ public class FaceApiServiceImpl implements FaceApiService {
             final MultipartFile passport,
             final MultipartFile selfiePhoto
     ) {
-
-        return this.compareFaces(passport, selfiePhoto);
+        byte[] passportImage = ImageUpload.ingest(passport).getContent();
+        byte[] selfieImage = ImageUpload.ingest(selfiePhoto).getContent();
+        this.duplicateImageDetector.checkForDuplicates(
+                null,
+                StudentImageType.SELFIE,
+                PerceptualHash.dHash(selfieImage),
+                PerceptualHash.dHash(passportImage),
+                OperationType.READ
+        );
+        return this.compareFaces(passportImage, selfieImage);
     }
 
     /**
@@ -334,13 +351,33 @@ public class FaceApiServiceImpl implements FaceApiService {
             final String passportNumber,
             final Long studentId
     ) {
-        byte[] passportBytes = this.fileUploadService
-                .getImageForType(studentId, StudentImageType.PASSPORT);
-        byte[] selfieBytes = this.fileUploadService
-                .getImageForType(studentId, StudentImageType.SELFIE);
-        log.info(passportBytes.length + " " + selfieBytes.length);
+        StudentImage studentImage = this.fileUploadService
+                .getStudentImageById(studentId);
+        return this.validateFaces(
+                passportNumber,
+                studentImage.getPassportImage(),
+                studentImage.getSelfieImage()
+        );
+    }
+
+    /**
+     * Validates the faces found on the given images and stores
+     * the result for the passport number.
+     *
+     * @param passportNumber The passport number.
+     * @param passportImage The passport image of the student.
+     * @param selfieImage The selfie image of the student.
+     * @return {@code true} if the faces are valid, {@code false} otherwise.
+     */
+    @Override
+    public boolean validateFaces(
+            final String passportNumber,
+            final byte[] passportImage,
+            final byte[] selfieImage
+    ) {
+        log.info(passportImage.length + " " + selfieImage.length);
         FaceApiResponse validityOfFaces = this
-                .getValidityOfFaces(passportBytes, selfieBytes);
+                .getValidityOfFaces(passportImage, selfieImage);
 
         FacialValidationData facialValidationData = FacialValidationData
                 .builder()
@@ -0,0 +1,53 @@
+package com.markvarga21.studentmanager.service.file;
+
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.util.StudentImageType;
+
+/**
+ * The {@code DuplicateImageDetector} interface is used to catch the
+ * reused images at upload time, before they are sent to Azure. It
+ * keeps an index of the perceptual hashes of the stored images.
+ */
+public interface DuplicateImageDetector {
+    /**
+     * Checks whether an uploaded image is a near duplicate of the other
+     * image of the student, or of an image of another student.
+     *
+     * @param studentId The id of the student, or {@code null} if the images do not belong to a student yet.
+     * @param imageType The type of the uploaded image.
+     * @param hash The perceptual hash of the uploaded image, or {@code null} if unknown.
+     * @param otherImageHash The perceptual hash of the other image of the student, or {@code null} if unknown.
+     * @param operationType The operation uploading the image.
+     */
+    void checkForDuplicates(
+            Long studentId,
+            StudentImageType imageType,
+            Long hash,
+            Long otherImageHash,
+            OperationType operationType
+    );
+
+    /**
+     * Adds a stored image to the index, replacing its previous hash.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     * @param previousHash The hash of the replaced image, or {@code null} if there is none.
+     * @param hash The hash of the stored image, or {@code null} if unknown.
+     */
+    void register(Long studentId, StudentImageType imageType, Long previousHash, Long hash);
+
+    /**
+     * Removes the images of a student from the index.
+     *
+     * @param studentId The id of the student.
+     * @param passportHash The hash of the passport image, or {@code null} if unknown.
+     * @param selfieHash The hash of the selfie image, or {@code null} if unknown.
+     */
+    void unregister(Long studentId, Long passportHash, Long selfieHash);
+
+    /**
+     * Rebuilds the index from the hashes in the database.
+     */
+    void rebuildIndex();
+}
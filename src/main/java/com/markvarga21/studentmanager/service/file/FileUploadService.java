@@ -57,6 +57,17 @@ public interface FileUploadService {
      */
     byte[] getImageForType(Long studentId, StudentImageType type);
 
+    /**
+     * A method which is used to get the SHA-256 hash
+     * of the image for the given type and student id.
+     * The hash is computed once, when the image is stored.
+     *
+     * @param studentId The id of the student.
+     * @param type The image type.
+     * @return The hash of the image.
+     */
+    String getImageContentHash(Long studentId, StudentImageType type);
+
     /**
      * A method which is used to change
      * the images for the given type and student.
@@ -0,0 +1,18 @@
+package com.markvarga21.studentmanager.service.file;
+
+import com.markvarga21.studentmanager.dto.LargeObjectCollectionReport;
+
+/**
+ * The {@code LargeObjectCollector} interface is used to remove the
+ * large objects of the images which are no longer referenced.
+ */
+public interface LargeObjectCollector {
+    /**
+     * Finds the unreferenced large objects and unlinks
+     * them, unless only a report has been requested.
+     *
+     * @param dryRun Whether the orphans should only be reported.
+     * @return The summary of the run.
+     */
+    LargeObjectCollectionReport collect(boolean dryRun);
+}
@@ -0,0 +1,57 @@
+package com.markvarga21.studentmanager.service.file;
+
+import com.markvarga21.studentmanager.dto.SignedImageUrl;
+import com.markvarga21.studentmanager.util.StudentImageType;
+
+/**
+ * The {@code SignedImageUrlService} interface is used to issue
+ * and verify short-lived signed URLs of the students' images,
+ * which can be served without authenticating the user.
+ */
+public interface SignedImageUrlService {
+    /**
+     * Issues a signed URL for the current content of an image.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @return The signed URL.
+     */
+    SignedImageUrl signUrl(Long studentId, StudentImageType imageType);
+
+    /**
+     * Verifies the signature and the expiry of a signed URL.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     * @param expires The expiry of the URL in epoch seconds.
+     * @param signature The signature of the URL.
+     */
+    void verifySignature(
+            Long studentId,
+            StudentImageType imageType,
+            String contentHash,
+            long expires,
+            String signature
+    );
+
+    /**
+     * Verifies that an image has not been replaced or deleted since
+     * its URL has been signed, without loading the image.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     */
+    void verifyContent(Long studentId, StudentImageType imageType, String contentHash);
+
+    /**
+     * Retrieves the image of a verified signed URL.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     * @return The content of the image.
+     */
+    byte[] getSignedImage(Long studentId, StudentImageType imageType, String contentHash);
+}
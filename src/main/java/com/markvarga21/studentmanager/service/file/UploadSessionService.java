@@ -0,0 +1,65 @@
+package com.markvarga21.studentmanager.service.file;
+
+import com.markvarga21.studentmanager.dto.UploadSession;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+
+/**
+ * The {@code UploadSessionService} interface is used to receive
+ * large images in chunks, so an interrupted upload can be resumed
+ * from its last received byte.
+ */
+public interface UploadSessionService {
+    /**
+     * Starts a resumable upload of an image.
+     *
+     * @param username The username of the uploading user.
+     * @param studentId The ID of the student the image belongs to.
+     * @param imageType The type of the image.
+     * @param size The size of the whole image in bytes.
+     * @return The created session.
+     */
+    UploadSession createSession(String username, Long studentId, StudentImageType imageType, long size);
+
+    /**
+     * Retrieves the state of an upload, including the
+     * offset it can be resumed from.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @return The state of the upload.
+     */
+    UploadSession getSession(String username, String sessionId);
+
+    /**
+     * Appends a chunk to an upload.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @param offset The offset the chunk starts at.
+     * @param checksum The hexadecimal SHA-256 checksum of the chunk.
+     * @param chunk The content of the chunk.
+     * @return The state of the upload after the chunk.
+     */
+    UploadSession appendChunk(String username, String sessionId, long offset, String checksum, InputStream chunk);
+
+    /**
+     * Returns the assembled image of a finished upload.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @param imageType The expected type of the image.
+     * @return The assembled image, read from the disk.
+     */
+    MultipartFile getCompletedFile(String username, String sessionId, StudentImageType imageType);
+
+    /**
+     * Deletes an upload and its received bytes.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     */
+    void deleteSession(String username, String sessionId);
+}
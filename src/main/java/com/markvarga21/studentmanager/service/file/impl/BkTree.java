@@ -0,0 +1,156 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.util.PerceptualHash;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Burkhard-Keller tree of 64-bit perceptual hashes under the Hamming
+ * distance. A search for the hashes within a small distance only visits
+ * the subtrees whose distance to the query can be in range, by the
+ * triangle inequality. Values of removed hashes are dropped from their
+ * nodes, while the nodes stay in place for routing. The tree is not
+ * thread-safe.
+ *
+ * @param <V> The type of the values stored with the hashes.
+ */
+final class BkTree<V> {
+    /**
+     * The root of the tree, or {@code null} if it is empty.
+     */
+    private Node<V> root;
+
+    /**
+     * The number of stored values.
+     */
+    private int size;
+
+    /**
+     * Adds a value with its hash, unless it is already stored with it.
+     *
+     * @param hash The hash.
+     * @param value The value.
+     */
+    void add(final long hash, final V value) {
+        if (this.root == null) {
+            this.root = new Node<>(hash);
+            this.root.values.add(value);
+            this.size++;
+            return;
+        }
+        Node<V> node = this.root;
+        while (true) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0) {
+                if (!node.values.contains(value)) {
+                    node.values.add(value);
+                    this.size++;
+                }
+                return;
+            }
+            Node<V> child = node.children.get(distance);
+            if (child == null) {
+                child = new Node<>(hash);
+                child.values.add(value);
+                node.children.put(distance, child);
+                this.size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Removes a value stored with the given hash.
+     *
+     * @param hash The hash.
+     * @param value The value.
+     */
+    void remove(final long hash, final V value) {
+        Node<V> node = this.root;
+        while (node != null) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0) {
+                if (node.values.remove(value)) {
+                    this.size--;
+                }
+                return;
+            }
+            node = node.children.get(distance);
+        }
+    }
+
+    /**
+     * Finds the values whose hashes are within the given distance.
+     *
+     * @param hash The hash searched for.
+     * @param maxDistance The maximum Hamming distance.
+     * @return The values found.
+     */
+    List<V> search(final long hash, final int maxDistance) {
+        List<V> matches = new ArrayList<>();
+        if (this.root == null) {
+            return matches;
+        }
+        Deque<Node<V>> pending = new ArrayDeque<>();
+        pending.push(this.root);
+        while (!pending.isEmpty()) {
+            Node<V> node = pending.pop();
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance <= maxDistance) {
+                matches.addAll(node.values);
+            }
+            for (Map.Entry<Integer, Node<V>> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the number of stored values.
+     *
+     * @return The number of stored values.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * A node of the tree, holding the values of a single hash.
+     *
+     * @param <V> The type of the values.
+     */
+    private static final class Node<V> {
+        /**
+         * The hash of the node.
+         */
+        private final long hash;
+
+        /**
+         * The values stored with the hash.
+         */
+        private final List<V> values = new ArrayList<>(1);
+
+        /**
+         * The children by their distance from this node.
+         */
+        private final Map<Integer, Node<V>> children = new HashMap<>();
+
+        /**
+         * Creates a node.
+         *
+         * @param hash The hash of the node.
+         */
+        Node(final long hash) {
+            this.hash = hash;
+        }
+    }
+}
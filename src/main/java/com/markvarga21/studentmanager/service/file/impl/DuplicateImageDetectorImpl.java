@@ -0,0 +1,234 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.exception.DuplicateImageException;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
+import com.markvarga21.studentmanager.util.PerceptualHash;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * The {@code DuplicateImageDetectorImpl} class is used to implement the
+ * {@code DuplicateImageDetector} interface. The hashes are kept in a
+ * BK-tree, so a near duplicate query only visits a small part of the
+ * index. The index is local to the node, and it is rebuilt from the
+ * database periodically, so the images stored by the other nodes and
+ * the purged ones are picked up eventually.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class DuplicateImageDetectorImpl implements DuplicateImageDetector {
+    /**
+     * The repository of the students' images.
+     */
+    private final StudentImageRepository studentImageRepository;
+
+    /**
+     * The maximum number of differing bits of two near duplicate hashes.
+     */
+    @Value("${images.duplicates.max-distance:4}")
+    private int maxDistance;
+
+    /**
+     * The index of the stored images.
+     */
+    private BkTree<IndexedImage> index = new BkTree<>();
+
+    /**
+     * The index being rebuilt, receiving the concurrent
+     * changes, or {@code null} if there is no rebuild.
+     */
+    private BkTree<IndexedImage> rebuiltIndex;
+
+    /**
+     * Checks whether an uploaded image is a near duplicate of the other
+     * image of the student, or of an image of another student. Only the
+     * selfies are compared with the other students' images, since the
+     * scans of the same kind of passport share their layout.
+     *
+     * @param studentId The id of the student, or {@code null} if the images do not belong to a student yet.
+     * @param imageType The type of the uploaded image.
+     * @param hash The perceptual hash of the uploaded image, or {@code null} if unknown.
+     * @param otherImageHash The perceptual hash of the other image of the student, or {@code null} if unknown.
+     * @param operationType The operation uploading the image.
+     */
+    @Override
+    public void checkForDuplicates(
+            final Long studentId,
+            final StudentImageType imageType,
+            final Long hash,
+            final Long otherImageHash,
+            final OperationType operationType
+    ) {
+        if (hash == null) {
+            return;
+        }
+        if (otherImageHash != null && PerceptualHash.distance(hash, otherImageHash) <= this.maxDistance) {
+            String message = studentId == null
+                    ? "The passport and the selfie are the same image!"
+                    : String.format("The passport and the selfie of student '%s' are the same image!", studentId);
+            throw new DuplicateImageException(message, operationType);
+        }
+        if (imageType != StudentImageType.SELFIE) {
+            return;
+        }
+        List<IndexedImage> matches;
+        synchronized (this) {
+            matches = this.index.search(hash, this.maxDistance);
+        }
+        Optional<IndexedImage> duplicate = matches.stream()
+                .filter(match -> !match.studentId().equals(studentId))
+                .findFirst();
+        if (duplicate.isPresent()) {
+            log.warn(
+                    "The selfie of student '{}' is a near duplicate of the {} image of student '{}'",
+                    studentId,
+                    duplicate.get().imageType(),
+                    duplicate.get().studentId()
+            );
+            String message = studentId == null
+                    ? "The selfie is the image of a registered student!"
+                    : String.format("The selfie of student '%s' is the image of another student!", studentId);
+            throw new DuplicateImageException(message, operationType);
+        }
+    }
+
+    /**
+     * Adds a stored image to the index, replacing its previous hash.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     * @param previousHash The hash of the replaced image, or {@code null} if there is none.
+     * @param hash The hash of the stored image, or {@code null} if unknown.
+     */
+    @Override
+    public synchronized void register(
+            final Long studentId,
+            final StudentImageType imageType,
+            final Long previousHash,
+            final Long hash
+    ) {
+        IndexedImage image = new IndexedImage(studentId, imageType);
+        this.apply(tree -> {
+            if (previousHash != null) {
+                tree.remove(previousHash, image);
+            }
+            if (hash != null) {
+                tree.add(hash, image);
+            }
+        });
+    }
+
+    /**
+     * Removes the images of a student from the index.
+     *
+     * @param studentId The id of the student.
+     * @param passportHash The hash of the passport image, or {@code null} if unknown.
+     * @param selfieHash The hash of the selfie image, or {@code null} if unknown.
+     */
+    @Override
+    public synchronized void unregister(
+            final Long studentId,
+            final Long passportHash,
+            final Long selfieHash
+    ) {
+        this.apply(tree -> {
+            if (passportHash != null) {
+                tree.remove(passportHash, new IndexedImage(studentId, StudentImageType.PASSPORT));
+            }
+            if (selfieHash != null) {
+                tree.remove(selfieHash, new IndexedImage(studentId, StudentImageType.SELFIE));
+            }
+        });
+    }
+
+    /**
+     * Builds the index once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        this.rebuildIndex();
+    }
+
+    /**
+     * Rebuilds the index from the hashes in the database. Only the
+     * hashes are loaded, and the changes made during the rebuild
+     * are applied to the new index as well.
+     */
+    @Override
+    @Scheduled(
+            fixedDelayString = "${images.duplicates.rebuild-interval-millis:600000}",
+            initialDelayString = "${images.duplicates.rebuild-interval-millis:600000}"
+    )
+    public void rebuildIndex() {
+        BkTree<IndexedImage> tree = new BkTree<>();
+        synchronized (this) {
+            this.rebuiltIndex = tree;
+        }
+        List<StudentImageRepository.ImageHashes> hashes;
+        try {
+            hashes = this.studentImageRepository.findAllImageHashes();
+        } catch (RuntimeException exception) {
+            log.error("Cannot rebuild the index of the image hashes", exception);
+            synchronized (this) {
+                this.rebuiltIndex = null;
+            }
+            return;
+        }
+        synchronized (this) {
+            for (StudentImageRepository.ImageHashes imageHashes : hashes) {
+                if (imageHashes.getPassportHash() != null) {
+                    tree.add(
+                            imageHashes.getPassportHash(),
+                            new IndexedImage(imageHashes.getStudentId(), StudentImageType.PASSPORT)
+                    );
+                }
+                if (imageHashes.getSelfieHash() != null) {
+                    tree.add(
+                            imageHashes.getSelfieHash(),
+                            new IndexedImage(imageHashes.getStudentId(), StudentImageType.SELFIE)
+                    );
+                }
+            }
+            this.index = tree;
+            this.rebuiltIndex = null;
+        }
+        log.info("Index of the image hashes rebuilt with {} images", tree.size());
+    }
+
+    /**
+     * Applies a change to the index, and to the
+     * index being rebuilt if there is any.
+     *
+     * @param change The change.
+     */
+    private void apply(final Consumer<BkTree<IndexedImage>> change) {
+        change.accept(this.index);
+        if (this.rebuiltIndex != null) {
+            change.accept(this.rebuiltIndex);
+        }
+    }
+
+    /**
+     * An image in the index.
+     *
+     * @param studentId The id of the student.
+     * @param imageType The type of the image.
+     */
+    private record IndexedImage(Long studentId, StudentImageType imageType) {
+    }
+}
@@ -7,8 +7,11 @@ import com.markvarga21.studentmanager.exception.InvalidStudentException;
 import com.markvarga21.studentmanager.exception.OperationType;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
 import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
 import com.markvarga21.studentmanager.service.file.FileUploadService;
-import com.markvarga21.studentmanager.util.ImageCompressor;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import com.markvarga21.studentmanager.util.ImageUpload;
+import com.markvarga21.studentmanager.util.PerceptualHash;
 import com.markvarga21.studentmanager.util.StudentImageType;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +22,8 @@ import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Optional;
@@ -37,6 +42,12 @@ public class FileUploadServiceImpl implements FileUploadService {
      */
     private final StudentImageRepository studentImageRepository;
 
+    /**
+     * The {@code DuplicateImageDetector} is used to reject
+     * the reused images before they are stored.
+     */
+    private final DuplicateImageDetector duplicateImageDetector;
+
     /**
      * A method used to store the
      * images in the database.
@@ -72,13 +83,34 @@ public class FileUploadServiceImpl implements FileUploadService {
             throw new InvalidStudentException(message);
         }
 
+        ImageUpload passportUpload = ImageUpload.ingest(passportImage);
+        ImageUpload selfieUpload = ImageUpload.ingest(selfieImage);
+        byte[] passport = passportUpload.getContent();
+        byte[] selfie = selfieUpload.getContent();
+        Long passportHash = PerceptualHash.dHash(passport);
+        Long selfieHash = PerceptualHash.dHash(selfie);
+        this.duplicateImageDetector.checkForDuplicates(
+                studentId,
+                StudentImageType.SELFIE,
+                selfieHash,
+                passportHash,
+                OperationType.CREATE
+        );
         StudentImage studentImage = StudentImage.builder()
                 .studentId(studentId)
-                .passportImage(ImageCompressor.compressImage(passportImage))
-                .selfieImage(ImageCompressor.compressImage(selfieImage))
+                .passportImage(passport)
+                .selfieImage(selfie)
+                .passportHash(passportHash)
+                .selfieHash(selfieHash)
+                .passportContentHash(passportUpload.getSha256())
+                .selfieContentHash(selfieUpload.getSha256())
                 .build();
         log.info("Saving images for studentId " + studentId);
         this.studentImageRepository.save(studentImage);
+        this.runAfterCommit(() -> {
+            this.duplicateImageDetector.register(studentId, StudentImageType.PASSPORT, null, passportHash);
+            this.duplicateImageDetector.register(studentId, StudentImageType.SELFIE, null, selfieHash);
+        });
         return String.format("Images saved successfully for user '%s'", studentId);
     }
 
@@ -120,6 +152,13 @@ public class FileUploadServiceImpl implements FileUploadService {
             this.studentImageRepository.deleteStudentImageByStudentId(
                     studentId
             );
+            Long passportHash = studentImageOptional.get().getPassportHash();
+            Long selfieHash = studentImageOptional.get().getSelfieHash();
+            this.runAfterCommit(() -> this.duplicateImageDetector.unregister(
+                    studentId,
+                    passportHash,
+                    selfieHash
+            ));
             return String.format(
                     "Images deleted successfully for user '%s'",
                     studentId
@@ -178,6 +217,64 @@ public class FileUploadServiceImpl implements FileUploadService {
         };
     }
 
+    /**
+     * A method which is used to get the SHA-256 hash
+     * of the image for the given type and student id.
+     * Only the hash is loaded, unless the image has been
+     * stored before the hashes were, in which case it is
+     * computed and stored once.
+     *
+     * @param studentId The id of the student.
+     * @param type The image type.
+     * @return The hash of the image.
+     */
+    @Override
+    @Transactional
+    public String getImageContentHash(
+            final Long studentId,
+            final StudentImageType type
+    ) {
+        if (type == null || !type.equals(StudentImageType.PASSPORT) && !type.equals(StudentImageType.SELFIE)) {
+            String message = "Image type not provided or not valid!\nValid image types are: PASSPORT, SELFIE";
+            log.error(message);
+            throw new InvalidImageTypeException(message);
+        }
+        StudentImageRepository.ContentHashes contentHashes = this.studentImageRepository
+                .findContentHashesByStudentId(studentId)
+                .orElseThrow(() -> new StudentNotFoundException(
+                        String.format(
+                                "Student with ID '%s' does not exist",
+                                studentId
+                        ),
+                        OperationType.READ
+                ));
+        String contentHash = type == StudentImageType.PASSPORT
+                ? contentHashes.getPassportContentHash()
+                : contentHashes.getSelfieContentHash();
+        if (contentHash != null) {
+            return contentHash;
+        }
+        StudentImage studentImage = this.studentImageRepository
+                .findById(studentId)
+                .orElseThrow(() -> new StudentNotFoundException(
+                        String.format(
+                                "Student with ID '%s' does not exist",
+                                studentId
+                        ),
+                        OperationType.READ
+                ));
+        log.info("Computing the content hash of the {} image of student '{}'", type, studentId);
+        if (type == StudentImageType.PASSPORT) {
+            contentHash = ContentHasher.sha256Hex(studentImage.getPassportImage());
+            studentImage.setPassportContentHash(contentHash);
+        } else {
+            contentHash = ContentHasher.sha256Hex(studentImage.getSelfieImage());
+            studentImage.setSelfieContentHash(contentHash);
+        }
+        this.studentImageRepository.save(studentImage);
+        return contentHash;
+    }
+
     /**
      * A method which is used to change
      * the image for the given type and student id.
@@ -212,13 +309,45 @@ public class FileUploadServiceImpl implements FileUploadService {
         switch (imageType) {
             case SELFIE -> {
                 log.info("Changing selfie image for student with ID: {}", studentId);
-                studentImage.setSelfieImage(ImageCompressor.compressImage(file));
-                return this.studentImageRepository.save(studentImage);
+                ImageUpload selfieUpload = ImageUpload.ingest(file);
+                byte[] selfie = selfieUpload.getContent();
+                Long selfieHash = PerceptualHash.dHash(selfie);
+                this.duplicateImageDetector.checkForDuplicates(
+                        studentId,
+                        StudentImageType.SELFIE,
+                        selfieHash,
+                        studentImage.getPassportHash(),
+                        OperationType.UPDATE
+                );
+                Long previousHash = studentImage.getSelfieHash();
+                studentImage.setSelfieImage(selfie);
+                studentImage.setSelfieHash(selfieHash);
+                studentImage.setSelfieContentHash(selfieUpload.getSha256());
+                StudentImage savedImage = this.studentImageRepository.save(studentImage);
+                this.runAfterCommit(() -> this.duplicateImageDetector
+                        .register(studentId, StudentImageType.SELFIE, previousHash, selfieHash));
+                return savedImage;
             }
             case PASSPORT -> {
                 log.info("Changing passport image for student with ID: {}", studentId);
-                studentImage.setPassportImage(ImageCompressor.compressImage(file));
-                return this.studentImageRepository.save(studentImage);
+                ImageUpload passportUpload = ImageUpload.ingest(file);
+                byte[] passport = passportUpload.getContent();
+                Long passportHash = PerceptualHash.dHash(passport);
+                this.duplicateImageDetector.checkForDuplicates(
+                        studentId,
+                        StudentImageType.PASSPORT,
+                        passportHash,
+                        studentImage.getSelfieHash(),
+                        OperationType.UPDATE
+                );
+                Long previousHash = studentImage.getPassportHash();
+                studentImage.setPassportImage(passport);
+                studentImage.setPassportHash(passportHash);
+                studentImage.setPassportContentHash(passportUpload.getSha256());
+                StudentImage savedImage = this.studentImageRepository.save(studentImage);
+                this.runAfterCommit(() -> this.duplicateImageDetector
+                        .register(studentId, StudentImageType.PASSPORT, previousHash, passportHash));
+                return savedImage;
             }
             default -> {
                 String message = "Image type not provided or not valid!\nValid image types are: PASSPORT, SELFIE";
@@ -253,4 +382,24 @@ public class FileUploadServiceImpl implements FileUploadService {
         }
         return studentImageOptional.get();
     }
+
+    /**
+     * Runs an action once the current transaction has been committed,
+     * or right away if there is no transaction, so the index of the
+     * duplicate detector never holds the hashes of rolled back images.
+     *
+     * @param action The action.
+     */
+    private void runAfterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
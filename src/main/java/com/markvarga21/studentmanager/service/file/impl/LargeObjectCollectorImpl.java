@@ -0,0 +1,302 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.LargeObjectCollectionReport;
+import com.markvarga21.studentmanager.service.file.LargeObjectCollector;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code LargeObjectCollectorImpl} class is used to implement
+ * the {@code LargeObjectCollector} interface. On PostgreSQL the images
+ * are stored as large objects, which are not unlinked when an image is
+ * replaced or its row is deleted. The collector walks the large objects
+ * of the application in the order of their ids, a limited number per
+ * run, and unlinks the ones no image references anymore.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class LargeObjectCollectorImpl implements LargeObjectCollector {
+    /**
+     * The name of the reclaimed bytes metric.
+     */
+    static final String RECLAIMED_BYTES_METRIC = "image.large-objects.reclaimed.bytes";
+
+    /**
+     * The name of the unlinked large objects metric.
+     */
+    static final String UNLINKED_OBJECTS_METRIC = "image.large-objects.unlinked";
+
+    /**
+     * The name of the collection duration metric.
+     */
+    static final String COLLECTION_DURATION_METRIC = "image.large-objects.collection";
+
+    /**
+     * The condition of a large object not being referenced by any image.
+     */
+    private static final String UNREFERENCED = "not exists (select 1 from student_image i "
+            + "where i.passport_image = m.oid or i.selfie_image = m.oid)";
+
+    /**
+     * The mode opening a large object for reading.
+     */
+    private static final int INV_READ = 0x40000;
+
+    /**
+     * The origin of a seek relative to the end of a large object.
+     */
+    private static final int SEEK_END = 2;
+
+    /**
+     * Finds the next unreferenced large objects owned by the application.
+     */
+    private static final String FIND_ORPHANS_SQL = "select m.oid from pg_largeobject_metadata m "
+            + "where m.oid > cast(? as oid) "
+            + "and m.lomowner = (select r.oid from pg_roles r where r.rolname = current_user) "
+            + "and " + UNREFERENCED + " order by m.oid limit ?";
+
+    /**
+     * Finds the size of a large object by seeking to its end, without
+     * reading its content. The object is opened for reading, and the
+     * descriptor is closed by the unlink or at the end of the transaction.
+     */
+    private static final String SIZE_SQL = "select lo_lseek64(lo_open(cast(? as oid), "
+            + INV_READ + "), 0, " + SEEK_END + ")";
+
+    /**
+     * Unlinks a large object if it is still unreferenced.
+     */
+    private static final String UNLINK_SQL = "select lo_unlink(m.oid) from pg_largeobject_metadata m "
+            + "where m.oid = cast(? as oid) and " + UNREFERENCED;
+
+    /**
+     * The template used for querying the database.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The template running every batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of large objects examined by a single batch.
+     */
+    @Value("${image.large-object-gc.batch-size:100}")
+    private int batchSize;
+
+    /**
+     * The maximum number of large objects examined by a single run.
+     */
+    @Value("${image.large-object-gc.max-objects-per-run:5000}")
+    private int maxObjectsPerRun;
+
+    /**
+     * The pause between two batches in milliseconds.
+     */
+    @Value("${image.large-object-gc.pause-millis:200}")
+    private long pauseMillis;
+
+    /**
+     * Whether the scheduled runs only report the orphans.
+     */
+    @Value("${image.large-object-gc.dry-run:false}")
+    private boolean scheduledDryRun;
+
+    /**
+     * Whether the database stores the images as large objects.
+     */
+    private boolean supported;
+
+    /**
+     * The id after which the next scheduled run continues.
+     */
+    private long nextOid;
+
+    /**
+     * Checks whether the database stores the images as large objects.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            String product = this.jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            this.supported = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (DataAccessException exception) {
+            log.error("Cannot determine the database product", exception);
+            this.supported = false;
+        }
+        if (!this.supported) {
+            log.info("Large object garbage collection is disabled, the database does not use large objects");
+        }
+    }
+
+    /**
+     * Collects the unreferenced large objects, continuing where the
+     * previous scheduled run has stopped.
+     */
+    @Scheduled(cron = "${image.large-object-gc.cron:0 0 4 * * *}")
+    public void collectScheduled() {
+        LargeObjectCollectionReport report = this.collect(this.scheduledDryRun);
+        log.info("Large object garbage collection finished: {}", report);
+    }
+
+    /**
+     * Finds the unreferenced large objects and unlinks
+     * them, unless only a report has been requested.
+     *
+     * @param dryRun Whether the orphans should only be reported.
+     * @return The summary of the run.
+     */
+    @Override
+    public synchronized LargeObjectCollectionReport collect(final boolean dryRun) {
+        LargeObjectCollectionReport report = LargeObjectCollectionReport.builder()
+                .supported(this.supported)
+                .dryRun(dryRun)
+                .build();
+        if (!this.supported) {
+            return report;
+        }
+        long start = System.nanoTime();
+        long afterOid = dryRun ? 0 : this.nextOid;
+        int examined = 0;
+        while (examined < this.maxObjectsPerRun) {
+            int limit = Math.min(this.batchSize, this.maxObjectsPerRun - examined);
+            List<Long> orphans = this.jdbcTemplate.queryForList(
+                    FIND_ORPHANS_SQL,
+                    Long.class,
+                    afterOid,
+                    limit
+            );
+            if (orphans.isEmpty()) {
+                report.setCompleted(true);
+                afterOid = 0;
+                break;
+            }
+            this.collectBatch(orphans, dryRun, report);
+            examined += orphans.size();
+            afterOid = orphans.get(orphans.size() - 1);
+            if (orphans.size() < limit) {
+                report.setCompleted(true);
+                afterOid = 0;
+                break;
+            }
+            if (!this.pause()) {
+                break;
+            }
+        }
+        if (!dryRun) {
+            this.nextOid = afterOid;
+        }
+        long duration = System.nanoTime() - start;
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(duration));
+        Timer.builder(COLLECTION_DURATION_METRIC)
+                .description("The time a large object garbage collection run takes")
+                .tag("dryRun", String.valueOf(dryRun))
+                .register(this.meterRegistry)
+                .record(duration, TimeUnit.NANOSECONDS);
+        return report;
+    }
+
+    /**
+     * Measures and, unless only a report has been requested,
+     * unlinks a batch of orphans in a single transaction. The
+     * report and the metrics are only updated once it has committed.
+     *
+     * @param orphans The ids of the orphans.
+     * @param dryRun Whether the orphans should only be reported.
+     * @param report The report to be updated.
+     */
+    private void collectBatch(
+            final List<Long> orphans,
+            final boolean dryRun,
+            final LargeObjectCollectionReport report
+    ) {
+        LargeObjectCollectionReport batch;
+        try {
+            batch = this.transactionTemplate.execute(status -> {
+                LargeObjectCollectionReport result = new LargeObjectCollectionReport();
+                for (Long oid : orphans) {
+                    Long size = this.jdbcTemplate.queryForObject(SIZE_SQL, Long.class, oid);
+                    long bytes = size == null ? 0 : size;
+                    result.setOrphanObjects(result.getOrphanObjects() + 1);
+                    result.setOrphanBytes(result.getOrphanBytes() + bytes);
+                    if (!dryRun && !this.jdbcTemplate.queryForList(UNLINK_SQL, Integer.class, oid).isEmpty()) {
+                        result.setUnlinkedObjects(result.getUnlinkedObjects() + 1);
+                        result.setReclaimedBytes(result.getReclaimedBytes() + bytes);
+                    }
+                }
+                return result;
+            });
+        } catch (DataAccessException exception) {
+            log.error("Cannot collect {} large objects, they are retried by a later run", orphans.size(), exception);
+            return;
+        }
+        if (batch == null) {
+            return;
+        }
+        report.setOrphanObjects(report.getOrphanObjects() + batch.getOrphanObjects());
+        report.setOrphanBytes(report.getOrphanBytes() + batch.getOrphanBytes());
+        report.setUnlinkedObjects(report.getUnlinkedObjects() + batch.getUnlinkedObjects());
+        report.setReclaimedBytes(report.getReclaimedBytes() + batch.getReclaimedBytes());
+        this.recordUnlinked(batch.getUnlinkedObjects(), batch.getReclaimedBytes());
+    }
+
+    /**
+     * Records the unlinked large objects of a committed batch.
+     *
+     * @param objects The number of unlinked large objects.
+     * @param bytes The size of the unlinked large objects.
+     */
+    private void recordUnlinked(final long objects, final long bytes) {
+        Counter.builder(UNLINKED_OBJECTS_METRIC)
+                .description("The number of unlinked unreferenced large objects")
+                .register(this.meterRegistry)
+                .increment(objects);
+        Counter.builder(RECLAIMED_BYTES_METRIC)
+                .description("The size of the unlinked unreferenced large objects")
+                .baseUnit("bytes")
+                .register(this.meterRegistry)
+                .increment(bytes);
+    }
+
+    /**
+     * Pauses between two batches to limit the load on the database.
+     *
+     * @return {@code false} if the thread has been interrupted.
+     */
+    private boolean pause() {
+        if (this.pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(this.pauseMillis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
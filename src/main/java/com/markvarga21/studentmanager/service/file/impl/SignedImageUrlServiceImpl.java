@@ -0,0 +1,235 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.SignedImageUrl;
+import com.markvarga21.studentmanager.exception.InvalidSignatureException;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.exception.StudentNotFoundException;
+import com.markvarga21.studentmanager.service.file.FileUploadService;
+import com.markvarga21.studentmanager.service.file.SignedImageUrlService;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+/**
+ * The {@code SignedImageUrlServiceImpl} class is used to implement
+ * the {@code SignedImageUrlService} interface. The URLs are signed
+ * with an HMAC over the student, the image type, the content hash
+ * and the expiry, so they can be verified without loading the user,
+ * and the content behind a URL never changes. The content hashes are
+ * computed when the images are stored, so neither signing nor serving
+ * a URL hashes the image again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class SignedImageUrlServiceImpl implements SignedImageUrlService {
+    /**
+     * The path the signed images are served from.
+     */
+    public static final String SIGNED_IMAGES_PATH = "/api/v1/files/signed/";
+
+    /**
+     * The algorithm used for signing the URLs.
+     */
+    static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+
+    /**
+     * The minimum length of the signing secret in bytes,
+     * the size of the HMAC-SHA256 output.
+     */
+    static final int MIN_SECRET_LENGTH = 32;
+
+    /**
+     * The service used for loading the images.
+     */
+    private final FileUploadService fileUploadService;
+
+    /**
+     * The secret used for signing the URLs.
+     */
+    @Value("${images.signed-urls.secret}")
+    private String secret;
+
+    /**
+     * The time a signed URL is accepted for in seconds.
+     */
+    @Value("${images.signed-urls.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * The key used for signing the URLs.
+     */
+    private SecretKeySpec signingKey;
+
+    /**
+     * Creates the signing key from the secret, failing the
+     * startup if the secret is missing or too short.
+     */
+    @PostConstruct
+    public void init() {
+        byte[] secretBytes = this.secret == null
+                ? new byte[0]
+                : this.secret.getBytes(StandardCharsets.UTF_8);
+        if (secretBytes.length < MIN_SECRET_LENGTH) {
+            String message = String.format(
+                    "The secret signing the image URLs must be at least %d bytes long, "
+                            + "set it with the IMAGES_SIGNING_SECRET environment variable",
+                    MIN_SECRET_LENGTH
+            );
+            log.error(message);
+            throw new IllegalStateException(message);
+        }
+        this.signingKey = new SecretKeySpec(secretBytes, SIGNATURE_ALGORITHM);
+    }
+
+    /**
+     * Issues a signed URL for the current content of an image.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @return The signed URL.
+     */
+    @Override
+    public SignedImageUrl signUrl(final Long studentId, final StudentImageType imageType) {
+        String contentHash = this.fileUploadService.getImageContentHash(studentId, imageType);
+        long expires = Instant.now().getEpochSecond() + this.ttlSeconds;
+        String signature = this.sign(studentId, imageType, contentHash, expires);
+        String url = String.format(
+                "%s%d/%s/%s?expires=%d&signature=%s",
+                SIGNED_IMAGES_PATH,
+                studentId,
+                imageType,
+                contentHash,
+                expires,
+                signature
+        );
+        return SignedImageUrl.builder()
+                .studentId(studentId)
+                .imageType(imageType)
+                .contentHash(contentHash)
+                .url(url)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochSecond(expires), ZoneId.systemDefault()))
+                .build();
+    }
+
+    /**
+     * Verifies the signature and the expiry of a signed URL.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     * @param expires The expiry of the URL in epoch seconds.
+     * @param signature The signature of the URL.
+     */
+    @Override
+    public void verifySignature(
+            final Long studentId,
+            final StudentImageType imageType,
+            final String contentHash,
+            final long expires,
+            final String signature
+    ) {
+        byte[] expected = this.sign(studentId, imageType, contentHash, expires)
+                .getBytes(StandardCharsets.US_ASCII);
+        if (signature == null
+                || !MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new InvalidSignatureException("The signature of the image URL is not valid!");
+        }
+        if (Instant.now().getEpochSecond() > expires) {
+            throw new InvalidSignatureException("The image URL has expired!");
+        }
+    }
+
+    /**
+     * Verifies that an image has not been replaced or deleted since
+     * its URL has been signed, without loading the image.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     */
+    @Override
+    public void verifyContent(
+            final Long studentId,
+            final StudentImageType imageType,
+            final String contentHash
+    ) {
+        String currentHash;
+        try {
+            currentHash = this.fileUploadService.getImageContentHash(studentId, imageType);
+        } catch (StudentNotFoundException exception) {
+            throw new InvalidSignatureException("The image has been deleted since the URL has been signed!");
+        }
+        if (!currentHash.equals(contentHash)) {
+            throw new InvalidSignatureException("The image has been replaced since the URL has been signed!");
+        }
+    }
+
+    /**
+     * Retrieves the image of a verified signed URL.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image the URL has been signed for.
+     * @return The content of the image.
+     */
+    @Override
+    public byte[] getSignedImage(
+            final Long studentId,
+            final StudentImageType imageType,
+            final String contentHash
+    ) {
+        this.verifyContent(studentId, imageType, contentHash);
+        byte[] image = this.fileUploadService.getImageForType(studentId, imageType);
+        if (image == null) {
+            String message = String.format(
+                    "The %s image of student '%s' does not exist",
+                    imageType,
+                    studentId
+            );
+            throw new StudentNotFoundException(message, OperationType.READ);
+        }
+        return image;
+    }
+
+    /**
+     * Computes the signature of a URL.
+     *
+     * @param studentId The ID of the student.
+     * @param imageType The type of the image.
+     * @param contentHash The hash of the image.
+     * @param expires The expiry of the URL in epoch seconds.
+     * @return The URL-safe Base64 encoded signature.
+     */
+    private String sign(
+            final Long studentId,
+            final StudentImageType imageType,
+            final String contentHash,
+            final long expires
+    ) {
+        String payload = String.format("%d:%s:%s:%d", studentId, imageType, contentHash, expires);
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(this.signingKey);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.UploadSession;
+import com.markvarga21.studentmanager.exception.InvalidUploadException;
+import com.markvarga21.studentmanager.exception.UploadOffsetMismatchException;
+import com.markvarga21.studentmanager.exception.UploadQuotaExceededException;
+import com.markvarga21.studentmanager.exception.UploadSessionNotFoundException;
+import com.markvarga21.studentmanager.exception.UploadStorageFullException;
+import com.markvarga21.studentmanager.service.file.UploadSessionService;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import com.markvarga21.studentmanager.util.PathMultipartFile;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import jakarta.annotation.PostConstruct;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The {@code UploadSessionServiceImpl} class is used to implement
+ * the {@code UploadSessionService} interface. The chunks are streamed
+ * straight to an append-only file on the local disk, and a chunk whose
+ * checksum does not match is cut off again, so only the corrupted chunk
+ * has to be sent again. The sessions live on the node they were created
+ * on, and the unfinished ones are discarded after a while. The number of
+ * sessions of a user and the bytes reserved by all the sessions are capped,
+ * so the open sessions cannot fill the disk.
+ */
+@Service
+@Slf4j
+@Setter
+public class UploadSessionServiceImpl implements UploadSessionService {
+    /**
+     * The size of the buffer used for writing the chunks.
+     */
+    static final int BUFFER_SIZE = 65_536;
+
+    /**
+     * The extension of the files holding the received bytes.
+     */
+    static final String FILE_EXTENSION = ".part";
+
+    /**
+     * The directory holding the received bytes.
+     */
+    @Value("${upload.sessions.directory:${java.io.tmpdir}/student-manager-uploads}")
+    private Path directory;
+
+    /**
+     * The maximum size of an uploaded image in bytes.
+     */
+    @Value("${upload.sessions.max-size:31457280}")
+    private long maxSize;
+
+    /**
+     * The time an idle session is kept for in hours.
+     */
+    @Value("${upload.sessions.ttl-hours:24}")
+    private long ttlHours;
+
+    /**
+     * The maximum number of open sessions of a single user.
+     */
+    @Value("${upload.sessions.max-per-user:4}")
+    private int maxSessionsPerUser;
+
+    /**
+     * The maximum number of bytes reserved by the open sessions.
+     */
+    @Value("${upload.sessions.max-staged-bytes:2147483648}")
+    private long maxStagedBytes;
+
+    /**
+     * The open sessions of this node.
+     */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * The number of bytes reserved by the open sessions.
+     */
+    private long stagedBytes;
+
+    /**
+     * Creates the directory of the received bytes, and deletes the
+     * bytes of the sessions lost with the previous run.
+     */
+    @PostConstruct
+    public void init() {
+        try {
+            Files.createDirectories(this.directory);
+            try (Stream<Path> files = Files.list(this.directory)) {
+                files.filter(file -> file.toString().endsWith(FILE_EXTENSION))
+                        .forEach(this::deleteFile);
+            }
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    /**
+     * Starts a resumable upload of an image.
+     *
+     * @param username The username of the uploading user.
+     * @param studentId The ID of the student the image belongs to.
+     * @param imageType The type of the image.
+     * @param size The size of the whole image in bytes.
+     * @return The created session.
+     * @throws UploadQuotaExceededException If the user has too many open sessions.
+     * @throws UploadStorageFullException If the open sessions would reserve too many bytes.
+     */
+    @Override
+    public UploadSession createSession(
+            final String username,
+            final Long studentId,
+            final StudentImageType imageType,
+            final long size
+    ) {
+        if (size <= 0 || size > this.maxSize) {
+            throw new InvalidUploadException(String.format(
+                    "The size of the image must be between 1 and %d bytes!",
+                    this.maxSize
+            ));
+        }
+        String sessionId = UUID.randomUUID().toString();
+        Path file = this.directory.resolve(sessionId + FILE_EXTENSION);
+        Session session = new Session(sessionId, username, studentId, imageType, size, file);
+        session.touch(this.ttlHours);
+        this.reserve(session);
+        try {
+            Files.createFile(file);
+        } catch (IOException exception) {
+            this.release(session);
+            throw new UncheckedIOException(exception);
+        }
+        log.info("Started uploading {} bytes of the {} image of student '{}'", size, imageType, studentId);
+        return session.toDto();
+    }
+
+    /**
+     * Retrieves the state of an upload, including the
+     * offset it can be resumed from.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @return The state of the upload.
+     */
+    @Override
+    public UploadSession getSession(final String username, final String sessionId) {
+        return this.findSession(username, sessionId).toDto();
+    }
+
+    /**
+     * Appends a chunk to an upload. The chunk is streamed to the end of
+     * the file while its checksum is computed, and it is cut off again
+     * if it is corrupted, incomplete or longer than the rest of the image.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @param offset The offset the chunk starts at.
+     * @param checksum The hexadecimal SHA-256 checksum of the chunk.
+     * @param chunk The content of the chunk.
+     * @return The state of the upload after the chunk.
+     */
+    @Override
+    public UploadSession appendChunk(
+            final String username,
+            final String sessionId,
+            final long offset,
+            final String checksum,
+            final InputStream chunk
+    ) {
+        Session session = this.findSession(username, sessionId);
+        synchronized (session) {
+            if (this.sessions.get(sessionId) != session) {
+                throw new UploadSessionNotFoundException(String.format(
+                        "Upload '%s' does not exist or has expired!",
+                        sessionId
+                ));
+            }
+            if (offset != session.offset) {
+                throw new UploadOffsetMismatchException(
+                        String.format("The next chunk has to start at offset %d!", session.offset),
+                        session.offset
+                );
+            }
+            MessageDigest digest = ContentHasher.newDigest();
+            long remaining = session.size - offset;
+            long written = 0;
+            try (FileChannel channel = FileChannel.open(session.file, StandardOpenOption.WRITE)) {
+                channel.position(offset);
+                try {
+                    byte[] buffer = new byte[BUFFER_SIZE];
+                    int read = chunk.read(buffer);
+                    while (read != -1) {
+                        written += read;
+                        if (written > remaining) {
+                            throw new InvalidUploadException(String.format(
+                                    "The chunk exceeds the remaining %d bytes of the image!",
+                                    remaining
+                            ));
+                        }
+                        digest.update(buffer, 0, read);
+                        ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, read);
+                        while (bytes.hasRemaining()) {
+                            channel.write(bytes);
+                        }
+                        read = chunk.read(buffer);
+                    }
+                    if (!HexFormat.of().formatHex(digest.digest()).equalsIgnoreCase(checksum)) {
+                        throw new InvalidUploadException("The checksum of the chunk does not match its content!");
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    channel.truncate(offset);
+                    if (exception instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new InvalidUploadException("The chunk has not been received completely!");
+                }
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+            session.offset += written;
+            session.touch(this.ttlHours);
+            return session.toDto();
+        }
+    }
+
+    /**
+     * Returns the assembled image of a finished upload.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     * @param imageType The expected type of the image.
+     * @return The assembled image, read from the disk.
+     */
+    @Override
+    public MultipartFile getCompletedFile(
+            final String username,
+            final String sessionId,
+            final StudentImageType imageType
+    ) {
+        Session session = this.findSession(username, sessionId);
+        if (session.imageType != imageType) {
+            throw new InvalidUploadException(String.format(
+                    "Upload '%s' holds a %s image instead of a %s image!",
+                    sessionId,
+                    session.imageType,
+                    imageType
+            ));
+        }
+        if (session.offset != session.size) {
+            throw new InvalidUploadException(String.format(
+                    "Upload '%s' has only received %d of %d bytes!",
+                    sessionId,
+                    session.offset,
+                    session.size
+            ));
+        }
+        return new PathMultipartFile(imageType.name().toLowerCase(), session.file);
+    }
+
+    /**
+     * Deletes an upload and its received bytes.
+     *
+     * @param username The username of the uploading user.
+     * @param sessionId The ID of the session.
+     */
+    @Override
+    public void deleteSession(final String username, final String sessionId) {
+        Session session = this.findSession(username, sessionId);
+        synchronized (session) {
+            if (this.release(session)) {
+                this.deleteFile(session.file);
+            }
+        }
+    }
+
+    /**
+     * Discards the sessions which have been idle for too long.
+     */
+    @Scheduled(fixedDelayString = "${upload.sessions.cleanup-millis:600000}")
+    public void discardExpiredSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        this.sessions.values()
+                .stream()
+                .filter(session -> !session.expiresAt.isAfter(now))
+                .toList()
+                .forEach(session -> {
+                    synchronized (session) {
+                        if (!session.expiresAt.isAfter(now) && this.release(session)) {
+                            log.info("Discarding the expired upload '{}'", session.id);
+                            this.deleteFile(session.file);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Registers a new session, reserving its bytes.
+     *
+     * @param session The new session.
+     */
+    private synchronized void reserve(final Session session) {
+        long userSessions = this.sessions.values()
+                .stream()
+                .filter(open -> open.owner.equals(session.owner))
+                .count();
+        if (userSessions >= this.maxSessionsPerUser) {
+            throw new UploadQuotaExceededException(String.format(
+                    "At most %d uploads can be open at the same time!",
+                    this.maxSessionsPerUser
+            ));
+        }
+        if (this.stagedBytes + session.size > this.maxStagedBytes) {
+            throw new UploadStorageFullException("There is no space left for the upload, please retry later!");
+        }
+        this.stagedBytes += session.size;
+        this.sessions.put(session.id, session);
+    }
+
+    /**
+     * Unregisters a session, releasing its bytes.
+     *
+     * @param session The session.
+     * @return Whether the session was still registered.
+     */
+    private synchronized boolean release(final Session session) {
+        if (!this.sessions.remove(session.id, session)) {
+            return false;
+        }
+        this.stagedBytes -= session.size;
+        return true;
+    }
+
+    /**
+     * Finds a session of a user.
+     *
+     * @param username The username of the user.
+     * @param sessionId The ID of the session.
+     * @return The session.
+     */
+    private Session findSession(final String username, final String sessionId) {
+        Session session = this.sessions.get(sessionId);
+        if (session == null || !session.owner.equals(username)) {
+            throw new UploadSessionNotFoundException(String.format(
+                    "Upload '%s' does not exist or has expired!",
+                    sessionId
+            ));
+        }
+        return session;
+    }
+
+    /**
+     * Deletes a file of the received bytes.
+     *
+     * @param file The file.
+     */
+    private void deleteFile(final Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            log.warn("Cannot delete the upload file '{}'", file, exception);
+        }
+    }
+
+    /**
+     * The state of an upload.
+     */
+    private static final class Session {
+        /**
+         * The ID of the session.
+         */
+        private final String id;
+
+        /**
+         * The username of the uploading user.
+         */
+        private final String owner;
+
+        /**
+         * The ID of the student the image belongs to.
+         */
+        private final Long studentId;
+
+        /**
+         * The type of the image.
+         */
+        private final StudentImageType imageType;
+
+        /**
+         * The size of the whole image in bytes.
+         */
+        private final long size;
+
+        /**
+         * The file holding the received bytes.
+         */
+        private final Path file;
+
+        /**
+         * The number of bytes received so far.
+         */
+        private volatile long offset;
+
+        /**
+         * The time after which the session is discarded.
+         */
+        private volatile LocalDateTime expiresAt;
+
+        /**
+         * Creates the state of a new upload.
+         *
+         * @param id The ID of the session.
+         * @param owner The username of the uploading user.
+         * @param studentId The ID of the student the image belongs to.
+         * @param imageType The type of the image.
+         * @param size The size of the whole image in bytes.
+         * @param file The file holding the received bytes.
+         */
+        Session(
+                final String id,
+                final String owner,
+                final Long studentId,
+                final StudentImageType imageType,
+                final long size,
+                final Path file
+        ) {
+            this.id = id;
+            this.owner = owner;
+            this.studentId = studentId;
+            this.imageType = imageType;
+            this.size = size;
+            this.file = file;
+        }
+
+        /**
+         * Extends the lifetime of the session.
+         *
+         * @param ttlHours The time the session is kept for in hours.
+         */
+        void touch(final long ttlHours) {
+            this.expiresAt = LocalDateTime.now().plus(Duration.ofHours(ttlHours));
+        }
+
+        /**
+         * Converts the session to its DTO.
+         *
+         * @return The DTO of the session.
+         */
+        UploadSession toDto() {
+            return UploadSession.builder()
+                    .id(this.id)
+                    .studentId(this.studentId)
+                    .imageType(this.imageType)
+                    .size(this.size)
+                    .offset(this.offset)
+                    .expiresAt(this.expiresAt)
+                    .build();
+        }
+    }
+}
@@ -9,30 +9,49 @@ import com.azure.core.util.polling.SyncPoller;
 import com.markvarga21.studentmanager.dto.StudentDto;
 import com.markvarga21.studentmanager.dto.PassportValidationResponse;
 import com.markvarga21.studentmanager.entity.Gender;
+import com.markvarga21.studentmanager.entity.PassportExtraction;
 import com.markvarga21.studentmanager.entity.PassportValidationData;
-import com.markvarga21.studentmanager.exception.InvalidDocumentException;
+import com.markvarga21.studentmanager.entity.StudentImage;
 import com.markvarga21.studentmanager.exception.InvalidPassportException;
 import com.markvarga21.studentmanager.exception.OperationType;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
-import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
+import com.markvarga21.studentmanager.repository.PassportExtractionRepository;
 import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.azure.AzureCallGovernor;
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+import com.markvarga21.studentmanager.service.azure.AzureImagePreprocessor;
+import com.markvarga21.studentmanager.service.azure.AzureImageVariant;
+import com.markvarga21.studentmanager.service.azure.AzureService;
 import com.markvarga21.studentmanager.service.faceapi.FaceApiService;
+import com.markvarga21.studentmanager.service.file.FileUploadService;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
 import com.markvarga21.studentmanager.util.CountryNameFetcher;
 import com.markvarga21.studentmanager.util.DateDeserializer;
 import com.markvarga21.studentmanager.mapping.StudentMapper;
 import com.markvarga21.studentmanager.util.Generated;
+import com.markvarga21.studentmanager.util.ImageUpload;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 /**
  * A service which is used to verify the data entered by the user
@@ -49,6 +68,21 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
      */
     public static final String EMPTY_FIELD_VALUE = "";
 
+    /**
+     * The name of the face verification stage.
+     */
+    private static final String FACE_STAGE = "faces";
+
+    /**
+     * The name of the stored validation data lookup stage.
+     */
+    private static final String LOOKUP_STAGE = "lookup";
+
+    /**
+     * The name of the passport data extraction stage.
+     */
+    private static final String EXTRACTION_STAGE = "extraction";
+
     /**
      * A client which is used to analyze documents.
      */
@@ -66,12 +100,6 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
      */
     private final CountryNameFetcher countryNameFetcher;
 
-    /**
-     * A repository which is used to store the data extracted
-     * from the passport.
-     */
-    private final PassportValidationDataRepository validationRepository;
-
     /**
      * A service which is used to manipulate student data.
      */
@@ -88,6 +116,70 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
      */
     private final StudentMapper studentMapper;
 
+    /**
+     * The governor of the calls made towards Azure.
+     */
+    private final AzureCallGovernor azureCallGovernor;
+
+    /**
+     * The preprocessor preparing the passports for the analysis.
+     */
+    private final AzureImagePreprocessor azureImagePreprocessor;
+
+    /**
+     * A repository which is used to store the data extracted
+     * from passport images by their content hash.
+     */
+    private final PassportExtractionRepository passportExtractionRepository;
+
+    /**
+     * The registry of the application's metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * A service which is used to access the stored images.
+     */
+    private final FileUploadService fileUploadService;
+
+    /**
+     * The executor running the independent validation stages.
+     */
+    @Qualifier("validationExecutor")
+    private final Executor validationExecutor;
+
+    /**
+     * The number of extractions served from the stored ones.
+     */
+    private Counter extractionCacheHits;
+
+    /**
+     * The number of extractions which needed an analysis.
+     */
+    private Counter extractionCacheMisses;
+
+    /**
+     * Registers the metrics of the extraction cache.
+     */
+    @PostConstruct
+    public void registerMetrics() {
+        this.extractionCacheHits = Counter.builder("passport.extraction.cache")
+                .description("The number of passport extractions by cache result")
+                .tag("result", "hit")
+                .register(this.meterRegistry);
+        this.extractionCacheMisses = Counter.builder("passport.extraction.cache")
+                .description("The number of passport extractions by cache result")
+                .tag("result", "miss")
+                .register(this.meterRegistry);
+        Gauge.builder("passport.extraction.cache.hit.ratio", this, service -> {
+                    double hits = service.extractionCacheHits.count();
+                    double total = hits + service.extractionCacheMisses.count();
+                    return total == 0 ? 0 : hits / total;
+                })
+                .description("The ratio of passport extractions served without an analysis")
+                .register(this.meterRegistry);
+    }
+
     /**
      * Extracts all fields from the uploaded passport.
      *
@@ -98,28 +190,55 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
     public Map<String, DocumentField> getFieldsFromDocument(
             final MultipartFile passport
     ) {
-        try {
-            BinaryData binaryData = BinaryData.fromBytes(passport.getBytes());
-            String modelId = "prebuilt-idDocument";
-            SyncPoller<OperationResult, AnalyzeResult> analyzeDocumentPoller =
-                    this.documentAnalysisClient.beginAnalyzeDocument(
-                            modelId, binaryData
-                    );
-
-            AnalyzeResult analyzeResult =
-                    analyzeDocumentPoller.getFinalResult();
-            var documentResult = analyzeResult.getDocuments();
-            if (documentResult == null) {
-                throw new InvalidPassportException(
-                        "Invalid passport!"
-                );
-            }
-            return documentResult.get(0).getFields();
-        } catch (IOException e) {
-            throw new InvalidDocumentException(
-                    "Invalid document!"
+        return this.getFieldsFromDocument(
+                this.readPassport(passport).getContent(),
+                AzureCallPriority.current()
+        );
+    }
+
+    /**
+     * Extracts all fields from the passport's bytes.
+     *
+     * @param passportBytes The bytes of the passport.
+     * @param priority The priority lane of the analysis.
+     * @return The extracted fields stored in a {@code Map}.
+     */
+    private Map<String, DocumentField> getFieldsFromDocument(
+            final byte[] passportBytes,
+            final AzureCallPriority priority
+    ) {
+        BinaryData binaryData = BinaryData.fromBytes(
+                this.azureImagePreprocessor.prepare(passportBytes, AzureImageVariant.DOCUMENT_ANALYSIS)
+        );
+        String modelId = "prebuilt-idDocument";
+        AnalyzeResult analyzeResult = this.azureCallGovernor.execute(
+                AzureService.FORM_RECOGNIZER,
+                priority,
+                () -> {
+                    SyncPoller<OperationResult, AnalyzeResult> analyzeDocumentPoller =
+                            this.documentAnalysisClient.beginAnalyzeDocument(
+                                    modelId, binaryData
+                            );
+                    return analyzeDocumentPoller.getFinalResult();
+                }
+        );
+        var documentResult = analyzeResult.getDocuments();
+        if (documentResult == null) {
+            throw new InvalidPassportException(
+                    "Invalid passport!"
             );
         }
+        return documentResult.get(0).getFields();
+    }
+
+    /**
+     * Reads the uploaded passport into a bounded buffer.
+     *
+     * @param passport The uploaded passport.
+     * @return The read passport.
+     */
+    private ImageUpload readPassport(final MultipartFile passport) {
+        return ImageUpload.ingest(passport);
     }
 
     /**
@@ -133,9 +252,62 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
     public StudentDto extractDataFromPassport(
             final MultipartFile passport
     ) {
+        return this.extractDataFromPassport(
+                this.readPassport(passport),
+                AzureCallPriority.current()
+        );
+    }
+
+    /**
+     * Extracts the data from the read passport, reusing the
+     * stored extraction if the same image has already been analyzed.
+     * If the same image is analyzed concurrently, the extraction
+     * stored first wins, and the other one is discarded.
+     *
+     * @param passport The read passport.
+     * @param priority The priority lane of the analysis.
+     * @return The extracted {@code StudentDto} object.
+     */
+    private StudentDto extractDataFromPassport(
+            final ImageUpload passport,
+            final AzureCallPriority priority
+    ) {
+        String imageHash = passport.getSha256();
+        Optional<PassportExtraction> storedExtraction = this.passportExtractionRepository
+                .findById(imageHash);
+        if (storedExtraction.isPresent()) {
+            log.info("Passport image already analyzed, reusing its extracted data!");
+            this.extractionCacheHits.increment();
+            return storedExtraction.get().toStudentDto();
+        }
+        this.extractionCacheMisses.increment();
+
         log.info("Extracting data from passport!");
-        Map<String, DocumentField> passportFields = this
-                .getFieldsFromDocument(passport);
+        StudentDto extractedStudent = this.mapFieldsToStudent(
+                this.getFieldsFromDocument(passport.getContent(), priority)
+        );
+        try {
+            this.passportExtractionRepository.saveAndFlush(
+                    PassportExtraction.of(imageHash, extractedStudent)
+            );
+        } catch (DataIntegrityViolationException exception) {
+            log.info("Passport image analyzed concurrently, reusing the stored extraction!");
+            return this.passportExtractionRepository.findById(imageHash)
+                    .map(PassportExtraction::toStudentDto)
+                    .orElse(extractedStudent);
+        }
+        return extractedStudent;
+    }
+
+    /**
+     * Maps the fields extracted from the passport to a student.
+     *
+     * @param passportFields The extracted fields.
+     * @return The mapped {@code StudentDto} object.
+     */
+    private StudentDto mapFieldsToStudent(
+            final Map<String, DocumentField> passportFields
+    ) {
         String firstName = this
                 .getFieldValue(passportFields, "FirstName");
         String lastName = this
@@ -198,7 +370,10 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
     /**
      * Validates the data entered by the user against the data,
      * which can be found-, and has been extracted
-     * from the passport.
+     * from the passport. The face verification and the lookup of the
+     * stored validation data run concurrently. The passport is only
+     * analyzed once the faces are matching and the lookup has found
+     * nothing, so a failed verification never pays for an analysis.
      *
      * @param studentJson The student itself in a JSON {@code String} format.
      * @param passport The passport file.
@@ -212,26 +387,75 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
     ) {
         StudentDto studentDataFromUser = this.studentMapper
                 .mapJsonToDto(studentJson);
-        boolean facesAreMatching = this.faceApiService.validateFacesForPassportNumber(
-                studentDataFromUser.getPassportNumber(),
-                studentDataFromUser.getId()
+        ValidationContext context = new ValidationContext(
+                studentDataFromUser,
+                passport == null ? null : this.readPassport(passport),
+                AzureCallPriority.current(),
+                () -> this.fileUploadService.getStudentImageById(studentDataFromUser.getId()),
+                this.passportValidationService::getPassportValidationDataByPassportNumber
         );
+        String passportNumber = studentDataFromUser.getPassportNumber();
 
-        if (!facesAreMatching) {
-            return PassportValidationResponse.builder()
-                    .isValid(false)
-                    .studentDto(null)
-                    .build();
+        CompletableFuture<Optional<PassportValidationData>> lookup = CompletableFuture.supplyAsync(
+                () -> this.runStage(context, LOOKUP_STAGE, () -> context.getValidationData(passportNumber)),
+                this.validationExecutor
+        );
+
+        try {
+            boolean facesAreMatching = this.runStage(context, FACE_STAGE, () -> {
+                StudentImage studentImage = context.getStudentImage();
+                return this.faceApiService.validateFaces(
+                        passportNumber,
+                        studentImage.getPassportImage(),
+                        studentImage.getSelfieImage()
+                );
+            });
+            if (!facesAreMatching) {
+                lookup.cancel(false);
+                return PassportValidationResponse.builder()
+                        .isValid(false)
+                        .studentDto(null)
+                        .build();
+            }
+
+            Optional<PassportValidationData> passportValidationData = join(lookup);
+            Optional<StudentDto> studentFromPassport = Optional.empty();
+            if (passportValidationData.isEmpty() && context.getUploadedPassport() != null) {
+                studentFromPassport = Optional.of(this.runStage(
+                        context,
+                        EXTRACTION_STAGE,
+                        () -> this.extractDataFromPassport(context.getUploadedPassport(), context.getPriority())
+                ));
+            }
+
+            log.info("Validating passport for user: {}", studentDataFromUser);
+            return this.decideValidity(context, passportValidationData, studentFromPassport);
+        } finally {
+            log.info(
+                    "Passport validation stages for '{}' took (ms): {}",
+                    passportNumber,
+                    context.getStageTimings()
+            );
         }
+    }
 
-        log.info("Validating passport for user: {}", studentDataFromUser);
+    /**
+     * Decides the validity of the student data from the results
+     * of the lookup and the extraction stages.
+     *
+     * @param context The context of the validation.
+     * @param passportValidationData The stored validation data of the user's passport number.
+     * @param studentFromPassport The data extracted from the uploaded passport, if needed.
+     * @return A {@code PassportValidationResponse} object.
+     */
+    private PassportValidationResponse decideValidity(
+            final ValidationContext context,
+            final Optional<PassportValidationData> passportValidationData,
+            final Optional<StudentDto> studentFromPassport
+    ) {
+        StudentDto studentDataFromUser = context.getStudentFromUser();
         String passportNumber = studentDataFromUser.getPassportNumber();
-        Optional<PassportValidationData> passportValidationDataOptional
-                = this.passportValidationService
-                .getPassportValidationDataByPassportNumber(
-                        passportNumber
-                );
-        if (passportValidationDataOptional.isEmpty() && passport == null) {
+        if (passportValidationData.isEmpty() && studentFromPassport.isEmpty()) {
             log.error("Passport validation data not found for user: {}", passportNumber);
             return PassportValidationResponse.builder()
                     .isValid(false)
@@ -239,16 +463,10 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
                     .build();
         }
 
-        Optional<PassportValidationData> passportValidationData
-                = this.passportValidationService.getPassportValidationDataByPassportNumber(
-                        studentDataFromUser.getPassportNumber()
-        );
         if (passportValidationData.isEmpty()) {
-            StudentDto studentFromPassport = this.extractDataFromPassport(passport);
-            Optional<PassportValidationData> data =
-                    this.passportValidationService.getPassportValidationDataByPassportNumber(
-                            studentFromPassport.getPassportNumber()
-                    );
+            Optional<PassportValidationData> data = context.getValidationData(
+                    studentFromPassport.get().getPassportNumber()
+            );
             if (data.isEmpty()) {
                 String message = String.format("Passport validation data not found for passport number: '%s'", passportNumber);
                 log.error(message);
@@ -257,14 +475,14 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
 
             return PassportValidationResponse.builder()
                     .isValid(false)
-                    .studentDto(studentFromPassport)
+                    .studentDto(studentFromPassport.get())
                     .build();
         }
 
         log.info("Passport validation data found for user in the database: {}", passportNumber);
         StudentDto studentDataFromPassport =
             PassportValidationData.getStudentDtoFromValidationData(
-                    passportValidationDataOptional.get()
+                    passportValidationData.get()
             );
         if (studentDataFromUser.equals(studentDataFromPassport)) {
             log.info("Passport validation data valid!");
@@ -280,6 +498,53 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
                 .build();
     }
 
+    /**
+     * Runs a stage of the validation, recording its duration.
+     *
+     * @param context The context of the validation.
+     * @param stage The name of the stage.
+     * @param action The work of the stage.
+     * @param <T> The type of the result of the stage.
+     * @return The result of the stage.
+     */
+    private <T> T runStage(
+            final ValidationContext context,
+            final String stage,
+            final Supplier<T> action
+    ) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            long duration = System.nanoTime() - start;
+            context.recordStage(stage, duration);
+            Timer.builder("passport.validation.stage")
+                    .description("The duration of the passport validation stages")
+                    .tag("stage", stage)
+                    .register(this.meterRegistry)
+                    .record(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Waits for the result of a stage, rethrowing
+     * its failure as it was thrown by the stage.
+     *
+     * @param stage The stage to wait for.
+     * @param <T> The type of the result of the stage.
+     * @return The result of the stage.
+     */
+    private static <T> T join(final CompletableFuture<T> stage) {
+        try {
+            return stage.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+
     /**
      * Deletes a passport validation data
      * identified by the passport number.
@@ -295,10 +560,8 @@ public class FormRecognizerServiceImpl implements FormRecognizerService {
                 this.passportValidationService
                         .getPassportValidationDataByPassportNumber(passportNumber);
         if (passportValidationData.isPresent()) {
-            this.validationRepository
-                    .deletePassportValidationDataByPassportNumber(
-                    passportNumber
-            );
+            this.passportValidationService
+                    .deletePassportValidationData(passportNumber);
             return String.format(
                     "Passport validation data deleted for passport number: %s",
                     passportNumber
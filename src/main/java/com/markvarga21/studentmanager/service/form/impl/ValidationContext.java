@@ -0,0 +1,144 @@
+package com.markvarga21.studentmanager.service.form.impl;
+
+import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.entity.PassportValidationData;
+import com.markvarga21.studentmanager.entity.StudentImage;
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+import com.markvarga21.studentmanager.util.ImageUpload;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The state shared by the stages of a single passport validation.
+ * Every image and stored validation row is loaded at most once,
+ * regardless of how many stages need it.
+ */
+final class ValidationContext {
+    /**
+     * The student data entered by the user.
+     */
+    @Getter
+    private final StudentDto studentFromUser;
+
+    /**
+     * The uploaded passport, or {@code null}
+     * if no passport has been uploaded.
+     */
+    @Getter
+    private final ImageUpload uploadedPassport;
+
+    /**
+     * The priority lane of the request being validated.
+     */
+    @Getter
+    private final AzureCallPriority priority;
+
+    /**
+     * Loads the stored images of the student.
+     */
+    private final Supplier<StudentImage> studentImageLoader;
+
+    /**
+     * Loads the stored validation data for a passport number.
+     */
+    private final Function<String, Optional<PassportValidationData>> validationDataLoader;
+
+    /**
+     * The stored validation data already loaded, by passport number.
+     */
+    private final Map<String, Optional<PassportValidationData>> validationData =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The durations of the finished stages in milliseconds,
+     * in the order of their completion.
+     */
+    @Getter
+    private final Map<String, Long> stageTimings =
+            Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * The stored images of the student, once loaded.
+     */
+    private volatile StudentImage studentImage;
+
+    /**
+     * Creates the context of a validation.
+     *
+     * @param studentFromUser The student data entered by the user.
+     * @param uploadedPassport The uploaded passport.
+     * @param priority The priority lane of the request.
+     * @param studentImageLoader Loads the stored images of the student.
+     * @param validationDataLoader Loads the stored validation data.
+     */
+    ValidationContext(
+            final StudentDto studentFromUser,
+            final ImageUpload uploadedPassport,
+            final AzureCallPriority priority,
+            final Supplier<StudentImage> studentImageLoader,
+            final Function<String, Optional<PassportValidationData>> validationDataLoader
+    ) {
+        this.studentFromUser = studentFromUser;
+        this.uploadedPassport = uploadedPassport;
+        this.priority = priority;
+        this.studentImageLoader = studentImageLoader;
+        this.validationDataLoader = validationDataLoader;
+    }
+
+    /**
+     * Returns the stored images of the student,
+     * loading them on the first call.
+     *
+     * @return The stored images of the student.
+     */
+    StudentImage getStudentImage() {
+        StudentImage image = this.studentImage;
+        if (image == null) {
+            synchronized (this) {
+                image = this.studentImage;
+                if (image == null) {
+                    image = this.studentImageLoader.get();
+                    this.studentImage = image;
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * Returns the stored validation data for the passport number,
+     * loading it on the first call.
+     *
+     * @param passportNumber The passport number.
+     * @return The stored validation data, if there is any.
+     */
+    Optional<PassportValidationData> getValidationData(
+            final String passportNumber
+    ) {
+        return this.validationData.computeIfAbsent(
+                passportNumber,
+                this.validationDataLoader
+        );
+    }
+
+    /**
+     * Records the duration of a finished stage.
+     *
+     * @param stage The name of the stage.
+     * @param durationNanos The duration of the stage in nanoseconds.
+     */
+    void recordStage(final String stage, final long durationNanos) {
+        this.stageTimings.put(
+                stage,
+                TimeUnit.NANOSECONDS.toMillis(durationNanos)
+        );
+    }
+}
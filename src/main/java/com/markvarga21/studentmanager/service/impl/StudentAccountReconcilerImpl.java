@@ -0,0 +1,202 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.dto.AmbiguousMatch;
+import com.markvarga21.studentmanager.dto.ReconciliationReport;
+import com.markvarga21.studentmanager.dto.Role;
+import com.markvarga21.studentmanager.entity.StudentAppUser;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository.UnlinkedStudent;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository.UnlinkedUser;
+import com.markvarga21.studentmanager.service.StudentAccountReconciler;
+import com.markvarga21.studentmanager.util.RedisLock;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code StudentAccountReconcilerImpl} class is used to implement
+ * the {@code StudentAccountReconciler} interface. The unlinked students
+ * and users are loaded with one query each and hash joined in memory
+ * on their normalized names, and the links are written in batches
+ * committed one by one, so a long run holds no large transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class StudentAccountReconcilerImpl implements StudentAccountReconciler {
+    /**
+     * The key of the lock preventing concurrent nightly runs.
+     */
+    static final String LOCK_KEY = "student-reconciliation-lock";
+
+    /**
+     * The pattern of the combining marks left by the decomposition.
+     */
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * The pattern of the whitespace runs.
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * The repository for the student application user.
+     */
+    private final StudentAppUserRepository studentAppUserRepository;
+
+    /**
+     * The template used for locking the nightly run.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * The number of links written by a single batch.
+     */
+    @Value("${student.reconciliation.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * The maximum duration a nightly run holds the lock.
+     */
+    @Value("${student.reconciliation.lock-minutes:30}")
+    private long lockMinutes;
+
+    /**
+     * Links every unlinked student to the unlinked user having
+     * the same name, if the name identifies both of them uniquely.
+     *
+     * @return The summary of the run.
+     */
+    @Override
+    public ReconciliationReport reconcile() {
+        long start = System.currentTimeMillis();
+        List<UnlinkedStudent> students = this.studentAppUserRepository
+                .findUnlinkedStudents();
+        List<UnlinkedUser> users = this.studentAppUserRepository
+                .findUnlinkedUsers(Role.ADMIN);
+
+        Map<String, List<UnlinkedUser>> usersByName = new HashMap<>();
+        for (UnlinkedUser user : users) {
+            String name = normalize(user.getFirstName(), user.getLastName());
+            if (!name.isEmpty()) {
+                usersByName.computeIfAbsent(name, key -> new ArrayList<>()).add(user);
+            }
+        }
+        Map<String, List<UnlinkedStudent>> studentsByName = new HashMap<>();
+        for (UnlinkedStudent student : students) {
+            String name = normalize(student.getFirstName(), student.getLastName());
+            if (usersByName.containsKey(name)) {
+                studentsByName.computeIfAbsent(name, key -> new ArrayList<>()).add(student);
+            }
+        }
+
+        List<StudentAppUser> batch = new ArrayList<>(this.batchSize);
+        List<AmbiguousMatch> ambiguousMatches = new ArrayList<>();
+        int linked = 0;
+        for (Map.Entry<String, List<UnlinkedStudent>> entry : studentsByName.entrySet()) {
+            List<UnlinkedStudent> matchingStudents = entry.getValue();
+            List<UnlinkedUser> matchingUsers = usersByName.get(entry.getKey());
+            if (matchingStudents.size() > 1 || matchingUsers.size() > 1) {
+                ambiguousMatches.add(new AmbiguousMatch(
+                        entry.getKey(),
+                        matchingStudents.stream().map(UnlinkedStudent::getId).collect(Collectors.toList()),
+                        matchingUsers.stream().map(UnlinkedUser::getUsername).collect(Collectors.toList())
+                ));
+                continue;
+            }
+            StudentAppUser link = new StudentAppUser();
+            link.setStudentId(matchingStudents.get(0).getId());
+            link.setUsername(matchingUsers.get(0).getUsername());
+            batch.add(link);
+            linked++;
+            if (batch.size() == this.batchSize) {
+                this.studentAppUserRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.studentAppUserRepository.saveAll(batch);
+        }
+
+        ReconciliationReport report = new ReconciliationReport(
+                students.size(),
+                users.size(),
+                linked,
+                ambiguousMatches,
+                System.currentTimeMillis() - start
+        );
+        ambiguousMatches.forEach(match -> log.warn(
+                "Cannot link students {} and users {} sharing the name '{}'",
+                match.getStudentIds(),
+                match.getUsernames(),
+                match.getName()
+        ));
+        log.info(
+                "Linked {} of {} unlinked students in {} ms, {} ambiguous names",
+                linked,
+                students.size(),
+                report.getDurationMillis(),
+                ambiguousMatches.size()
+        );
+        return report;
+    }
+
+    /**
+     * Runs the reconciliation every night on a single node. The lock
+     * is released only if it is still held by this run, so a run
+     * outliving its lock does not release the lock of the next one.
+     */
+    @Scheduled(cron = "${student.reconciliation.cron:0 0 3 * * *}")
+    public void reconcileNightly() {
+        Optional<String> lockToken = RedisLock.tryAcquire(
+                this.redisTemplate,
+                LOCK_KEY,
+                Duration.ofMinutes(this.lockMinutes)
+        );
+        if (lockToken.isEmpty()) {
+            log.info("Reconciliation is already running on another node");
+            return;
+        }
+        try {
+            this.reconcile();
+        } finally {
+            RedisLock.release(this.redisTemplate, LOCK_KEY, lockToken.get());
+        }
+    }
+
+    /**
+     * Normalizes a name for matching, ignoring the case,
+     * the accents and the extra whitespace.
+     *
+     * @param firstName The first name.
+     * @param lastName The last name.
+     * @return The normalized name.
+     */
+    static String normalize(final String firstName, final String lastName) {
+        String name = (firstName == null ? "" : firstName)
+                + " "
+                + (lastName == null ? "" : lastName);
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFKD);
+        String withoutMarks = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(withoutMarks)
+                .replaceAll(" ")
+                .trim()
+                .toLowerCase(Locale.ROOT);
+    }
+}
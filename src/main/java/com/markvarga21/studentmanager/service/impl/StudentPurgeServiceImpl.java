@@ -0,0 +1,266 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
+import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.repository.StudentRepository;
+import com.markvarga21.studentmanager.service.StudentPurgeService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code StudentPurgeServiceImpl} class is used to implement
+ * the {@code StudentPurgeService} interface. The deleted rows are
+ * removed in small batches, each in its own transaction, so the
+ * large images never hold locks for long. A failed batch is retried
+ * with a growing delay, and it is picked up again by the next run
+ * once the retries are exhausted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class StudentPurgeServiceImpl implements StudentPurgeService {
+    /**
+     * The name of the purged rows metric.
+     */
+    static final String PURGED_ROWS_METRIC = "student.purge.rows";
+
+    /**
+     * The name of the purge batch duration metric.
+     */
+    static final String BATCH_DURATION_METRIC = "student.purge.batch";
+
+    /**
+     * The name of the failed purge batches metric.
+     */
+    static final String FAILURES_METRIC = "student.purge.failures";
+
+    /**
+     * The repository of the students.
+     */
+    private final StudentRepository studentRepository;
+
+    /**
+     * The repository of the student images.
+     */
+    private final StudentImageRepository studentImageRepository;
+
+    /**
+     * The repository of the passport validation data.
+     */
+    private final PassportValidationDataRepository passportValidationDataRepository;
+
+    /**
+     * The repository of the facial validation data.
+     */
+    private final FacialValidationDataRepository facialValidationDataRepository;
+
+    /**
+     * The template running every batch in its own transaction.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * The registry of the metrics.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * The number of students whose images are purged by a single batch.
+     */
+    @Value("${student.purge.image-batch-size:20}")
+    private int imageBatchSize;
+
+    /**
+     * The number of rows purged by a single batch of the other tables.
+     */
+    @Value("${student.purge.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * The number of attempts of a single batch.
+     */
+    @Value("${student.purge.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * The delay before the first retry in milliseconds, doubled for every further retry.
+     */
+    @Value("${student.purge.retry-backoff-millis:1000}")
+    private long retryBackoffMillis;
+
+    /**
+     * Purges the images, validation data and rows
+     * of the students which have been deleted.
+     *
+     * @return The number of purged rows.
+     */
+    @Override
+    @Scheduled(
+            fixedDelayString = "${student.purge.interval-millis:60000}",
+            initialDelayString = "${student.purge.interval-millis:60000}"
+    )
+    public int purgeDeletedStudents() {
+        int purgedRows = this.purge(
+                "student_image",
+                this.imageBatchSize,
+                this.studentImageRepository::findDeletedStudentIds,
+                this.studentImageRepository::purgeByStudentIdIn
+        );
+        purgedRows += this.purge(
+                "passport_validation_data",
+                this.batchSize,
+                this.passportValidationDataRepository::findDeletedIds,
+                this.passportValidationDataRepository::purgeByIdIn
+        );
+        purgedRows += this.purge(
+                "facial_validation_data",
+                this.batchSize,
+                this.facialValidationDataRepository::findDeletedIds,
+                this.facialValidationDataRepository::purgeByIdIn
+        );
+        purgedRows += this.purge(
+                "student",
+                this.batchSize,
+                this.studentRepository::findPurgeableIds,
+                this.studentRepository::purgeByIdIn
+        );
+        if (purgedRows > 0) {
+            log.info("Purged {} rows of deleted students", purgedRows);
+        }
+        return purgedRows;
+    }
+
+    /**
+     * Purges the deleted rows of a table batch by batch,
+     * until none is left or a batch keeps failing.
+     *
+     * @param table The name of the table.
+     * @param limit The maximum number of rows in a batch.
+     * @param finder Finds the ids of the next batch.
+     * @param purger Purges the rows of a batch.
+     * @return The number of purged rows.
+     */
+    private int purge(
+            final String table,
+            final int limit,
+            final IntFunction<List<Long>> finder,
+            final Function<List<Long>, Integer> purger
+    ) {
+        Counter purgedRowsCounter = Counter.builder(PURGED_ROWS_METRIC)
+                .description("The number of purged rows of deleted students")
+                .tag("table", table)
+                .register(this.meterRegistry);
+        int purgedRows = 0;
+        while (true) {
+            List<Long> ids = finder.apply(limit);
+            if (ids.isEmpty()) {
+                return purgedRows;
+            }
+            Integer batchRows = this.purgeBatch(table, ids, purger);
+            if (batchRows == null || batchRows == 0) {
+                return purgedRows;
+            }
+            purgedRowsCounter.increment(batchRows);
+            purgedRows += batchRows;
+            if (ids.size() < limit) {
+                return purgedRows;
+            }
+        }
+    }
+
+    /**
+     * Purges a single batch in its own transaction, retrying it on failure.
+     *
+     * @param table The name of the table.
+     * @param ids The ids of the rows.
+     * @param purger Purges the rows of the batch.
+     * @return The number of purged rows, or {@code null} if every attempt has failed.
+     */
+    private Integer purgeBatch(
+            final String table,
+            final List<Long> ids,
+            final Function<List<Long>, Integer> purger
+    ) {
+        long backoffMillis = this.retryBackoffMillis;
+        for (int attempt = 1; attempt <= this.maxAttempts; attempt++) {
+            long start = System.nanoTime();
+            try {
+                Integer purgedRows = this.transactionTemplate
+                        .execute(status -> purger.apply(ids));
+                this.recordBatch(table, "success", start);
+                return purgedRows;
+            } catch (RuntimeException exception) {
+                this.recordBatch(table, "failure", start);
+                Counter.builder(FAILURES_METRIC)
+                        .description("The number of failed purge batches")
+                        .tag("table", table)
+                        .register(this.meterRegistry)
+                        .increment();
+                log.error(
+                        "Attempt {} of {} to purge {} rows of {} failed",
+                        attempt,
+                        this.maxAttempts,
+                        ids.size(),
+                        table,
+                        exception
+                );
+            }
+            if (attempt < this.maxAttempts && !this.sleep(backoffMillis)) {
+                return null;
+            }
+            backoffMillis *= 2;
+        }
+        return null;
+    }
+
+    /**
+     * Records the duration of a purge batch.
+     *
+     * @param table The name of the table.
+     * @param outcome The outcome of the batch.
+     * @param start The start of the batch in nanoseconds.
+     */
+    private void recordBatch(
+            final String table,
+            final String outcome,
+            final long start
+    ) {
+        Timer.builder(BATCH_DURATION_METRIC)
+                .description("The time a purge batch of deleted students takes")
+                .tag("table", table)
+                .tag("outcome", outcome)
+                .register(this.meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits before the next retry.
+     *
+     * @param millis The time to wait in milliseconds.
+     * @return {@code false} if the thread has been interrupted.
+     */
+    private boolean sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
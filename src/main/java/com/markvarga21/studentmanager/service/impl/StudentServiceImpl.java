@@ -1,6 +1,7 @@
 package com.markvarga21.studentmanager.service.impl;
 
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
 import com.markvarga21.studentmanager.entity.AppUser;
 import com.markvarga21.studentmanager.entity.Student;
 import com.markvarga21.studentmanager.entity.StudentAppUser;
@@ -8,21 +9,39 @@ import com.markvarga21.studentmanager.exception.InvalidStudentException;
 import com.markvarga21.studentmanager.exception.OperationType;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
 import com.markvarga21.studentmanager.repository.AppUserRepository;
+import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
+import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository.ImageHashes;
 import com.markvarga21.studentmanager.repository.StudentRepository;
 import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
 import com.markvarga21.studentmanager.util.DateDeserializer;
 import com.markvarga21.studentmanager.mapping.StudentMapper;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * The service class which contains the core logic of the application.
@@ -32,6 +51,16 @@ import java.util.Optional;
 @RequiredArgsConstructor
 @Service
 public class StudentServiceImpl implements StudentService {
+    /**
+     * The maximum number of students deleted by a single set of statements.
+     */
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    /**
+     * The name of the cache of the student images.
+     */
+    private static final String STUDENT_IMAGE_CACHE = "studentImage";
+
     /**
      * Repository for students.
      */
@@ -52,6 +81,37 @@ public class StudentServiceImpl implements StudentService {
      */
     private final AppUserRepository userRepository;
 
+    /**
+     * Repository for the student images.
+     */
+    private final StudentImageRepository studentImageRepository;
+
+    /**
+     * Repository for the passport validation data.
+     */
+    private final PassportValidationDataRepository passportValidationDataRepository;
+
+    /**
+     * Repository for the facial validation data.
+     */
+    private final FacialValidationDataRepository facialValidationDataRepository;
+
+    /**
+     * The manager of the caches.
+     */
+    private final CacheManager cacheManager;
+
+    /**
+     * The index of the stored images used for finding the duplicates.
+     */
+    private final DuplicateImageDetector duplicateImageDetector;
+
+    /**
+     * The publisher of the changes of the student statistics
+     * and validation statuses.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Retrieves all the students from the application.
      *
@@ -100,6 +160,7 @@ public class StudentServiceImpl implements StudentService {
                 .mapStudentDtoToEntity(studentDto);
         studentToSave.setValid(false);
         Student savedStudent = this.studentRepository.save(studentToSave);
+        this.publishStatistics(new StudentStatisticsChangedEvent().count(studentToSave, 1));
         if (roles != null && username != null) {
             List<String> roleArray = Arrays.asList(roles.split(","));
             if (!roleArray.contains("ROLE_ADMIN")) {
@@ -237,6 +298,8 @@ public class StudentServiceImpl implements StudentService {
             throw new StudentNotFoundException(message, OperationType.UPDATE);
         }
         Student student = studentOptional.get();
+        StudentStatisticsChangedEvent statistics = new StudentStatisticsChangedEvent()
+                .count(student, -1);
 
         String updatedStudentPassport = studentDto.getPassportNumber();
 
@@ -251,6 +314,7 @@ public class StudentServiceImpl implements StudentService {
         student.setPassportDateOfIssue(DateDeserializer.mapDateStringToLocalDate(studentDto.getPassportDateOfIssue()));
         student.setValid(false);
         Student updatedUser = this.studentRepository.save(student);
+        this.publishStatistics(statistics.count(student, 1));
 
         log.info(String.format(
                 "Student with id %d modified successfully!", studentId)
@@ -279,8 +343,7 @@ public class StudentServiceImpl implements StudentService {
         }
         StudentDto deletedStudent = this.studentMapper
                 .mapStudentEntityToDto(studentOptional.get());
-        this.studentRepository.deleteById(id);
-        this.studentAppUserRepository.deleteByStudentId(id);
+        this.markDeleted(List.of(id));
         log.info(String.format(
                 "Student with id %d deleted successfully!",
                 id
@@ -289,6 +352,29 @@ public class StudentServiceImpl implements StudentService {
         return deletedStudent;
     }
 
+    /**
+     * Deletes the students and all their data.
+     *
+     * @param ids The ids of the students to be deleted.
+     * @return The number of deleted students.
+     */
+    @Override
+    public int deleteStudentsByIds(final List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        List<Long> idList = new ArrayList<>(uniqueIds);
+        int deletedStudents = 0;
+        for (int from = 0; from < idList.size(); from += DELETE_CHUNK_SIZE) {
+            int to = Math.min(from + DELETE_CHUNK_SIZE, idList.size());
+            deletedStudents += this.markDeleted(idList.subList(from, to));
+        }
+        log.info(String.format(
+                "%d of %d students deleted successfully!",
+                deletedStudents,
+                uniqueIds.size()
+        ));
+        return deletedStudents;
+    }
+
     /**
      * Validates the passport manually.
      *
@@ -311,8 +397,16 @@ public class StudentServiceImpl implements StudentService {
             throw new StudentNotFoundException(message, OperationType.UPDATE);
         }
         Student student = studentOptional.get();
+        StudentStatisticsChangedEvent statistics = new StudentStatisticsChangedEvent()
+                .count(student, -1);
         student.setValid(valid);
         this.studentRepository.save(student);
+        this.publishStatistics(statistics.count(student, 1));
+        this.eventPublisher.publishEvent(new ValidationStatusChangedEvent(
+                ValidationStatusType.STUDENT_VALIDITY,
+                student.getPassportNumber(),
+                valid
+        ));
         return String.format("Student with ID '%s' validity set to '%s'",
                 studentId,
                 valid ? "valid" : "invalid"
@@ -335,4 +429,94 @@ public class StudentServiceImpl implements StudentService {
                 .findStudentByFirstNameAndLastName(firstName, lastName);
         return studentOptional.map(this.studentMapper::mapStudentEntityToDto);
     }
+
+    /**
+     * Marks the students together with their images and validation
+     * data as deleted, and removes their user links. The rows are
+     * hidden right away and purged later in the background, while
+     * the images are dropped from the duplicate index once committed.
+     *
+     * @param ids The ids of the students.
+     * @return The number of deleted students.
+     */
+    private int markDeleted(final Collection<Long> ids) {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        List<String> passportNumbers = this.studentRepository
+                .findPassportNumbersByIdIn(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+        StudentStatisticsChangedEvent statistics = new StudentStatisticsChangedEvent();
+        this.studentRepository
+                .countStatisticsGroupsByIdIn(ids)
+                .forEach(group -> statistics.count(
+                        group.getValid(),
+                        group.getCountry(),
+                        group.getGender(),
+                        group.getPassportDateOfExpiry(),
+                        -group.getStudents()
+                ));
+        List<ImageHashes> imageHashes = this.studentImageRepository
+                .findImageHashesByStudentIdIn(ids);
+        this.studentImageRepository.markDeletedByStudentIdIn(ids, deletedAt);
+        if (!passportNumbers.isEmpty()) {
+            this.passportValidationDataRepository.markDeletedByPassportNumberIn(passportNumbers, deletedAt);
+            this.facialValidationDataRepository.markDeletedByPassportNumberIn(passportNumbers, deletedAt);
+        }
+        this.studentAppUserRepository.deleteAllByStudentIdIn(ids);
+        int deletedStudents = this.studentRepository.markDeletedByIdIn(ids, deletedAt);
+        this.evictStudentImagesAfterCommit(List.copyOf(ids));
+        this.runAfterCommit(() -> imageHashes.forEach(hashes -> this.duplicateImageDetector.unregister(
+                hashes.getStudentId(),
+                hashes.getPassportHash(),
+                hashes.getSelfieHash()
+        )));
+        this.publishStatistics(statistics);
+        return deletedStudents;
+    }
+
+    /**
+     * Publishes the changes of the student statistics, which
+     * are applied once the transaction has been committed.
+     *
+     * @param statistics The changes of the statistics.
+     */
+    private void publishStatistics(final StudentStatisticsChangedEvent statistics) {
+        if (!statistics.isEmpty()) {
+            this.eventPublisher.publishEvent(statistics);
+        }
+    }
+
+    /**
+     * Evicts the cached images of the students once the deletion
+     * has been committed, so a concurrent read cannot cache them again.
+     *
+     * @param ids The ids of the students.
+     */
+    private void evictStudentImagesAfterCommit(final List<Long> ids) {
+        Cache cache = this.cacheManager.getCache(STUDENT_IMAGE_CACHE);
+        if (cache == null) {
+            return;
+        }
+        this.runAfterCommit(() -> ids.forEach(cache::evict));
+    }
+
+    /**
+     * Runs an action once the current transaction has been
+     * committed, or right away if there is no transaction.
+     *
+     * @param action The action.
+     */
+    private void runAfterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
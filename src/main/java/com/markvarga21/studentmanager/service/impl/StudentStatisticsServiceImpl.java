@@ -0,0 +1,340 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.dto.StudentStatistics;
+import com.markvarga21.studentmanager.repository.StudentRepository;
+import com.markvarga21.studentmanager.repository.StudentRepository.StatisticsGroup;
+import com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent;
+import com.markvarga21.studentmanager.service.StudentStatisticsService;
+import com.markvarga21.studentmanager.util.RedisLock;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent.COUNTRY_PREFIX;
+import static com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent.GENDER_PREFIX;
+import static com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent.TOTAL_COUNTER;
+import static com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent.VALID_COUNTER;
+
+/**
+ * The {@code StudentStatisticsServiceImpl} class is used to implement
+ * the {@code StudentStatisticsService} interface. The counters are kept
+ * in Redis hashes shared by the nodes, and they are changed after every
+ * committed change of the students. The expiring passports are counted
+ * per expiry date, so the count of a window is the sum of its days.
+ * A periodic recount from the database corrects any drift. The changes
+ * applied while a recount is running are replaced by the recount, as a
+ * change committed just before the count cannot be told apart from one
+ * committed just after it, so they drift until the next recount.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class StudentStatisticsServiceImpl implements StudentStatisticsService {
+    /**
+     * The key of the hash holding the counters.
+     */
+    static final String COUNTERS_KEY = "student-statistics";
+
+    /**
+     * The key of the hash holding the counters of the expiry dates.
+     */
+    static final String EXPIRY_KEY = "student-statistics:expiry";
+
+    /**
+     * The suffix of the keys the recounted counters are written to.
+     */
+    static final String REBUILD_SUFFIX = ":rebuild";
+
+    /**
+     * The key of the lock preventing concurrent recounts.
+     */
+    static final String LOCK_KEY = "student-statistics-lock";
+
+    /**
+     * Replaces the current hashes with the recounted ones at once.
+     */
+    static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "for i = 1, 3, 2 do "
+                    + "if redis.call('exists', KEYS[i]) == 1 then redis.call('rename', KEYS[i], KEYS[i + 1]) "
+                    + "else redis.call('del', KEYS[i + 1]) end "
+                    + "end "
+                    + "return 1",
+            Long.class
+    );
+
+    /**
+     * The template used for accessing Redis.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * The repository of the students.
+     */
+    private final StudentRepository studentRepository;
+
+    /**
+     * The number of days the expiring passports are counted for.
+     */
+    @Value("${student.statistics.expiring-within-days:90}")
+    private int expiringWithinDays;
+
+    /**
+     * The maximum duration a recount holds the lock.
+     */
+    @Value("${student.statistics.lock-minutes:10}")
+    private long lockMinutes;
+
+    /**
+     * Retrieves the current counts of the students, recounting
+     * them first if they have never been counted.
+     *
+     * @return The counts of the students.
+     */
+    @Override
+    public StudentStatistics getStatistics() {
+        HashOperations<String, String, String> hashOperations = this.redisTemplate.opsForHash();
+        Map<String, String> counters = hashOperations.entries(COUNTERS_KEY);
+        if (counters.isEmpty()) {
+            return this.reconcile();
+        }
+        LocalDate today = LocalDate.now();
+        List<String> days = new ArrayList<>(this.expiringWithinDays + 1);
+        for (int day = 0; day <= this.expiringWithinDays; day++) {
+            days.add(today.plusDays(day).toString());
+        }
+        long expiringPassports = hashOperations.multiGet(EXPIRY_KEY, days)
+                .stream()
+                .mapToLong(StudentStatisticsServiceImpl::parseCount)
+                .sum();
+        return this.toStatistics(counters, expiringPassports);
+    }
+
+    /**
+     * Recounts the students from the database, replacing the
+     * incrementally maintained counters. Only a single node
+     * recounts at a time, the others return the counts from
+     * the database without replacing the counters.
+     *
+     * @return The recounted counts of the students.
+     */
+    @Override
+    public StudentStatistics reconcile() {
+        Optional<String> lockToken = RedisLock.tryAcquire(
+                this.redisTemplate,
+                LOCK_KEY,
+                Duration.ofMinutes(this.lockMinutes)
+        );
+        if (lockToken.isEmpty()) {
+            log.info("Statistics recount is already running on another node");
+            Recount recount = this.count();
+            return this.toStatistics(recount.counters(), recount.expiringPassports());
+        }
+        try {
+            return this.recountAndReplace();
+        } finally {
+            RedisLock.release(this.redisTemplate, LOCK_KEY, lockToken.get());
+        }
+    }
+
+    /**
+     * Applies the changes of the counters once the
+     * change of the students has been committed.
+     *
+     * @param event The changes of the counters.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentStatisticsChanged(final StudentStatisticsChangedEvent event) {
+        try {
+            HashOperations<String, String, String> hashOperations = this.redisTemplate.opsForHash();
+            event.getCounterDeltas().forEach((counter, delta) -> hashOperations
+                    .increment(COUNTERS_KEY, counter, delta));
+            event.getExpiryDeltas().forEach((day, delta) -> hashOperations
+                    .increment(EXPIRY_KEY, day, delta));
+        } catch (RuntimeException exception) {
+            log.error("Cannot update the student statistics, they are corrected by the next recount", exception);
+        }
+    }
+
+    /**
+     * Counts the students on startup if they have never been counted,
+     * so the increments are never applied to missing counters. If Redis
+     * cannot be reached, the counting is left to the first request or
+     * to the next periodic recount.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void countIfMissing() {
+        try {
+            if (!Boolean.TRUE.equals(this.redisTemplate.hasKey(COUNTERS_KEY))) {
+                this.reconcile();
+            }
+        } catch (RuntimeException exception) {
+            log.error("Cannot count the student statistics on startup", exception);
+        }
+    }
+
+    /**
+     * Recounts the students periodically on a single node.
+     */
+    @Scheduled(cron = "${student.statistics.reconcile-cron:0 0 * * * *}")
+    public void reconcilePeriodically() {
+        this.reconcile();
+    }
+
+    /**
+     * Recounts the students and replaces the counters with the recount.
+     *
+     * @return The recounted counts of the students.
+     */
+    private StudentStatistics recountAndReplace() {
+        long start = System.currentTimeMillis();
+        List<String> rebuildKeys = List.of(
+                COUNTERS_KEY + REBUILD_SUFFIX,
+                EXPIRY_KEY + REBUILD_SUFFIX
+        );
+        this.redisTemplate.delete(rebuildKeys);
+        try {
+            Recount recount = this.count();
+            if (!recount.expiry().isEmpty()) {
+                this.redisTemplate.opsForHash().putAll(EXPIRY_KEY + REBUILD_SUFFIX, recount.expiry());
+            }
+            this.redisTemplate.opsForHash().putAll(COUNTERS_KEY + REBUILD_SUFFIX, recount.counters());
+            this.redisTemplate.execute(REPLACE_SCRIPT, List.of(
+                    COUNTERS_KEY + REBUILD_SUFFIX,
+                    COUNTERS_KEY,
+                    EXPIRY_KEY + REBUILD_SUFFIX,
+                    EXPIRY_KEY
+            ));
+            log.info(
+                    "Recounted the statistics of {} students in {} ms",
+                    recount.counters().get(TOTAL_COUNTER),
+                    System.currentTimeMillis() - start
+            );
+            return this.toStatistics(recount.counters(), recount.expiringPassports());
+        } catch (RuntimeException exception) {
+            this.redisTemplate.delete(rebuildKeys);
+            throw exception;
+        }
+    }
+
+    /**
+     * Counts the students in the database.
+     *
+     * @return The counts of the students.
+     */
+    private Recount count() {
+        LocalDate today = LocalDate.now();
+        LocalDate lastExpiringDay = today.plusDays(this.expiringWithinDays);
+        StudentStatisticsChangedEvent recount = new StudentStatisticsChangedEvent();
+        long expiringPassports = 0;
+        for (StatisticsGroup group : this.studentRepository.countStatisticsGroups()) {
+            LocalDate expiry = group.getPassportDateOfExpiry();
+            boolean upcomingExpiry = expiry != null && !expiry.isBefore(today);
+            recount.count(
+                    group.getValid(),
+                    group.getCountry(),
+                    group.getGender(),
+                    upcomingExpiry ? expiry : null,
+                    group.getStudents()
+            );
+            if (upcomingExpiry && !expiry.isAfter(lastExpiringDay)) {
+                expiringPassports += group.getStudents();
+            }
+        }
+        Map<String, String> counters = toFields(recount.getCounterDeltas());
+        counters.putIfAbsent(TOTAL_COUNTER, "0");
+        counters.putIfAbsent(VALID_COUNTER, "0");
+        return new Recount(counters, toFields(recount.getExpiryDeltas()), expiringPassports);
+    }
+
+    /**
+     * Builds the statistics from the counters.
+     *
+     * @param counters The counters.
+     * @param expiringPassports The number of the expiring passports.
+     * @return The statistics.
+     */
+    private StudentStatistics toStatistics(
+            final Map<String, String> counters,
+            final long expiringPassports
+    ) {
+        Map<String, Long> studentsByCountry = new TreeMap<>();
+        Map<String, Long> studentsByGender = new TreeMap<>();
+        counters.forEach((counter, value) -> {
+            long count = parseCount(value);
+            if (count <= 0) {
+                return;
+            }
+            if (counter.startsWith(COUNTRY_PREFIX)) {
+                studentsByCountry.put(counter.substring(COUNTRY_PREFIX.length()), count);
+            } else if (counter.startsWith(GENDER_PREFIX)) {
+                studentsByGender.put(counter.substring(GENDER_PREFIX.length()), count);
+            }
+        });
+        long totalStudents = parseCount(counters.get(TOTAL_COUNTER));
+        long validStudents = parseCount(counters.get(VALID_COUNTER));
+        return new StudentStatistics(
+                totalStudents,
+                validStudents,
+                totalStudents - validStudents,
+                studentsByCountry,
+                studentsByGender,
+                expiringPassports,
+                this.expiringWithinDays
+        );
+    }
+
+    /**
+     * Converts the counts to the fields of a hash.
+     *
+     * @param counts The counts.
+     * @return The fields of the hash.
+     */
+    private static Map<String, String> toFields(final Map<String, Long> counts) {
+        Map<String, String> fields = new TreeMap<>();
+        counts.forEach((counter, count) -> fields.put(counter, Long.toString(count)));
+        return fields;
+    }
+
+    /**
+     * Parses a stored count.
+     *
+     * @param value The stored value, or {@code null} if there is none.
+     * @return The count.
+     */
+    private static long parseCount(final String value) {
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * The counts of the students in the database.
+     *
+     * @param counters The fields of the counters.
+     * @param expiry The fields of the expiry dates.
+     * @param expiringPassports The number of the expiring passports.
+     */
+    private record Recount(
+            Map<String, String> counters,
+            Map<String, String> expiry,
+            long expiringPassports
+    ) {
+    }
+}
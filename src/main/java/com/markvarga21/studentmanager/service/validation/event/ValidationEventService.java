@@ -0,0 +1,17 @@
+package com.markvarga21.studentmanager.service.validation.event;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * The {@code ValidationEventService} interface is used to push
+ * the validation status changes to the subscribed users.
+ */
+public interface ValidationEventService {
+    /**
+     * Subscribes a user to the changes of its validation status.
+     *
+     * @param username The username of the user.
+     * @return The emitter streaming the changes.
+     */
+    SseEmitter subscribe(String username);
+}
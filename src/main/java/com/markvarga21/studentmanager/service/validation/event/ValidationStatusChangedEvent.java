@@ -0,0 +1,32 @@
+package com.markvarga21.studentmanager.service.validation.event;
+
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * An event published when the validation status of a passport
+ * changes, so the users owning it can be notified once the
+ * change has been committed.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ValidationStatusChangedEvent {
+    /**
+     * The kind of the change.
+     */
+    private final ValidationStatusType type;
+
+    /**
+     * The passport number of the student.
+     */
+    private final String passportNumber;
+
+    /**
+     * The validity after the change, or {@code null}
+     * if the change carries no validity.
+     */
+    private final Boolean valid;
+}
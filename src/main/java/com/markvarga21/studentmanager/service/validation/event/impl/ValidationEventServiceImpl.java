@@ -0,0 +1,326 @@
+package com.markvarga21.studentmanager.service.validation.event.impl;
+
+import com.google.gson.Gson;
+import com.markvarga21.studentmanager.dto.ValidationStatusNotification;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.service.validation.event.ValidationEventService;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code ValidationEventServiceImpl} class is used to implement
+ * the {@code ValidationEventService} interface. The committed changes
+ * are published on a Redis channel addressed to the users owning the
+ * passport, and every node forwards them to the streams of the users
+ * connected to it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Setter
+public class ValidationEventServiceImpl implements ValidationEventService, MessageListener {
+    /**
+     * The channel delivering the changes to every node.
+     */
+    static final String CHANNEL = "validation-events";
+
+    /**
+     * The name of the pushed events.
+     */
+    static final String EVENT_NAME = "validation-status";
+
+    /**
+     * The template used for publishing the changes.
+     */
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * The container delivering the messages of the channel.
+     */
+    private final RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * The repository for the student application user.
+     */
+    private final StudentAppUserRepository studentAppUserRepository;
+
+    /**
+     * The JSON mapper of the messages.
+     */
+    private final Gson gson;
+
+    /**
+     * The time after a stream is closed in milliseconds,
+     * after which the client reconnects.
+     */
+    @Value("${validation.events.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    /**
+     * The maximum number of open streams of a single user.
+     */
+    @Value("${validation.events.max-subscriptions-per-user:5}")
+    private int maxSubscriptionsPerUser;
+
+    /**
+     * The time between two heartbeats in milliseconds.
+     */
+    @Value("${validation.events.heartbeat-millis:25000}")
+    private long heartbeatMillis;
+
+    /**
+     * The number of threads sending the events to the streams.
+     */
+    @Value("${validation.events.sender-threads:4}")
+    private int senderThreads;
+
+    /**
+     * The open streams of the users connected to this node.
+     */
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    /**
+     * The scheduler of the heartbeats, kept apart from the shared
+     * scheduler thread, so the other jobs do not delay the heartbeats.
+     */
+    private ScheduledExecutorService heartbeatScheduler;
+
+    /**
+     * The executor sending the events, so a slow client blocks neither
+     * the Redis listener thread nor the heartbeats of the others.
+     */
+    private ExecutorService sender;
+
+    /**
+     * Creates the executors and subscribes to the channel.
+     */
+    @PostConstruct
+    public void init() {
+        this.heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+                namedDaemonThreads("validation-event-heartbeat")
+        );
+        this.sender = Executors.newFixedThreadPool(
+                this.senderThreads,
+                namedDaemonThreads("validation-event-sender-")
+        );
+        this.heartbeatScheduler.scheduleWithFixedDelay(
+                this::sendHeartbeats,
+                this.heartbeatMillis,
+                this.heartbeatMillis,
+                TimeUnit.MILLISECONDS
+        );
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    /**
+     * Stops the executors.
+     */
+    @PreDestroy
+    public void shutdown() {
+        this.heartbeatScheduler.shutdownNow();
+        this.sender.shutdownNow();
+    }
+
+    /**
+     * Subscribes a user to the changes of its validation status,
+     * closing its oldest stream if it has too many.
+     *
+     * @param username The username of the user.
+     * @return The emitter streaming the changes.
+     */
+    @Override
+    public SseEmitter subscribe(final String username) {
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        List<SseEmitter> evicted = new ArrayList<>();
+        this.emitters.compute(username, (key, userEmitters) -> {
+            List<SseEmitter> streams = userEmitters == null ? new CopyOnWriteArrayList<>() : userEmitters;
+            while (streams.size() >= this.maxSubscriptionsPerUser) {
+                evicted.add(streams.remove(0));
+            }
+            streams.add(emitter);
+            return streams;
+        });
+        evicted.forEach(SseEmitter::complete);
+        emitter.onCompletion(() -> this.remove(username, emitter));
+        emitter.onTimeout(() -> this.remove(username, emitter));
+        emitter.onError(exception -> this.remove(username, emitter));
+        return emitter;
+    }
+
+    /**
+     * Publishes a change to the nodes once it has been committed.
+     *
+     * @param event The change of the validation status.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onValidationStatusChanged(final ValidationStatusChangedEvent event) {
+        if (event.getPassportNumber() == null) {
+            return;
+        }
+        try {
+            this.studentAppUserRepository
+                    .findUsernamesByPassportNumber(event.getPassportNumber())
+                    .forEach(username -> this.redisTemplate.convertAndSend(
+                            CHANNEL,
+                            this.gson.toJson(new ValidationStatusNotification(
+                                    username,
+                                    event.getType(),
+                                    event.getPassportNumber(),
+                                    event.getValid()
+                            ))
+                    ));
+        } catch (RuntimeException exception) {
+            log.error("Cannot publish the validation status change {}", event, exception);
+        }
+    }
+
+    /**
+     * Forwards a change to the streams of its user connected to this node.
+     * The events are sent by the sender executor, so the Redis listener
+     * thread is free to deliver the next message.
+     *
+     * @param message The message holding the change.
+     * @param pattern The pattern of the channel.
+     */
+    @Override
+    public void onMessage(final Message message, final byte[] pattern) {
+        ValidationStatusNotification notification = this.gson.fromJson(
+                new String(message.getBody(), StandardCharsets.UTF_8),
+                ValidationStatusNotification.class
+        );
+        List<SseEmitter> userEmitters = this.emitters.get(notification.getUsername());
+        if (userEmitters == null) {
+            return;
+        }
+        userEmitters.forEach(emitter -> this.sendAsync(
+                notification.getUsername(),
+                emitter,
+                SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .data(notification, MediaType.APPLICATION_JSON)
+        ));
+    }
+
+    /**
+     * Sends a comment on every open stream, so idle streams are not
+     * closed by the proxies and the closed ones are detected.
+     */
+    void sendHeartbeats() {
+        this.emitters.forEach((username, userEmitters) -> userEmitters.forEach(emitter -> this.sendAsync(
+                username,
+                emitter,
+                SseEmitter.event().comment("heartbeat")
+        )));
+    }
+
+    /**
+     * Returns the number of open streams on this node.
+     *
+     * @return The number of open streams.
+     */
+    int getSubscriptionCount() {
+        return this.emitters.values()
+                .stream()
+                .mapToInt(List::size)
+                .sum();
+    }
+
+    /**
+     * Hands an event over to the sender executor.
+     *
+     * @param username The username of the owner of the stream.
+     * @param emitter The stream.
+     * @param event The event.
+     */
+    private void sendAsync(
+            final String username,
+            final SseEmitter emitter,
+            final SseEmitter.SseEventBuilder event
+    ) {
+        try {
+            this.sender.execute(() -> this.send(username, emitter, event));
+        } catch (RejectedExecutionException exception) {
+            log.debug("Not sending validation event to user '{}' while shutting down", username);
+        }
+    }
+
+    /**
+     * Sends an event on a stream, dropping the stream if it is closed.
+     *
+     * @param username The username of the owner of the stream.
+     * @param emitter The stream.
+     * @param event The event.
+     */
+    private void send(
+            final String username,
+            final SseEmitter emitter,
+            final SseEmitter.SseEventBuilder event
+    ) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException exception) {
+            log.debug("Dropping the closed validation event stream of user '{}'", username);
+            this.remove(username, emitter);
+        }
+    }
+
+    /**
+     * Removes a stream of a user.
+     *
+     * @param username The username of the user.
+     * @param emitter The stream.
+     */
+    private void remove(final String username, final SseEmitter emitter) {
+        this.emitters.computeIfPresent(username, (key, userEmitters) -> {
+            userEmitters.remove(emitter);
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    /**
+     * Returns the factory of the named daemon threads of the executors.
+     *
+     * @param name The name of the threads, numbered if it ends with a dash.
+     * @return The factory of the threads.
+     */
+    private static ThreadFactory namedDaemonThreads(final String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(
+                    runnable,
+                    name.endsWith("-") ? name + counter.incrementAndGet() : name
+            );
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
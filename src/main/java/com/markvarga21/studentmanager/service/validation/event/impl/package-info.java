@@ -0,0 +1,4 @@
+/**
+ * This package contains the implementation of the validation event service.
+ */
+package com.markvarga21.studentmanager.service.validation.event.impl;
@@ -0,0 +1,5 @@
+/**
+ * Contains the classes pushing the validation
+ * status changes to the users.
+ */
+package com.markvarga21.studentmanager.service.validation.event;
@@ -1,13 +1,16 @@
 package com.markvarga21.studentmanager.service.validation.face.impl;
 
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
 import com.markvarga21.studentmanager.entity.FacialValidationData;
 import com.markvarga21.studentmanager.entity.Student;
 import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
 import com.markvarga21.studentmanager.repository.StudentRepository;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
 import com.markvarga21.studentmanager.service.validation.face.FacialValidationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -33,6 +36,11 @@ public class FacialValidationServiceImpl implements FacialValidationService {
      */
     private final StudentRepository studentRepository;
 
+    /**
+     * The publisher of the validation status changes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Saves the facial validation data in the database.
      *
@@ -49,6 +57,7 @@ public class FacialValidationServiceImpl implements FacialValidationService {
             this.repository.deleteFacialValidationDataByPassportNumber(data.getPassportNumber());
         }
         this.repository.save(data);
+        this.publishChange(data.getPassportNumber(), data.getIsValid());
     }
 
     /**
@@ -100,6 +109,7 @@ public class FacialValidationServiceImpl implements FacialValidationService {
         }
         this.repository
                 .deleteFacialValidationDataByPassportNumber(passportNumber);
+        this.publishChange(passportNumber, null);
         return String.format("Facial validation data for passport number '%s' deleted successfully!", passportNumber);
     }
 
@@ -127,6 +137,7 @@ public class FacialValidationServiceImpl implements FacialValidationService {
         data.setIsValid(true);
         data.setPercentage(1.0);
         this.repository.save(data);
+        this.publishChange(passportNumber, true);
         return String.format("Facial validation data for passport number '%s' set to valid!", passportNumber);
     }
 
@@ -148,6 +159,7 @@ public class FacialValidationServiceImpl implements FacialValidationService {
                 data.setIsValid(false);
                 data.setPercentage(0.0);
                 this.repository.save(data);
+                this.publishChange(passportNumber, false);
                 return String.format("Facial validation data for passport number '%s' set to invalid!", passportNumber);
             }
             String message = String.format("Facial validation data not found for passport number '%s'", passportNumber);
@@ -158,4 +170,19 @@ public class FacialValidationServiceImpl implements FacialValidationService {
         log.error(message);
         return message;
     }
+
+    /**
+     * Publishes a change of the facial validation,
+     * pushed to the user once it has been committed.
+     *
+     * @param passportNumber The passport number.
+     * @param valid The validity after the change.
+     */
+    private void publishChange(final String passportNumber, final Boolean valid) {
+        this.eventPublisher.publishEvent(new ValidationStatusChangedEvent(
+                ValidationStatusType.FACIAL_VALIDATION,
+                passportNumber,
+                valid
+        ));
+    }
 }
@@ -1,15 +1,18 @@
 package com.markvarga21.studentmanager.service.validation.passport.impl;
 
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
 import com.markvarga21.studentmanager.entity.PassportValidationData;
 import com.markvarga21.studentmanager.exception.InvalidPassportException;
 import com.markvarga21.studentmanager.exception.PassportValidationDataNotFoundException;
 import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -32,6 +35,11 @@ public class PassportValidationServiceImpl
      */
     private final PassportValidationDataRepository passportValidationDataRepository;
 
+    /**
+     * The publisher of the validation status changes.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Retrieves all passport validation data.
      *
@@ -62,6 +70,7 @@ public class PassportValidationServiceImpl
         if (passportValidationDataOptional.isPresent()) {
             this.passportValidationDataRepository
                     .deletePassportValidationDataByPassportNumber(passportNumber);
+            this.publishChange(passportNumber);
             return String.format("Passport validation data with passport number %s deleted.",
                     passportNumber);
         }
@@ -110,8 +119,10 @@ public class PassportValidationServiceImpl
             throw new InvalidPassportException(message);
         }
         log.info("Saving passport validation data: {}", data);
-        return this.passportValidationDataRepository
+        PassportValidationData savedData = this.passportValidationDataRepository
                 .save(data);
+        this.publishChange(data.getPassportNumber());
+        return savedData;
     }
 
     /**
@@ -141,4 +152,18 @@ public class PassportValidationServiceImpl
         return PassportValidationData
                 .getStudentDtoFromValidationData(data);
     }
+
+    /**
+     * Publishes a change of the passport validation data,
+     * pushed to the user once it has been committed.
+     *
+     * @param passportNumber The passport number.
+     */
+    private void publishChange(final String passportNumber) {
+        this.eventPublisher.publishEvent(new ValidationStatusChangedEvent(
+                ValidationStatusType.PASSPORT_VALIDATION_DATA,
+                passportNumber,
+                null
+        ));
+    }
 }
@@ -0,0 +1,41 @@
+package com.markvarga21.studentmanager.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * A utility class which is used to identify files by their content.
+ */
+public final class ContentHasher {
+    /**
+     * The algorithm used for hashing the content.
+     */
+    public static final String HASH_ALGORITHM = "SHA-256";
+
+    private ContentHasher() {
+    }
+
+    /**
+     * Creates a new digest for hashing content incrementally.
+     *
+     * @return The created {@code MessageDigest}.
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Hashes the given content.
+     *
+     * @param content The content to be hashed.
+     * @return The lowercase hexadecimal SHA-256 hash of the content.
+     */
+    public static String sha256Hex(final byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+}
@@ -1,14 +1,19 @@
 package com.markvarga21.studentmanager.util;
 
-import com.markvarga21.studentmanager.exception.PassportNotFoundException;
+import com.markvarga21.studentmanager.exception.InvalidDocumentException;
 import lombok.extern.slf4j.Slf4j;
 import net.coobird.thumbnailator.Thumbnails;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 
 /**
  * A class which is used to compress images.
@@ -28,6 +33,13 @@ public final class ImageCompressor {
      */
     public static final int DEFAULT_SIZE_LIMIT = 4_194_304;
 
+    /**
+     * The maximum number of pixels decoded from an image. Larger
+     * images are subsampled while being read, so decoding them
+     * needs a bounded amount of memory.
+     */
+    public static final long MAX_DECODED_PIXELS = 16_777_216L;
+
     /**
      * Converts the given image to a byte array.
      *
@@ -56,45 +68,88 @@ public final class ImageCompressor {
      * @return The compressed image.
      */
     public static byte[] compressImage(final MultipartFile image) {
-        try {
-            byte[] imageBytes = image.getBytes();
-            long sizeInBytes = imageBytes.length;
-            log.info(
-                    "File size before compression: {}B",
-                    getFileSize(imageBytes)
-            );
-            if (sizeInBytes <= DEFAULT_SIZE_LIMIT) {
-                return imageBytes;
-            }
-
-            log.error("File size is too big, compressing...");
-            float scale = 1.0F;
-            while (sizeInBytes > DEFAULT_SIZE_LIMIT) {
-                log.info(
-                        "Current file size: {}MB",
-                        getFileSize(imageBytes)
-                );
-                BufferedImage bufferedImage = Thumbnails
-                        .of(image.getInputStream())
-                        .scale(scale)
-                        .asBufferedImage();
-                imageBytes = toByteArray(bufferedImage, "jpg");
-                sizeInBytes = imageBytes.length;
-                scale -= SCALE_DECREASE_STEP;
-            }
+        return ImageUpload.ingest(image).getContent();
+    }
 
+    /**
+     * Compresses the image read from the given stream below the size
+     * limit. The image is decoded once, subsampled if it has too many
+     * pixels, and then scaled down step by step in memory.
+     *
+     * @param imageStream The stream of the image to compress.
+     * @return The compressed image in JPEG format.
+     * @throws IOException If the image cannot be read or written.
+     */
+    public static byte[] compressImage(final InputStream imageStream) throws IOException {
+        BufferedImage image = readSubsampled(imageStream);
+        float scale = 1.0F;
+        byte[] imageBytes = toJpeg(image, scale);
+        while (imageBytes.length > DEFAULT_SIZE_LIMIT && scale > SCALE_DECREASE_STEP) {
             log.info(
-                    "File size after compression: {}B",
+                    "Current file size: {}B",
                     getFileSize(imageBytes)
             );
+            scale -= SCALE_DECREASE_STEP;
+            imageBytes = toJpeg(image, scale);
+        }
 
-            return imageBytes;
-        } catch (IOException e) {
-            String message = "The file could not be found.";
-            throw new PassportNotFoundException(message);
+        log.info(
+                "File size after compression: {}B",
+                getFileSize(imageBytes)
+        );
+        return imageBytes;
+    }
+
+    /**
+     * Decodes an image, skipping pixels if it has more
+     * than the maximum number of decoded pixels.
+     *
+     * @param imageStream The stream of the image.
+     * @return The decoded image.
+     * @throws IOException If the image cannot be read.
+     */
+    private static BufferedImage readSubsampled(final InputStream imageStream) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageStream)) {
+            Iterator<ImageReader> readers = input == null
+                    ? null
+                    : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new InvalidDocumentException("The file is not a supported image!");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                int subsampling = (int) Math.ceil(Math.sqrt((double) pixels / MAX_DECODED_PIXELS));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    log.info("Reading the {} image with every {}. pixel", reader.getFormatName(), subsampling);
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
         }
     }
 
+    /**
+     * Scales an image and encodes it as a JPEG.
+     *
+     * @param image The image to be scaled.
+     * @param scale The scale of the image.
+     * @return The bytes of the scaled image.
+     * @throws IOException If the image cannot be written.
+     */
+    private static byte[] toJpeg(final BufferedImage image, final float scale) throws IOException {
+        BufferedImage scaledImage = Thumbnails
+                .of(image)
+                .scale(scale)
+                .imageType(BufferedImage.TYPE_INT_RGB)
+                .asBufferedImage();
+        return toByteArray(scaledImage, "jpg");
+    }
+
     /**
      * Returns the size of the given file in MB.
      *
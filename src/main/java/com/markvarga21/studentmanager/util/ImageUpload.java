@@ -0,0 +1,70 @@
+package com.markvarga21.studentmanager.util;
+
+import com.markvarga21.studentmanager.exception.InvalidDocumentException;
+import com.markvarga21.studentmanager.exception.PassportNotFoundException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An uploaded image read into a single bounded buffer. Uploads above
+ * the multipart threshold are spooled to disk by the container, so
+ * the uploads fitting the size limit are read into memory once, and
+ * the larger ones are decoded from the spooled file and compressed
+ * below the limit. The same buffer and its hash are then used for
+ * storing the image and for sending it to Azure.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@Slf4j
+public final class ImageUpload {
+    /**
+     * The content of the image, at most the size limit.
+     */
+    private final byte[] content;
+
+    /**
+     * The lowercase hexadecimal SHA-256 hash of the content.
+     */
+    private final String sha256;
+
+    /**
+     * The size of the uploaded file in bytes.
+     */
+    private final long uploadedSize;
+
+    /**
+     * Reads an uploaded image, compressing it if it
+     * exceeds the size limit.
+     *
+     * @param file The uploaded file.
+     * @return The read image.
+     */
+    public static ImageUpload ingest(final MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidDocumentException("The uploaded file is empty!");
+        }
+        long uploadedSize = file.getSize();
+        log.info("File size before compression: {}B", uploadedSize);
+        try {
+            byte[] content;
+            if (uploadedSize <= ImageCompressor.DEFAULT_SIZE_LIMIT) {
+                content = file.getBytes();
+            } else {
+                log.info("File size is too big, compressing...");
+                try (InputStream spooledFile = file.getInputStream()) {
+                    content = ImageCompressor.compressImage(spooledFile);
+                }
+            }
+            return new ImageUpload(content, ContentHasher.sha256Hex(content), uploadedSize);
+        } catch (IOException e) {
+            String message = "The file could not be found.";
+            throw new PassportNotFoundException(message);
+        }
+    }
+}
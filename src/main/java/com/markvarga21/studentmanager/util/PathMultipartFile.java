@@ -0,0 +1,124 @@
+package com.markvarga21.studentmanager.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A {@code MultipartFile} backed by a file on the disk, so an image
+ * assembled from chunks is processed without copying it into memory.
+ */
+public final class PathMultipartFile implements MultipartFile {
+    /**
+     * The name of the parameter the file stands for.
+     */
+    private final String name;
+
+    /**
+     * The path of the file.
+     */
+    private final Path path;
+
+    /**
+     * Creates a view of a file.
+     *
+     * @param name The name of the parameter the file stands for.
+     * @param path The path of the file.
+     */
+    public PathMultipartFile(final String name, final Path path) {
+        this.name = name;
+        this.path = path;
+    }
+
+    /**
+     * Returns the name of the parameter the file stands for.
+     *
+     * @return The name of the parameter.
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * Returns the name of the file.
+     *
+     * @return The name of the file.
+     */
+    @Override
+    public String getOriginalFilename() {
+        return this.path.getFileName().toString();
+    }
+
+    /**
+     * The content type of the assembled files is unknown.
+     *
+     * @return {@code null}.
+     */
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    /**
+     * Returns whether the file is empty.
+     *
+     * @return Whether the file is empty.
+     */
+    @Override
+    public boolean isEmpty() {
+        return this.getSize() == 0;
+    }
+
+    /**
+     * Returns the size of the file.
+     *
+     * @return The size of the file in bytes.
+     */
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(this.path);
+        } catch (IOException exception) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the whole file into memory.
+     *
+     * @return The content of the file.
+     * @throws IOException If the file cannot be read.
+     */
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(this.path);
+    }
+
+    /**
+     * Opens a stream reading the file from the disk.
+     *
+     * @return The stream of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(this.path);
+    }
+
+    /**
+     * Copies the file to the given destination.
+     *
+     * @param dest The destination file.
+     * @throws IOException If the file cannot be copied.
+     */
+    @Override
+    public void transferTo(final File dest) throws IOException {
+        Files.copy(this.path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
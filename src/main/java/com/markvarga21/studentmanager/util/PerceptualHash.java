@@ -0,0 +1,118 @@
+package com.markvarga21.studentmanager.util;
+
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * A utility class which is used to compute the difference hash (dHash)
+ * of images. Images which look the same, even if they have been
+ * recompressed or rescaled, have hashes differing only in a few bits.
+ */
+@Slf4j
+public final class PerceptualHash {
+    /**
+     * The number of compared pixels in a row.
+     */
+    static final int HASH_WIDTH = 8;
+
+    /**
+     * The number of rows.
+     */
+    static final int HASH_HEIGHT = 8;
+
+    /**
+     * The weight of the red channel in the luminance, in thousandths.
+     */
+    static final int RED_WEIGHT = 299;
+
+    /**
+     * The weight of the green channel in the luminance, in thousandths.
+     */
+    static final int GREEN_WEIGHT = 587;
+
+    /**
+     * The weight of the blue channel in the luminance, in thousandths.
+     */
+    static final int BLUE_WEIGHT = 114;
+
+    /**
+     * The shift of the red channel in a packed RGB pixel.
+     */
+    static final int RED_SHIFT = 16;
+
+    /**
+     * The shift of the green channel in a packed RGB pixel.
+     */
+    static final int GREEN_SHIFT = 8;
+
+    /**
+     * The mask of a single channel in a packed RGB pixel.
+     */
+    static final int CHANNEL_MASK = 0xFF;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * Computes the difference hash of an image. The image is shrunk to
+     * 9x8 pixels, and each bit tells whether a pixel is brighter than
+     * its right neighbour.
+     *
+     * @param image The encoded image.
+     * @return The hash, or {@code null} if the image cannot be decoded.
+     */
+    public static Long dHash(final byte[] image) {
+        try {
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(image));
+            if (decoded == null) {
+                log.warn("Cannot hash an image of an unsupported format");
+                return null;
+            }
+            BufferedImage shrunk = Thumbnails.of(decoded)
+                    .forceSize(HASH_WIDTH + 1, HASH_HEIGHT)
+                    .imageType(BufferedImage.TYPE_INT_RGB)
+                    .asBufferedImage();
+            long hash = 0;
+            for (int y = 0; y < HASH_HEIGHT; y++) {
+                for (int x = 0; x < HASH_WIDTH; x++) {
+                    hash <<= 1;
+                    if (luminance(shrunk.getRGB(x, y)) > luminance(shrunk.getRGB(x + 1, y))) {
+                        hash |= 1;
+                    }
+                }
+            }
+            return hash;
+        } catch (IOException exception) {
+            log.warn("Cannot hash the image", exception);
+            return null;
+        }
+    }
+
+    /**
+     * Computes the number of differing bits of two hashes.
+     *
+     * @param first The first hash.
+     * @param second The second hash.
+     * @return The Hamming distance of the hashes.
+     */
+    public static int distance(final long first, final long second) {
+        return Long.bitCount(first ^ second);
+    }
+
+    /**
+     * Computes the luminance of a packed RGB pixel.
+     *
+     * @param rgb The pixel.
+     * @return The luminance, scaled by a thousand.
+     */
+    private static int luminance(final int rgb) {
+        return RED_WEIGHT * ((rgb >> RED_SHIFT) & CHANNEL_MASK)
+                + GREEN_WEIGHT * ((rgb >> GREEN_SHIFT) & CHANNEL_MASK)
+                + BLUE_WEIGHT * (rgb & CHANNEL_MASK);
+    }
+}
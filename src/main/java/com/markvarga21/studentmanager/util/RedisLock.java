@@ -0,0 +1,64 @@
+package com.markvarga21.studentmanager.util;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * A utility class for the locks shared by the nodes through Redis.
+ * Every holder stores a token of its own in the lock, and only the
+ * holder of the token can release it, so a holder outliving its lock
+ * does not release the lock acquired by another node meanwhile.
+ */
+public final class RedisLock {
+    /**
+     * Deletes the lock only if it still holds the token of the holder.
+     */
+    static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private RedisLock() {
+    }
+
+    /**
+     * Tries to acquire a lock.
+     *
+     * @param redisTemplate The template used for accessing Redis.
+     * @param key The key of the lock.
+     * @param timeout The time after which the lock is released on its own.
+     * @return The token of the holder, or an empty {@code Optional} if the lock is held by another.
+     */
+    public static Optional<String> tryAcquire(
+            final StringRedisTemplate redisTemplate,
+            final String key,
+            final Duration timeout
+    ) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue()
+                .setIfAbsent(key, token, timeout);
+        return Boolean.TRUE.equals(acquired) ? Optional.of(token) : Optional.empty();
+    }
+
+    /**
+     * Releases a lock if it is still held by the given holder.
+     *
+     * @param redisTemplate The template used for accessing Redis.
+     * @param key The key of the lock.
+     * @param token The token of the holder.
+     */
+    public static void release(
+            final StringRedisTemplate redisTemplate,
+            final String key,
+            final String token
+    ) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(key), token);
+    }
+}
@@ -0,0 +1,6 @@
+create index idx_facial_validation_data_passport_number on facial_validation_data (passport_number);
+create index idx_passport_validation_data_passport_number on passport_validation_data (passport_number);
+create index idx_student_app_user_username on student_app_user (username);
+create index idx_student_app_user_student_id on student_app_user (student_id);
+create index idx_student_name on student (first_name, last_name);
+create index idx_app_user_name on app_user (first_name, last_name);
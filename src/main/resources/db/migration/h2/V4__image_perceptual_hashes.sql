@@ -0,0 +1,2 @@
+alter table student_image add column passport_hash bigint;
+alter table student_image add column selfie_hash bigint;
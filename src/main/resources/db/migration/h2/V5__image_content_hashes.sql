@@ -0,0 +1,2 @@
+alter table student_image add column passport_content_hash varchar(64);
+alter table student_image add column selfie_content_hash varchar(64);
@@ -0,0 +1,23 @@
+create table app_user (id bigint not null, email varchar(255), first_name varchar(255), last_name varchar(255), password varchar(255), username varchar(255) not null, primary key (id)) engine=InnoDB;
+create table app_user_seq (next_val bigint) engine=InnoDB;
+insert into app_user_seq values ( 1 );
+create table facial_validation_data (is_valid bit, percentage float(53), id bigint not null, passport_number varchar(255), primary key (id)) engine=InnoDB;
+create table facial_validation_data_seq (next_val bigint) engine=InnoDB;
+insert into facial_validation_data_seq values ( 1 );
+create table passport_validation_data (birth_date date, gender tinyint check (gender between 0 and 1), passport_date_of_expiry date, passport_date_of_issue date, id bigint not null, timestamp datetime(6), country_of_citizenship varchar(255), first_name varchar(255), last_name varchar(255), passport_number varchar(255), place_of_birth varchar(255), primary key (id)) engine=InnoDB;
+create table passport_validation_data_seq (next_val bigint) engine=InnoDB;
+insert into passport_validation_data_seq values ( 1 );
+create table report (id bigint not null, timestamp datetime(6) not null, description varchar(1000) not null, issuer_username varchar(255), subject varchar(255), primary key (id)) engine=InnoDB;
+create table report_seq (next_val bigint) engine=InnoDB;
+insert into report_seq values ( 1 );
+create table student (birth_date date, gender tinyint check (gender between 0 and 1), passport_date_of_expiry date, passport_date_of_issue date, valid bit not null, id bigint not null, country_of_citizenship varchar(255), first_name varchar(255), last_name varchar(255), passport_number varchar(255) not null, place_of_birth varchar(255), primary key (id)) engine=InnoDB;
+create table student_seq (next_val bigint) engine=InnoDB;
+insert into student_seq values ( 1 );
+create table student_app_user (id bigint not null, student_id bigint, username varchar(255), primary key (id)) engine=InnoDB;
+create table student_app_user_seq (next_val bigint) engine=InnoDB;
+insert into student_app_user_seq values ( 1 );
+create table student_image (student_id bigint not null, passport_image longblob, selfie_image longblob, primary key (student_id)) engine=InnoDB;
+create table user_roles (user_id bigint not null, role enum ('USER','ADMIN')) engine=InnoDB;
+alter table app_user add constraint UK_app_user_username unique (username);
+alter table student add constraint UK_student_passport_number unique (passport_number);
+alter table user_roles add constraint FK6fql8djp64yp4q9b3qeyhr82b foreign key (user_id) references app_user (id);
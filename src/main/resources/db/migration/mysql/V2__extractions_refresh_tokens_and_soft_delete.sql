@@ -0,0 +1,11 @@
+create table passport_extraction (gender tinyint check (gender between 0 and 1), timestamp datetime(6), image_hash varchar(64) not null, birth_date varchar(255), country_of_citizenship varchar(255), first_name varchar(255), last_name varchar(255), passport_date_of_expiry varchar(255), passport_date_of_issue varchar(255), passport_number varchar(255), place_of_birth varchar(255), primary key (image_hash)) engine=InnoDB;
+create table refresh_token (used bit not null, expires_at datetime(6) not null, id bigint not null, token_hash varchar(64) not null, family_id varchar(255) not null, username varchar(255) not null, primary key (id)) engine=InnoDB;
+create table refresh_token_seq (next_val bigint) engine=InnoDB;
+insert into refresh_token_seq values ( 1 );
+alter table refresh_token add constraint UK_refresh_token_token_hash unique (token_hash);
+create index idx_refresh_token_family on refresh_token (family_id);
+create index idx_refresh_token_username on refresh_token (username);
+alter table student add column deleted_at datetime(6), algorithm=instant;
+alter table student_image add column deleted_at datetime(6), algorithm=instant;
+alter table passport_validation_data add column deleted_at datetime(6), algorithm=instant;
+alter table facial_validation_data add column deleted_at datetime(6), algorithm=instant;
@@ -0,0 +1,2 @@
+alter table student_image add column passport_hash bigint, algorithm=instant;
+alter table student_image add column selfie_hash bigint, algorithm=instant;
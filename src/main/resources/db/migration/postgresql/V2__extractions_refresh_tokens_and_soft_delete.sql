@@ -0,0 +1,9 @@
+create sequence if not exists refresh_token_seq start with 1 increment by 50;
+create table if not exists passport_extraction (gender smallint check (gender between 0 and 1), timestamp timestamp(6), image_hash varchar(64) not null, birth_date varchar(255), country_of_citizenship varchar(255), first_name varchar(255), last_name varchar(255), passport_date_of_expiry varchar(255), passport_date_of_issue varchar(255), passport_number varchar(255), place_of_birth varchar(255), primary key (image_hash));
+create table if not exists refresh_token (used boolean not null, expires_at timestamp(6) not null, id bigint not null, token_hash varchar(64) not null unique, family_id varchar(255) not null, username varchar(255) not null, primary key (id));
+create index if not exists idx_refresh_token_family on refresh_token (family_id);
+create index if not exists idx_refresh_token_username on refresh_token (username);
+alter table student add column if not exists deleted_at timestamp(6);
+alter table student_image add column if not exists deleted_at timestamp(6);
+alter table passport_validation_data add column if not exists deleted_at timestamp(6);
+alter table facial_validation_data add column if not exists deleted_at timestamp(6);
@@ -0,0 +1,12 @@
+-- Built concurrently, so the tables stay writable while the indexes are built.
+-- Flyway runs this migration outside of a transaction, therefore it must not
+-- contain any statement other than the concurrent index builds. The builds wait
+-- for every open transaction, including the one holding the transactional
+-- advisory lock of Flyway, so that lock is turned off with the
+-- spring.flyway.postgresql.transactional-lock property.
+create index concurrently idx_facial_validation_data_passport_number on facial_validation_data (passport_number);
+create index concurrently idx_passport_validation_data_passport_number on passport_validation_data (passport_number);
+create index concurrently idx_student_app_user_username on student_app_user (username);
+create index concurrently idx_student_app_user_student_id on student_app_user (student_id);
+create index concurrently idx_student_name on student (first_name, last_name);
+create index concurrently idx_app_user_name on app_user (first_name, last_name);
@@ -0,0 +1,2 @@
+alter table student_image add column if not exists passport_hash bigint;
+alter table student_image add column if not exists selfie_hash bigint;
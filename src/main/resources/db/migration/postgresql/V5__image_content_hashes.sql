@@ -0,0 +1,2 @@
+alter table student_image add column if not exists passport_content_hash varchar(64);
+alter table student_image add column if not exists selfie_content_hash varchar(64);
@@ -0,0 +1,341 @@
+package com.markvarga21.studentmanager.config;
+
+import com.google.gson.Gson;
+import com.markvarga21.studentmanager.dto.IdempotentResponse;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+    /**
+     * The URL of the request under testing.
+     */
+    static final String UPLOAD_URL = "/api/v1/files/upload/1";
+
+    /**
+     * The Redis key of the request under testing.
+     */
+    static final String REDIS_KEY = IdempotencyFilter.KEY_PREFIX + "anonymous:" + UPLOAD_URL + ":key-1";
+
+    /**
+     * The hash of the request under testing.
+     */
+    static final String REQUEST_HASH = IdempotencyFilter.hash(null, "image".getBytes(StandardCharsets.UTF_8));
+
+    /**
+     * The template used for storing the responses.
+     */
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The operations on the Redis strings.
+     */
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    /**
+     * The JSON mapper of the stored responses.
+     */
+    private final Gson gson = new Gson();
+
+    /**
+     * The filter under testing.
+     */
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        this.filter = new IdempotencyFilter(this.redisTemplate, this.gson);
+        this.filter.setResponseTtlHours(24);
+        this.filter.setLockSeconds(30);
+        this.filter.setRetryAfterSeconds(2);
+        this.filter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.filter.shutdown();
+    }
+
+    @Test
+    void shouldStoreFirstResponseTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain(new WritingServlet("Uploaded"));
+        ArgumentCaptor<String> storedCaptor = ArgumentCaptor.forClass(String.class);
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(true);
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals("Uploaded", response.getContentAsString());
+        verify(this.valueOperations).set(eq(REDIS_KEY), storedCaptor.capture(), eq(Duration.ofHours(24)));
+        IdempotentResponse stored = this.gson.fromJson(storedCaptor.getValue(), IdempotentResponse.class);
+        assertEquals(200, stored.getStatus());
+        assertEquals("Uploaded", new String(Base64.getDecoder().decode(stored.getBody()), StandardCharsets.UTF_8));
+        assertEquals(REQUEST_HASH, stored.getRequestHash());
+        assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void shouldReplayStoredResponseToRetryTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        IdempotentResponse stored = new IdempotentResponse(
+                201,
+                "text/plain",
+                Base64.getEncoder().encodeToString("Uploaded".getBytes(StandardCharsets.UTF_8)),
+                REQUEST_HASH
+        );
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(false);
+        when(this.valueOperations.get(REDIS_KEY))
+                .thenReturn(this.gson.toJson(stored));
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(201, response.getStatus());
+        assertEquals("Uploaded", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void shouldRejectRetryWhileOriginalIsRunningTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(false);
+        when(this.valueOperations.get(REDIS_KEY))
+                .thenReturn(inProgress(REQUEST_HASH));
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(409, response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void shouldRejectKeyReusedWhileOriginalIsRunningTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(false);
+        when(this.valueOperations.get(REDIS_KEY))
+                .thenReturn(inProgress("other-request"));
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(422, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void shouldNotReplayResponseOfDifferentRequestTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        request.setContent("otherImage".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+        IdempotentResponse stored = new IdempotentResponse(
+                201,
+                "text/plain",
+                Base64.getEncoder().encodeToString("Uploaded".getBytes(StandardCharsets.UTF_8)),
+                REQUEST_HASH
+        );
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(false);
+        when(this.valueOperations.get(REDIS_KEY))
+                .thenReturn(this.gson.toJson(stored));
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(422, response.getStatus());
+        assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void shouldReleaseKeyOfFailedRequestTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain(new FailingServlet(500));
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(true);
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(500, response.getStatus());
+        verify(this.redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(REDIS_KEY)),
+                startsWith(IdempotencyFilter.IN_PROGRESS)
+        );
+        verify(this.valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void shouldNotStoreAuthorizationFailureTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain(new FailingServlet(403));
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(true);
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        assertEquals(403, response.getStatus());
+        verify(this.redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(REDIS_KEY)),
+                startsWith(IdempotencyFilter.IN_PROGRESS)
+        );
+        verify(this.valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void shouldStoreValidationErrorTest() throws Exception {
+        // Given
+        MockHttpServletRequest request = this.uploadRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain(new FailingServlet(400));
+        ArgumentCaptor<String> storedCaptor = ArgumentCaptor.forClass(String.class);
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(REDIS_KEY), startsWith(IdempotencyFilter.IN_PROGRESS), any(Duration.class)))
+                .thenReturn(true);
+        this.filter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(this.valueOperations).set(eq(REDIS_KEY), storedCaptor.capture(), eq(Duration.ofHours(24)));
+        assertEquals(400, this.gson.fromJson(storedCaptor.getValue(), IdempotentResponse.class).getStatus());
+    }
+
+    private MockHttpServletRequest uploadRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", UPLOAD_URL);
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, "key-1");
+        request.setContent("image".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static String inProgress(final String requestHash) {
+        return String.join(IdempotencyFilter.SEPARATOR, IdempotencyFilter.IN_PROGRESS, requestHash, "owner");
+    }
+
+    /**
+     * A servlet writing a fixed body.
+     */
+    private static final class WritingServlet extends HttpServlet {
+        /**
+         * The body of the responses.
+         */
+        private final String body;
+
+        WritingServlet(final String body) {
+            this.body = body;
+        }
+
+        @Override
+        protected void service(
+                final HttpServletRequest request,
+                final HttpServletResponse response
+        ) throws IOException {
+            response.setContentType("text/plain");
+            response.getWriter().write(this.body);
+        }
+    }
+
+    /**
+     * A servlet failing every request.
+     */
+    private static final class FailingServlet extends HttpServlet {
+        /**
+         * The status of the responses.
+         */
+        private final int status;
+
+        FailingServlet(final int status) {
+            this.status = status;
+        }
+
+        @Override
+        protected void service(
+                final HttpServletRequest request,
+                final HttpServletResponse response
+        ) {
+            response.setStatus(this.status);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.markvarga21.studentmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Supplies the registry of the metrics to the sliced test
+ * contexts, which do not auto-configure one.
+ */
+@TestConfiguration
+public class MeterRegistryTestConfiguration {
+    /**
+     * Creates an in-memory registry of the metrics.
+     *
+     * @return The registry of the metrics.
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+}
@@ -0,0 +1,120 @@
+package com.markvarga21.studentmanager.config.security;
+
+import com.markvarga21.studentmanager.exception.LoginCapacityExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+    @Test
+    void shouldDelegateHashingToThePoolTest() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                new BlockingEncoder(new CountDownLatch(0)),
+                1,
+                1,
+                1000,
+                registry
+        );
+
+        // When
+        boolean matches = encoder.matches("password", "password");
+
+        // Then
+        assertTrue(matches);
+        assertEquals(1, registry.get("auth.password.queue").timer().count());
+        encoder.shutdown();
+    }
+
+    @Test
+    void shouldRejectWhenQueueIsFullTest() throws InterruptedException {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEncoder delegate = new BlockingEncoder(release);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 1, 1000, registry);
+        CompletableFuture.runAsync(() -> encoder.matches("first", "first"));
+        delegate.started.await();
+        CompletableFuture.runAsync(() -> encoder.matches("second", "second"));
+        while (registry.get("auth.password.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        // Then
+        assertThrows(
+                LoginCapacityExceededException.class,
+                () -> encoder.matches("third", "third")
+        );
+        assertEquals(1, registry.get("auth.password.rejections").counter().count());
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    @Test
+    void shouldGiveUpWaitingAfterTimeoutTest() throws InterruptedException {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingEncoder delegate = new BlockingEncoder(release);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(delegate, 1, 2, 50, registry);
+        CompletableFuture.runAsync(() -> encoder.matches("first", "first"));
+        delegate.started.await();
+
+        // When
+        LoginCapacityExceededException exception = assertThrows(
+                LoginCapacityExceededException.class,
+                () -> encoder.matches("second", "second")
+        );
+
+        // Then
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(0, registry.get("auth.password.rejections").counter().count());
+        release.countDown();
+        encoder.shutdown();
+    }
+
+    /**
+     * An encoder comparing the plain passwords,
+     * which waits for a latch before every check.
+     */
+    private static final class BlockingEncoder implements PasswordEncoder {
+        /**
+         * Released once a check has started.
+         */
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        /**
+         * The latch the checks wait for.
+         */
+        private final CountDownLatch release;
+
+        BlockingEncoder(final CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public String encode(final CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(final CharSequence rawPassword, final String encodedPassword) {
+            this.started.countDown();
+            try {
+                this.release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
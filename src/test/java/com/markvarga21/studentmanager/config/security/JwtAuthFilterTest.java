@@ -0,0 +1,128 @@
+package com.markvarga21.studentmanager.config.security;
+
+import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthFilterTest {
+    /**
+     * The token sent by the user.
+     */
+    static final String TOKEN = "token";
+
+    /**
+     * The username of the user.
+     */
+    static final String USERNAME = "user";
+
+    /**
+     * The service for managing JWT tokens.
+     */
+    @Mock
+    private JwtService jwtService;
+
+    /**
+     * The service for managing user details.
+     */
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The filter under testing.
+     */
+    private JwtAuthFilter jwtAuthFilter;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.jwtAuthFilter = new JwtAuthFilter(
+                this.jwtService,
+                this.userDetailsService,
+                this.meterRegistry
+        );
+        this.jwtAuthFilter.setStatelessAuthentication(true);
+        this.jwtAuthFilter.setUserStatusMaxEntries(10);
+        this.jwtAuthFilter.setUserStatusTimeToLiveSeconds(60);
+        this.jwtAuthFilter.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAuthenticateFromRoleClaimsWithoutLoadingUserAgainTest() throws Exception {
+        // Given
+        when(this.jwtService.getUsername(TOKEN))
+                .thenReturn(USERNAME);
+        when(this.jwtService.isValidToken(TOKEN))
+                .thenReturn(true);
+        when(this.jwtService.getRoles(TOKEN))
+                .thenReturn(Set.of("ROLE_USER"));
+        when(this.userDetailsService.loadUserByUsername(USERNAME))
+                .thenReturn(User.withUsername(USERNAME).password("password").roles("USER").build());
+        this.filter();
+        SecurityContextHolder.clearContext();
+
+        // When
+        this.filter();
+
+        // Then
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals(USERNAME, authentication.getName());
+        assertEquals(
+                Set.of("ROLE_USER"),
+                authentication.getAuthorities()
+                        .stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .collect(Collectors.toSet())
+        );
+        verify(this.userDetailsService, times(1)).loadUserByUsername(USERNAME);
+        assertEquals(
+                2,
+                this.meterRegistry.get(JwtAuthFilter.AUTH_LATENCY_METRIC)
+                        .tag("outcome", "authenticated")
+                        .timer()
+                        .count()
+        );
+    }
+
+    /**
+     * Sends a request with the bearer token through the filter.
+     *
+     * @throws Exception If the filter fails.
+     */
+    private void filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/students");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        this.jwtAuthFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
@@ -0,0 +1,73 @@
+package com.markvarga21.studentmanager.config.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserStatusCacheTest {
+    /**
+     * The roles of the users used for testing.
+     */
+    private static final Set<String> ROLES = Set.of("ROLE_USER");
+
+    @Test
+    void shouldLoadStatusOnlyOnceWhileCachedTest() {
+        // Given
+        UserStatusCache cache = new UserStatusCache(10, 60);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<Set<String>>> loader = username -> {
+            loads.incrementAndGet();
+            return Optional.of(ROLES);
+        };
+
+        // When
+        cache.getStatus("john12", loader);
+        Optional<Set<String>> status = cache.getStatus("john12", loader);
+
+        // Then
+        assertEquals(Optional.of(ROLES), status);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void shouldReloadStatusAfterEvictionTest() {
+        // Given
+        UserStatusCache cache = new UserStatusCache(10, 60);
+        cache.getStatus("john12", username -> Optional.of(ROLES));
+
+        // When
+        cache.evict("john12");
+        Optional<Set<String>> status = cache.getStatus("john12", username -> Optional.empty());
+
+        // Then
+        assertTrue(status.isEmpty());
+    }
+
+    @Test
+    void shouldDropLeastRecentlyUsedStatusWhenFullTest() {
+        // Given
+        UserStatusCache cache = new UserStatusCache(2, 60);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<Set<String>>> loader = username -> {
+            loads.incrementAndGet();
+            return Optional.of(ROLES);
+        };
+
+        // When
+        cache.getStatus("first", loader);
+        cache.getStatus("second", loader);
+        cache.getStatus("first", loader);
+        cache.getStatus("third", loader);
+        cache.getStatus("first", loader);
+
+        // Then
+        assertEquals(2, cache.size());
+        assertEquals(3, loads.get());
+    }
+}
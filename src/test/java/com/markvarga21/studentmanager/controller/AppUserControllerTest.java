@@ -1,17 +1,22 @@
 package com.markvarga21.studentmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.dto.Role;
+import com.markvarga21.studentmanager.dto.TokenPair;
 import com.markvarga21.studentmanager.dto.UserLogin;
 import com.markvarga21.studentmanager.entity.AppUser;
 import com.markvarga21.studentmanager.service.auth.AppUserService;
+import com.markvarga21.studentmanager.service.auth.RefreshTokenService;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
@@ -22,19 +27,26 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.security.web.authentication.logout.LogoutSuccessHandler;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static com.markvarga21.studentmanager.data.TestingData.*;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AppUserController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class AppUserControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -90,6 +102,12 @@ class AppUserControllerTest {
     @MockBean
     private LogoutSuccessHandler logoutSuccessHandler;
 
+    /**
+     * The service for renewing sessions with refresh tokens.
+     */
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     /**
      * The URL used for testing the API.
      */
@@ -173,6 +191,25 @@ class AppUserControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @WithMockUser
+    @Test
+    void shouldRotateRefreshTokenTest() throws Exception {
+        // Given
+        TokenPair tokens = new TokenPair("access-token", "new-refresh-token");
+
+        // When
+        when(this.refreshTokenService.refresh("refresh-token"))
+                .thenReturn(tokens);
+
+        // Then
+        this.mockMvc.perform(post(API_URL + "/refresh")
+                        .header("X-Refresh-Token", "refresh-token")
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Refresh-Token", "new-refresh-token"))
+                .andExpect(content().string("access-token"));
+    }
+
     @WithMockUser(roles = "ADMIN")
     @Test
     void shouldGetUserByIdTest() throws Exception {
@@ -244,4 +281,20 @@ class AppUserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").value(message));
     }
-}
\ No newline at end of file
+
+    @WithMockUser(roles = "ADMIN")
+    @Test
+    void shouldRejectTooManyProvisionedUsersTest() throws Exception {
+        // Given
+        String users = "[" + String.join(",", Collections.nCopies(AppUserController.MAX_PROVISIONED_USERS + 1, "{}")) + "]";
+
+        // When
+        // Then
+        this.mockMvc.perform(post(API_URL + "/users/bulk")
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(users))
+                .andExpect(status().isBadRequest());
+        verify(this.appUserService, never()).provisionUsers(anyList());
+    }
+}
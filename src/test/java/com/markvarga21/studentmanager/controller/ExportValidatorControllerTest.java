@@ -2,6 +2,7 @@ package com.markvarga21.studentmanager.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import com.markvarga21.studentmanager.util.validation.JsonValidator;
 import com.markvarga21.studentmanager.util.validation.XmlValidator;
@@ -9,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -20,6 +22,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ExportValidatorController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class ExportValidatorControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
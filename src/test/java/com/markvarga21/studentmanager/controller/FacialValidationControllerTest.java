@@ -1,5 +1,6 @@
 package com.markvarga21.studentmanager.controller;
 
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.entity.FacialValidationData;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import com.markvarga21.studentmanager.service.validation.face.FacialValidationService;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -27,6 +29,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FacialValidationController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class FacialValidationControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -1,26 +1,39 @@
 package com.markvarga21.studentmanager.controller;
 
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
+import com.markvarga21.studentmanager.dto.LargeObjectCollectionReport;
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.UploadSession;
 import com.markvarga21.studentmanager.entity.StudentImage;
+import com.markvarga21.studentmanager.exception.InvalidSignatureException;
 import com.markvarga21.studentmanager.service.StudentService;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import com.markvarga21.studentmanager.service.faceapi.FaceApiService;
 import com.markvarga21.studentmanager.service.file.FileUploadService;
+import com.markvarga21.studentmanager.service.file.LargeObjectCollector;
+import com.markvarga21.studentmanager.service.file.SignedImageUrlService;
+import com.markvarga21.studentmanager.service.file.UploadSessionService;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
+import com.markvarga21.studentmanager.util.ContentHasher;
 import com.markvarga21.studentmanager.util.StudentImageType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 
 import static com.markvarga21.studentmanager.data.TestingData.PAGE;
 import static com.markvarga21.studentmanager.data.TestingData.SIZE;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,15 +42,21 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FileUploadController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class FileUploadControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -81,6 +100,24 @@ class FileUploadControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    /**
+     * The {@code LargeObjectCollector} for mocking the large object collection.
+     */
+    @MockBean
+    private LargeObjectCollector largeObjectCollector;
+
+    /**
+     * The {@code UploadSessionService} for mocking the resumable uploads.
+     */
+    @MockBean
+    private UploadSessionService uploadSessionService;
+
+    /**
+     * The {@code SignedImageUrlService} for mocking the signed image URLs.
+     */
+    @MockBean
+    private SignedImageUrlService signedImageUrlService;
+
     @WithMockUser(roles = "ADMIN")
     @Test
     void shouldFetchAllImagesTest() throws Exception {
@@ -252,4 +289,175 @@ class FileUploadControllerTest {
         verify(this.faceApiService)
                 .deleteFace(anyString());
     }
-}
\ No newline at end of file
+
+    @WithMockUser(roles = "ADMIN")
+    @Test
+    void shouldReportUnreferencedLargeObjectsTest() throws Exception {
+        // Given
+        LargeObjectCollectionReport report = LargeObjectCollectionReport.builder()
+                .supported(true)
+                .dryRun(true)
+                .orphanObjects(2)
+                .orphanBytes(2048)
+                .completed(true)
+                .build();
+
+        // When
+        when(this.largeObjectCollector.collect(true))
+                .thenReturn(report);
+
+        // Then
+        this.mockMvc.perform(post("/api/v1/files/large-objects/collect").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orphanBytes").value(2048))
+                .andExpect(jsonPath("$.unlinkedObjects").value(0));
+    }
+
+    @WithMockUser(username = "user", roles = "USER")
+    @Test
+    void shouldAppendChunkToUploadTest() throws Exception {
+        // Given
+        String sessionId = "session";
+        byte[] chunk = "passportImage".getBytes();
+        String checksum = ContentHasher.sha256Hex(chunk);
+        UploadSession session = UploadSession.builder()
+                .id(sessionId)
+                .studentId(1L)
+                .imageType(StudentImageType.PASSPORT)
+                .size(chunk.length)
+                .offset(chunk.length)
+                .build();
+
+        // When
+        when(this.uploadSessionService.appendChunk(eq("user"), eq(sessionId), eq(0L), eq(checksum), any()))
+                .thenReturn(session);
+
+        // Then
+        this.mockMvc.perform(put("/api/v1/files/uploads/{sessionId}", sessionId)
+                        .with(csrf())
+                        .header("Upload-Offset", 0)
+                        .header("Upload-Checksum", checksum)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content(chunk))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Upload-Offset", String.valueOf(chunk.length)))
+                .andExpect(jsonPath("$.offset").value(chunk.length));
+    }
+
+    @WithMockUser(roles = "USER")
+    @Test
+    void shouldFetchCombinedImagesAsJsonByDefaultTest() throws Exception {
+        // Given
+        Long studentId = 1L;
+        StudentImage studentImage = StudentImage.builder()
+                .studentId(studentId)
+                .passportImage("passportImage".getBytes())
+                .selfieImage("selfieImage".getBytes())
+                .build();
+
+        // When
+        when(this.fileUploadService.getStudentImageById(studentId))
+                .thenReturn(studentImage);
+
+        // Then
+        this.mockMvc.perform(get("/api/v1/files/combined/{studentId}", studentId))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.studentId").value(studentId));
+    }
+
+    @WithMockUser(roles = "USER")
+    @Test
+    void shouldFetchCombinedImagesAsRawMultipartTest() throws Exception {
+        // Given
+        Long studentId = 1L;
+        StudentImage studentImage = StudentImage.builder()
+                .studentId(studentId)
+                .passportImage("passportImage".getBytes())
+                .selfieImage("selfieImage".getBytes())
+                .build();
+
+        // When
+        when(this.fileUploadService.getStudentImageById(studentId))
+                .thenReturn(studentImage);
+
+        // Then
+        this.mockMvc.perform(get("/api/v1/files/combined/{studentId}", studentId)
+                        .accept(MediaType.MULTIPART_MIXED))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.MULTIPART_MIXED))
+                .andExpect(content().string(containsString("name=\"passport\"")))
+                .andExpect(content().string(containsString("passportImage")))
+                .andExpect(content().string(containsString("selfieImage")));
+    }
+
+    @WithMockUser(roles = "USER")
+    @Test
+    void shouldServeSignedImageCachedPrivatelyUntilExpiryTest() throws Exception {
+        // Given
+        Long studentId = 1L;
+        byte[] image = "passportImage".getBytes();
+        String contentHash = ContentHasher.sha256Hex(image);
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        // When
+        when(this.signedImageUrlService.getSignedImage(studentId, StudentImageType.PASSPORT, contentHash))
+                .thenReturn(image);
+
+        // Then
+        this.mockMvc.perform(get("/api/v1/files/signed/{studentId}/PASSPORT/{contentHash}", studentId, contentHash)
+                        .param("expires", String.valueOf(expires))
+                        .param("signature", "signature"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("private")))
+                .andExpect(header().string("Cache-Control", not(containsString("immutable"))))
+                .andExpect(header().string("ETag", "\"" + contentHash + "\""))
+                .andExpect(content().bytes(image));
+        verify(this.signedImageUrlService)
+                .verifySignature(studentId, StudentImageType.PASSPORT, contentHash, expires, "signature");
+    }
+
+    @WithMockUser(roles = "USER")
+    @Test
+    void shouldRejectRevalidationOfReplacedSignedImageTest() throws Exception {
+        // Given
+        Long studentId = 1L;
+        String contentHash = ContentHasher.sha256Hex("passportImage".getBytes());
+        long expires = Instant.now().getEpochSecond() + 60;
+
+        // When
+        doThrow(new InvalidSignatureException("The image has been replaced since the URL has been signed!"))
+                .when(this.signedImageUrlService)
+                .verifyContent(studentId, StudentImageType.PASSPORT, contentHash);
+
+        // Then
+        this.mockMvc.perform(get("/api/v1/files/signed/{studentId}/PASSPORT/{contentHash}", studentId, contentHash)
+                        .param("expires", String.valueOf(expires))
+                        .param("signature", "signature")
+                        .header("If-None-Match", "\"" + contentHash + "\""))
+                .andExpect(status().isForbidden());
+        verify(this.signedImageUrlService, never())
+                .getSignedImage(any(), any(), any());
+    }
+
+    @WithMockUser(roles = "USER")
+    @Test
+    void shouldCheckSignedImageWithoutLoadingItTest() throws Exception {
+        // Given
+        Long studentId = 1L;
+        String contentHash = ContentHasher.sha256Hex("passportImage".getBytes());
+
+        // When
+        // Then
+        this.mockMvc.perform(head("/api/v1/files/signed/{studentId}/PASSPORT/{contentHash}", studentId, contentHash)
+                        .param("expires", "1700000000")
+                        .param("signature", "signature"))
+                .andExpect(status().isNoContent());
+        verify(this.signedImageUrlService)
+                .verifySignature(studentId, StudentImageType.PASSPORT, contentHash, 1700000000L, "signature");
+        verify(this.signedImageUrlService)
+                .verifyContent(studentId, StudentImageType.PASSPORT, contentHash);
+        verify(this.signedImageUrlService, never())
+                .getSignedImage(any(), any(), any());
+    }
+}
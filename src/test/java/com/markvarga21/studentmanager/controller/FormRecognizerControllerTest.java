@@ -1,5 +1,6 @@
 package com.markvarga21.studentmanager.controller;
 
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.dto.StudentDto;
 import com.markvarga21.studentmanager.entity.Gender;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -21,6 +23,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(FormRecognizerController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class FormRecognizerControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -1,18 +1,22 @@
 package com.markvarga21.studentmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.entity.PassportValidationData;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
+import com.markvarga21.studentmanager.service.validation.event.ValidationEventService;
 import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,9 +29,11 @@ import static org.springframework.security.test.web.servlet.request.SecurityMock
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PassportValidationController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class PassportValidationControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -55,6 +61,13 @@ class PassportValidationControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    /**
+     * The {@code ValidationEventService} for mocking the validation
+     * event service.
+     */
+    @MockBean
+    private ValidationEventService validationEventService;
+
     /**
      * The URL used for testing the API.
      */
@@ -196,4 +209,20 @@ class PassportValidationControllerTest {
                 .andExpect(jsonPath("$.passportDateOfIssue").value("2020-01-01"))
                 .andExpect(jsonPath("$.passportDateOfExpiry").value("2025-01-01"));
     }
+
+    @WithMockUser(username = "user", roles = "USER")
+    @Test
+    void shouldStreamValidationEventsOfCurrentUser() throws Exception {
+        // Given
+        SseEmitter emitter = new SseEmitter();
+
+        // When
+        when(this.validationEventService.subscribe("user"))
+                .thenReturn(emitter);
+
+        // Then
+        this.mockMvc.perform(get(API_URL + "/events"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
 }
\ No newline at end of file
@@ -1,24 +1,33 @@
 package com.markvarga21.studentmanager.controller;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
+import com.markvarga21.studentmanager.dto.ReconciliationReport;
 import com.markvarga21.studentmanager.entity.StudentAppUser;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.service.StudentAccountReconciler;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 
 @WebMvcTest(StudentAppUserController.class)
+@Import(MeterRegistryTestConfiguration.class)
 public class StudentAppUserControllerTest {
         /**
      * The {@code MockMvc} object used for testing the API.
@@ -38,6 +47,12 @@ public class StudentAppUserControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    /**
+     * The reconciler linking the students and the users.
+     */
+    @MockBean
+    private StudentAccountReconciler reconciler;
+
     /**
      * The API URL for the report endpoints.
      */
@@ -61,4 +76,20 @@ public class StudentAppUserControllerTest {
             .andExpect(status().isOk())
             .andExpect(content().string(user.getStudentId().toString()));
     }
+
+    @WithMockUser(roles = "ADMIN")
+    @Test
+    void shouldReconcileStudentsAndUsersTest() throws Exception {
+        // Given
+        ReconciliationReport report = new ReconciliationReport(3, 2, 1, List.of(), 5L);
+
+        // When
+        when(this.reconciler.reconcile())
+            .thenReturn(report);
+
+        // Then
+        this.mockMvc.perform(post(API_URL + "/reconcile").with(csrf()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.linked").value(1));
+    }
 }
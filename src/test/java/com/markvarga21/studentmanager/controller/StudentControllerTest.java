@@ -1,9 +1,12 @@
 package com.markvarga21.studentmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.StudentStatistics;
 import com.markvarga21.studentmanager.entity.Gender;
 import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.StudentStatisticsService;
 import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
 import com.markvarga21.studentmanager.service.file.FileUploadService;
 import com.markvarga21.studentmanager.service.form.FormRecognizerService;
@@ -12,12 +15,14 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Map;
 
 import static com.markvarga21.studentmanager.data.TestingData.PAGE;
 import static com.markvarga21.studentmanager.data.TestingData.SIZE;
@@ -34,6 +39,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(StudentController.class)
+@Import(MeterRegistryTestConfiguration.class)
 class StudentControllerTest {
     /**
      * The {@code MockMvc} object used for testing the API.
@@ -65,6 +71,12 @@ class StudentControllerTest {
     @MockBean
     private FacialValidationService facialValidationService;
 
+    /**
+     * The {@code StudentStatisticsService} for the dashboard counts.
+     */
+    @MockBean
+    private StudentStatisticsService studentStatisticsService;
+
     /**
      * The URL used for testing the API.
      */
@@ -211,4 +223,38 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.passportDateOfIssue").value("2020-01-01"))
                 .andExpect(jsonPath("$.passportDateOfExpiry").value("2025-01-01"));
     }
-}
\ No newline at end of file
+
+    @WithMockUser(roles = "ADMIN")
+    @Test
+    void shouldDeleteStudentsByIds() throws Exception {
+        when(this.studentService.deleteStudentsByIds(List.of(1L, 2L)))
+                .thenReturn(2);
+
+        this.mockMvc.perform(delete(API_URL + "/bulk").param("ids", "1", "2").with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+    }
+
+    @WithMockUser(roles = "ADMIN")
+    @Test
+    void shouldReturnStudentStatistics() throws Exception {
+        StudentStatistics statistics = new StudentStatistics(
+                3,
+                1,
+                2,
+                Map.of("USA", 2L, "Hungary", 1L),
+                Map.of("MALE", 3L),
+                1,
+                90
+        );
+        when(this.studentStatisticsService.getStatistics())
+                .thenReturn(statistics);
+
+        this.mockMvc.perform(get(API_URL + "/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalStudents").value(3))
+                .andExpect(jsonPath("$.invalidStudents").value(2))
+                .andExpect(jsonPath("$.studentsByCountry.USA").value(2))
+                .andExpect(jsonPath("$.expiringPassports").value(1));
+    }
+}
@@ -192,7 +192,7 @@ public final class TestingData {
      * A valid facial validation data used for testing.
      */
     public static final FacialValidationData VALID_FACIAL_VALIDATION_DATA =
-            new FacialValidationData(1L, PASSPORT_NUMBER,true, 0.9);
+            new FacialValidationData(1L, PASSPORT_NUMBER,true, 0.9, null);
 
     /**
      * The first passport validation data used for testing.
@@ -208,7 +208,8 @@ public final class TestingData {
             Gender.MALE,
             "123456789",
             LocalDate.of(2023, 4, 4),
-            LocalDate.of(2022, 3, 3)
+            LocalDate.of(2022, 3, 3),
+            null
     );
 
     /**
@@ -225,7 +226,8 @@ public final class TestingData {
             Gender.MALE,
             "23456789",
             LocalDate.of(2022, 3, 3),
-            LocalDate.of(2023, 4, 4)
+            LocalDate.of(2023, 4, 4),
+            null
     );
 
     /**
@@ -278,7 +280,8 @@ public final class TestingData {
             "123456",
             LocalDate.of(2025, 1, 1),
             LocalDate.of(2020, 1, 1),
-            false
+            false,
+            null
     );
 
 
@@ -296,7 +299,8 @@ public final class TestingData {
             PASSPORT_NUMBER,
             LocalDate.of(2021, 1, 1),
             LocalDate.of(2031, 1, 1),
-            false
+            false,
+            null
     );
 
     /**
@@ -313,7 +317,8 @@ public final class TestingData {
             PASSPORT_NUMBER,
             LocalDate.of(2021, 1, 1),
             LocalDate.of(2031, 1, 1),
-            true
+            true,
+            null
     );
 
     /**
@@ -0,0 +1,166 @@
+package com.markvarga21.studentmanager.emulator;
+
+import com.markvarga21.studentmanager.config.MeterRegistryTestConfiguration;
+import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.net.URI;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AzureEmulatorController.class)
+@Import({EmulatedServiceConditions.class, MeterRegistryTestConfiguration.class})
+@ActiveProfiles(AzureEmulatorController.EMULATOR_PROFILE)
+@TestPropertySource(properties = {
+        "azure.emulator.permits-per-second=0",
+        "azure.emulator.burst-capacity=1",
+        "azure.emulator.detect.median-millis=0",
+        "azure.emulator.verify.median-millis=0",
+        "azure.emulator.analyze.median-millis=0",
+        "azure.emulator.request.median-millis=0"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class AzureEmulatorControllerTest {
+    /**
+     * The {@code MockMvc} object used for testing the API.
+     */
+    @Autowired
+    private MockMvc mockMvc;
+
+    /**
+     * The {@code JwtService} for mocking the JWT service.
+     */
+    @MockBean
+    private JwtService jwtService;
+
+    /**
+     * The URL of the face detection.
+     */
+    static final String DETECT_URL = "/emulator/face/v1.0/detect";
+
+    /**
+     * The URL of the face verification.
+     */
+    static final String VERIFY_URL = "/emulator/face/v1.0/verify";
+
+    /**
+     * The URL starting a passport analysis.
+     */
+    static final String ANALYZE_URL = "/emulator/formrecognizer/documentModels/prebuilt-idDocument:analyze";
+
+    /**
+     * The request of a face verification.
+     */
+    static final String VERIFY_REQUEST = "{\"faceId1\":\"first\",\"faceId2\":\"second\"}";
+
+    @WithMockUser
+    @Test
+    void shouldDetectFacesAsynchronouslyTest() throws Exception {
+        // Given
+        RequestBuilder detection = post(DETECT_URL)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("faceImage".getBytes());
+
+        // When
+        MvcResult result = this.mockMvc.perform(detection)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].faceId").exists());
+    }
+
+    @WithMockUser
+    @Test
+    void shouldThrottleEachOperationSeparatelyTest() throws Exception {
+        // Given
+        RequestBuilder detection = post(DETECT_URL)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .content("faceImage".getBytes());
+        RequestBuilder verification = post(VERIFY_URL)
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(VERIFY_REQUEST);
+        this.mockMvc.perform(asyncDispatch(this.mockMvc.perform(detection).andReturn()))
+                .andExpect(status().isOk());
+
+        // When
+        MvcResult throttled = this.mockMvc.perform(detection).andReturn();
+        MvcResult verified = this.mockMvc.perform(verification).andReturn();
+
+        // Then
+        this.mockMvc.perform(asyncDispatch(throttled))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        this.mockMvc.perform(asyncDispatch(verified))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.isIdentical").exists());
+    }
+
+    @WithMockUser
+    @Test
+    void shouldServeStartedAnalysisFromItsOperationLocationTest() throws Exception {
+        // Given
+        MvcResult started = this.mockMvc.perform(post(ANALYZE_URL)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .content("passportImage".getBytes()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String operationLocation = this.mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getHeader("Operation-Location");
+
+        // When
+        MvcResult polled = this.mockMvc.perform(get(URI.create(operationLocation)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        this.mockMvc.perform(asyncDispatch(polled))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("succeeded"))
+                .andExpect(jsonPath("$.analyzeResult").exists());
+    }
+
+    @WithMockUser
+    @Test
+    void shouldReturnNotFoundForUnknownAnalysisTest() throws Exception {
+        // Given
+        String url = "/emulator/formrecognizer/documentModels/prebuilt-idDocument/analyzeResults/unknown";
+
+        // When
+        MvcResult polled = this.mockMvc.perform(get(url)).andReturn();
+
+        // Then
+        this.mockMvc.perform(asyncDispatch(polled))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("NotFound"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.markvarga21.studentmanager.emulator;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmulatedResponsesTest {
+    /**
+     * The bytes of an emulated image.
+     */
+    private static final byte[] IMAGE = "passport".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The bytes of another emulated image.
+     */
+    private static final byte[] OTHER_IMAGE = "selfie".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void shouldDetectTheSameFaceForTheSameImageTest() {
+        // Given
+        // When
+        List<Map<String, Object>> first = EmulatedResponses.detectFaces(IMAGE);
+        List<Map<String, Object>> second = EmulatedResponses.detectFaces(IMAGE);
+
+        // Then
+        assertEquals(first, second);
+        assertNotEquals(
+                first.get(0).get("faceId"),
+                EmulatedResponses.detectFaces(OTHER_IMAGE).get(0).get("faceId")
+        );
+    }
+
+    @Test
+    void shouldVerifyFacesDeterministicallyTest() {
+        // Given
+        // When
+        Map<String, Object> first = EmulatedResponses.verifyFaces("face1", "face2", 0.5);
+        Map<String, Object> swapped = EmulatedResponses.verifyFaces("face2", "face1", 0.5);
+
+        // Then
+        assertEquals(first, swapped);
+    }
+
+    @Test
+    void shouldVerifySameFaceAsIdenticalTest() {
+        // Given
+        // When
+        Map<String, Object> actual = EmulatedResponses.verifyFaces("face1", "face1", 0.0);
+
+        // Then
+        assertEquals(true, actual.get("isIdentical"));
+    }
+
+    @Test
+    void shouldExtractTheSamePassportFieldsForTheSameImageTest() {
+        // Given
+        // When
+        Map<String, Object> first = getFields(IMAGE);
+        Map<String, Object> second = getFields(IMAGE);
+
+        // Then
+        assertTrue(first.containsKey("DocumentNumber"));
+        assertEquals(first.get("DocumentNumber"), second.get("DocumentNumber"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getFields(final byte[] image) {
+        Map<String, Object> analyzeResult = EmulatedResponses
+                .analyzePassport("prebuilt-idDocument", "2022-08-31", image);
+        List<Map<String, Object>> documents =
+                (List<Map<String, Object>>) analyzeResult.get("documents");
+        return (Map<String, Object>) documents.get(0).get("fields");
+    }
+}
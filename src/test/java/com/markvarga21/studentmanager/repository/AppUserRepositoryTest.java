@@ -0,0 +1,100 @@
+package com.markvarga21.studentmanager.repository;
+
+import com.markvarga21.studentmanager.dto.Role;
+import com.markvarga21.studentmanager.entity.AppUser;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AppUserRepositoryTest {
+    /**
+     * The number of users stored before every test.
+     */
+    static final int USER_COUNT = 30;
+
+    /**
+     * The repository under testing.
+     */
+    @Autowired
+    private AppUserRepository repository;
+
+    /**
+     * The entity manager used for storing the users.
+     */
+    @Autowired
+    private TestEntityManager entityManager;
+
+    /**
+     * The factory whose statistics count the queries.
+     */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USER_COUNT; i++) {
+            this.entityManager.persist(AppUser.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@example.com")
+                    .firstName("John")
+                    .lastName("Doe" + i)
+                    .password("password")
+                    .roles(i == 0 ? Set.of(Role.USER, Role.ADMIN) : Set.of(Role.USER))
+                    .build());
+        }
+        this.entityManager.flush();
+        this.entityManager.clear();
+        this.getStatistics().clear();
+    }
+
+    @Test
+    void shouldLoadPageOfUsersWithRolesInConstantQueriesTest() {
+        // Given
+        PageRequest pageRequest = PageRequest.of(0, 20);
+
+        // When
+        Page<AppUser> users = this.repository.findAllWithRoles(pageRequest);
+        users.forEach(user -> user.getRoles().size());
+
+        // Then
+        assertEquals(20, users.getContent().size());
+        assertEquals(USER_COUNT, users.getTotalElements());
+        assertTrue(users.getContent().stream().allMatch(user -> user.getRoles().contains(Role.USER)));
+        assertEquals(3, this.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldLoadUserWithRolesInSingleQueryTest() {
+        // Given
+        // When
+        Optional<AppUser> user = this.repository.findByUsername("user0");
+
+        // Then
+        assertTrue(user.isPresent());
+        assertEquals(Set.of(Role.USER, Role.ADMIN), user.get().getRoles());
+        assertEquals(1, this.getStatistics().getPrepareStatementCount());
+    }
+
+    private Statistics getStatistics() {
+        return this.entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
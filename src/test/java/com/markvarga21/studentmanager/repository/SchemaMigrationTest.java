@@ -0,0 +1,65 @@
+package com.markvarga21.studentmanager.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+class SchemaMigrationTest {
+    /**
+     * The indexes created for the lookup columns.
+     */
+    static final List<String> LOOKUP_INDEXES = List.of(
+            "idx_facial_validation_data_passport_number",
+            "idx_passport_validation_data_passport_number",
+            "idx_student_app_user_username",
+            "idx_student_app_user_student_id",
+            "idx_student_name",
+            "idx_app_user_name"
+    );
+
+    /**
+     * The migrations applied to the embedded database.
+     */
+    @Autowired
+    private Flyway flyway;
+
+    /**
+     * The template used for inspecting the schema.
+     */
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldApplyEveryMigrationTest() {
+        // Given
+        // When
+        int pendingMigrations = this.flyway.info().pending().length;
+
+        // Then
+        assertEquals(0, pendingMigrations);
+        assertEquals("5", this.flyway.info().current().getVersion().getVersion());
+        assertNull(this.flyway.validateWithResult().errorDetails);
+    }
+
+    @Test
+    void shouldCreateLookupIndexesTest() {
+        // Given
+        // When
+        List<String> indexes = this.jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes",
+                String.class
+        );
+
+        // Then
+        assertTrue(indexes.containsAll(LOOKUP_INDEXES));
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * This package contains the test files for the repositories.
+ */
+package com.markvarga21.studentmanager.repository;
@@ -1,26 +1,39 @@
 package com.markvarga21.studentmanager.service.auth.impl;
 
+import com.markvarga21.studentmanager.dto.ProvisioningResult;
+import com.markvarga21.studentmanager.dto.ProvisioningStatus;
 import com.markvarga21.studentmanager.dto.Role;
+import com.markvarga21.studentmanager.dto.StudentDto;
 import com.markvarga21.studentmanager.entity.AppUser;
+import com.markvarga21.studentmanager.entity.StudentAppUser;
 import com.markvarga21.studentmanager.exception.InvalidUserCredentialsException;
 import com.markvarga21.studentmanager.exception.UserNotFoundException;
 import com.markvarga21.studentmanager.repository.AppUserRepository;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
 import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.auth.AppUserChangedEvent;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 
 import static com.markvarga21.studentmanager.data.TestingData.*;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
@@ -30,7 +43,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -59,6 +75,30 @@ class AppUserServiceImplTest {
     @Mock
     private StudentAppUserRepository studentAppUserRepository;
 
+    /**
+     * The publisher of the user change events.
+     */
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The validator of the provisioned users.
+     */
+    @Mock
+    private Validator validator;
+
+    /**
+     * The encoder hashing the passwords of the provisioned users.
+     */
+    @Spy
+    private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    /**
+     * The executor hashing the passwords of the provisioned users.
+     */
+    @Spy
+    private Executor provisioningExecutor = new SyncTaskExecutor();
+
     @Test
     void shouldGetUserByUsernameIfPresentTest() {
         // Given
@@ -123,7 +163,7 @@ class AppUserServiceImplTest {
         Page<AppUser> appUserPage = new PageImpl<>(expected);
 
         // When
-        when(this.repository.findAll(any(Pageable.class)))
+        when(this.repository.findAllWithRoles(any(Pageable.class)))
                 .thenReturn(appUserPage);
         List<AppUser> actual = this.service
                 .getAllUsers(PAGE, SIZE).getContent();
@@ -255,6 +295,7 @@ class AppUserServiceImplTest {
 
         // Then
         assertFalse(USER.getRoles().contains(Role.ADMIN));
+        verify(this.eventPublisher).publishEvent(any(AppUserChangedEvent.class));
     }
 
     @Test
@@ -273,4 +314,100 @@ class AppUserServiceImplTest {
                 () -> this.service.revokeRoles(username, roles)
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldProvisionOnlyNewAndUniqueUsersTest() {
+        // Given
+        AppUser newUser = provisionedUser("new");
+        AppUser existingUser = provisionedUser("existing");
+        AppUser duplicateUser = provisionedUser("new");
+        AppUser userWithRoles = provisionedUser("admin");
+        userWithRoles.setRoles(Set.of(Role.ADMIN));
+
+        // When
+        when(this.validator.validate(any(AppUser.class)))
+                .thenReturn(Set.of());
+        when(this.repository.findExistingUsernames(anyCollection()))
+                .thenReturn(Set.of("existing"));
+        List<ProvisioningResult> results = this.service.provisionUsers(
+                List.of(newUser, existingUser, duplicateUser, userWithRoles)
+        );
+
+        // Then
+        assertEquals(ProvisioningStatus.CREATED, results.get(0).getStatus());
+        assertEquals(ProvisioningStatus.ALREADY_EXISTS, results.get(1).getStatus());
+        assertEquals(ProvisioningStatus.DUPLICATE, results.get(2).getStatus());
+        assertEquals(ProvisioningStatus.INVALID, results.get(3).getStatus());
+        assertTrue(newUser.getPassword().startsWith("$2a$"));
+        assertEquals(Set.of(Role.USER), newUser.getRoles());
+        verify(this.repository).saveAll(List.of(newUser));
+        verify(this.eventPublisher).publishEvent(any(AppUserChangedEvent.class));
+    }
+
+    @Test
+    void shouldMarkUsersCreatedConcurrentlyAsExistingTest() {
+        // Given
+        AppUser newUser = provisionedUser("new");
+        AppUser concurrentUser = provisionedUser("concurrent");
+
+        // When
+        when(this.validator.validate(any(AppUser.class)))
+                .thenReturn(Set.of());
+        when(this.repository.findExistingUsernames(anyCollection()))
+                .thenReturn(Set.of());
+        when(this.repository.saveAll(List.of(newUser, concurrentUser)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate username"));
+        when(this.repository.save(newUser))
+                .thenReturn(newUser);
+        when(this.repository.save(concurrentUser))
+                .thenThrow(new DataIntegrityViolationException("Duplicate username"));
+        List<ProvisioningResult> results = this.service.provisionUsers(
+                List.of(newUser, concurrentUser)
+        );
+
+        // Then
+        assertEquals(ProvisioningStatus.CREATED, results.get(0).getStatus());
+        assertEquals(ProvisioningStatus.ALREADY_EXISTS, results.get(1).getStatus());
+        verify(this.eventPublisher, times(1)).publishEvent(any(AppUserChangedEvent.class));
+    }
+
+    @Test
+    void shouldLinkProvisionedUserToStudentWithSameNameTest() {
+        // Given
+        AppUser newUser = provisionedUser("new");
+        StudentDto student = StudentDto.builder()
+                .id(1L)
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+        ArgumentCaptor<StudentAppUser> linkCaptor = ArgumentCaptor.forClass(StudentAppUser.class);
+
+        // When
+        when(this.validator.validate(any(AppUser.class)))
+                .thenReturn(Set.of());
+        when(this.repository.findExistingUsernames(anyCollection()))
+                .thenReturn(Set.of());
+        when(this.studentAppUserRepository.findByUsername("new"))
+                .thenReturn(Optional.empty());
+        when(this.studentService.getStudentByFirstAndLastName("John", "Doe"))
+                .thenReturn(Optional.of(student));
+        List<ProvisioningResult> results = this.service.provisionUsers(List.of(newUser));
+
+        // Then
+        assertEquals(ProvisioningStatus.CREATED, results.get(0).getStatus());
+        verify(this.studentAppUserRepository).save(linkCaptor.capture());
+        assertEquals("new", linkCaptor.getValue().getUsername());
+        assertEquals(1L, linkCaptor.getValue().getStudentId());
+        verify(this.passwordEncoder).encode("password");
+    }
+
+    private static AppUser provisionedUser(final String username) {
+        return AppUser.builder()
+                .username(username)
+                .email(username + "@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .password("password")
+                .build();
+    }
+}
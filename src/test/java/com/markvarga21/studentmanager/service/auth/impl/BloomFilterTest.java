@@ -0,0 +1,59 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+    /**
+     * The number of elements used for testing.
+     */
+    private static final int ELEMENT_COUNT = 10_000;
+
+    /**
+     * The false positive probability used for testing.
+     */
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Test
+    void shouldContainEveryAddedElementTest() {
+        // Given
+        BloomFilter filter = new BloomFilter(ELEMENT_COUNT, FALSE_POSITIVE_PROBABILITY);
+        String[] elements = new String[ELEMENT_COUNT];
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            elements[i] = UUID.randomUUID().toString();
+        }
+
+        // When
+        for (String element : elements) {
+            filter.add(element);
+        }
+
+        // Then
+        for (String element : elements) {
+            assertTrue(filter.mightContain(element));
+        }
+    }
+
+    @Test
+    void shouldKeepFalsePositivesNearTheConfiguredProbabilityTest() {
+        // Given
+        BloomFilter filter = new BloomFilter(ELEMENT_COUNT, FALSE_POSITIVE_PROBABILITY);
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < ELEMENT_COUNT * FALSE_POSITIVE_PROBABILITY * 3);
+    }
+}
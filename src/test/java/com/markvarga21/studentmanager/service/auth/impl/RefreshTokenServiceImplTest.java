@@ -0,0 +1,136 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import com.markvarga21.studentmanager.dto.TokenPair;
+import com.markvarga21.studentmanager.entity.RefreshToken;
+import com.markvarga21.studentmanager.exception.InvalidUserCredentialsException;
+import com.markvarga21.studentmanager.repository.RefreshTokenRepository;
+import com.markvarga21.studentmanager.service.auth.webtoken.JwtService;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+    /**
+     * The refresh token service under testing.
+     */
+    @InjectMocks
+    private RefreshTokenServiceImpl service;
+
+    /**
+     * The repository of the refresh tokens.
+     */
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    /**
+     * The service for managing JWT tokens.
+     */
+    @Mock
+    private JwtService jwtService;
+
+    /**
+     * The service for loading the users.
+     */
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    /**
+     * The refresh token used for testing.
+     */
+    private static final String TOKEN = "refresh-token";
+
+    @Test
+    void shouldRotateUnusedRefreshTokenTest() {
+        // Given
+        ReflectionTestUtils.setField(this.service, "refreshTokenExpirationDays", 14L);
+        RefreshToken storedToken = storedToken(false);
+        UserDetails userDetails = User.builder()
+                .username("john12")
+                .password("password")
+                .roles("USER")
+                .build();
+
+        // When
+        when(this.refreshTokenRepository.findByTokenHash(hash(TOKEN)))
+                .thenReturn(Optional.of(storedToken));
+        when(this.refreshTokenRepository.markUsed(storedToken.getId()))
+                .thenReturn(1);
+        when(this.userDetailsService.loadUserByUsername("john12"))
+                .thenReturn(userDetails);
+        when(this.jwtService.generateJwtToken(userDetails))
+                .thenReturn("access-token");
+        TokenPair tokens = this.service.refresh(TOKEN);
+
+        // Then
+        assertEquals("access-token", tokens.getAccessToken());
+        assertNotEquals(TOKEN, tokens.getRefreshToken());
+        verify(this.refreshTokenRepository).save(any(RefreshToken.class));
+        verify(this.refreshTokenRepository, never()).deleteFamily(any());
+    }
+
+    @Test
+    void shouldRevokeFamilyUponReuseOfRotatedTokenTest() {
+        // Given
+        RefreshToken storedToken = storedToken(true);
+
+        // When
+        when(this.refreshTokenRepository.findByTokenHash(hash(TOKEN)))
+                .thenReturn(Optional.of(storedToken));
+
+        // Then
+        assertThrows(
+                InvalidUserCredentialsException.class,
+                () -> this.service.refresh(TOKEN)
+        );
+        verify(this.refreshTokenRepository).deleteFamily(storedToken.getFamilyId());
+    }
+
+    @Test
+    void shouldRejectUnknownRefreshTokenTest() {
+        // Given
+        // When
+        when(this.refreshTokenRepository.findByTokenHash(hash(TOKEN)))
+                .thenReturn(Optional.empty());
+
+        // Then
+        assertThrows(
+                InvalidUserCredentialsException.class,
+                () -> this.service.refresh(TOKEN)
+        );
+    }
+
+    private static RefreshToken storedToken(final boolean used) {
+        return RefreshToken.builder()
+                .id(1L)
+                .tokenHash(hash(TOKEN))
+                .username("john12")
+                .familyId("family")
+                .expiresAt(LocalDateTime.now().plusDays(1))
+                .used(used)
+                .build();
+    }
+
+    private static String hash(final String token) {
+        return ContentHasher.sha256Hex(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
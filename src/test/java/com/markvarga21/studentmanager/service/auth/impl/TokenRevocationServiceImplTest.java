@@ -0,0 +1,191 @@
+package com.markvarga21.studentmanager.service.auth.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceImplTest {
+    /**
+     * The revocation service under testing.
+     */
+    @InjectMocks
+    private TokenRevocationServiceImpl service;
+
+    /**
+     * The template used for accessing Redis.
+     */
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The container delivering the messages of the channel.
+     */
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * The value operations of the template.
+     */
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    /**
+     * The cursor of the scanned revoked tokens.
+     */
+    @Mock
+    private Cursor<String> cursor;
+
+    /**
+     * The name of the channel announcing the revoked tokens.
+     */
+    private static final byte[] CHANNEL = TokenRevocationServiceImpl.CHANNEL.getBytes(StandardCharsets.UTF_8);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(this.service, "expectedRevokedTokens", 1000L);
+        ReflectionTestUtils.setField(this.service, "falsePositiveProbability", 0.001);
+        this.service.init();
+    }
+
+    @Test
+    void shouldNotQueryRedisForTokensNeverRevokedTest() {
+        // Given
+        String tokenId = "never-revoked";
+        this.loadEmptyFilter();
+
+        // When
+        boolean revoked = this.service.isRevoked(tokenId);
+
+        // Then
+        assertFalse(revoked);
+        verify(this.redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void shouldStoreRevokedTokenUntilItExpiresTest() {
+        // Given
+        String tokenId = "revoked";
+        when(this.redisTemplate.opsForValue()).thenReturn(this.valueOperations);
+        when(this.redisTemplate.hasKey(TokenRevocationServiceImpl.KEY_PREFIX + tokenId))
+                .thenReturn(true);
+
+        // When
+        this.service.revoke(tokenId, Instant.now().plusSeconds(60));
+        boolean revoked = this.service.isRevoked(tokenId);
+
+        // Then
+        assertTrue(revoked);
+        verify(this.valueOperations).set(
+                eq(TokenRevocationServiceImpl.KEY_PREFIX + tokenId),
+                anyString(),
+                any(Duration.class)
+        );
+        verify(this.redisTemplate).convertAndSend(TokenRevocationServiceImpl.CHANNEL, tokenId);
+    }
+
+    @Test
+    void shouldIgnoreAlreadyExpiredTokensTest() {
+        // Given
+        String tokenId = "expired";
+        this.loadEmptyFilter();
+
+        // When
+        this.service.revoke(tokenId, Instant.now().minusSeconds(1));
+
+        // Then
+        assertFalse(this.service.isRevoked(tokenId));
+        verify(this.redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void shouldLookUpTokensInRedisUntilFilterIsLoadedTest() {
+        // Given
+        String tokenId = "revoked-on-other-node";
+        when(this.redisTemplate.hasKey(TokenRevocationServiceImpl.KEY_PREFIX + tokenId))
+                .thenReturn(true);
+
+        // When
+        boolean revoked = this.service.isRevoked(tokenId);
+
+        // Then
+        assertTrue(revoked);
+    }
+
+    @Test
+    void shouldRejectTokensIfRedisIsDownBeforeFilterIsLoadedTest() {
+        // Given
+        String tokenId = "unknown";
+        when(this.redisTemplate.scan(any(ScanOptions.class)))
+                .thenThrow(new RedisConnectionFailureException("Redis is down"));
+        when(this.redisTemplate.hasKey(TokenRevocationServiceImpl.KEY_PREFIX + tokenId))
+                .thenThrow(new RedisConnectionFailureException("Redis is down"));
+        this.service.loadRevokedTokens();
+
+        // When
+        boolean revoked = this.service.isRevoked(tokenId);
+
+        // Then
+        assertTrue(revoked);
+    }
+
+    @Test
+    void shouldLookUpTokensInRedisWhileChannelIsLostTest() {
+        // Given
+        String tokenId = "revoked-while-disconnected";
+        this.loadEmptyFilter();
+        when(this.redisTemplate.hasKey(TokenRevocationServiceImpl.KEY_PREFIX + tokenId))
+                .thenReturn(true);
+
+        // When
+        this.service.onChannelUnsubscribed(CHANNEL, 0);
+        boolean revoked = this.service.isRevoked(tokenId);
+
+        // Then
+        assertTrue(revoked);
+    }
+
+    @Test
+    void shouldRebuildFilterWhenChannelIsSubscribedAgainTest() {
+        // Given
+        when(this.redisTemplate.scan(any(ScanOptions.class)))
+                .thenReturn(this.cursor);
+        this.service.onChannelUnsubscribed(CHANNEL, 0);
+
+        // When
+        this.service.onChannelSubscribed(CHANNEL, 1);
+
+        // Then
+        verify(this.cursor, timeout(1000)).close();
+    }
+
+    private void loadEmptyFilter() {
+        when(this.redisTemplate.scan(any(ScanOptions.class)))
+                .thenReturn(this.cursor);
+        this.service.loadRevokedTokens();
+    }
+}
@@ -0,0 +1,159 @@
+package com.markvarga21.studentmanager.service.auth.webtoken;
+
+import com.markvarga21.studentmanager.service.auth.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+
+import java.lang.reflect.Constructor;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of authenticating a request with the same bearer
+ * token: the original way of decoding the key and building a parser for
+ * both the username and the expiration check, a reused parser without
+ * the cache, and the cache of verified tokens.
+ * Run it through its {@code main} method on the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+    /**
+     * A Base64 encoded 512 bit secret used for signing.
+     */
+    private static final String SECRET = Base64.getEncoder()
+            .encodeToString(new byte[64]);
+
+    /**
+     * A revocation store without any revoked tokens.
+     */
+    private static final TokenRevocationService NEVER_REVOKED = new TokenRevocationService() {
+        @Override
+        public void revoke(final String tokenId, final Instant expiresAt) {
+        }
+
+        @Override
+        public boolean isRevoked(final String tokenId) {
+            return false;
+        }
+    };
+
+    /**
+     * The service with the cache of verified tokens.
+     */
+    private JwtService cachedService;
+
+    /**
+     * The service with a reused parser but without caching.
+     */
+    private JwtService uncachedService;
+
+    /**
+     * The token sent with every request.
+     */
+    private String token;
+
+    /**
+     * Creates the services and the token.
+     *
+     * @throws ReflectiveOperationException If the service cannot be created.
+     */
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        this.cachedService = createService(10000);
+        this.uncachedService = createService(0);
+        this.token = this.cachedService.generateJwtToken(User.builder()
+                .username("john12")
+                .password("password")
+                .roles("USER")
+                .build());
+    }
+
+    /**
+     * The original flow: the key is decoded and a parser is built
+     * for both the username and the expiration check.
+     *
+     * @param blackhole The sink of the results.
+     */
+    @Benchmark
+    public void originalParsing(final Blackhole blackhole) {
+        for (int i = 0; i < 2; i++) {
+            Claims claims = Jwts.parser()
+                    .verifyWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                    .build()
+                    .parseSignedClaims(this.token)
+                    .getPayload();
+            blackhole.consume(claims);
+        }
+    }
+
+    /**
+     * The flow with a reused key and parser, verifying every time.
+     *
+     * @param blackhole The sink of the results.
+     */
+    @Benchmark
+    public void reusedParser(final Blackhole blackhole) {
+        blackhole.consume(this.uncachedService.getUsername(this.token));
+        blackhole.consume(this.uncachedService.isValidToken(this.token));
+    }
+
+    /**
+     * The flow with the cache of verified tokens.
+     *
+     * @param blackhole The sink of the results.
+     */
+    @Benchmark
+    public void cachedVerification(final Blackhole blackhole) {
+        blackhole.consume(this.cachedService.getUsername(this.token));
+        blackhole.consume(this.cachedService.isValidToken(this.token));
+    }
+
+    private static JwtService createService(final int cacheSize)
+            throws ReflectiveOperationException {
+        Constructor<JwtService> constructor = JwtService.class
+                .getDeclaredConstructor(TokenRevocationService.class);
+        constructor.setAccessible(true);
+        JwtService service = constructor.newInstance(NEVER_REVOKED);
+        service.setSecretKey(SECRET);
+        service.setExpirationTimeInMinutes(120L);
+        service.setJwtTokenIssuer("com.markvarga21.studentmanager");
+        service.setJwtTokenAudience("com.markvarga21.studentmanagerfrontend");
+        service.setVerifiedTokenCacheSize(cacheSize);
+        service.init();
+        return service;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args The command line arguments.
+     * @throws RunnerException If the benchmark fails.
+     */
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
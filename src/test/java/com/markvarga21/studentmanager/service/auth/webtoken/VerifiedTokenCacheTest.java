@@ -0,0 +1,80 @@
+package com.markvarga21.studentmanager.service.auth.webtoken;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedTokenCacheTest {
+    /**
+     * The expiration of the tokens used for testing.
+     */
+    private static final long EXPIRATION_MILLIS = 1_000_000L;
+
+    @Test
+    void shouldReturnClaimsBeforeExpirationTest() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Claims claims = claimsExpiringAt(EXPIRATION_MILLIS);
+
+        // When
+        cache.put("digest", claims);
+        Claims cachedClaims = cache.get("digest", EXPIRATION_MILLIS - 1);
+
+        // Then
+        assertEquals(claims, cachedClaims);
+    }
+
+    @Test
+    void shouldDropClaimsOnceExpiredTest() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("digest", claimsExpiringAt(EXPIRATION_MILLIS));
+
+        // When
+        Claims cachedClaims = cache.get("digest", EXPIRATION_MILLIS);
+
+        // Then
+        assertNull(cachedClaims);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void shouldKeepOnlyTheMostRecentlyUsedTokensTest() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+
+        // When
+        cache.put("first", claimsExpiringAt(EXPIRATION_MILLIS));
+        cache.put("second", claimsExpiringAt(EXPIRATION_MILLIS));
+        cache.get("first", 0);
+        cache.put("third", claimsExpiringAt(EXPIRATION_MILLIS));
+
+        // Then
+        assertEquals(2, cache.size());
+        assertNull(cache.get("second", 0));
+    }
+
+    @Test
+    void shouldNotCacheWhenDisabledTest() {
+        // Given
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+        // When
+        cache.put("digest", claimsExpiringAt(EXPIRATION_MILLIS));
+
+        // Then
+        assertEquals(0, cache.size());
+    }
+
+    private static Claims claimsExpiringAt(final long expirationMillis) {
+        return Jwts.claims()
+                .subject("john12")
+                .expiration(new Date(expirationMillis))
+                .build();
+    }
+}
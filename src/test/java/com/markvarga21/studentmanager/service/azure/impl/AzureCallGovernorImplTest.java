@@ -0,0 +1,260 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.markvarga21.studentmanager.exception.AzureServiceUnavailableException;
+import com.markvarga21.studentmanager.service.azure.AzureCallPriority;
+import com.markvarga21.studentmanager.service.azure.AzureService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AzureCallGovernorImplTest {
+    /**
+     * The time waited for a queued call in milliseconds.
+     */
+    static final long QUEUE_TIMEOUT_MILLIS = 5_000L;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The governor under test.
+     */
+    private AzureCallGovernorImpl governor;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.governor = new AzureCallGovernorImpl(this.meterRegistry);
+        this.governor.setFacePermitsPerSecond(1);
+        this.governor.setFaceBurstCapacity(1);
+        this.governor.setFormPermitsPerSecond(1);
+        this.governor.setFormBurstCapacity(1);
+        this.governor.setMaxWaitMillis(10);
+        this.governor.setFailureThreshold(2);
+        this.governor.setOpenDurationSeconds(60);
+        this.governor.init();
+    }
+
+    @Test
+    void shouldExecuteCallWithinQuotaTest() {
+        // Given
+        // When
+        String actual = this.governor.execute(
+                AzureService.FACE,
+                AzureCallPriority.ADMIN,
+                () -> "faceId"
+        );
+
+        // Then
+        assertEquals("faceId", actual);
+    }
+
+    @Test
+    void shouldRejectCallIfQuotaIsExhaustedTest() {
+        // Given
+        this.governor.execute(AzureService.FACE, AzureCallPriority.USER, () -> "faceId");
+
+        // When
+        // Then
+        assertThrows(
+                AzureServiceUnavailableException.class,
+                () -> this.governor.execute(AzureService.FACE, AzureCallPriority.USER, () -> "faceId")
+        );
+        assertEquals(
+                1.0,
+                this.meterRegistry.get("azure.governor.rejections")
+                        .tag("reason", "queue_timeout")
+                        .counter()
+                        .count()
+        );
+    }
+
+    @Test
+    void shouldNotShareQuotaBetweenServicesTest() {
+        // Given
+        this.governor.execute(AzureService.FACE, AzureCallPriority.USER, () -> "faceId");
+
+        // When
+        String actual = this.governor.execute(
+                AzureService.FORM_RECOGNIZER,
+                AzureCallPriority.USER,
+                () -> "document"
+        );
+
+        // Then
+        assertEquals("document", actual);
+    }
+
+    @Test
+    void shouldOpenCircuitAfterConsecutiveFailuresTest() {
+        // Given
+        this.governor.setFacePermitsPerSecond(1000);
+        this.governor.setFaceBurstCapacity(10);
+        this.governor.init();
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        for (int i = 0; i < 2; i++) {
+            assertThrows(
+                    AzureServiceUnavailableException.class,
+                    () -> this.governor.execute(
+                            AzureService.FACE,
+                            AzureCallPriority.ADMIN,
+                            () -> {
+                                calls.incrementAndGet();
+                                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                            }
+                    )
+            );
+        }
+
+        // Then
+        assertThrows(
+                AzureServiceUnavailableException.class,
+                () -> this.governor.execute(
+                        AzureService.FACE,
+                        AzureCallPriority.ADMIN,
+                        () -> calls.incrementAndGet()
+                )
+        );
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void shouldPropagateClientErrorsUnchangedTest() {
+        // Given
+        // When
+        // Then
+        assertThrows(
+                HttpClientErrorException.class,
+                () -> this.governor.execute(
+                        AzureService.FACE,
+                        AzureCallPriority.ADMIN,
+                        () -> {
+                            throw new HttpClientErrorException(HttpStatus.BAD_REQUEST);
+                        }
+                )
+        );
+    }
+
+    @Test
+    void shouldLetNextCallThroughAfterTrialCallFailedWithErrorTest() {
+        // Given
+        this.governor.setFacePermitsPerSecond(1000);
+        this.governor.setFaceBurstCapacity(10);
+        this.governor.setOpenDurationSeconds(0);
+        this.governor.init();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(
+                    AzureServiceUnavailableException.class,
+                    () -> this.governor.execute(
+                            AzureService.FACE,
+                            AzureCallPriority.ADMIN,
+                            () -> {
+                                throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+                            }
+                    )
+            );
+        }
+        assertThrows(
+                StackOverflowError.class,
+                () -> this.governor.execute(
+                        AzureService.FACE,
+                        AzureCallPriority.ADMIN,
+                        () -> {
+                            throw new StackOverflowError();
+                        }
+                )
+        );
+
+        // When
+        String actual = this.governor.execute(
+                AzureService.FACE,
+                AzureCallPriority.ADMIN,
+                () -> "faceId"
+        );
+
+        // Then
+        assertEquals("faceId", actual);
+    }
+
+    @Test
+    void shouldGrantQueuedHighPriorityCallBeforeQueuedLowPriorityCallTest() throws InterruptedException {
+        // Given
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.governor = new AzureCallGovernorImpl(this.meterRegistry);
+        this.governor.setFacePermitsPerSecond(2);
+        this.governor.setFaceBurstCapacity(1);
+        this.governor.setFormPermitsPerSecond(1);
+        this.governor.setFormBurstCapacity(1);
+        this.governor.setMaxWaitMillis(QUEUE_TIMEOUT_MILLIS);
+        this.governor.setFailureThreshold(2);
+        this.governor.setOpenDurationSeconds(60);
+        this.governor.init();
+        this.governor.execute(AzureService.FACE, AzureCallPriority.USER, () -> "faceId");
+        Queue<AzureCallPriority> granted = new ConcurrentLinkedQueue<>();
+        Thread low = this.startCall(AzureCallPriority.BACKGROUND, granted);
+        this.awaitQueued(AzureCallPriority.BACKGROUND);
+
+        // When
+        Thread high = this.startCall(AzureCallPriority.ADMIN, granted);
+        this.awaitQueued(AzureCallPriority.ADMIN);
+        low.join(QUEUE_TIMEOUT_MILLIS);
+        high.join(QUEUE_TIMEOUT_MILLIS);
+
+        // Then
+        assertEquals(List.of(AzureCallPriority.ADMIN, AzureCallPriority.BACKGROUND), List.copyOf(granted));
+    }
+
+    /**
+     * Starts a call on a new thread, recording the priority
+     * of the call once it has been granted a token.
+     *
+     * @param priority The priority lane of the call.
+     * @param granted The priorities of the granted calls.
+     * @return The thread making the call.
+     */
+    private Thread startCall(
+            final AzureCallPriority priority,
+            final Queue<AzureCallPriority> granted
+    ) {
+        Thread thread = new Thread(() -> this.governor.execute(
+                AzureService.FACE,
+                priority,
+                () -> granted.add(priority)
+        ));
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits until a call is queued in the given priority lane.
+     *
+     * @param priority The priority lane.
+     * @throws InterruptedException If the waiting thread has been interrupted.
+     */
+    private void awaitQueued(final AzureCallPriority priority) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + QUEUE_TIMEOUT_MILLIS;
+        while (this.meterRegistry.get("azure.governor.queue.size")
+                .tag("service", AzureService.FACE.name())
+                .tag("priority", priority.name())
+                .gauge()
+                .value() < 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import com.markvarga21.studentmanager.service.azure.AzureImageVariant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AzureImagePreprocessorImplTest {
+    /**
+     * The maximum dimension of the prepared images in the tests.
+     */
+    private static final int MAX_DIMENSION = 200;
+
+    /**
+     * The width of the generated image in pixels.
+     */
+    private static final int IMAGE_WIDTH = 800;
+
+    /**
+     * The height of the generated image in pixels.
+     */
+    private static final int IMAGE_HEIGHT = 600;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The preprocessor under test.
+     */
+    private AzureImagePreprocessorImpl preprocessor;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.preprocessor = new AzureImagePreprocessorImpl(this.meterRegistry);
+        this.preprocessor.setEnabled(true);
+        this.preprocessor.setFaceMaxDimension(MAX_DIMENSION);
+        this.preprocessor.setDocumentMaxDimension(MAX_DIMENSION);
+        this.preprocessor.setJpegQuality(0.85);
+        this.preprocessor.setCacheMaxBytes(1_048_576);
+        this.preprocessor.init();
+    }
+
+    @Test
+    void shouldPrepareGrayscaleDocumentOnceTest() throws IOException {
+        // Given
+        byte[] image = noisePng();
+
+        // When
+        byte[] prepared = this.preprocessor.prepare(image, AzureImageVariant.DOCUMENT_ANALYSIS);
+        byte[] preparedAgain = this.preprocessor.prepare(image, AzureImageVariant.DOCUMENT_ANALYSIS);
+
+        // Then
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(prepared));
+        assertEquals(MAX_DIMENSION, decoded.getWidth());
+        assertEquals(1, decoded.getRaster().getNumBands());
+        assertTrue(prepared.length < image.length);
+        assertSame(prepared, preparedAgain);
+        assertEquals(1, this.meterRegistry.get(AzureImagePreprocessorImpl.LATENCY_METRIC)
+                .tag("cache", "miss")
+                .timer()
+                .count());
+        assertEquals(1, this.meterRegistry.get(AzureImagePreprocessorImpl.LATENCY_METRIC)
+                .tag("cache", "hit")
+                .timer()
+                .count());
+        assertEquals(
+                2.0 * (image.length - prepared.length),
+                this.meterRegistry.get(AzureImagePreprocessorImpl.SAVED_BYTES_METRIC)
+                        .summary()
+                        .totalAmount()
+        );
+    }
+
+    @Test
+    void shouldSendUnsupportedContentUnchangedTest() {
+        // Given
+        byte[] content = "selfieImage".getBytes();
+
+        // When
+        byte[] prepared = this.preprocessor.prepare(content, AzureImageVariant.FACE_DETECTION);
+
+        // Then
+        assertSame(content, prepared);
+    }
+
+    private static byte[] noisePng() throws IOException {
+        BufferedImage image = new BufferedImage(IMAGE_WIDTH, IMAGE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(IMAGE_WIDTH);
+        for (int x = 0; x < IMAGE_WIDTH; x++) {
+            for (int y = 0; y < IMAGE_HEIGHT; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
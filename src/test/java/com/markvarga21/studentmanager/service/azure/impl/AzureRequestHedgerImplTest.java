@@ -0,0 +1,233 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AzureRequestHedgerImplTest {
+    /**
+     * The name of the operation used in the tests.
+     */
+    private static final String OPERATION = "face.detect";
+
+    /**
+     * The number of calls warming up the latency window.
+     */
+    private static final int WARM_UP_CALLS = 5;
+
+    /**
+     * The latency of a slow attempt in milliseconds.
+     */
+    private static final long SLOW_ATTEMPT_MILLIS = 2_000;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The hedger under test.
+     */
+    private AzureRequestHedgerImpl hedger;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.hedger = new AzureRequestHedgerImpl(this.meterRegistry);
+        this.hedger.setEnabled(true);
+        this.hedger.setPercentile(95);
+        this.hedger.setBudgetPercent(100);
+        this.hedger.setBudgetBurst(WARM_UP_CALLS);
+        this.hedger.setMinDelayMillis(20);
+        this.hedger.setWindowSize(16);
+        this.hedger.setMinSamples(WARM_UP_CALLS);
+        this.hedger.setPoolSize(4);
+        this.hedger.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.hedger.shutdown();
+    }
+
+    @Test
+    void shouldReturnResultOfFastCallWithoutHedgingTest() {
+        // Given
+        // When
+        String actual = this.hedger.executeHedged(OPERATION, () -> "faceId");
+
+        // Then
+        assertEquals("faceId", actual);
+        assertNull(this.meterRegistry.find("azure.hedging.hedges").counter());
+    }
+
+    @Test
+    void shouldReturnHedgedResultIfFirstAttemptIsSlowTest() {
+        // Given
+        this.warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String actual = this.hedger.executeHedged(OPERATION, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(SLOW_ATTEMPT_MILLIS);
+                return "slow";
+            }
+            return "hedged";
+        });
+
+        // Then
+        assertEquals("hedged", actual);
+        assertEquals(
+                1.0,
+                this.meterRegistry.get("azure.hedging.wins").counter().count()
+        );
+    }
+
+    @Test
+    void shouldNotHedgeIfBudgetIsExhaustedTest() {
+        // Given
+        this.hedger.setBudgetPercent(0);
+        this.warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String actual = this.hedger.executeHedged(OPERATION, () -> {
+            attempts.incrementAndGet();
+            sleep(SLOW_ATTEMPT_MILLIS / 20);
+            return "slow";
+        });
+
+        // Then
+        assertEquals("slow", actual);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void shouldNotBankBudgetBeyondBurstTest() {
+        // Given
+        this.hedger.setBudgetPercent(50);
+        this.hedger.setBudgetBurst(1);
+        this.warmUp();
+
+        // When
+        String first = this.hedger.executeHedged(OPERATION, slowFirstAttempt());
+        String second = this.hedger.executeHedged(OPERATION, slowFirstAttempt());
+
+        // Then
+        assertEquals("hedged", first);
+        assertEquals("slow", second);
+        assertEquals(
+                1.0,
+                this.meterRegistry.get("azure.hedging.budget.exhausted").counter().count()
+        );
+    }
+
+    @Test
+    void shouldPropagateFailureOfTheCallTest() {
+        // Given
+        // When
+        // Then
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> this.hedger.executeHedged(OPERATION, () -> {
+                    throw new IllegalArgumentException("Invalid image!");
+                })
+        );
+    }
+
+    @Test
+    void shouldNotHedgeWhileWaitingForPermitTest() {
+        // Given
+        this.warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String actual = this.hedger.executeHedged(OPERATION, started -> {
+            attempts.incrementAndGet();
+            sleep(SLOW_ATTEMPT_MILLIS / 20);
+            started.run();
+            return "granted";
+        });
+
+        // Then
+        assertEquals("granted", actual);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void shouldCancelLosingAttemptTest() throws InterruptedException {
+        // Given
+        this.warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        // When
+        String actual = this.hedger.executeHedged(OPERATION, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(SLOW_ATTEMPT_MILLIS);
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                }
+                return "slow";
+            }
+            return "hedged";
+        });
+
+        // Then
+        assertEquals("hedged", actual);
+        assertTrue(cancelled.await(SLOW_ATTEMPT_MILLIS / 2, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldPropagateErrorOfTheCallTest() {
+        // Given
+        // When
+        // Then
+        assertTimeoutPreemptively(Duration.ofMillis(SLOW_ATTEMPT_MILLIS), () -> assertThrows(
+                LinkageError.class,
+                () -> this.hedger.executeHedged(OPERATION, () -> {
+                    throw new LinkageError("Broken client!");
+                })
+        ));
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            this.hedger.executeHedged(OPERATION, () -> "warm-up");
+        }
+    }
+
+    private static Supplier<String> slowFirstAttempt() {
+        AtomicInteger attempts = new AtomicInteger();
+        return () -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(SLOW_ATTEMPT_MILLIS / 20);
+                return "slow";
+            }
+            return "hedged";
+        };
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
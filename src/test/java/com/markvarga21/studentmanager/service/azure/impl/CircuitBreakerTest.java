@@ -0,0 +1,64 @@
+package com.markvarga21.studentmanager.service.azure.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    /**
+     * The time the breaker stays open, long enough not to elapse during the tests.
+     */
+    static final long LONG_OPEN_DURATION_NANOS = 60_000_000_000L;
+
+    @Test
+    void shouldNotFreeTrialWhenCallStartedWhileClosedEndsTest() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        CircuitBreaker.Permit slowCall = breaker.tryAcquirePermission().orElseThrow();
+        breaker.onFailure(breaker.tryAcquirePermission().orElseThrow());
+        CircuitBreaker.Permit trial = breaker.tryAcquirePermission().orElseThrow();
+
+        // When
+        breaker.onSuccess(slowCall);
+        breaker.releasePermission(slowCall);
+
+        // Then
+        assertTrue(trial.trial());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquirePermission().isEmpty());
+    }
+
+    @Test
+    void shouldNotCloseOpenBreakerWhenCallStartedWhileClosedSucceedsTest() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, LONG_OPEN_DURATION_NANOS);
+        CircuitBreaker.Permit slowCall = breaker.tryAcquirePermission().orElseThrow();
+        breaker.onFailure(breaker.tryAcquirePermission().orElseThrow());
+
+        // When
+        breaker.onSuccess(slowCall);
+        breaker.releasePermission(slowCall);
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertTrue(breaker.isRejecting());
+    }
+
+    @Test
+    void shouldCloseBreakerWhenTrialSucceedsTest() {
+        // Given
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure(breaker.tryAcquirePermission().orElseThrow());
+        CircuitBreaker.Permit trial = breaker.tryAcquirePermission().orElseThrow();
+
+        // When
+        breaker.onSuccess(trial);
+        breaker.releasePermission(trial);
+
+        // Then
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertFalse(breaker.tryAcquirePermission().orElseThrow().trial());
+    }
+}
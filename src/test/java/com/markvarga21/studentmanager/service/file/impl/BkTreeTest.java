@@ -0,0 +1,70 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.util.PerceptualHash;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BkTreeTest {
+    /**
+     * The number of indexed hashes.
+     */
+    static final int HASH_COUNT = 2000;
+
+    /**
+     * The maximum distance searched for.
+     */
+    static final int MAX_DISTANCE = 6;
+
+    @Test
+    void shouldFindSameHashesAsLinearScanTest() {
+        // Given
+        Random random = new Random(HASH_COUNT);
+        BkTree<Integer> tree = new BkTree<>();
+        List<Long> hashes = new ArrayList<>();
+        long base = random.nextLong();
+        for (int i = 0; i < HASH_COUNT; i++) {
+            long hash = i % 2 == 0 ? random.nextLong() : base ^ (1L << random.nextInt(Long.SIZE));
+            hashes.add(hash);
+            tree.add(hash, i);
+        }
+
+        // When
+        List<Integer> matches = tree.search(base, MAX_DISTANCE);
+
+        // Then
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < HASH_COUNT; i++) {
+            if (PerceptualHash.distance(base, hashes.get(i)) <= MAX_DISTANCE) {
+                expected.add(i);
+            }
+        }
+        assertEquals(
+                expected.stream().sorted().collect(Collectors.toList()),
+                matches.stream().sorted().collect(Collectors.toList())
+        );
+        assertEquals(HASH_COUNT, tree.size());
+    }
+
+    @Test
+    void shouldNotFindRemovedValueTest() {
+        // Given
+        BkTree<String> tree = new BkTree<>();
+        tree.add(0L, "first");
+        tree.add(1L, "second");
+
+        // When
+        tree.remove(0L, "first");
+
+        // Then
+        assertEquals(List.of("second"), tree.search(0L, 1));
+        assertTrue(tree.search(0L, 0).isEmpty());
+        assertEquals(1, tree.size());
+    }
+}
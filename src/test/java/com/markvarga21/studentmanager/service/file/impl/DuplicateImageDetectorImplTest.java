@@ -0,0 +1,149 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.exception.DuplicateImageException;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateImageDetectorImplTest {
+    /**
+     * The hash of the stored passport image.
+     */
+    static final long PASSPORT_HASH = 0x0F0F_0F0F_0F0F_0F0FL;
+
+    /**
+     * The hash of the stored selfie image.
+     */
+    static final long SELFIE_HASH = 0x3333_3333_3333_3333L;
+
+    /**
+     * The detector under testing.
+     */
+    @InjectMocks
+    private DuplicateImageDetectorImpl detector;
+
+    /**
+     * The repository of the students' images.
+     */
+    @Mock
+    private StudentImageRepository studentImageRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.detector.setMaxDistance(2);
+    }
+
+    @Test
+    void shouldRejectSelfieOfAnotherStudentAfterRebuildTest() {
+        // Given
+        when(this.studentImageRepository.findAllImageHashes())
+                .thenReturn(List.of(hashes(1L, PASSPORT_HASH, SELFIE_HASH)));
+        this.detector.rebuildIndex();
+
+        // When
+        // Then
+        assertThrows(
+                DuplicateImageException.class,
+                () -> this.detector.checkForDuplicates(2L, StudentImageType.SELFIE, SELFIE_HASH ^ 1, null, OperationType.CREATE)
+        );
+        assertThrows(
+                DuplicateImageException.class,
+                () -> this.detector.checkForDuplicates(2L, StudentImageType.SELFIE, PASSPORT_HASH, null, OperationType.CREATE)
+        );
+        assertDoesNotThrow(
+                () -> this.detector.checkForDuplicates(1L, StudentImageType.SELFIE, SELFIE_HASH, null, OperationType.UPDATE)
+        );
+    }
+
+    @Test
+    void shouldRejectSelfieSameAsPassportTest() {
+        // Given
+        // When
+        // Then
+        assertThrows(
+                DuplicateImageException.class,
+                () -> this.detector.checkForDuplicates(
+                        1L,
+                        StudentImageType.SELFIE,
+                        PASSPORT_HASH,
+                        PASSPORT_HASH ^ 3,
+                        OperationType.CREATE
+                )
+        );
+    }
+
+    @Test
+    void shouldNotComparePassportsOfDifferentStudentsTest() {
+        // Given
+        this.detector.register(1L, StudentImageType.PASSPORT, null, PASSPORT_HASH);
+
+        // When
+        // Then
+        assertDoesNotThrow(
+                () -> this.detector.checkForDuplicates(2L, StudentImageType.PASSPORT, PASSPORT_HASH, SELFIE_HASH, OperationType.CREATE)
+        );
+    }
+
+    @Test
+    void shouldForgetUnregisteredImagesTest() {
+        // Given
+        this.detector.register(1L, StudentImageType.SELFIE, null, SELFIE_HASH);
+
+        // When
+        this.detector.unregister(1L, null, SELFIE_HASH);
+
+        // Then
+        assertDoesNotThrow(
+                () -> this.detector.checkForDuplicates(2L, StudentImageType.SELFIE, SELFIE_HASH, null, OperationType.CREATE)
+        );
+    }
+
+    @Test
+    void shouldRejectStoredSelfieOfImagesWithoutStudentTest() {
+        // Given
+        this.detector.register(1L, StudentImageType.SELFIE, null, SELFIE_HASH);
+
+        // When
+        // Then
+        assertThrows(
+                DuplicateImageException.class,
+                () -> this.detector.checkForDuplicates(null, StudentImageType.SELFIE, SELFIE_HASH, null, OperationType.READ)
+        );
+    }
+
+    private static StudentImageRepository.ImageHashes hashes(
+            final Long studentId,
+            final Long passportHash,
+            final Long selfieHash
+    ) {
+        return new StudentImageRepository.ImageHashes() {
+            @Override
+            public Long getStudentId() {
+                return studentId;
+            }
+
+            @Override
+            public Long getPassportHash() {
+                return passportHash;
+            }
+
+            @Override
+            public Long getSelfieHash() {
+                return selfieHash;
+            }
+        };
+    }
+}
@@ -1,20 +1,27 @@
 package com.markvarga21.studentmanager.service.file.impl;
 
 import com.markvarga21.studentmanager.entity.StudentImage;
+import com.markvarga21.studentmanager.exception.DuplicateImageException;
 import com.markvarga21.studentmanager.exception.InvalidDocumentException;
 import com.markvarga21.studentmanager.exception.InvalidImageTypeException;
+import com.markvarga21.studentmanager.exception.OperationType;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
 import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
+import com.markvarga21.studentmanager.util.ContentHasher;
 import com.markvarga21.studentmanager.util.StudentImageType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.File;
 import java.io.IOException;
@@ -30,6 +37,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -48,6 +60,12 @@ class FileUploadServiceImplTest {
     @Spy
     private StudentImageRepository repository;
 
+    /**
+     * The detector of the duplicate images.
+     */
+    @Mock
+    private DuplicateImageDetector duplicateImageDetector;
+
     /**
      * The passport mock image.
      */
@@ -111,6 +129,46 @@ class FileUploadServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldNotStoreDuplicateImagesTest() {
+        // Given
+        doThrow(new DuplicateImageException("duplicate", OperationType.CREATE))
+                .when(this.duplicateImageDetector)
+                .checkForDuplicates(eq(1L), eq(StudentImageType.SELFIE), any(), any(), eq(OperationType.CREATE));
+
+        // When
+        assertThrows(
+                DuplicateImageException.class,
+                () -> this.service.uploadFile(1L, this.passportImage, this.selfieImage)
+        );
+
+        // Then
+        verify(this.repository, never())
+                .save(any());
+    }
+
+    @Test
+    void shouldRegisterHashesOnlyAfterCommitTest() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            this.service.uploadFile(1L, this.passportImage, this.selfieImage);
+            verify(this.duplicateImageDetector, never())
+                    .register(any(), any(), any(), any());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+
+            // Then
+            verify(this.duplicateImageDetector, times(1))
+                    .register(eq(1L), eq(StudentImageType.PASSPORT), isNull(), any());
+            verify(this.duplicateImageDetector, times(1))
+                    .register(eq(1L), eq(StudentImageType.SELFIE), isNull(), any());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     void shouldFetchAllImagesTest() {
         // Given
@@ -187,6 +245,49 @@ class FileUploadServiceImplTest {
         );
     }
 
+    @Test
+    void shouldGetStoredContentHashWithoutLoadingImageTest() {
+        // Given
+        Long studentId = 1L;
+        StudentImageRepository.ContentHashes contentHashes = mock(StudentImageRepository.ContentHashes.class);
+        when(contentHashes.getSelfieContentHash())
+                .thenReturn("selfieHash");
+        when(this.repository.findContentHashesByStudentId(studentId))
+                .thenReturn(Optional.of(contentHashes));
+
+        // When
+        String actual = this.service
+                .getImageContentHash(studentId, StudentImageType.SELFIE);
+
+        // Then
+        assertEquals("selfieHash", actual);
+        verify(this.repository, never())
+                .findById(anyLong());
+    }
+
+    @Test
+    void shouldComputeMissingContentHashOnceTest() {
+        // Given
+        Long studentId = 1L;
+        StudentImage studentImage = new StudentImage();
+        studentImage.setStudentId(studentId);
+        studentImage.setPassportImage(new byte[]{1});
+        when(this.repository.findContentHashesByStudentId(studentId))
+                .thenReturn(Optional.of(mock(StudentImageRepository.ContentHashes.class)));
+        when(this.repository.findById(studentId))
+                .thenReturn(Optional.of(studentImage));
+
+        // When
+        String actual = this.service
+                .getImageContentHash(studentId, StudentImageType.PASSPORT);
+
+        // Then
+        assertEquals(ContentHasher.sha256Hex(new byte[]{1}), actual);
+        assertEquals(actual, studentImage.getPassportContentHash());
+        verify(this.repository, times(1))
+                .save(studentImage);
+    }
+
     @Test
     void shouldGetImageForTypePassportTest() {
         // Given
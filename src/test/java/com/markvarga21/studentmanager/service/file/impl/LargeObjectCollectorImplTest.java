@@ -0,0 +1,126 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.LargeObjectCollectionReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LargeObjectCollectorImplTest {
+    /**
+     * The template used for querying the database.
+     */
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The template running the batches.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The collector under testing.
+     */
+    private LargeObjectCollectorImpl collector;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.collector = new LargeObjectCollectorImpl(
+                this.jdbcTemplate,
+                this.transactionTemplate,
+                this.meterRegistry
+        );
+        this.collector.setBatchSize(10);
+        this.collector.setMaxObjectsPerRun(100);
+        this.collector.setPauseMillis(0);
+        this.collector.setSupported(true);
+    }
+
+    @Test
+    void shouldUnlinkOrphansAndRecordReclaimedBytesTest() {
+        // Given
+        // When
+        this.stubTransactions();
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any()))
+                .thenReturn(List.of(11L, 12L));
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class), any()))
+                .thenReturn(1000L, 500L);
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Integer.class), any()))
+                .thenReturn(List.of(1));
+        LargeObjectCollectionReport report = this.collector.collect(false);
+
+        // Then
+        assertTrue(report.isCompleted());
+        assertEquals(2, report.getUnlinkedObjects());
+        assertEquals(1500, report.getReclaimedBytes());
+        assertEquals(1500.0, this.meterRegistry
+                .get(LargeObjectCollectorImpl.RECLAIMED_BYTES_METRIC)
+                .counter()
+                .count());
+    }
+
+    @Test
+    void shouldOnlyReportOrphansInDryRunTest() {
+        // Given
+        // When
+        this.stubTransactions();
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any()))
+                .thenReturn(List.of(11L));
+        when(this.jdbcTemplate.queryForObject(anyString(), eq(Long.class), any()))
+                .thenReturn(2048L);
+        LargeObjectCollectionReport report = this.collector.collect(true);
+
+        // Then
+        assertEquals(1, report.getOrphanObjects());
+        assertEquals(2048, report.getOrphanBytes());
+        assertEquals(0, report.getUnlinkedObjects());
+        verify(this.jdbcTemplate, never())
+                .queryForList(anyString(), eq(Integer.class), any());
+    }
+
+    @Test
+    void shouldSkipCollectionWhenLargeObjectsAreNotUsedTest() {
+        // Given
+        this.collector.setSupported(false);
+
+        // When
+        LargeObjectCollectionReport report = this.collector.collect(false);
+
+        // Then
+        assertFalse(report.isSupported());
+        verifyNoInteractions(this.jdbcTemplate);
+    }
+
+    private void stubTransactions() {
+        when(this.transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation
+                        .<TransactionCallback<LargeObjectCollectionReport>>getArgument(0)
+                        .doInTransaction(null));
+    }
+}
@@ -0,0 +1,186 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.SignedImageUrl;
+import com.markvarga21.studentmanager.exception.InvalidSignatureException;
+import com.markvarga21.studentmanager.exception.OperationType;
+import com.markvarga21.studentmanager.exception.StudentNotFoundException;
+import com.markvarga21.studentmanager.service.file.FileUploadService;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SignedImageUrlServiceImplTest {
+    /**
+     * The ID of the student.
+     */
+    static final Long STUDENT_ID = 1L;
+
+    /**
+     * The secret signing the URLs.
+     */
+    static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    /**
+     * The stored passport image.
+     */
+    static final byte[] IMAGE = "passportImage".getBytes();
+
+    /**
+     * The stored hash of the passport image.
+     */
+    static final String CONTENT_HASH = ContentHasher.sha256Hex(IMAGE);
+
+    /**
+     * The service under testing.
+     */
+    @InjectMocks
+    private SignedImageUrlServiceImpl signedImageUrlService;
+
+    /**
+     * The service used for loading the images.
+     */
+    @Mock
+    private FileUploadService fileUploadService;
+
+    @BeforeEach
+    void setUp() {
+        this.signedImageUrlService.setSecret(SECRET);
+        this.signedImageUrlService.setTtlSeconds(60);
+        this.signedImageUrlService.init();
+    }
+
+    @Test
+    void shouldServeImageOfSignedUrlTest() {
+        // Given
+        when(this.fileUploadService.getImageContentHash(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenReturn(CONTENT_HASH);
+        SignedImageUrl signedUrl = this.signedImageUrlService
+                .signUrl(STUDENT_ID, StudentImageType.PASSPORT);
+        UriComponents url = UriComponentsBuilder.fromUriString(signedUrl.getUrl()).build();
+
+        // When
+        assertDoesNotThrow(() -> this.signedImageUrlService.verifySignature(
+                STUDENT_ID,
+                StudentImageType.PASSPORT,
+                signedUrl.getContentHash(),
+                Long.parseLong(url.getQueryParams().getFirst("expires")),
+                url.getQueryParams().getFirst("signature")
+        ));
+        when(this.fileUploadService.getImageForType(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenReturn(IMAGE);
+        byte[] image = this.signedImageUrlService
+                .getSignedImage(STUDENT_ID, StudentImageType.PASSPORT, signedUrl.getContentHash());
+
+        // Then
+        assertEquals(CONTENT_HASH, signedUrl.getContentHash());
+        assertEquals(
+                "/api/v1/files/signed/1/PASSPORT/" + signedUrl.getContentHash(),
+                url.getPath()
+        );
+        assertArrayEquals(IMAGE, image);
+    }
+
+    @Test
+    void shouldRejectUrlSignedForOtherImageTypeTest() {
+        // Given
+        when(this.fileUploadService.getImageContentHash(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenReturn(CONTENT_HASH);
+        SignedImageUrl signedUrl = this.signedImageUrlService
+                .signUrl(STUDENT_ID, StudentImageType.PASSPORT);
+        UriComponents url = UriComponentsBuilder.fromUriString(signedUrl.getUrl()).build();
+
+        // When
+        // Then
+        assertThrows(
+                InvalidSignatureException.class,
+                () -> this.signedImageUrlService.verifySignature(
+                        STUDENT_ID,
+                        StudentImageType.SELFIE,
+                        signedUrl.getContentHash(),
+                        Long.parseLong(url.getQueryParams().getFirst("expires")),
+                        url.getQueryParams().getFirst("signature")
+                )
+        );
+    }
+
+    @Test
+    void shouldRejectExpiredUrlTest() {
+        // Given
+        this.signedImageUrlService.setTtlSeconds(-1);
+        when(this.fileUploadService.getImageContentHash(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenReturn(CONTENT_HASH);
+        SignedImageUrl signedUrl = this.signedImageUrlService
+                .signUrl(STUDENT_ID, StudentImageType.PASSPORT);
+        UriComponents url = UriComponentsBuilder.fromUriString(signedUrl.getUrl()).build();
+
+        // When
+        // Then
+        assertThrows(
+                InvalidSignatureException.class,
+                () -> this.signedImageUrlService.verifySignature(
+                        STUDENT_ID,
+                        StudentImageType.PASSPORT,
+                        signedUrl.getContentHash(),
+                        Long.parseLong(url.getQueryParams().getFirst("expires")),
+                        url.getQueryParams().getFirst("signature")
+                )
+        );
+    }
+
+    @Test
+    void shouldRejectReplacedImageTest() {
+        // Given
+        when(this.fileUploadService.getImageContentHash(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenReturn(ContentHasher.sha256Hex("newPassportImage".getBytes()));
+
+        // When
+        // Then
+        assertThrows(
+                InvalidSignatureException.class,
+                () -> this.signedImageUrlService
+                        .getSignedImage(STUDENT_ID, StudentImageType.PASSPORT, CONTENT_HASH)
+        );
+    }
+
+    @Test
+    void shouldFailStartupWithShortSecretTest() {
+        // Given
+        this.signedImageUrlService.setSecret("secret");
+
+        // When
+        // Then
+        assertThrows(
+                IllegalStateException.class,
+                () -> this.signedImageUrlService.init()
+        );
+    }
+
+    @Test
+    void shouldRejectDeletedImageTest() {
+        // Given
+        when(this.fileUploadService.getImageContentHash(STUDENT_ID, StudentImageType.PASSPORT))
+                .thenThrow(new StudentNotFoundException("Student with ID '1' does not exist", OperationType.READ));
+
+        // When
+        // Then
+        assertThrows(
+                InvalidSignatureException.class,
+                () -> this.signedImageUrlService
+                        .verifyContent(STUDENT_ID, StudentImageType.PASSPORT, CONTENT_HASH)
+        );
+    }
+}
@@ -0,0 +1,202 @@
+package com.markvarga21.studentmanager.service.file.impl;
+
+import com.markvarga21.studentmanager.dto.UploadSession;
+import com.markvarga21.studentmanager.exception.InvalidUploadException;
+import com.markvarga21.studentmanager.exception.UploadOffsetMismatchException;
+import com.markvarga21.studentmanager.exception.UploadQuotaExceededException;
+import com.markvarga21.studentmanager.exception.UploadSessionNotFoundException;
+import com.markvarga21.studentmanager.exception.UploadStorageFullException;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import com.markvarga21.studentmanager.util.StudentImageType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UploadSessionServiceImplTest {
+    /**
+     * The username of the uploading user.
+     */
+    static final String USERNAME = "user";
+
+    /**
+     * The uploaded image.
+     */
+    static final byte[] IMAGE = "passportImage".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * The size of the first chunk.
+     */
+    static final int FIRST_CHUNK_SIZE = 8;
+
+    /**
+     * The maximum number of open sessions of a single user.
+     */
+    static final int MAX_SESSIONS_PER_USER = 2;
+
+    /**
+     * The maximum number of bytes reserved by the open sessions.
+     */
+    static final long MAX_STAGED_BYTES = 3L * IMAGE.length;
+
+    /**
+     * The service under testing.
+     */
+    private UploadSessionServiceImpl uploadSessionService;
+
+    /**
+     * The directory holding the received bytes.
+     */
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        this.uploadSessionService = new UploadSessionServiceImpl();
+        this.uploadSessionService.setDirectory(this.directory);
+        this.uploadSessionService.setMaxSize(IMAGE.length);
+        this.uploadSessionService.setTtlHours(1);
+        this.uploadSessionService.setMaxSessionsPerUser(MAX_SESSIONS_PER_USER);
+        this.uploadSessionService.setMaxStagedBytes(MAX_STAGED_BYTES);
+        this.uploadSessionService.init();
+    }
+
+    @Test
+    void shouldAssembleImageFromChunksTest() throws IOException {
+        // Given
+        UploadSession session = this.uploadSessionService
+                .createSession(USERNAME, 1L, StudentImageType.PASSPORT, IMAGE.length);
+
+        // When
+        this.append(session.getId(), 0, 0, FIRST_CHUNK_SIZE);
+        UploadSession completed = this.append(session.getId(), FIRST_CHUNK_SIZE, FIRST_CHUNK_SIZE, IMAGE.length);
+        MultipartFile file = this.uploadSessionService
+                .getCompletedFile(USERNAME, session.getId(), StudentImageType.PASSPORT);
+
+        // Then
+        assertEquals(IMAGE.length, completed.getOffset());
+        assertArrayEquals(IMAGE, file.getBytes());
+    }
+
+    @Test
+    void shouldRejectChunkNotStartingAtOffsetTest() {
+        // Given
+        UploadSession session = this.uploadSessionService
+                .createSession(USERNAME, 1L, StudentImageType.PASSPORT, IMAGE.length);
+        this.append(session.getId(), 0, 0, FIRST_CHUNK_SIZE);
+
+        // When
+        UploadOffsetMismatchException exception = assertThrows(
+                UploadOffsetMismatchException.class,
+                () -> this.append(session.getId(), 0, 0, FIRST_CHUNK_SIZE)
+        );
+
+        // Then
+        assertEquals(FIRST_CHUNK_SIZE, exception.getExpectedOffset());
+    }
+
+    @Test
+    void shouldDropCorruptedChunkTest() {
+        // Given
+        UploadSession session = this.uploadSessionService
+                .createSession(USERNAME, 1L, StudentImageType.PASSPORT, IMAGE.length);
+        String wrongChecksum = ContentHasher.sha256Hex(new byte[] {1});
+
+        // When
+        assertThrows(
+                InvalidUploadException.class,
+                () -> this.uploadSessionService.appendChunk(
+                        USERNAME,
+                        session.getId(),
+                        0,
+                        wrongChecksum,
+                        new ByteArrayInputStream(IMAGE)
+                )
+        );
+
+        // Then
+        assertEquals(0, this.uploadSessionService.getSession(USERNAME, session.getId()).getOffset());
+        assertThrows(
+                InvalidUploadException.class,
+                () -> this.uploadSessionService
+                        .getCompletedFile(USERNAME, session.getId(), StudentImageType.PASSPORT)
+        );
+    }
+
+    @Test
+    void shouldRejectTooManySessionsOfUserTest() {
+        // Given
+        for (int i = 0; i < MAX_SESSIONS_PER_USER; i++) {
+            this.uploadSessionService.createSession(USERNAME, 1L, StudentImageType.PASSPORT, IMAGE.length);
+        }
+
+        // When
+        // Then
+        assertThrows(
+                UploadQuotaExceededException.class,
+                () -> this.uploadSessionService.createSession(USERNAME, 1L, StudentImageType.SELFIE, IMAGE.length)
+        );
+        this.uploadSessionService.createSession("other", 2L, StudentImageType.PASSPORT, IMAGE.length);
+    }
+
+    @Test
+    void shouldRejectSessionOverStagedBytesUntilOneIsDeletedTest() {
+        // Given
+        UploadSession first = this.uploadSessionService
+                .createSession(USERNAME, 1L, StudentImageType.PASSPORT, IMAGE.length);
+        this.uploadSessionService.createSession(USERNAME, 1L, StudentImageType.SELFIE, IMAGE.length);
+        this.uploadSessionService.createSession("other", 2L, StudentImageType.PASSPORT, IMAGE.length);
+
+        // When
+        assertThrows(
+                UploadStorageFullException.class,
+                () -> this.uploadSessionService.createSession("other", 2L, StudentImageType.SELFIE, IMAGE.length)
+        );
+        this.uploadSessionService.deleteSession(USERNAME, first.getId());
+        UploadSession created = this.uploadSessionService
+                .createSession("other", 2L, StudentImageType.SELFIE, IMAGE.length);
+
+        // Then
+        assertEquals(StudentImageType.SELFIE, created.getImageType());
+    }
+
+    @Test
+    void shouldHideSessionsOfOtherUsersTest() {
+        // Given
+        UploadSession session = this.uploadSessionService
+                .createSession(USERNAME, 1L, StudentImageType.SELFIE, IMAGE.length);
+
+        // When
+        // Then
+        assertThrows(
+                UploadSessionNotFoundException.class,
+                () -> this.uploadSessionService.getSession("other", session.getId())
+        );
+    }
+
+    private UploadSession append(
+            final String sessionId,
+            final long offset,
+            final int from,
+            final int to
+    ) {
+        byte[] chunk = Arrays.copyOfRange(IMAGE, from, to);
+        return this.uploadSessionService.appendChunk(
+                USERNAME,
+                sessionId,
+                offset,
+                ContentHasher.sha256Hex(chunk),
+                new ByteArrayInputStream(chunk)
+        );
+    }
+}
@@ -0,0 +1,325 @@
+package com.markvarga21.studentmanager.service.form.impl;
+
+import com.azure.ai.formrecognizer.documentanalysis.DocumentAnalysisClient;
+import com.azure.ai.formrecognizer.documentanalysis.models.AnalyzeResult;
+import com.azure.ai.formrecognizer.documentanalysis.models.AnalyzedDocument;
+import com.azure.ai.formrecognizer.documentanalysis.models.DocumentField;
+import com.azure.ai.formrecognizer.documentanalysis.models.OperationResult;
+import com.azure.core.util.BinaryData;
+import com.azure.core.util.polling.SyncPoller;
+import com.markvarga21.studentmanager.dto.PassportValidationResponse;
+import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.entity.PassportExtraction;
+import com.markvarga21.studentmanager.entity.StudentImage;
+import com.markvarga21.studentmanager.exception.InvalidPassportException;
+import com.markvarga21.studentmanager.mapping.StudentMapper;
+import com.markvarga21.studentmanager.repository.PassportExtractionRepository;
+import com.markvarga21.studentmanager.service.StudentService;
+import com.markvarga21.studentmanager.service.azure.AzureCallGovernor;
+import com.markvarga21.studentmanager.service.azure.AzureImagePreprocessor;
+import com.markvarga21.studentmanager.service.faceapi.FaceApiService;
+import com.markvarga21.studentmanager.service.file.FileUploadService;
+import com.markvarga21.studentmanager.service.validation.passport.PassportValidationService;
+import com.markvarga21.studentmanager.util.ContentHasher;
+import com.markvarga21.studentmanager.util.CountryNameFetcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.markvarga21.studentmanager.data.TestingData.VALIDATION_DATA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FormRecognizerServiceImplTest {
+    /**
+     * The ID of the validated student.
+     */
+    static final Long STUDENT_ID = 1L;
+
+    /**
+     * The passport number entered by the student.
+     */
+    static final String PASSPORT_NUMBER = "123456";
+
+    /**
+     * The passport number found on the uploaded passport.
+     */
+    static final String EXTRACTED_PASSPORT_NUMBER = "654321";
+
+    /**
+     * The JSON of the student sent for validation.
+     */
+    static final String STUDENT_JSON = "{\"id\":1}";
+
+    /**
+     * The content hash of the uploaded passport.
+     */
+    static final String PASSPORT_HASH = ContentHasher.sha256Hex("passportImage".getBytes());
+
+    /**
+     * The client analyzing the documents.
+     */
+    @Mock
+    private DocumentAnalysisClient documentAnalysisClient;
+
+    /**
+     * The service of the stored validation data.
+     */
+    @Mock
+    private PassportValidationService passportValidationService;
+
+    /**
+     * The fetcher of the country names.
+     */
+    @Mock
+    private CountryNameFetcher countryNameFetcher;
+
+    /**
+     * The service of the students.
+     */
+    @Mock
+    private StudentService studentService;
+
+    /**
+     * The service verifying the faces.
+     */
+    @Mock
+    private FaceApiService faceApiService;
+
+    /**
+     * The mapper of the student JSON.
+     */
+    @Mock
+    private StudentMapper studentMapper;
+
+    /**
+     * The governor of the Azure calls.
+     */
+    @Mock
+    private AzureCallGovernor azureCallGovernor;
+
+    /**
+     * The preprocessor of the passports.
+     */
+    @Mock
+    private AzureImagePreprocessor azureImagePreprocessor;
+
+    /**
+     * The repository of the stored extractions.
+     */
+    @Mock
+    private PassportExtractionRepository passportExtractionRepository;
+
+    /**
+     * The service of the stored images.
+     */
+    @Mock
+    private FileUploadService fileUploadService;
+
+    /**
+     * The service under testing.
+     */
+    private FormRecognizerServiceImpl service;
+
+    /**
+     * The uploaded passport.
+     */
+    private MockMultipartFile passport;
+
+    @BeforeEach
+    void setUp() {
+        this.service = new FormRecognizerServiceImpl(
+                this.documentAnalysisClient,
+                this.passportValidationService,
+                this.countryNameFetcher,
+                this.studentService,
+                this.faceApiService,
+                this.studentMapper,
+                this.azureCallGovernor,
+                this.azureImagePreprocessor,
+                this.passportExtractionRepository,
+                new SimpleMeterRegistry(),
+                this.fileUploadService,
+                Runnable::run
+        );
+        this.service.registerMetrics();
+        this.passport = new MockMultipartFile("passport", "passport.jpg", "image/jpeg", "passportImage".getBytes());
+        StudentDto student = StudentDto.builder()
+                .id(STUDENT_ID)
+                .passportNumber(PASSPORT_NUMBER)
+                .build();
+        StudentImage studentImage = StudentImage.builder()
+                .studentId(STUDENT_ID)
+                .passportImage("passportImage".getBytes())
+                .selfieImage("selfieImage".getBytes())
+                .build();
+        lenient().when(this.studentMapper.mapJsonToDto(STUDENT_JSON))
+                .thenReturn(student);
+        lenient().when(this.fileUploadService.getStudentImageById(STUDENT_ID))
+                .thenReturn(studentImage);
+        lenient().when(this.azureImagePreprocessor.prepare(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(this.azureCallGovernor.execute(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+    }
+
+    @Test
+    void shouldAnalyzePassportOnlyAfterFacesMatchTest() {
+        // Given
+        when(this.faceApiService.validateFaces(eq(PASSPORT_NUMBER), any(), any()))
+                .thenReturn(true);
+        when(this.passportValidationService.getPassportValidationDataByPassportNumber(PASSPORT_NUMBER))
+                .thenReturn(Optional.empty());
+        when(this.passportValidationService.getPassportValidationDataByPassportNumber(EXTRACTED_PASSPORT_NUMBER))
+                .thenReturn(Optional.of(VALIDATION_DATA));
+        this.mockAnalysis(EXTRACTED_PASSPORT_NUMBER);
+
+        // When
+        PassportValidationResponse response = this.service
+                .validatePassport(STUDENT_JSON, this.passport);
+
+        // Then
+        assertFalse(response.getIsValid());
+        assertEquals(EXTRACTED_PASSPORT_NUMBER, response.getStudentDto().getPassportNumber());
+        InOrder order = inOrder(this.faceApiService, this.documentAnalysisClient);
+        order.verify(this.faceApiService)
+                .validateFaces(eq(PASSPORT_NUMBER), any(), any());
+        order.verify(this.documentAnalysisClient)
+                .beginAnalyzeDocument(eq("prebuilt-idDocument"), any(BinaryData.class));
+    }
+
+    @Test
+    void shouldNotAnalyzePassportWhenFacesDoNotMatchTest() {
+        // Given
+        when(this.faceApiService.validateFaces(eq(PASSPORT_NUMBER), any(), any()))
+                .thenReturn(false);
+
+        // When
+        PassportValidationResponse response = this.service
+                .validatePassport(STUDENT_JSON, this.passport);
+
+        // Then
+        assertFalse(response.getIsValid());
+        assertNull(response.getStudentDto());
+        verifyNoInteractions(this.documentAnalysisClient, this.passportExtractionRepository);
+    }
+
+    @Test
+    void shouldRethrowLookupFailureUnwrappedTest() {
+        // Given
+        when(this.faceApiService.validateFaces(eq(PASSPORT_NUMBER), any(), any()))
+                .thenReturn(true);
+        when(this.passportValidationService.getPassportValidationDataByPassportNumber(PASSPORT_NUMBER))
+                .thenThrow(new InvalidPassportException("Lookup failed!"));
+
+        // When
+        // Then
+        InvalidPassportException exception = assertThrows(
+                InvalidPassportException.class,
+                () -> this.service.validatePassport(STUDENT_JSON, this.passport)
+        );
+        assertEquals("Lookup failed!", exception.getMessage());
+        verifyNoInteractions(this.documentAnalysisClient);
+    }
+
+    @Test
+    void shouldReuseStoredExtractionWithoutAnalysisTest() {
+        // Given
+        StudentDto stored = StudentDto.builder()
+                .passportNumber(EXTRACTED_PASSPORT_NUMBER)
+                .build();
+        when(this.passportExtractionRepository.findById(PASSPORT_HASH))
+                .thenReturn(Optional.of(PassportExtraction.of(PASSPORT_HASH, stored)));
+
+        // When
+        StudentDto actual = this.service.extractDataFromPassport(this.passport);
+
+        // Then
+        assertEquals(EXTRACTED_PASSPORT_NUMBER, actual.getPassportNumber());
+        verifyNoInteractions(this.documentAnalysisClient);
+        verify(this.passportExtractionRepository, never())
+                .saveAndFlush(any());
+    }
+
+    @Test
+    void shouldStoreExtractionOfNewImageTest() {
+        // Given
+        this.mockAnalysis(EXTRACTED_PASSPORT_NUMBER);
+
+        // When
+        StudentDto actual = this.service.extractDataFromPassport(this.passport);
+
+        // Then
+        assertEquals(EXTRACTED_PASSPORT_NUMBER, actual.getPassportNumber());
+        verify(this.passportExtractionRepository)
+                .saveAndFlush(argThat(extraction -> PASSPORT_HASH.equals(extraction.getImageHash())
+                        && EXTRACTED_PASSPORT_NUMBER.equals(extraction.getPassportNumber())));
+    }
+
+    @Test
+    void shouldReuseExtractionStoredByConcurrentAnalysisTest() {
+        // Given
+        this.mockAnalysis(EXTRACTED_PASSPORT_NUMBER);
+        StudentDto stored = StudentDto.builder()
+                .passportNumber(EXTRACTED_PASSPORT_NUMBER)
+                .firstName("John")
+                .build();
+        when(this.passportExtractionRepository.findById(PASSPORT_HASH))
+                .thenReturn(Optional.empty(), Optional.of(PassportExtraction.of(PASSPORT_HASH, stored)));
+        when(this.passportExtractionRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate image hash"));
+
+        // When
+        StudentDto actual = this.service.extractDataFromPassport(this.passport);
+
+        // Then
+        assertEquals("John", actual.getFirstName());
+    }
+
+    /**
+     * Makes the analysis of the passport return the given passport number.
+     *
+     * @param passportNumber The passport number found on the passport.
+     */
+    @SuppressWarnings("unchecked")
+    private void mockAnalysis(final String passportNumber) {
+        SyncPoller<OperationResult, AnalyzeResult> poller = mock(SyncPoller.class);
+        AnalyzeResult analyzeResult = mock(AnalyzeResult.class);
+        AnalyzedDocument document = mock(AnalyzedDocument.class);
+        DocumentField passportNumberField = mock(DocumentField.class);
+        when(this.documentAnalysisClient.beginAnalyzeDocument(eq("prebuilt-idDocument"), any(BinaryData.class)))
+                .thenReturn(poller);
+        when(poller.getFinalResult())
+                .thenReturn(analyzeResult);
+        when(analyzeResult.getDocuments())
+                .thenReturn(List.of(document));
+        when(document.getFields())
+                .thenReturn(Map.of("DocumentNumber", passportNumberField));
+        when(passportNumberField.getContent())
+                .thenReturn(passportNumber);
+    }
+}
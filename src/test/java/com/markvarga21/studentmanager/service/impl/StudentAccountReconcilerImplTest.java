@@ -0,0 +1,201 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.dto.ReconciliationReport;
+import com.markvarga21.studentmanager.dto.Role;
+import com.markvarga21.studentmanager.entity.StudentAppUser;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository.UnlinkedStudent;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository.UnlinkedUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentAccountReconcilerImplTest {
+    /**
+     * The reconciler under testing.
+     */
+    @InjectMocks
+    private StudentAccountReconcilerImpl reconciler;
+
+    /**
+     * The repository for the student application user.
+     */
+    @Mock
+    private StudentAppUserRepository studentAppUserRepository;
+
+    /**
+     * The template used for locking the nightly run.
+     */
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The operations on the lock of the nightly run.
+     */
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        this.reconciler.setBatchSize(2);
+    }
+
+    @Test
+    void shouldLinkUniqueNamesAndReportAmbiguousOnesTest() {
+        // Given
+        List<UnlinkedStudent> students = List.of(
+                student(1L, "José", "García"),
+                student(2L, "Anna", "Smith"),
+                student(3L, "Anna", "Smith"),
+                student(4L, "Mary", "Jones"),
+                student(5L, "Peter", "Parker")
+        );
+        List<UnlinkedUser> users = List.of(
+                user("jose", " jose ", "GARCIA"),
+                user("anna", "Anna", "Smith"),
+                user("mary", "Mary", "Jones"),
+                user("bruce", "Bruce", "Wayne")
+        );
+        List<StudentAppUser> saved = new ArrayList<>();
+
+        // When
+        when(this.studentAppUserRepository.findUnlinkedStudents())
+                .thenReturn(students);
+        when(this.studentAppUserRepository.findUnlinkedUsers(Role.ADMIN))
+                .thenReturn(users);
+        when(this.studentAppUserRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    saved.addAll(invocation.getArgument(0));
+                    return List.of();
+                });
+        ReconciliationReport report = this.reconciler.reconcile();
+
+        // Then
+        assertEquals(2, report.getLinked());
+        assertEquals(1, report.getAmbiguousMatches().size());
+        assertEquals("anna smith", report.getAmbiguousMatches().get(0).getName());
+        assertEquals(List.of(2L, 3L), report.getAmbiguousMatches().get(0).getStudentIds());
+        assertEquals(2, saved.size());
+        StudentAppUser joseLink = saved.stream()
+                .filter(link -> link.getStudentId() == 1L)
+                .findFirst()
+                .orElseThrow();
+        assertEquals("jose", joseLink.getUsername());
+        verify(this.studentAppUserRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void shouldReleaseOnlyItsOwnLockAfterNightlyRunTest() {
+        // Given
+        ArgumentCaptor<String> tokenCaptor = ArgumentCaptor.forClass(String.class);
+
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(StudentAccountReconcilerImpl.LOCK_KEY), tokenCaptor.capture(), any()))
+                .thenReturn(true);
+        when(this.studentAppUserRepository.findUnlinkedStudents())
+                .thenReturn(List.of());
+        when(this.studentAppUserRepository.findUnlinkedUsers(Role.ADMIN))
+                .thenReturn(List.of());
+        this.reconciler.reconcileNightly();
+
+        // Then
+        verify(this.redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(StudentAccountReconcilerImpl.LOCK_KEY)),
+                eq(tokenCaptor.getValue())
+        );
+        verify(this.redisTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void shouldSkipNightlyRunWhileAnotherNodeHoldsLockTest() {
+        // Given
+        // When
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(StudentAccountReconcilerImpl.LOCK_KEY), anyString(), any()))
+                .thenReturn(false);
+        this.reconciler.reconcileNightly();
+
+        // Then
+        verify(this.studentAppUserRepository, never()).findUnlinkedStudents();
+        verify(this.redisTemplate, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    void shouldNormalizeNamesTest() {
+        assertEquals(
+                "jose garcia",
+                StudentAccountReconcilerImpl.normalize("  José ", "GARCÍA")
+        );
+    }
+
+    private static UnlinkedStudent student(
+            final Long id,
+            final String firstName,
+            final String lastName
+    ) {
+        return new UnlinkedStudent() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+
+    private static UnlinkedUser user(
+            final String username,
+            final String firstName,
+            final String lastName
+    ) {
+        return new UnlinkedUser() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getFirstName() {
+                return firstName;
+            }
+
+            @Override
+            public String getLastName() {
+                return lastName;
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
+import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentPurgeServiceImplTest {
+    /**
+     * The repository of the students.
+     */
+    @Mock
+    private StudentRepository studentRepository;
+
+    /**
+     * The repository of the student images.
+     */
+    @Mock
+    private StudentImageRepository studentImageRepository;
+
+    /**
+     * The repository of the passport validation data.
+     */
+    @Mock
+    private PassportValidationDataRepository passportValidationDataRepository;
+
+    /**
+     * The repository of the facial validation data.
+     */
+    @Mock
+    private FacialValidationDataRepository facialValidationDataRepository;
+
+    /**
+     * The template running the batches.
+     */
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The registry of the metrics.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * The service under testing.
+     */
+    private StudentPurgeServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.service = new StudentPurgeServiceImpl(
+                this.studentRepository,
+                this.studentImageRepository,
+                this.passportValidationDataRepository,
+                this.facialValidationDataRepository,
+                this.transactionTemplate,
+                this.meterRegistry
+        );
+        this.service.setImageBatchSize(2);
+        this.service.setBatchSize(10);
+        this.service.setMaxAttempts(3);
+        this.service.setRetryBackoffMillis(0);
+        when(this.transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation
+                        .<TransactionCallback<Integer>>getArgument(0)
+                        .doInTransaction(null));
+    }
+
+    @Test
+    void shouldPurgeInBatchesAndRecordMetricsTest() {
+        // Given
+        // When
+        when(this.studentImageRepository.findDeletedStudentIds(2))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(this.studentImageRepository.purgeByStudentIdIn(List.of(1L, 2L)))
+                .thenReturn(2);
+        when(this.studentImageRepository.purgeByStudentIdIn(List.of(3L)))
+                .thenReturn(1);
+        when(this.passportValidationDataRepository.findDeletedIds(anyInt()))
+                .thenReturn(List.of());
+        when(this.facialValidationDataRepository.findDeletedIds(anyInt()))
+                .thenReturn(List.of(4L));
+        when(this.facialValidationDataRepository.purgeByIdIn(List.of(4L)))
+                .thenReturn(1);
+        when(this.studentRepository.findPurgeableIds(anyInt()))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(this.studentRepository.purgeByIdIn(List.of(1L, 2L, 3L)))
+                .thenReturn(3);
+        int purgedRows = this.service.purgeDeletedStudents();
+
+        // Then
+        assertEquals(7, purgedRows);
+        assertEquals(3.0, this.meterRegistry
+                .get(StudentPurgeServiceImpl.PURGED_ROWS_METRIC)
+                .tag("table", "student_image")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void shouldRetryFailedBatchTest() {
+        // Given
+        // When
+        when(this.studentImageRepository.findDeletedStudentIds(2))
+                .thenReturn(List.of(1L));
+        when(this.studentImageRepository.purgeByStudentIdIn(List.of(1L)))
+                .thenThrow(new QueryTimeoutException("Lock wait timeout"))
+                .thenReturn(1);
+        when(this.passportValidationDataRepository.findDeletedIds(anyInt()))
+                .thenReturn(List.of());
+        when(this.facialValidationDataRepository.findDeletedIds(anyInt()))
+                .thenReturn(List.of());
+        when(this.studentRepository.findPurgeableIds(anyInt()))
+                .thenReturn(List.of());
+        int purgedRows = this.service.purgeDeletedStudents();
+
+        // Then
+        assertEquals(1, purgedRows);
+        verify(this.studentImageRepository, times(2)).purgeByStudentIdIn(List.of(1L));
+        assertEquals(1.0, this.meterRegistry
+                .get(StudentPurgeServiceImpl.FAILURES_METRIC)
+                .counter()
+                .count());
+    }
+}
@@ -1,6 +1,7 @@
 package com.markvarga21.studentmanager.service.impl;
 
 import com.markvarga21.studentmanager.dto.StudentDto;
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
 import com.markvarga21.studentmanager.entity.AppUser;
 import com.markvarga21.studentmanager.entity.Gender;
 import com.markvarga21.studentmanager.entity.Student;
@@ -9,27 +10,45 @@ import com.markvarga21.studentmanager.exception.InvalidStudentException;
 import com.markvarga21.studentmanager.exception.StudentNotFoundException;
 import com.markvarga21.studentmanager.mapping.StudentMapper;
 import com.markvarga21.studentmanager.repository.AppUserRepository;
+import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
+import com.markvarga21.studentmanager.repository.PassportValidationDataRepository;
 import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository;
+import com.markvarga21.studentmanager.repository.StudentImageRepository.ImageHashes;
 import com.markvarga21.studentmanager.repository.StudentRepository;
+import com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent;
+import com.markvarga21.studentmanager.service.file.DuplicateImageDetector;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.markvarga21.studentmanager.data.TestingData.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,6 +78,42 @@ class StudentServiceImplTest {
     @Mock
     private StudentAppUserRepository studentAppUserRepository;
 
+    /**
+     * Repository for the student images.
+     */
+    @Mock
+    private StudentImageRepository studentImageRepository;
+
+    /**
+     * Repository for the passport validation data.
+     */
+    @Mock
+    private PassportValidationDataRepository passportValidationDataRepository;
+
+    /**
+     * Repository for the facial validation data.
+     */
+    @Mock
+    private FacialValidationDataRepository facialValidationDataRepository;
+
+    /**
+     * The manager of the caches.
+     */
+    @Mock
+    private CacheManager cacheManager;
+
+    /**
+     * The publisher of the changes of the student statistics.
+     */
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The index of the stored images used for finding the duplicates.
+     */
+    @Mock
+    private DuplicateImageDetector duplicateImageDetector;
+
     /**
      * The user repository.
      */
@@ -247,13 +302,56 @@ class StudentServiceImplTest {
                 .thenReturn(Optional.of(INVALID_STUDENT));
         when(this.studentMapper.mapStudentEntityToDto(INVALID_STUDENT))
                 .thenReturn(INVALID_STUDENT_DTO);
-        doNothing()
-                .when(this.studentRepository)
-                .deleteById(studentId);
+        when(this.studentRepository.findPassportNumbersByIdIn(List.of(studentId)))
+                .thenReturn(List.of(INVALID_STUDENT.getPassportNumber()));
         StudentDto actual = this.studentService.deleteStudentById(studentId);
 
         // Then
         assertEquals(INVALID_STUDENT_DTO, actual);
+        verify(this.studentImageRepository)
+                .markDeletedByStudentIdIn(eq(List.of(studentId)), any(LocalDateTime.class));
+        verify(this.facialValidationDataRepository)
+                .markDeletedByPassportNumberIn(eq(List.of(INVALID_STUDENT.getPassportNumber())), any(LocalDateTime.class));
+        verify(this.studentRepository).markDeletedByIdIn(eq(List.of(studentId)), any(LocalDateTime.class));
+    }
+
+    @Test
+    void shouldDeleteStudentsByIdsTest() {
+        // Given
+        List<Long> ids = List.of(1L, 2L, 2L, 3L);
+
+        // When
+        when(this.studentRepository.findPassportNumbersByIdIn(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of("AB123", "CD456"));
+        when(this.studentRepository.markDeletedByIdIn(eq(List.of(1L, 2L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(2);
+        int actual = this.studentService.deleteStudentsByIds(ids);
+
+        // Then
+        assertEquals(2, actual);
+        verify(this.passportValidationDataRepository)
+                .markDeletedByPassportNumberIn(eq(List.of("AB123", "CD456")), any(LocalDateTime.class));
+        verify(this.studentAppUserRepository).deleteAllByStudentIdIn(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void shouldUnregisterImagesOfDeletedStudentsFromDuplicateIndexTest() {
+        // Given
+        ImageHashes hashes = mock(ImageHashes.class);
+        when(hashes.getStudentId()).thenReturn(1L);
+        when(hashes.getPassportHash()).thenReturn(11L);
+        when(hashes.getSelfieHash()).thenReturn(12L);
+
+        // When
+        when(this.studentImageRepository.findImageHashesByStudentIdIn(List.of(1L)))
+                .thenReturn(List.of(hashes));
+        this.studentService.deleteStudentsByIds(List.of(1L));
+
+        // Then
+        InOrder order = inOrder(this.studentImageRepository);
+        order.verify(this.studentImageRepository).findImageHashesByStudentIdIn(List.of(1L));
+        order.verify(this.studentImageRepository).markDeletedByStudentIdIn(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(this.duplicateImageDetector).unregister(1L, 11L, 12L);
     }
 
     @Test
@@ -308,6 +406,34 @@ class StudentServiceImplTest {
         assertEquals(expected, actual);
     }
 
+    @Test
+    void shouldPublishChangesUponSetValidityTest() {
+        // Given
+        Student student = Student.builder()
+                .id(10L)
+                .passportNumber("HU1234")
+                .countryOfCitizenship("Hungary")
+                .gender(Gender.FEMALE)
+                .passportDateOfExpiry(LocalDate.of(2030, 1, 1))
+                .valid(false)
+                .build();
+        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+
+        // When
+        when(this.studentRepository.findById(10L))
+                .thenReturn(Optional.of(student));
+        this.studentService.setValidity(10L, true);
+
+        // Then
+        verify(this.eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        StudentStatisticsChangedEvent statistics = (StudentStatisticsChangedEvent) eventCaptor.getAllValues().get(0);
+        assertEquals(Map.of("valid", 1L), statistics.getCounterDeltas());
+        assertTrue(statistics.getExpiryDeltas().isEmpty());
+        ValidationStatusChangedEvent validation = (ValidationStatusChangedEvent) eventCaptor.getAllValues().get(1);
+        assertEquals(ValidationStatusType.STUDENT_VALIDITY, validation.getType());
+        assertEquals(true, validation.getValid());
+    }
+
     @Test
     void shouldThrowExceptionUponSetValidityIfStudentNotPresent() {
         // Given
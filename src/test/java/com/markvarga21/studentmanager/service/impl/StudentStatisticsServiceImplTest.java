@@ -0,0 +1,294 @@
+package com.markvarga21.studentmanager.service.impl;
+
+import com.markvarga21.studentmanager.dto.StudentStatistics;
+import com.markvarga21.studentmanager.entity.Gender;
+import com.markvarga21.studentmanager.repository.StudentRepository;
+import com.markvarga21.studentmanager.repository.StudentRepository.StatisticsGroup;
+import com.markvarga21.studentmanager.service.StudentStatisticsChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentStatisticsServiceImplTest {
+    /**
+     * The number of days the expiring passports are counted for.
+     */
+    static final int EXPIRING_WITHIN_DAYS = 30;
+
+    /**
+     * The keys the recount replaces the counters with.
+     */
+    static final List<String> REPLACED_KEYS = List.of(
+            StudentStatisticsServiceImpl.COUNTERS_KEY + StudentStatisticsServiceImpl.REBUILD_SUFFIX,
+            StudentStatisticsServiceImpl.COUNTERS_KEY,
+            StudentStatisticsServiceImpl.EXPIRY_KEY + StudentStatisticsServiceImpl.REBUILD_SUFFIX,
+            StudentStatisticsServiceImpl.EXPIRY_KEY
+    );
+
+    /**
+     * The service under testing.
+     */
+    @InjectMocks
+    private StudentStatisticsServiceImpl statisticsService;
+
+    /**
+     * The template used for accessing Redis.
+     */
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The repository of the students.
+     */
+    @Mock
+    private StudentRepository studentRepository;
+
+    /**
+     * The operations on the Redis hashes.
+     */
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    /**
+     * The operations on the Redis strings.
+     */
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @BeforeEach
+    void setUp() {
+        this.statisticsService.setExpiringWithinDays(EXPIRING_WITHIN_DAYS);
+        this.statisticsService.setLockMinutes(10);
+    }
+
+    @Test
+    void shouldRecountStudentsFromDatabaseTest() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<StatisticsGroup> groups = List.of(
+                group(true, "USA", Gender.MALE, today.plusDays(10), 2),
+                group(false, "USA", Gender.FEMALE, today.plusDays(100), 1),
+                group(false, null, null, today.minusDays(1), 3)
+        );
+        ArgumentCaptor<Map<Object, Object>> countersCaptor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        when(this.studentRepository.countStatisticsGroups())
+                .thenReturn(groups);
+        when(this.redisTemplate.opsForHash())
+                .thenReturn(this.hashOperations);
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(StudentStatisticsServiceImpl.LOCK_KEY), anyString(), any()))
+                .thenReturn(true);
+        StudentStatistics statistics = this.statisticsService.reconcile();
+
+        // Then
+        assertEquals(6, statistics.getTotalStudents());
+        assertEquals(2, statistics.getValidStudents());
+        assertEquals(4, statistics.getInvalidStudents());
+        assertEquals(Map.of("USA", 3L, "UNKNOWN", 3L), statistics.getStudentsByCountry());
+        assertEquals(Map.of("MALE", 2L, "FEMALE", 1L, "UNKNOWN", 3L), statistics.getStudentsByGender());
+        assertEquals(2, statistics.getExpiringPassports());
+        verify(this.hashOperations).putAll(
+                eq(StudentStatisticsServiceImpl.COUNTERS_KEY + StudentStatisticsServiceImpl.REBUILD_SUFFIX),
+                countersCaptor.capture()
+        );
+        assertEquals("6", countersCaptor.getValue().get("total"));
+        verify(this.redisTemplate).execute(
+                eq(StudentStatisticsServiceImpl.REPLACE_SCRIPT),
+                eq(REPLACED_KEYS)
+        );
+        verify(this.redisTemplate).execute(
+                any(RedisScript.class),
+                eq(List.of(StudentStatisticsServiceImpl.LOCK_KEY)),
+                anyString()
+        );
+    }
+
+    @Test
+    void shouldNotCountChangeCommittedDuringCountTwiceTest() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<StatisticsGroup> groups = List.of(
+                group(true, "USA", Gender.MALE, today.plusDays(10), 3)
+        );
+        StudentStatisticsChangedEvent committedDuringCount = new StudentStatisticsChangedEvent()
+                .count(true, "USA", Gender.MALE, today.plusDays(10), 1);
+        ArgumentCaptor<Map<Object, Object>> countersCaptor = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        when(this.studentRepository.countStatisticsGroups())
+                .thenAnswer(invocation -> {
+                    this.statisticsService.onStudentStatisticsChanged(committedDuringCount);
+                    return groups;
+                });
+        when(this.redisTemplate.opsForHash())
+                .thenReturn(this.hashOperations);
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(StudentStatisticsServiceImpl.LOCK_KEY), anyString(), any()))
+                .thenReturn(true);
+        StudentStatistics statistics = this.statisticsService.reconcile();
+
+        // Then
+        assertEquals(3, statistics.getTotalStudents());
+        InOrder order = inOrder(this.hashOperations, this.redisTemplate);
+        order.verify(this.hashOperations).increment(StudentStatisticsServiceImpl.COUNTERS_KEY, "total", 1L);
+        order.verify(this.hashOperations).putAll(
+                eq(StudentStatisticsServiceImpl.COUNTERS_KEY + StudentStatisticsServiceImpl.REBUILD_SUFFIX),
+                countersCaptor.capture()
+        );
+        order.verify(this.redisTemplate).execute(
+                eq(StudentStatisticsServiceImpl.REPLACE_SCRIPT),
+                eq(REPLACED_KEYS)
+        );
+        assertEquals("3", countersCaptor.getValue().get("total"));
+    }
+
+    @Test
+    void shouldNotReplaceCountersWhileAnotherNodeRecountsTest() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<StatisticsGroup> groups = List.of(
+                group(true, "USA", Gender.MALE, today.plusDays(10), 2)
+        );
+
+        // When
+        when(this.studentRepository.countStatisticsGroups())
+                .thenReturn(groups);
+        when(this.redisTemplate.opsForValue())
+                .thenReturn(this.valueOperations);
+        when(this.valueOperations.setIfAbsent(eq(StudentStatisticsServiceImpl.LOCK_KEY), anyString(), any()))
+                .thenReturn(false);
+        StudentStatistics statistics = this.statisticsService.reconcile();
+
+        // Then
+        assertEquals(2, statistics.getTotalStudents());
+        verify(this.redisTemplate, never()).opsForHash();
+        verify(this.redisTemplate, never()).execute(any(RedisScript.class), anyList());
+    }
+
+    @Test
+    void shouldNotFailStartupIfRedisIsDownTest() {
+        // Given
+        // When
+        when(this.redisTemplate.hasKey(StudentStatisticsServiceImpl.COUNTERS_KEY))
+                .thenThrow(new RedisConnectionFailureException("Redis is down"));
+
+        // Then
+        assertDoesNotThrow(() -> this.statisticsService.countIfMissing());
+    }
+
+    @Test
+    void shouldSumExpiringPassportsOverWindowTest() {
+        // Given
+        Map<Object, Object> counters = Map.of(
+                "total", "5",
+                "valid", "3",
+                "country:Hungary", "5",
+                "gender:FEMALE", "5",
+                "gender:MALE", "0"
+        );
+        Object[] expiryCounts = new Object[EXPIRING_WITHIN_DAYS + 1];
+        expiryCounts[0] = "1";
+        expiryCounts[EXPIRING_WITHIN_DAYS] = "2";
+
+        // When
+        when(this.redisTemplate.opsForHash())
+                .thenReturn(this.hashOperations);
+        when(this.hashOperations.entries(StudentStatisticsServiceImpl.COUNTERS_KEY))
+                .thenReturn(counters);
+        when(this.hashOperations.multiGet(eq(StudentStatisticsServiceImpl.EXPIRY_KEY), anyCollection()))
+                .thenReturn(Arrays.asList(expiryCounts));
+        StudentStatistics statistics = this.statisticsService.getStatistics();
+
+        // Then
+        assertEquals(5, statistics.getTotalStudents());
+        assertEquals(2, statistics.getInvalidStudents());
+        assertEquals(Map.of("FEMALE", 5L), statistics.getStudentsByGender());
+        assertEquals(3, statistics.getExpiringPassports());
+        assertEquals(EXPIRING_WITHIN_DAYS, statistics.getExpiringWithinDays());
+    }
+
+    @Test
+    void shouldApplyCounterChangesTest() {
+        // Given
+        LocalDate expiry = LocalDate.of(2030, 5, 1);
+        StudentStatisticsChangedEvent event = new StudentStatisticsChangedEvent()
+                .count(false, "USA", Gender.MALE, expiry, -1)
+                .count(true, "USA", Gender.MALE, expiry, 1);
+
+        // When
+        when(this.redisTemplate.opsForHash())
+                .thenReturn(this.hashOperations);
+        this.statisticsService.onStudentStatisticsChanged(event);
+
+        // Then
+        assertEquals(Map.of("valid", 1L), event.getCounterDeltas());
+        verify(this.hashOperations).increment(StudentStatisticsServiceImpl.COUNTERS_KEY, "valid", 1L);
+    }
+
+    private static StatisticsGroup group(
+            final boolean valid,
+            final String country,
+            final Gender gender,
+            final LocalDate passportDateOfExpiry,
+            final long students
+    ) {
+        return new StatisticsGroup() {
+            @Override
+            public boolean getValid() {
+                return valid;
+            }
+
+            @Override
+            public String getCountry() {
+                return country;
+            }
+
+            @Override
+            public Gender getGender() {
+                return gender;
+            }
+
+            @Override
+            public LocalDate getPassportDateOfExpiry() {
+                return passportDateOfExpiry;
+            }
+
+            @Override
+            public long getStudents() {
+                return students;
+            }
+        };
+    }
+}
@@ -0,0 +1,145 @@
+package com.markvarga21.studentmanager.service.validation.event.impl;
+
+import com.google.gson.Gson;
+import com.markvarga21.studentmanager.dto.ValidationStatusNotification;
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
+import com.markvarga21.studentmanager.repository.StudentAppUserRepository;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ValidationEventServiceImplTest {
+    /**
+     * The maximum number of open streams of a single user.
+     */
+    static final int MAX_SUBSCRIPTIONS_PER_USER = 2;
+
+    /**
+     * The time between two heartbeats, long enough not to run during the tests.
+     */
+    static final long HEARTBEAT_MILLIS = 60_000L;
+
+    /**
+     * The time waited for the events to be sent in milliseconds.
+     */
+    static final long SEND_TIMEOUT_MILLIS = 5_000L;
+
+    /**
+     * The service under testing.
+     */
+    @InjectMocks
+    private ValidationEventServiceImpl validationEventService;
+
+    /**
+     * The template used for publishing the changes.
+     */
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    /**
+     * The container delivering the messages of the channel.
+     */
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    /**
+     * The repository for the student application user.
+     */
+    @Mock
+    private StudentAppUserRepository studentAppUserRepository;
+
+    /**
+     * The JSON mapper of the messages.
+     */
+    @Spy
+    private Gson gson = new Gson();
+
+    @BeforeEach
+    void setUp() {
+        this.validationEventService.setMaxSubscriptionsPerUser(MAX_SUBSCRIPTIONS_PER_USER);
+        this.validationEventService.setTimeoutMillis(1000L);
+        this.validationEventService.setHeartbeatMillis(HEARTBEAT_MILLIS);
+        this.validationEventService.setSenderThreads(1);
+        this.validationEventService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.validationEventService.shutdown();
+    }
+
+    @Test
+    void shouldPublishChangeToOwnersOfPassportTest() {
+        // Given
+        String passportNumber = "HU1234";
+        ValidationStatusChangedEvent event = new ValidationStatusChangedEvent(
+                ValidationStatusType.FACIAL_VALIDATION,
+                passportNumber,
+                true
+        );
+        String expected = this.gson.toJson(new ValidationStatusNotification(
+                "user",
+                ValidationStatusType.FACIAL_VALIDATION,
+                passportNumber,
+                true
+        ));
+
+        // When
+        when(this.studentAppUserRepository.findUsernamesByPassportNumber(passportNumber))
+                .thenReturn(List.of("user"));
+        this.validationEventService.onValidationStatusChanged(event);
+
+        // Then
+        verify(this.redisTemplate).convertAndSend(ValidationEventServiceImpl.CHANNEL, expected);
+    }
+
+    @Test
+    void shouldCloseOldestStreamsOverLimitTest() {
+        // Given
+        int subscriptions = MAX_SUBSCRIPTIONS_PER_USER + 1;
+
+        // When
+        for (int i = 0; i < subscriptions; i++) {
+            this.validationEventService.subscribe("user");
+        }
+        this.validationEventService.subscribe("admin");
+
+        // Then
+        assertEquals(MAX_SUBSCRIPTIONS_PER_USER + 1, this.validationEventService.getSubscriptionCount());
+    }
+
+    @Test
+    void shouldDropClosedStreamOnHeartbeatTest() throws InterruptedException {
+        // Given
+        SseEmitter closed = this.validationEventService.subscribe("user");
+        this.validationEventService.subscribe("user");
+        closed.complete();
+
+        // When
+        this.validationEventService.sendHeartbeats();
+
+        // Then
+        long deadline = System.currentTimeMillis() + SEND_TIMEOUT_MILLIS;
+        while (this.validationEventService.getSubscriptionCount() > 1
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals(1, this.validationEventService.getSubscriptionCount());
+    }
+}
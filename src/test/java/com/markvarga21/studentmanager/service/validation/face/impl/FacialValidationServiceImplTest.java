@@ -1,11 +1,15 @@
 package com.markvarga21.studentmanager.service.validation.face.impl;
 
+import com.markvarga21.studentmanager.dto.ValidationStatusType;
 import com.markvarga21.studentmanager.entity.FacialValidationData;
 import com.markvarga21.studentmanager.exception.FaceValidationDataNotFoundException;
 import com.markvarga21.studentmanager.repository.FacialValidationDataRepository;
+import com.markvarga21.studentmanager.service.validation.event.ValidationStatusChangedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -20,6 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.junit.jupiter.api.Assertions.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -39,6 +44,12 @@ class FacialValidationServiceImplTest {
     @Spy
     private FacialValidationDataRepository repository;
 
+    /**
+     * The publisher of the validation status changes.
+     */
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Test
     void shouldSaveFacialValidationDataIfPresentTest() {
         // Given
@@ -143,6 +154,8 @@ class FacialValidationServiceImplTest {
         FacialValidationData data = INVALID_FACIAL_VALIDATION_DATA;
         String expected = String
                 .format("Facial validation data for passport number '%s' set to valid!", PASSPORT_NUMBER);
+        ArgumentCaptor<ValidationStatusChangedEvent> eventCaptor = ArgumentCaptor
+                .forClass(ValidationStatusChangedEvent.class);
 
         // When
         when(this.repository.getFacialValidationDataByPassportNumber(PASSPORT_NUMBER))
@@ -156,5 +169,9 @@ class FacialValidationServiceImplTest {
         assertEquals(expected, actual);
         assertTrue(data.getIsValid());
         assertEquals(1.0, data.getPercentage());
+        verify(this.eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(ValidationStatusType.FACIAL_VALIDATION, eventCaptor.getValue().getType());
+        assertEquals(PASSPORT_NUMBER, eventCaptor.getValue().getPassportNumber());
+        assertTrue(eventCaptor.getValue().getValid());
     }
 }
\ No newline at end of file
@@ -9,8 +9,10 @@ import com.markvarga21.studentmanager.repository.PassportValidationDataRepositor
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -39,6 +41,12 @@ class PassportValidationServiceImplTest {
     @Spy
     private PassportValidationDataRepository repository;
 
+    /**
+     * The publisher of the validation status changes.
+     */
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @Test
     void shouldFetchAllPassportValidationDataTest() {
         // Given
@@ -0,0 +1,36 @@
+package com.markvarga21.studentmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ContentHasherTest {
+    @Test
+    void shouldHashContentToLowercaseHexTest() {
+        // Given
+        byte[] content = "abc".getBytes(StandardCharsets.UTF_8);
+        String expected = "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad";
+
+        // When
+        String actual = ContentHasher.sha256Hex(content);
+
+        // Then
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldHashDifferentContentDifferentlyTest() {
+        // Given
+        byte[] content = "passport".getBytes(StandardCharsets.UTF_8);
+        byte[] otherContent = "selfie".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        String actual = ContentHasher.sha256Hex(content);
+
+        // Then
+        assertNotEquals(ContentHasher.sha256Hex(otherContent), actual);
+    }
+}
@@ -0,0 +1,81 @@
+package com.markvarga21.studentmanager.util;
+
+import com.markvarga21.studentmanager.exception.InvalidDocumentException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageUploadTest {
+    /**
+     * The side of the generated noise image in pixels,
+     * whose PNG encoding exceeds the size limit.
+     */
+    static final int LARGE_IMAGE_SIDE = 1300;
+
+    @Test
+    void shouldKeepSmallUploadInSingleBufferTest() {
+        // Given
+        byte[] imageBytes = "passportImage".getBytes();
+        MockMultipartFile file = new MockMultipartFile("passport", imageBytes);
+
+        // When
+        ImageUpload upload = ImageUpload.ingest(file);
+
+        // Then
+        assertArrayEquals(imageBytes, upload.getContent());
+        assertEquals(ContentHasher.sha256Hex(imageBytes), upload.getSha256());
+        assertEquals(imageBytes.length, upload.getUploadedSize());
+    }
+
+    @Test
+    void shouldCompressLargeUploadBelowLimitTest() throws IOException {
+        // Given
+        byte[] imageBytes = noisePng(LARGE_IMAGE_SIDE);
+        MockMultipartFile file = new MockMultipartFile("passport", "passport.png", "image/png", imageBytes);
+
+        // When
+        ImageUpload upload = ImageUpload.ingest(file);
+
+        // Then
+        assertTrue(imageBytes.length > ImageCompressor.DEFAULT_SIZE_LIMIT);
+        assertTrue(upload.getContent().length <= ImageCompressor.DEFAULT_SIZE_LIMIT);
+        assertEquals(ContentHasher.sha256Hex(upload.getContent()), upload.getSha256());
+        assertEquals(imageBytes.length, upload.getUploadedSize());
+    }
+
+    @Test
+    void shouldRejectEmptyUploadTest() {
+        // Given
+        MockMultipartFile file = new MockMultipartFile("passport", new byte[0]);
+
+        // When
+        // Then
+        assertThrows(
+                InvalidDocumentException.class,
+                () -> ImageUpload.ingest(file)
+        );
+    }
+
+    private static byte[] noisePng(final int side) throws IOException {
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(side);
+        for (int x = 0; x < side; x++) {
+            for (int y = 0; y < side; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", output);
+        return output.toByteArray();
+    }
+}
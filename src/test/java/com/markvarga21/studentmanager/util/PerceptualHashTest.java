@@ -0,0 +1,74 @@
+package com.markvarga21.studentmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PerceptualHashTest {
+    /**
+     * The side of the generated images in pixels.
+     */
+    static final int SIDE = 400;
+
+    /**
+     * The maximum distance of the hashes of the same picture.
+     */
+    static final int NEAR_DISTANCE = 4;
+
+    @Test
+    void shouldHashRescaledPictureCloselyTest() throws IOException {
+        // Given
+        byte[] original = encode(picture(SIDE, false), "png");
+        byte[] rescaled = encode(picture(SIDE / 2, false), "jpg");
+        byte[] other = encode(picture(SIDE, true), "png");
+
+        // When
+        Long originalHash = PerceptualHash.dHash(original);
+        Long rescaledHash = PerceptualHash.dHash(rescaled);
+        Long otherHash = PerceptualHash.dHash(other);
+
+        // Then
+        assertNotNull(originalHash);
+        assertTrue(PerceptualHash.distance(originalHash, rescaledHash) <= NEAR_DISTANCE);
+        assertTrue(PerceptualHash.distance(originalHash, otherHash) > NEAR_DISTANCE);
+    }
+
+    @Test
+    void shouldNotHashUnsupportedContentTest() {
+        // Given
+        byte[] content = "passportImage".getBytes();
+
+        // When
+        Long hash = PerceptualHash.dHash(content);
+
+        // Then
+        assertNull(hash);
+    }
+
+    private static BufferedImage picture(final int side, final boolean mirrored) {
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int x = 0; x < side; x++) {
+            int brightness = (mirrored ? side - 1 - x : x) * 255 / side;
+            graphics.setColor(new Color(brightness, brightness, brightness));
+            graphics.drawLine(x, 0, x, side);
+        }
+        graphics.dispose();
+        return image;
+    }
+
+    private static byte[] encode(final BufferedImage image, final String format) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, format, output);
+        return output.toByteArray();
+    }
+}